@@ -0,0 +1,336 @@
+// Description: Backward mapping of the raster map from the source to the destination projection
+// Each pixel of the destination tile is converted destination_projection -> sphere -> source_projection
+// and its color is interpolated from the source raster (nearest neighbour, bilinear, bicubic).
+// Pixels are read from and written to the data buffers directly, no objects are created per pixel.
+// The source projection converts (lat, lon) to the pixel coordinates (column, -row) of the map.
+// Not thread safe (compiled projections start from the previous point), one object per thread.
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.algorithms.backwardwarp;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+
+import static java.lang.Math.*;
+
+import detectprojv2j.structures.projection.ProjectionKernel;
+
+import detectprojv2j.types.TInterpolationMethod;
+
+
+public final class BackwardWarp {
+
+        private final int [] src;                                       //Pixels of the source raster (RGB)
+        private final int src_w, src_h;                                 //Size of the source raster
+        private final int src_stride, src_offset;                       //Scanline stride and offset of the first pixel in the data buffer
+        private final ProjectionKernel ikernel;                         //Source projection: (lat, lon) -> (column, -row)
+        private final ProjectionKernel kernel;                          //Destination projection: (X, Y) -> (lat, lon)
+        private final TInterpolationMethod interpolation;               //Interpolation method
+        private final double max_lat;                                   //Maximum latitude of the destination raster
+
+        private final double [] lat = {0}, lon = {0};                   //Geographic coordinates of the processed pixel
+        private final double [] lat_trans = {0}, lon_trans = {0};       //Transformed coordinates, destination projection
+        private final double [] ilat_trans = {0}, ilon_trans = {0};     //Transformed coordinates, source projection
+        private final double [] X = {0}, Y = {0};                       //Coordinates of the processed pixel in the source raster
+        private final double [] wt = new double[4], ws = new double[4]; //Weights of the bicubic interpolation
+
+        private static final int WHITE_THRESHOLD = 13824000;            //White pixels (background) are not drawn: red * green * blue >= threshold
+        private static final int FOOTPRINT_STEP = 16;                   //Step of the interior points of the tile footprint in pixels
+
+
+        public BackwardWarp(final BufferedImage img, final ProjectionKernel ikernel_, final ProjectionKernel kernel_, final TInterpolationMethod interpolation_, final double max_lat_)
+        {
+                ikernel = ikernel_;
+                kernel = kernel_;
+                interpolation = interpolation_;
+                max_lat = max_lat_;
+
+                //Pixels are packed into integers: use the raster directly, otherwise convert it
+                BufferedImage img_rgb = img;
+                if (img.getType() != BufferedImage.TYPE_INT_RGB && img.getType() != BufferedImage.TYPE_INT_ARGB)
+                {
+                        img_rgb = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_RGB);
+                        Graphics2D g = img_rgb.createGraphics();
+                        g.drawImage(img, 0, 0, null);
+                        g.dispose();
+                }
+
+                //Data buffer of the source raster
+                final Raster raster = img_rgb.getRaster();
+                final DataBufferInt buffer = (DataBufferInt) raster.getDataBuffer();
+
+                src = buffer.getData();
+                src_w = img_rgb.getWidth();
+                src_h = img_rgb.getHeight();
+                src_stride = ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride();
+                src_offset = buffer.getOffset() - raster.getSampleModelTranslateY() * src_stride - raster.getSampleModelTranslateX();
+        }
+
+
+        public BufferedImage warpTile(final int i_start, final int j_start, final int tile_size, double [] lat_sw, double [] lon_sw, double [] lat_ne, double [] lon_ne, double [] sx, double [] sy, double [] ratio)
+        {
+                //Warp the source tile [i_start, i_start + tile_size) x [j_start, j_start + tile_size) to the destination projection
+                //Returns the destination raster covering the min-max box of the tile in the destination projection, null if the tile can not be converted
+                final int i_end = min(i_start + tile_size, src_w);
+                final int j_end = min(j_start + tile_size, src_h);
+
+                //Pixel centers of the tile are inside the half-open intervals: adjacent tiles do not overlap
+                final double xs_min = i_start - 0.5, xs_max = i_end - 0.5;
+                final double ys_min = j_start - 0.5, ys_max = j_end - 0.5;
+
+                //Find the min-max box of the tile footprint: [lat_min, lat_max, lon_min, lon_max, x_min, x_max, y_min, y_max]
+                double [] box = {Double.MAX_VALUE, -Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE};
+
+                //Edges of the tile: each pixel
+                for (int k = i_start; k <= i_end; k++)
+                {
+                        addFootprintPoint(k - 0.5, ys_min, box);
+                        addFootprintPoint(k - 0.5, ys_max, box);
+                }
+
+                for (int l = j_start; l <= j_end; l++)
+                {
+                        addFootprintPoint(xs_min, l - 0.5, box);
+                        addFootprintPoint(xs_max, l - 0.5, box);
+                }
+
+                //Interior of the tile: regular grid
+                for (int k = i_start + FOOTPRINT_STEP; k < i_end; k += FOOTPRINT_STEP)
+                {
+                        for (int l = j_start + FOOTPRINT_STEP; l < j_end; l += FOOTPRINT_STEP)
+                                addFootprintPoint(k, l, box);
+                }
+
+                //Compute differences, tile can not be converted
+                final double x_min = box[4], y_min = box[6];
+                final double dx = box[5] - box[4];
+                final double dy = box[7] - box[6];
+
+                if (!(dx > 0) || !(dy > 0))
+                        return null;
+
+                //Ratio: destination raster has approximately the same amount of pixels as the source tile
+                ratio[0] = 0.5 * (dx / (i_end - i_start) + dy / (j_end - j_start));
+
+                //Size of the created raster: width and height
+                final int w = max((int) round(dx / ratio[0]), 2);
+                final int h = max((int) round(dy / ratio[0]), 2);
+
+                //Pixel size in the destination projection
+                final double px = dx / w, py = dy / h;
+
+                //Add raster shifts to the projection shifts
+                sx[0] += - x_min;
+                sy[0] += - y_min;
+
+                //Min-max box of the tile
+                lat_sw[0] = box[0];
+                lat_ne[0] = box[1];
+                lon_sw[0] = box[2];
+                lon_ne[0] = box[3];
+
+                //Create new transparent raster
+                BufferedImage img_proj = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+                final int [] dst = ((DataBufferInt) img_proj.getRaster().getDataBuffer()).getData();
+
+                //Process all pixels of the destination raster
+                for (int v = 0; v < h; v++)
+                {
+                        //Change direction due to the different orientation of Y axis
+                        final double Yd = y_min + dy - (v + 0.5) * py;
+
+                        for (int u = 0; u < w; u++)
+                        {
+                                final double Xd = x_min + (u + 0.5) * px;
+
+                                try
+                                {
+                                        //Convert the pixel to the sphere using the destination projection
+                                        kernel.XYToLatLon(Xd, Yd, lat_trans, lon_trans, lat, lon);
+
+                                        //Skip points with the latitude > max_lat
+                                        if (abs(lat[0]) > max_lat)
+                                                continue;
+
+                                        //Convert the point to the source raster
+                                        ikernel.latLonToXY(lat[0], lon[0], ilat_trans, ilon_trans, X, Y);
+                                }
+
+                                //Point can not be converted
+                                catch (Exception e)
+                                {
+                                        continue;
+                                }
+
+                                //Column and row in the source raster
+                                final double xs = X[0], ys = -Y[0];
+
+                                //Point is outside the tile (or NaN)
+                                if (!(xs >= xs_min && xs < xs_max && ys >= ys_min && ys < ys_max))
+                                        continue;
+
+                                //Interpolate color
+                                final int color = interpolate(xs, ys);
+
+                                //Jump white pixels
+                                final int red = (color >> 16) & 0xFF, green = (color >> 8) & 0xFF, blue = color & 0xFF;
+                                if (red * green * blue < WHITE_THRESHOLD)
+                                        dst[v * w + u] = color;
+                        }
+                }
+
+                return img_proj;
+        }
+
+
+        private void addFootprintPoint(final double xs, final double ys, double [] box)
+        {
+                //Convert the source pixel to the destination projection and update the min-max box
+                try
+                {
+                        //Convert the pixel to the sphere using the source projection
+                        ikernel.XYToLatLon(xs, -ys, ilat_trans, ilon_trans, lat, lon);
+
+                        //Skip points with the latitude > max_lat
+                        if (abs(lat[0]) > max_lat)
+                                return;
+
+                        //Convert the point to the destination projection
+                        kernel.latLonToXY(lat[0], lon[0], lat_trans, lon_trans, X, Y);
+                }
+
+                //Point can not be converted
+                catch (Exception e)
+                {
+                        return;
+                }
+
+                //Skip invalid points
+                if (Double.isNaN(X[0]) || Double.isNaN(Y[0]) || Double.isNaN(lat[0]) || Double.isNaN(lon[0]))
+                        return;
+
+                box[0] = min(box[0], lat[0]);
+                box[1] = max(box[1], lat[0]);
+                box[2] = min(box[2], lon[0]);
+                box[3] = max(box[3], lon[0]);
+                box[4] = min(box[4], X[0]);
+                box[5] = max(box[5], X[0]);
+                box[6] = min(box[6], Y[0]);
+                box[7] = max(box[7], Y[0]);
+        }
+
+
+        private int interpolate(final double xs, final double ys)
+        {
+                //Interpolate color of the source raster at (xs, ys), pixel centers have integer coordinates
+                if (interpolation == TInterpolationMethod.Bicubic)
+                        return interpolateBicubic(xs, ys);
+
+                else if (interpolation == TInterpolationMethod.Bilinear)
+                        return interpolateBilinear(xs, ys);
+
+                //Nearest neighbour
+                return 0xFF000000 | getPixel((int) floor(xs + 0.5), (int) floor(ys + 0.5));
+        }
+
+
+        private int interpolateBilinear(final double xs, final double ys)
+        {
+                //Bilinear interpolation from 2 x 2 pixels
+                final int k = (int) floor(xs), l = (int) floor(ys);
+                final double t = xs - k, s = ys - l;
+
+                final int c00 = getPixel(k, l), c10 = getPixel(k + 1, l);
+                final int c01 = getPixel(k, l + 1), c11 = getPixel(k + 1, l + 1);
+
+                //Weights of pixels
+                final double w00 = (1 - t) * (1 - s), w10 = t * (1 - s);
+                final double w01 = (1 - t) * s, w11 = t * s;
+
+                //Interpolate (r, g, b) components
+                int color = 0xFF000000;
+                for (int shift = 0; shift <= 16; shift += 8)
+                {
+                        final double c = w00 * ((c00 >> shift) & 0xFF) + w10 * ((c10 >> shift) & 0xFF) + w01 * ((c01 >> shift) & 0xFF) + w11 * ((c11 >> shift) & 0xFF);
+                        color |= toComponent(c) << shift;
+                }
+
+                return color;
+        }
+
+
+        private int interpolateBicubic(final double xs, final double ys)
+        {
+                //Bicubic interpolation from 4 x 4 pixels, Catmull-Rom spline
+                final int k = (int) floor(xs), l = (int) floor(ys);
+                final double t = xs - k, s = ys - l;
+
+                //Weights of columns and rows
+                catmullRom(t, wt);
+                catmullRom(s, ws);
+
+                //Interpolate (r, g, b) components
+                double r = 0, g = 0, b = 0;
+                for (int n = 0; n < 4; n++)
+                {
+                        for (int m = 0; m < 4; m++)
+                        {
+                                final int c = getPixel(k - 1 + m, l - 1 + n);
+                                final double wc = wt[m] * ws[n];
+
+                                r += wc * ((c >> 16) & 0xFF);
+                                g += wc * ((c >> 8) & 0xFF);
+                                b += wc * (c & 0xFF);
+                        }
+                }
+
+                return 0xFF000000 | (toComponent(r) << 16) | (toComponent(g) << 8) | toComponent(b);
+        }
+
+
+        private static void catmullRom(final double t, double [] w)
+        {
+                //Weights of the Catmull-Rom spline for 4 neighbouring pixels, t in [0, 1)
+                w[0] = ((-0.5 * t + 1.0) * t - 0.5) * t;
+                w[1] = (1.5 * t - 2.5) * t * t + 1.0;
+                w[2] = ((-1.5 * t + 2.0) * t + 0.5) * t;
+                w[3] = (0.5 * t - 0.5) * t * t;
+        }
+
+
+        private int getPixel(final int k, final int l)
+        {
+                //Get the pixel of the source raster, coordinates are clamped to the raster
+                final int kc = min(max(k, 0), src_w - 1);
+                final int lc = min(max(l, 0), src_h - 1);
+
+                return src[src_offset + lc * src_stride + kc];
+        }
+
+
+        private static int toComponent(final double c)
+        {
+                //Round the interpolated color component to [0, 255]
+                return (int) min(max(c + 0.5, 0.0), 255.0);
+        }
+}
@@ -29,14 +29,30 @@ import java.util.TreeMap;
 import java.util.Collections;
 import java.io.PrintStream;
 import java.util.Map;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CopyOnWriteArrayList;
 import javax.swing.JToggleButton;
 import javax.swing.SwingUtilities;
 
 import detectprojv2j.types.TAnalysisMethod;
 import detectprojv2j.types.TResult;
+import detectprojv2j.types.TScreening;
+import detectprojv2j.types.TWarmStart;
+import detectprojv2j.types.TCancellationToken;
+import detectprojv2j.types.IAnalysisListener;
+import detectprojv2j.types.IResiduals;
+import detectprojv2j.types.IJacobian;
+import detectprojv2j.types.TIslandModel;
 import detectprojv2j.types.TAdaptiveControl;
 import detectprojv2j.types.TMutationStrategy;
 
+import detectprojv2j.io.ResultCache;
+
 import detectprojv2j.structures.point.Point3DCartesian;
 import detectprojv2j.structures.point.Point3DGeographic;
 import detectprojv2j.structures.projection.Projection;
@@ -49,7 +65,10 @@ import detectprojv2j.comparators.SortPointsByLon;
 
 
 import detectprojv2j.algorithms.carttransformation.CartTransformation;
+import detectprojv2j.algorithms.carttransformation.PoleRotation;
 import detectprojv2j.algorithms.geneticalgorithms.DifferentialEvolution;
+import detectprojv2j.algorithms.geneticalgorithms.IslandDifferentialEvolution;
+import detectprojv2j.algorithms.geneticalgorithms.CMAES;
 import detectprojv2j.algorithms.geneticalgorithms.FRM7DE;
 import detectprojv2j.algorithms.geneticalgorithms.FRM8DE;
 import detectprojv2j.algorithms.simplexmethod.FRM7NM;
@@ -73,9 +92,43 @@ public class CartAnalysisMT implements Runnable
         private final PrintStream s;                                            //Reference to print stream        
         private final JToggleButton button;                                     //Reference to button starting the analysis
         private final Runnable f_callback;                                      //Reference to a callback
+        private final int n_threads;                                            //Amount of threads analyzing projections (1 = sequential analysis)
+        private final TScreening screening;                                     //Successive halving screening of projections (null = full analysis of all projections)
+        private final ResultCache cache;                                        //Persistent cache of the results (null = not used)
+        private final TWarmStart warm_start;                                    //Previous results used as initial solutions (null = heuristic initial solutions)
+        private final List <IAnalysisListener> listeners;                       //Listeners receiving results immediately after the fit of each projection
+        private final TCancellationToken token;                                 //Cancellation of the whole analysis, optional time budget of the analysis
+        private final long projection_time_limit;                               //Time budget of one projection in milliseconds (0 = without limit)
+        private TIslandModel island_model;                                      //Island model of the differential evolution (null = one population)
         
         public CartAnalysisMT(final List<Point3DCartesian> test_points_, final List <Point3DGeographic> reference_points_, List <Projection> projections_,
                 TreeMap<Double, TResult> results_, final TAnalysisMethod method_, final boolean analyze_lon0_, final PrintStream s_, final JToggleButton button_, final Runnable f_callback_)
+        {
+                //Sequential analysis
+                this(test_points_, reference_points_, projections_, results_, method_, analyze_lon0_, s_, button_, f_callback_, 1);
+        }
+        
+        
+        public CartAnalysisMT(final List<Point3DCartesian> test_points_, final List <Point3DGeographic> reference_points_, List <Projection> projections_,
+                TreeMap<Double, TResult> results_, final TAnalysisMethod method_, final boolean analyze_lon0_, final PrintStream s_, final JToggleButton button_, final Runnable f_callback_, final int n_threads_)
+        {
+                //Without screening
+                this(test_points_, reference_points_, projections_, results_, method_, analyze_lon0_, s_, button_, f_callback_, n_threads_, null, null, null);
+        }
+
+
+        public CartAnalysisMT(final List<Point3DCartesian> test_points_, final List <Point3DGeographic> reference_points_, List <Projection> projections_,
+                TreeMap<Double, TResult> results_, final TAnalysisMethod method_, final boolean analyze_lon0_, final PrintStream s_, final JToggleButton button_, final Runnable f_callback_, final int n_threads_,
+                final TScreening screening_, final ResultCache cache_, final TWarmStart warm_start_)
+        {
+                //Without time limits, may be cancelled by cancel()
+                this(test_points_, reference_points_, projections_, results_, method_, analyze_lon0_, s_, button_, f_callback_, n_threads_, screening_, cache_, warm_start_, null, 0);
+        }
+
+
+        public CartAnalysisMT(final List<Point3DCartesian> test_points_, final List <Point3DGeographic> reference_points_, List <Projection> projections_,
+                TreeMap<Double, TResult> results_, final TAnalysisMethod method_, final boolean analyze_lon0_, final PrintStream s_, final JToggleButton button_, final Runnable f_callback_, final int n_threads_,
+                final TScreening screening_, final ResultCache cache_, final TWarmStart warm_start_, final TCancellationToken token_, final long projection_time_limit_)
         {
                 test_points = test_points_;
                 reference_points = reference_points_;
@@ -86,6 +139,59 @@ public class CartAnalysisMT implements Runnable
                 s = s_;  
                 f_callback = f_callback_;
                 button = button_;
+                n_threads = max(n_threads_, 1);
+                screening = screening_;
+                cache = cache_;
+                warm_start = warm_start_;
+                listeners = new CopyOnWriteArrayList<>();
+                token = (token_ != null ? token_ : new TCancellationToken());
+                projection_time_limit = max(projection_time_limit_, 0);
+        }
+
+
+        public void cancel()
+        {
+                //Stop the analysis: running optimizations return their best solutions, remaining projections are skipped
+                token.cancel();
+        }
+
+
+        public void setIslandModel(final TIslandModel island_model_)
+        {
+                //Use the island model differential evolution for DEM7 and DEM8, must be set before the analysis starts
+                island_model = island_model_;
+        }
+
+
+        public boolean isCancelled()
+        {
+                //Has the analysis been cancelled or its time budget expired?
+                return token.isCancelled();
+        }
+
+
+        public void addListener(final IAnalysisListener listener)
+        {
+                //Add listener of the results
+                listeners.add(listener);
+        }
+
+
+        public void removeListener(final IAnalysisListener listener)
+        {
+                //Remove listener of the results
+                listeners.remove(listener);
+        }
+
+
+        private void publishResult(final TResult res, final double cost)
+        {
+                //Send result of the projection to all listeners
+                if (res != null)
+                {
+                        for (IAnalysisListener listener : listeners)
+                                listener.onResult(res, cost);
+                }
         }
         
         
@@ -100,7 +206,6 @@ public class CartAnalysisMT implements Runnable
         public void analyzeProjection()
         {
                 //Analyze all projections
-                final int n_points = test_points.size();
                 final int n_proj = projections.size();
                 String button_text = button.getText();
 
@@ -119,198 +224,717 @@ public class CartAnalysisMT implements Runnable
                 final double lonp = (lon_aver > 90 ? lon_aver - 270 : (latp == 90 ? 0 : lon_aver + 90));
                 final double lon0 =  lon_aver;
 
-                //Process all analyzed projections
-                int processed = 1;
-                for (final Projection proj : projections)
+                //Amount of processed projections
+                final AtomicInteger processed = new AtomicInteger(1);
+
+                //Screening: select the most promising projections using the successive halving
+                List <Projection> candidates = projections;
+                final int n_total = getAmountOfAnalyses(n_proj);
+
+                TreeMap<Double, TResult> results_screen = new TreeMap<>();
+
+                if (screening != null)
+                        candidates = screenProjections(latp, lonp, lat1, lat2, lon0, processed, n_total, results_screen);
+
+                //Analysis cancelled during the screening: report the results of the last finished screening round
+                if (screening != null && token.isCancelled())
+                {
+                        results.putAll(results_screen);
+
+                        for (Map.Entry<Double, TResult> r : results_screen.entrySet())
+                                publishResult(r.getValue(), r.getKey());
+                }
+
+                //Analyze projections with the full iteration budget
+                else
+                {
+                        final int n_cand = candidates.size();
+                        TResult [] res = new TResult[n_cand];
+                        double [] costs = new double[n_cand];
+                        analyzeProjections(candidates, test_points, reference_points, 1.0, false, true, latp, lonp, lat1, lat2, lon0, processed, n_total, res, costs);
+
+                        //Add results to the list of results in the order of projections: the same list as for the sequential analysis
+                        for (int i = 0; i < n_cand; i++)
+                        {
+                                if (res[i] != null)
+                                        results.put(costs[i], res[i]);
+                        }
+                }
+                
+                //Set the old text caption
+                button.setText(button_text);
+                
+                //Process the callback
+                SwingUtilities.invokeLater(f_callback);
+        }
+        
+        
+        private int getAmountOfAnalyses(final int n_proj)
+        {
+                //Get amount of analyses of all projections in all screening rounds
+                if (screening == null)
+                        return n_proj;
+
+                int n_total = 0, n = n_proj;
+                for (int i = 0; i < screening.rounds; i++)
+                {
+                        n_total += n;
+                        n = getAmountOfKept(n);
+                }
+
+                return n_total;
+        }
+
+
+        private int getAmountOfKept(final int n)
+        {
+                //Amount of projections kept for the next screening round
+                return min(n, max(screening.min_keep, (int) ceil(n * screening.keep_ratio)));
+        }
+
+
+        private List <Projection> screenProjections(final double latp, final double lonp, final double lat1, final double lat2, final double lon0, final AtomicInteger processed, final int n_total,
+                TreeMap<Double, TResult> results_screen)
+        {
+                //Successive halving: fit projections with the increasing iteration budget, keep the best fraction after each round
+                //The first round may use a subset of control points, projections are analyzed as copies (original parameters are preserved)
+                //results_screen = results of the last finished round (partial results, if the analysis is cancelled)
+                List <Point3DCartesian> test_points_screen = test_points;
+                List <Point3DGeographic> reference_points_screen = reference_points;
+
+                //Create evenly distributed subset of control points
+                final int n_points = test_points.size();
+                if ((screening.n_points > 0) && (screening.n_points < n_points))
+                {
+                        test_points_screen = new ArrayList<>();
+                        reference_points_screen = new ArrayList<>();
+
+                        for (int i = 0; i < screening.n_points; i++)
+                        {
+                                final int index = (int)((long) i * n_points / screening.n_points);
+                                test_points_screen.add(test_points.get(index));
+                                reference_points_screen.add(reference_points.get(index));
+                        }
+                }
+
+                //Process all rounds except the final one
+                List <Projection> candidates = projections;
+                double budget = screening.budget_ratio;
+
+                for (int i = 0; i < screening.rounds - 1; i++)
+                {
+                        //Analyze copies of the projections
+                        final int n_cand = candidates.size();
+                        TResult [] res = new TResult[n_cand];
+                        double [] costs = new double[n_cand];
+                        analyzeProjections(candidates, (i == 0 ? test_points_screen : test_points), (i == 0 ? reference_points_screen : reference_points),
+                                min(budget, 1.0), true, false, latp, lonp, lat1, lat2, lon0, processed, n_total, res, costs);
+
+                        //Sort candidates according to the cost, failed analyses are the last
+                        Integer [] indices = new Integer[n_cand];
+                        for (int j = 0; j < n_cand; j++)
+                        {
+                                indices[j] = j;
+                                if (res[j] == null || Double.isNaN(costs[j]))
+                                        costs[j] = MAX_FLOAT;
+                        }
+
+                        Arrays.sort(indices, (j1, j2) -> Double.compare(costs[j1], costs[j2]));
+
+                        //Store results of the round, cancelled round: replace only results of the analyzed projections
+                        final boolean cancelled = token.isCancelled();
+                        if (!cancelled)
+                                results_screen.clear();
+
+                        for (int j = 0; j < n_cand; j++)
+                        {
+                                if (res[j] != null && costs[j] != MAX_FLOAT)
+                                {
+                                        final String id = res[j].proj.getID();
+                                        results_screen.values().removeIf(r -> r.proj.getID().equals(id));
+                                        results_screen.put(costs[j], res[j]);
+                                }
+                        }
+
+                        //Cancelled: skip the remaining rounds
+                        if (cancelled)
+                                break;
+
+                        //Keep the best projections
+                        final int n_kept = getAmountOfKept(n_cand);
+                        List <Projection> kept = new ArrayList<>();
+                        for (int j = 0; j < n_kept; j++)
+                                kept.add(candidates.get(indices[j]));
+
+                        candidates = kept;
+
+                        //Increase the budget
+                        budget /= screening.keep_ratio;
+                }
+
+                return candidates;
+        }
+
+
+        private void analyzeProjections(final List <Projection> projs, final List<Point3DCartesian> test_pts, final List <Point3DGeographic> reference_pts, final double budget, final boolean copy,
+                final boolean publish, final double latp, final double lonp, final double lat1, final double lat2, final double lon0, final AtomicInteger processed, final int n_total, TResult [] res, double [] costs)
+        {
+                //Analyze the list of projections sequentially or in parallel, res and costs are stored in the order of projections
+                //budget = fraction of the full iteration budget, copy = analyze copies of the projections, publish = send results to the listeners
+                final int n_proj = projs.size();
+
+                //Differential evolution, CMA-ES or hybrid method, less projections than threads: analyze projections sequentially, evaluate the population in parallel
+                final boolean parallel_de = (method == TAnalysisMethod.DEM7 || method == TAnalysisMethod.DEM8 || method == TAnalysisMethod.CMAESM7 || method == TAnalysisMethod.CMAESM8 || isHybrid()) && (n_proj < n_threads);
+                final int n_threads_de = (parallel_de ? n_threads : 1);
+
+                //Sequential analysis: process all analyzed projections
+                if (n_threads == 1 || parallel_de)
+                {
+                        //Pool shared by the population evaluation, islands or local optimizations (hybrid method) of all analyzed projections
+                        ExecutorService pool_de = (parallel_de ? Executors.newFixedThreadPool(n_threads) : null);
+
+                        for (int i = 0; i < n_proj; i++)
+                        {
+                                //Set label of the run button
+                                updateStatus(processed.incrementAndGet(), n_total);
+
+                                //Analyze projection and add result to the list of results
+                                double [] min_cost = {0};
+                                res[i] = analyzeProjection((copy ? projs.get(i).clone() : projs.get(i)), test_pts, reference_pts, budget, latp, lonp, lat1, lat2, lon0, n_threads_de, pool_de, min_cost);
+                                costs[i] = min_cost[0];
+
+                                //Send result to the listeners
+                                if (publish)
+                                        publishResult(res[i], costs[i]);
+                        }
+
+                        if (pool_de != null)
+                                pool_de.shutdownNow();
+                }
+                
+                //Parallel analysis: distribute projections among the threads of the pool
+                else
+                {
+                        ExecutorService pool = Executors.newFixedThreadPool(n_threads);
+                        List <Future<TResult>> tasks = new ArrayList<>();
+                        List <double []> min_costs = new ArrayList<>();
+                        
+                        try
+                        {
+                                //Each task analyzes its own copy of the projection
+                                for (final Projection proj : projs)
+                                {
+                                        final Projection proj_copy = proj.clone();
+                                        final double [] min_cost = {0};
+                                        
+                                        tasks.add(pool.submit(() -> 
+                                        {
+                                                TResult r = analyzeProjection(proj_copy, test_pts, reference_pts, budget, latp, lonp, lat1, lat2, lon0, 1, null, min_cost);
+
+                                                //Send result to the listeners
+                                                if (publish)
+                                                        publishResult(r, min_cost[0]);
+                                                
+                                                //Set label of the run button
+                                                updateStatus(processed.incrementAndGet(), n_total);
+                                                
+                                                return r;
+                                        }));
+                                        
+                                        min_costs.add(min_cost);
+                                }
+                                
+                                //Collect results in the order of projections, the failed projection is skipped as in the sequential analysis
+                                for (int i = 0; i < n_proj; i++)
+                                {
+                                        try
+                                        {
+                                                res[i] = tasks.get(i).get();
+                                                costs[i] = min_costs.get(i)[0];
+                                        }
+
+                                        catch (ExecutionException e)
+                                        {
+                                                e.getCause().printStackTrace();
+                                                res[i] = null;
+                                        }
+                                }
+                        }
+                        
+                        //Waiting thread interrupted: results of the finished projections are kept
+                        catch (InterruptedException e)
+                        {
+                                Thread.currentThread().interrupt();
+                        }
+                        
+                        finally
+                        {
+                                pool.shutdownNow();
+                        }
+                }
+        }
+
+
+        private void updateStatus(final int processed, final int n_proj)
+        {
+                //Set label of the run button
+                int status = (int)((1.0 * processed) / n_proj *100);
+                if (status %2 == 0)
+                        button.setText("Analyzing map" + " (" + String.valueOf(status) + "%)");
+        }
+        
+        
+        private TResult analyzeProjection(final Projection proj, final List<Point3DCartesian> test_points, final List <Point3DGeographic> reference_points, final double budget,
+                final double latp, final double lonp, final double lat1, final double lat2, final double lon0, final int n_threads_de, final ExecutorService pool_de, double [] cost)
+        {
+                //Analyze one projection: determine its parameters and return the result, cost = value of the objective function
+                //budget = fraction of the full iteration budget (screening), n_threads_de = amount of threads evaluating the population of the differential evolution
+                //pool_de = pool evaluating the population, evolving the islands or refining the best individuals of the hybrid method, shared by all projections (null = sequential processing)
+                //Cancelled analysis: the projection is skipped, expired time budget: the best solution found so far is returned
+                if (token.isCancelled())
+                        return null;
+
+                final int n_points = test_points.size();
+
+                //Previous parameters of the projection (warm start), lazy refit: evaluate the residuals at the previous parameters only
+                final double [] params_prev = (warm_start != null ? warm_start.getParameters(proj.getID()) : null);
+                final boolean refit = (params_prev == null || warm_start.isRefit(proj.getID()));
+
+                //Result computed from the heuristic initial solution with the full budget has already been cached
+                final String cache_key = (cache != null && budget >= 1.0 && params_prev == null ? ResultCache.getKey(test_points, reference_points, proj.getID(), method, analyze_lon0, proj.getLonDir(), getSolverConfig()) : null);
+
+                if (cache_key != null)
+                {
+                        TResult res = cache.get(cache_key, proj, cost);
+
+                        if (res != null)
+                                return res;
+                }
+                
+                //Set parameters of the projection: previous or heuristic initial solution
+                if (params_prev != null)
                 {
-                        //Set label of the run button
-                        int status = (int)((1.0 * (++processed)) / n_proj *100);
-                        if (status %2 == 0)
-                                button.setText("Analyzing map" + " (" + String.valueOf(status) + "%)");
+                        proj.setCartPole(new Point3DGeographic (params_prev[0], params_prev[1], 0));
+                        proj.setLat1(params_prev[2]);
+                        proj.setLat2(params_prev[3]);
+                        proj.setLon0(params_prev[4]);
+                        proj.setC(params_prev[5]);
+                }
 
-                        //Set parameters of the projection
+                else
+                {
                         proj.setCartPole(new Point3DGeographic (latp, lonp,0));
                         proj.setLat1(lat1);
                         proj.setLat2(lat2);
                         proj.setLon0(lon0);
                         proj.setC(1.0);
+                }
                         
-                        //Print analyzed projection name
-                        try
+                try
+                {
+                        //Get initial scale
+                        List <Point3DCartesian> reference_points_projected = new ArrayList<>();
+
+                        //Apply projection proj(Q.P'): convert geographic points to the cartesian 
+                        final PoleRotation pole = new PoleRotation(proj.getCartPole(), proj.getLonDir());
+                        double [] lat_trans = {0.0}, lon_trans = {0.0};
+                        
+                        for (final Point3DGeographic p : reference_points)
                         {
-                                //Get initial scale
-                                List <Point3DCartesian> reference_points_projected = new ArrayList<>();
+                                //(lat, lon) . (lat_trans, lon_trans)
+                                pole.latLonToLatLonTrans(p.getLat(), p.getLon(), lat_trans, lon_trans);
 
-                                //Apply projection proj(Q.P'): convert geographic points to the cartesian 
-                                for (final Point3DGeographic p : reference_points)
-                                {
-                                        //(lat, lon) . (lat_trans, lon_trans)
-                                        final double lat_trans = CartTransformation.latToLatTrans(p.getLat(), p.getLon(), proj.getCartPole().getLat(), proj.getCartPole().getLon());
-                                        final double lon_trans = CartTransformation.lonToLonTrans(p.getLat(), p.getLon(), proj.getCartPole().getLat(), proj.getCartPole().getLon(), proj.getLonDir());
+                                //Reduce longitude
+                                final double lon_transr = CartTransformation.redLon0(lon_trans[0], proj.getLon0());
+                                
+                                //(lat_trans, lon_trans) . (X, Y)
+                                final double XR = proj.getX(lat_trans[0], lon_transr);
+                                final double YR = proj.getY(lat_trans[0], lon_transr);
 
-                                        //Reduce longitude
-                                        final double lon_transr = CartTransformation.redLon0(lon_trans, proj.getLon0());
-                                        
-                                        //(lat_trans, lon_trans) . (X, Y)
-                                        final double XR = proj.getX(lat_trans, lon_transr);
-                                        final double YR = proj.getY(lat_trans, lon_transr);
+                                //Add point to the list
+                                reference_points_projected.add(new Point3DCartesian (XR, YR, 0));
+                        }
 
-                                        //Add point to the list
-                                        reference_points_projected.add(new Point3DCartesian (XR, YR, 0));
-                                }
+                        //Compute 2D Helmert transformation between P, P'                                
+                        List <Double>  weights = new ArrayList <> (Collections.nCopies(test_points.size(), 1.0));
+                        HelmertTransformation2D  key = new HelmertTransformation2D();
+                        key.getTransformKey(test_points, reference_points_projected, weights);
+                        double [] R_0 = {sqrt(key.getC1() * key.getC1() + key.getC2() * key.getC2()) * proj.getR()};
 
-                                //Compute 2D Helmert transformation between P, P'                                
-                                List <Double>  weights = new ArrayList <> (Collections.nCopies(test_points.size(), 1.0));
-                                HelmertTransformation2D  key = new HelmertTransformation2D();
-                                key.getTransformKey(test_points, reference_points_projected, weights);
-                                double [] R_0 = {sqrt(key.getC1() * key.getC1() + key.getC2() * key.getC2()) * proj.getR()};
-
-                                //Remember old radius
-                                final double R = proj.getR();
-
-                                //Set new radius
-                                proj.setR(R_0[0]);
-
-                                //Get initial matrices: X, A, B
-                                int  m = (method.ordinal() < 3 ? 7 : 6);
-                                Matrix  X = (method.ordinal() < 3 ? X0M7 (m, proj, method) : X0M8 (m, proj, method));
-                                Matrix  A = (method.ordinal() < 3 ? AM7 (m, proj, R_0[0]) : AM8 (m, proj));
-                                Matrix  B = (method.ordinal() < 3 ? BM7 (m, proj, R_0[0]) : BM8 (m, proj));
-
-                                //Transpose matrices (Differential evolution, Nelder-Mead)
-                                Matrix XT = X.trans();
-                                Matrix AT = A.trans();
-                                Matrix BT = B.trans();
-                                Matrix  XAVER = new Matrix(XT.rows(), XT.cols());
-                                XAVER.copy(XT);
-
-                                //Initialization
-                                boolean add_x0 = true;
-                                int population = 2 * m * A.rows(), max_iter_nls = 80, max_gen = 100, max_iter_nm = 700;
-                                final double alpha = 0.0001, nu = 0.0001, max_error = 1.0e-10, max_diff = 1.0e-12, eps = 1.0e-10, CR [] = {0.8};
-                                double min_cost = MAX_FLOAT;
-                                double res_aver[] = {0}, res_max [] = {0};
-                                
-                                int [] iterations = {0};
-                                double [] q1 = {key.getC1()};
-                                double [] q2 = {key.getC2()};
-                                double [] dx = {0};
-                                double [] dy = {0};
-                                
-                                Matrix W = new Matrix(2 * n_points, 2 * n_points, 0.0, 1);
-                                Matrix Y = new Matrix(2 * n_points, 1);
-                                Matrix V = new Matrix(2 * n_points, 1);
-                                Matrix F = new Matrix(1, 1); 
-                                F.items[0][0] = 0.5;
+                        //Remember old radius
+                        final double R = proj.getR();
+
+                        //Set new radius
+                        proj.setR(R_0[0]);
+
+                        //Get initial matrices: X, A, B
+                        int  m = (isM7() ? 7 : 6);
+                        //Warm start of M7: previous radius, the lazy refit cost corresponds to the previous fit
+                        Matrix  X = (isM7() ? X0M7 (m, proj, (params_prev != null ? params_prev[6] : R_0[0]), params_prev != null) : X0M8 (m, proj, params_prev != null));
+                        Matrix  A = (isM7() ? AM7 (m, proj, R_0[0]) : AM8 (m, proj));
+                        Matrix  B = (isM7() ? BM7 (m, proj, R_0[0]) : BM8 (m, proj));
+
+                        //Transpose matrices (Differential evolution, Nelder-Mead)
+                        Matrix XT = X.trans();
+                        Matrix AT = A.trans();
+                        Matrix BT = B.trans();
+                        Matrix  XAVER = new Matrix(XT.rows(), XT.cols());
+                        XAVER.copy(XT);
+
+                        //Initialization
+                        boolean add_x0 = true;
+                        int population = 2 * m * A.rows(), max_iter_nls = max((int)(80 * budget), 1), max_gen = max((int)(100 * budget), 1), max_iter_nm = max((int)(700 * budget), 1);
+                        final double alpha = 0.0001, nu = 0.0001, max_error = 1.0e-10, max_diff = 1.0e-12, eps = 1.0e-10, CR [] = {0.8};
+
+                        //CMA-ES: population size, initial step size relative to the search space, amount of generations
+                        final int population_es = 2 * (4 + (int)(3 * log(m))), max_gen_es = max((int)(500 * budget), 1);
+                        final double sigma_es = 0.3;
+
+                        //Hybrid method: short differential evolution stopped by the stagnation, amount of the best individuals refined by BFGSH
+                        final int population_hyb = max(population / 2, m + 1), max_gen_hyb = max((int)(30 * budget), 1), max_stag_hyb = 5, n_best_hyb = 4;
+
+                        double min_cost = MAX_FLOAT;
+                        double res_aver[] = {0}, res_max [] = {0};
+                        
+                        int [] iterations = {0};
+                        double [] q1 = {key.getC1()};
+                        double [] q2 = {key.getC2()};
+                        double [] dx = {0};
+                        double [] dy = {0};
+                        
+                        Matrix W = new Matrix(2 * n_points, 1, 1.0);                   //Diagonal weight matrix stored as a vector
+                        Matrix Y = new Matrix(2 * n_points, 1);
+                        Matrix V = new Matrix(2 * n_points, 1);
+                        Matrix F = new Matrix(1, 1); 
+                        F.items[0][0] = 0.5;
+
+                        //Time budget of the projection, cancelled together with the analysis
+                        final TCancellationToken proj_token = token.createChild(projection_time_limit);
+                        
+                        //Create objects for residual computations
+                        FRM8 frm8 = null;
+                        FRM7 frm7 = null;
+
+                        if (isM7())
+                                frm7 = new FRM7(test_points, reference_points, proj.getXYBatch(), proj.getLonDir(), dx, dy);         
+                        else
+                                frm8 = new FRM8(test_points, reference_points, proj.getXYBatch(), proj.getLonDir(), R_0, q1, q2, dx, dy);
+                        
+                        //Lazy refit: evaluate the residuals at the previous parameters
+                        if (!refit)
+                        {
+                                if (isM7())
+                                        frm7.function(X, Y, V, W);
+                                else
+                                        frm8.function(X, Y, V, W);
+
+                                min_cost = V.sum2(W);
+                        }
+
+                        //Method M7, Non-linear least squares
+                        else if (method == TAnalysisMethod.NLSM7)
+                        {
+                                FJM7 fjm7 = new FJM7(test_points, reference_points, proj.getX(), proj.getY(), proj.getXDer(), proj.getYDer(), proj.getXDual(), proj.getYDual(), proj.getLonDir());
+                                min_cost = NonLinearLeastSquares.BFGSH(fjm7::function, frm7::function, W, X, Y, V, A, B, iterations, alpha, nu, max_error, max_iter_nls, max_diff, proj_token);
+                        }
+
+                        // Method M8, Non-linear least squares
+                        else if (method == TAnalysisMethod.NLSM8)
+                        {
+                                FJM8 fjm8 = new FJM8(test_points, reference_points, proj.getX(), proj.getY(), proj.getXDer(), proj.getYDer(), proj.getXDual(), proj.getYDual(), proj.getLonDir(), R_0, q1, q2);
+                                min_cost = NonLinearLeastSquares.BFGSH( fjm8::function, frm8::function, W, X, Y, V, A, B, iterations, alpha, nu, max_error, max_iter_nls, max_diff, proj_token);
+                        }
+
+                        //Method M7, Levenberg-Marquardt, Jacobian reused after rejected steps
+                        else if (method == TAnalysisMethod.LMM7)
+                        {
+                                FJM7 fjm7 = new FJM7(test_points, reference_points, proj.getX(), proj.getY(), proj.getXDer(), proj.getYDer(), proj.getXDual(), proj.getYDual(), proj.getLonDir());
+                                min_cost = NonLinearLeastSquares.LM(fjm7::function, frm7::function, W, X, Y, V, A, B, iterations, max_error, max_iter_nls, true, proj_token);
+                        }
+
+                        //Method M8, Levenberg-Marquardt, Jacobian reused after rejected steps
+                        else if (method == TAnalysisMethod.LMM8)
+                        {
+                                FJM8 fjm8 = new FJM8(test_points, reference_points, proj.getX(), proj.getY(), proj.getXDer(), proj.getYDer(), proj.getXDual(), proj.getYDual(), proj.getLonDir(), R_0, q1, q2);
+                                min_cost = NonLinearLeastSquares.LM(fjm8::function, frm8::function, W, X, Y, V, A, B, iterations, max_error, max_iter_nls, true, proj_token);
+                        }
+
+                        // Method M7, Differential evolution
+                        else if (method == TAnalysisMethod.DEM7)
+                        {
+                                //Create objects for residual compuation, one per thread or island
+                                IResiduals [] frm7de = new IResiduals[island_model != null ? island_model.n_islands : n_threads_de];
+                                frm7de[0] = new FRM7DE(frm7)::function;
+                                for (int i = 1; i < frm7de.length; i++)
+                                        frm7de[i] = new FRM7DE(new FRM7(test_points, reference_points, proj.getXYBatch(), proj.getLonDir(), new double[1], new double[1]))::function;
+
+                                //Island model: the population is divided among the islands
+                                if (island_model != null)
+                                        min_cost = IslandDifferentialEvolution.diffEvolution(frm7de, island_model, max(population / island_model.n_islands, m + 1), eps, max_gen, F.items[0][0], CR[0], W, XT, Y, V, AT, BT, iterations, add_x0, pool_de, proj_token, proj.getID().hashCode());
+                                else
+                                        min_cost = DifferentialEvolution.diffEvolution(frm7de, population, eps, max_gen, F, CR, TMutationStrategy.DERand1Strategy, TAdaptiveControl.MFDE, W, XT, Y, V, AT, BT, XAVER, res_aver, res_max, iterations, add_x0, s, pool_de, proj_token, proj.getID().hashCode());
                                 
-                                //Create objects for residual computations
-                                FRM8 frm8 = null;
-                                FRM7 frm7 = null;
+                                X = XT.trans();
+                        }
+
+                        // Method M8, Differential evolution
+                        else if (method == TAnalysisMethod.DEM8)
+                        {
+                                //Create objects for residual compuation, one per thread or island (own radius and Helmert coefficients)
+                                IResiduals [] frm8de = new IResiduals[island_model != null ? island_model.n_islands : n_threads_de];
+                                frm8de[0] = new FRM8DE(frm8)::function;
+                                for (int i = 1; i < frm8de.length; i++)
+                                        frm8de[i] = new FRM8DE(new FRM8(test_points, reference_points, proj.getXYBatch(), proj.getLonDir(), new double[] {R_0[0]}, new double[] {q1[0]}, new double[] {q2[0]}, new double[1], new double[1]))::function;
 
-                                if (method.ordinal() < 3)
-                                        frm7 = new FRM7(test_points, reference_points, proj.getX(), proj.getY(), proj.getLonDir(), dx, dy);         
+                                //Island model: the population is divided among the islands
+                                if (island_model != null)
+                                        min_cost = IslandDifferentialEvolution.diffEvolution(frm8de, island_model, max(population / island_model.n_islands, m + 1), eps, max_gen, F.items[0][0], CR[0], W, XT, Y, V, AT, BT, iterations, add_x0, pool_de, proj_token, proj.getID().hashCode());
                                 else
-                                        frm8 = new FRM8(test_points, reference_points, proj.getX(), proj.getY(), proj.getLonDir(), R_0, q1, q2, dx, dy);
+                                        min_cost = DifferentialEvolution.diffEvolution(frm8de, population, eps, max_gen, F, CR, TMutationStrategy.DERand1Strategy, TAdaptiveControl.MFDE, W, XT, Y, V, AT, BT, XAVER, res_aver, res_max, iterations, add_x0, s, pool_de, proj_token, proj.getID().hashCode());
                                 
-                                //Method M7, Non-linear least squares
-                                if (method == TAnalysisMethod.NLSM7)
-                                {
-                                        FJM7 fjm7 = new FJM7(test_points, reference_points, proj.getX(), proj.getY(), proj.getLonDir());
-                                        min_cost = NonLinearLeastSquares.BFGSH(fjm7::function, frm7::function, W, X, Y, V, A, B, iterations, alpha, nu, max_error, max_iter_nls, max_diff);
-                                }
+                                X = XT.trans();
+                        }
 
-                                // Method M8, Non-linear least squares
-                                else if (method == TAnalysisMethod.NLSM8)
-                                {
-                                        FJM8 fjm8 = new FJM8(test_points, reference_points, proj.getX(), proj.getY(), proj.getLonDir(), R_0, q1, q2);
-                                        min_cost = NonLinearLeastSquares.BFGSH( fjm8::function, frm8::function, W, X, Y, V, A, B, iterations, alpha, nu, max_error, max_iter_nls, max_diff);
-                                }
+                        // Method M7, CMA-ES
+                        else if (method == TAnalysisMethod.CMAESM7)
+                        {
+                                //Create objects for residual compuation, one per thread
+                                IResiduals [] frm7es = new IResiduals[n_threads_de];
+                                frm7es[0] = new FRM7DE(frm7)::function;
+                                for (int i = 1; i < frm7es.length; i++)
+                                        frm7es[i] = new FRM7DE(new FRM7(test_points, reference_points, proj.getXYBatch(), proj.getLonDir(), new double[1], new double[1]))::function;
 
-                                // Method M7, Differential evolution
-                                else if (method == TAnalysisMethod.DEM7)
-                                {
-                                        //Create object for residual compuation
-                                        FRM7DE frm7de = new FRM7DE(frm7);
-                                        min_cost = DifferentialEvolution.diffEvolution(frm7de::function, population, eps, max_gen, F, CR, TMutationStrategy.DERand1Strategy, TAdaptiveControl.MFDE, W, XT, Y, V, AT, BT, XAVER, res_aver, res_max, iterations, add_x0, s);
-                                        
-                                        X = XT.trans();
-                                }
+                                min_cost = CMAES.cmaes(frm7es, population_es, sigma_es, eps, max_gen_es, W, XT, Y, V, AT, BT, iterations, add_x0, pool_de, proj_token, proj.getID().hashCode());
+                                X = XT.trans();
+                        }
 
-                                // Method M8, Differential evolution
-                                else if (method == TAnalysisMethod.DEM8)
-                                {
-                                        //Create object for residual compuation
-                                        FRM8DE frm8de = new FRM8DE(frm8);
-                                        min_cost = DifferentialEvolution.diffEvolution(frm8de::function, population, eps, max_gen, F, CR, TMutationStrategy.DERand1Strategy, TAdaptiveControl.MFDE, W, XT, Y, V, AT, BT, XAVER, res_aver, res_max, iterations, add_x0, s);
-                                        
-                                        X = XT.trans();
-                                }
+                        // Method M8, CMA-ES
+                        else if (method == TAnalysisMethod.CMAESM8)
+                        {
+                                //Create objects for residual compuation, one per thread (own radius and Helmert coefficients)
+                                IResiduals [] frm8es = new IResiduals[n_threads_de];
+                                frm8es[0] = new FRM8DE(frm8)::function;
+                                for (int i = 1; i < frm8es.length; i++)
+                                        frm8es[i] = new FRM8DE(new FRM8(test_points, reference_points, proj.getXYBatch(), proj.getLonDir(), new double[] {R_0[0]}, new double[] {q1[0]}, new double[] {q2[0]}, new double[1], new double[1]))::function;
 
-                                // Method M7, Nelder-Mead optimization
-                                else if (method == TAnalysisMethod.NMM7)
-                                {
-                                        //Create object for residual compuation
-                                        FRM7NM frm7nm = new FRM7NM(frm7);
-                                     
-                                        min_cost = SimplexMethod.NelderMead(frm7nm::function, W, XT, Y, V, AT, BT, iterations, eps, max_iter_nm, add_x0, System.out);
-                                        X = XT.trans();
-                                }
+                                min_cost = CMAES.cmaes(frm8es, population_es, sigma_es, eps, max_gen_es, W, XT, Y, V, AT, BT, iterations, add_x0, pool_de, proj_token, proj.getID().hashCode());
+                                X = XT.trans();
+                        }
 
-                                // Method M8, Nelder-Mead optimization
-                                else if (method == TAnalysisMethod.NMM8)
+                        // Method M7 or M8, Hybrid method: differential evolution + BFGSH
+                        else if (isHybrid())
+                        {
+                                //Create objects for residual compuation, one per thread
+                                IResiduals [] frmde = new IResiduals[n_threads_de];
+                                for (int i = 0; i < frmde.length; i++)
                                 {
-                                        //Create object for residual compuation
-                                        FRM8NM frm8nm = new FRM8NM(frm8);
-                                        
-                                        min_cost = SimplexMethod.NelderMead(frm8nm::function, W, XT, Y, V, AT, BT, iterations, eps, max_iter_nm, add_x0, System.out);
-                                        X = XT.trans();
+                                        if (isM7())
+                                                frmde[i] = new FRM7DE(i == 0 ? frm7 : new FRM7(test_points, reference_points, proj.getXYBatch(), proj.getLonDir(), new double[1], new double[1]))::function;
+                                        else
+                                                frmde[i] = new FRM8DE(i == 0 ? frm8 : new FRM8(test_points, reference_points, proj.getXYBatch(), proj.getLonDir(), new double[] {R_0[0]}, new double[] {q1[0]}, new double[] {q2[0]}, new double[1], new double[1]))::function;
                                 }
 
-                                //Set the determined parameters to the projections
-                                if (method.ordinal() < 3) proj.setR(X.items[0][0]); else proj.setR(R_0[0]);
-                                if (method.ordinal() < 3) proj.setCartPole(new Point3DGeographic (X.items[1][0], X.items[2][0], 0)); 
-                                        else proj.setCartPole(new Point3DGeographic (X.items[0][0], X.items[1][0], 0));
-                                if (method.ordinal() < 3) proj.setLat1(X.items[3][0]); else proj.setLat1(X.items[2][0]);
-                                if (method.ordinal() < 3) proj.setLat2(X.items[4][0]); else proj.setLat2(X.items[3][0]);
-                                if (method.ordinal() < 3) proj.setLon0(X.items[5][0]); else proj.setLon0(X.items[4][0]);
-                                if (method.ordinal() < 3) proj.setC(X.items[6][0]); else proj.setC(X.items[5][0]);
-                                proj.setDx(dx[0]);
-                                proj.setDy(dy[0]);
+                                //Short global search, get the best individuals of the population
+                                Matrix P_best = new Matrix(n_best_hyb, m);
+                                DifferentialEvolution.diffEvolution(frmde, population_hyb, eps, max_gen_hyb, F, CR, TMutationStrategy.DERand1Strategy, TAdaptiveControl.MFDE, W, XT, Y, V, AT, BT, XAVER, res_aver, res_max, iterations, add_x0, s, pool_de, proj_token, proj.getID().hashCode(), max_stag_hyb, P_best);
+
+                                //The initial solution is always refined: the result is not worse than the local optimization
+                                P_best.row(X.trans(), n_best_hyb - 1);
                                 
-                                //Set the determined  parameters to the map
-                                final double map_scale = R / (proj.getR()) * 1000 ;
-                                //System.out.println("R:" + R + " RR: " + proj.getR() + " S: " + map_scale);
-                                final double rotation = (method.ordinal() < 3 ? 0 : atan2(q2[0], q1[0]) * 180.0 / PI);
-
-                                //Add result to the list of results
-                                TResult  res = new TResult (proj, map_scale, rotation, q1[0], q2[0], iterations[0]);
-                                results.put(min_cost, res);        
+                                //Local optimization of the best individuals
+                                refineBFGSH(proj, test_points, reference_points, P_best, W, X, A, B, R_0[0], iterations, alpha, nu, max_error, max_iter_nls, max_diff, pool_de, proj_token);
+
+                                //Compute residuals of the best solution: actualize the shift, radius and rotation
+                                if (isM7())
+                                        frm7.function(X, Y, V, W);
+                                else
+                                        frm8.function(X, Y, V, W);
+
+                                min_cost = V.sum2(W);
                         }
 
-                        catch (Exception e)
+                        // Method M7, Nelder-Mead optimization
+                        else if (method == TAnalysisMethod.NMM7)
                         {
-                                e.printStackTrace();
-                                //System.out.println(proj.getName());
+                                //Create object for residual compuation
+                                FRM7NM frm7nm = new FRM7NM(frm7);
+                             
+                                min_cost = SimplexMethod.NelderMead(frm7nm::function, W, XT, Y, V, AT, BT, iterations, eps, max_iter_nm, add_x0, System.out, proj_token);
+                                X = XT.trans();
                         }
+
+                        // Method M8, Nelder-Mead optimization
+                        else if (method == TAnalysisMethod.NMM8)
+                        {
+                                //Create object for residual compuation
+                                FRM8NM frm8nm = new FRM8NM(frm8);
+                                
+                                min_cost = SimplexMethod.NelderMead(frm8nm::function, W, XT, Y, V, AT, BT, iterations, eps, max_iter_nm, add_x0, System.out, proj_token);
+                                X = XT.trans();
+                        }
+
+                        //Set the determined parameters to the projections
+                        if (isM7()) proj.setR(X.items[0][0]); else proj.setR(R_0[0]);
+                        if (isM7()) proj.setCartPole(new Point3DGeographic (X.items[1][0], X.items[2][0], 0)); 
+                                else proj.setCartPole(new Point3DGeographic (X.items[0][0], X.items[1][0], 0));
+                        if (isM7()) proj.setLat1(X.items[3][0]); else proj.setLat1(X.items[2][0]);
+                        if (isM7()) proj.setLat2(X.items[4][0]); else proj.setLat2(X.items[3][0]);
+                        if (isM7()) proj.setLon0(X.items[5][0]); else proj.setLon0(X.items[4][0]);
+                        if (isM7()) proj.setC(X.items[6][0]); else proj.setC(X.items[5][0]);
+                        proj.setDx(dx[0]);
+                        proj.setDy(dy[0]);
                         
+                        //Set the determined  parameters to the map
+                        final double map_scale = R / (proj.getR()) * 1000 ;
+                        //System.out.println("R:" + R + " RR: " + proj.getR() + " S: " + map_scale);
+                        final double rotation = (isM7() ? 0 : atan2(q2[0], q1[0]) * 180.0 / PI);
+
+                        //Add result to the list of results
+                        //Return the result and its cost
+                        cost[0] = min_cost;
+
+                        TResult res = new TResult (proj, map_scale, rotation, q1[0], q2[0], iterations[0]);
+
+                        //Store the result in the cache, results of the interrupted optimization are not stored
+                        if (cache_key != null && !proj_token.isCancelled())
+                                cache.put(cache_key, res, min_cost);
+
+                        return res;
                 }
-                
-                //Set the old text caption
-                button.setText(button_text);
-                
-                //Process the callback
-                SwingUtilities.invokeLater(f_callback);
+
+                catch (Exception e)
+                {
+                        e.printStackTrace();
+                        //System.out.println(proj.getName());
+                }
+
+                return null;
         }
-                
-                
-        private Matrix X0M7(final int m, final Projection proj, final TAnalysisMethod method_)
+
+
+        private void refineBFGSH(final Projection proj, final List <Point3DCartesian> test_points, final List <Point3DGeographic> reference_points, final Matrix P_best, final Matrix W, Matrix X, final Matrix A, final Matrix B,
+                final double R_0, int [] iterations, final double alpha, final double nu, final double max_error, final int max_iter, final double max_diff, final ExecutorService pool, final TCancellationToken token) throws Exception
+        {
+                //Refine the best individuals of the global search (rows of P_best) by BFGSH, the best local minimum is stored in X
+                //Short local optimization of all individuals (in parallel, if the pool is available), the best one continues up to max_iter iterations
+                //Each individual has own residual and Jacobian objects (shift, radius and rotation)
+                final int n_best = P_best.rows(), max_iter_short = max(max_iter / 8, 1);
+                final Matrix [] X_best = new Matrix[n_best], Y_best = new Matrix[n_best], V_best = new Matrix[n_best];
+                final IJacobian [] fj = new IJacobian[n_best];
+                final IResiduals [] fr = new IResiduals[n_best];
+                final double [] cost_best = new double[n_best];
+                final int [][] iterations_best = new int[n_best][1];
+
+                for (int i = 0; i < n_best; i++)
+                {
+                        X_best[i] = P_best.row(i).trans();
+                        Y_best[i] = new Matrix(W.rows(), 1);
+                        V_best[i] = new Matrix(W.rows(), 1);
+
+                        if (isM7())
+                        {
+                                fr[i] = new FRM7(test_points, reference_points, proj.getXYBatch(), proj.getLonDir(), new double[1], new double[1])::function;
+                                fj[i] = new FJM7(test_points, reference_points, proj.getX(), proj.getY(), proj.getXDer(), proj.getYDer(), proj.getXDual(), proj.getYDual(), proj.getLonDir())::function;
+                        }
+
+                        else
+                        {
+                                double [] R_i = {R_0}, q1_i = {0}, q2_i = {0};
+                                fr[i] = new FRM8(test_points, reference_points, proj.getXYBatch(), proj.getLonDir(), R_i, q1_i, q2_i, new double[1], new double[1])::function;
+                                fj[i] = new FJM8(test_points, reference_points, proj.getX(), proj.getY(), proj.getXDer(), proj.getYDer(), proj.getXDual(), proj.getYDual(), proj.getLonDir(), R_i, q1_i, q2_i)::function;
+                        }
+                }
+
+                //Short local optimization of all individuals
+                List <Future<?>> tasks = new ArrayList<>();
+                for (int i = 0; i < n_best; i++)
+                {
+                        final int index = i;
+                        Runnable task = () -> cost_best[index] = refineBFGSH(fj[index], fr[index], W, X_best[index], Y_best[index], V_best[index], A, B, iterations_best[index], alpha, nu, max_error, max_iter_short, max_diff, token);
+
+                        //Parallel or sequential processing
+                        if (pool != null)
+                                tasks.add(pool.submit(task));
+                        else
+                                task.run();
+                }
+
+                //Wait for all tasks
+                for (Future<?> task : tasks)
+                        task.get();
+
+                //Find the best local minimum
+                int i_min = 0;
+                for (int i = 1; i < n_best; i++)
+                        if (cost_best[i] < cost_best[i_min])
+                                i_min = i;
+
+                //Continue with the best individual
+                int [] iterations_min = {0};
+                if (max_iter > max_iter_short)
+                        refineBFGSH(fj[i_min], fr[i_min], W, X_best[i_min], Y_best[i_min], V_best[i_min], A, B, iterations_min, alpha, nu, max_error, max_iter - max_iter_short, max_diff, token);
+
+                X.copy(X_best[i_min]);
+                iterations[0] += iterations_best[i_min][0] + iterations_min[0];
+        }
+
+
+        private static double refineBFGSH(final IJacobian fj, final IResiduals fr, final Matrix W, Matrix X, Matrix Y, Matrix V, final Matrix A, final Matrix B, int [] iterations,
+                final double alpha, final double nu, final double max_error, final int max_iter, final double max_diff, final TCancellationToken token)
+        {
+                //Local optimization of one individual, failed optimization: keep the individual of the global search
+                try
+                {
+                        return NonLinearLeastSquares.BFGSH(fj, fr, W, X, Y, V, A, B, iterations, alpha, nu, max_error, max_iter, max_diff, token);
+                }
+
+                catch (Exception e)
+                {
+                        return MAX_FLOAT;
+                }
+        }
+
+
+        private boolean isM7()
+        {
+                //Method M7 (without rotation) or M8 (involving map rotation)?
+                return method == TAnalysisMethod.NLSM7 || method == TAnalysisMethod.NMM7 || method == TAnalysisMethod.DEM7 || method == TAnalysisMethod.LMM7 || method == TAnalysisMethod.CMAESM7 || method == TAnalysisMethod.HYBM7;
+        }
+
+
+        private String getSolverConfig()
+        {
+                //Variable configuration of the solver affecting the results (a part of the cache key)
+                if (island_model == null || (method != TAnalysisMethod.DEM7 && method != TAnalysisMethod.DEM8))
+                        return "population";
+
+                return "islands " + island_model.n_islands + " " + island_model.migration_interval + " " + island_model.n_migrants + " " + island_model.topology.name() + " " +
+                        Arrays.toString(island_model.strategies) + " " + Arrays.toString(island_model.controls);
+        }
+
+
+        private boolean isHybrid()
+        {
+                //Hybrid method: global search followed by the local optimization
+                return method == TAnalysisMethod.HYBM7 || method == TAnalysisMethod.HYBM8;
+        }
+
+
+        private boolean isLocal()
+        {
+                //Local optimization method or hybrid method: starts from the pole of the projection
+                return method == TAnalysisMethod.NLSM7 || method == TAnalysisMethod.NLSM8 || method == TAnalysisMethod.LMM7 || method == TAnalysisMethod.LMM8 || isHybrid();
+        }
+
+
+        private Matrix X0M7(final int m, final Projection proj, final double R_0, final boolean warm)
         {
-                //Set initial solution, M7 method
+                //Set initial solution, M7 method, R_0 = initial radius, warm = use the pole of the projection for all methods
                 Matrix  X0 = new Matrix(m, 1);
                 
-                X0.items[0][0] = proj.getR();
-                X0.items[1][0] = (method.ordinal() %3 == 0 ? proj.getCartPole().getLat() : 89.0);
-                X0.items[2][0] = (method.ordinal() %3 == 0 ? proj.getCartPole().getLon() : 10.0);
+                X0.items[0][0] = R_0;
+                X0.items[1][0] = (isLocal() || warm ? proj.getCartPole().getLat() : 89.0);
+                X0.items[2][0] = (isLocal() || warm ? proj.getCartPole().getLon() : 10.0);
                 X0.items[3][0] = proj.getLat1();
                 X0.items[4][0] = proj.getLat2();
                 X0.items[5][0] = proj.getLon0();
@@ -320,13 +944,13 @@ public class CartAnalysisMT implements Runnable
         }
 
         
-        private Matrix X0M8(final int m, final Projection proj,final TAnalysisMethod method_ )
+        private Matrix X0M8(final int m, final Projection proj, final boolean warm)
         {
-                //Set initial solution, M8 method
+                //Set initial solution, M8 method, warm = use the pole of the projection for all methods
                 Matrix X0 = new Matrix(m, 1);
                 
-                X0.items[0][0] = (method.ordinal() %3 == 0 ? proj.getCartPole().getLat() : 89.0);
-                X0.items[1][0] = (method.ordinal() %3 == 0 ? proj.getCartPole().getLon() : 10.0);
+                X0.items[0][0] = (isLocal() || warm ? proj.getCartPole().getLat() : 89.0);
+                X0.items[1][0] = (isLocal() || warm ? proj.getCartPole().getLon() : 10.0);
                 X0.items[2][0] = proj.getLat1();
                 X0.items[3][0] = proj.getLat2();
                 X0.items[4][0] = proj.getLon0();
@@ -0,0 +1,85 @@
+// Description: Live view of the K best results of the running cartometric analysis
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.algorithms.cartanalysis;
+
+import java.util.TreeMap;
+
+import detectprojv2j.types.IAnalysisListener;
+import detectprojv2j.types.TResult;
+
+
+public class TopResults implements IAnalysisListener
+{
+        private final TreeMap <Double, TResult> results;                        //K best results sorted according to the residuals
+        private final int k;                                                    //Amount of stored results
+        private final IAnalysisListener f_changed;                              //Called when the K best results have changed (null = not used)
+
+        public TopResults(final int k_)
+        {
+                this(k_, null);
+        }
+
+
+        public TopResults(final int k_, final IAnalysisListener f_changed_)
+        {
+                results = new TreeMap<>();
+                k = Math.max(k_, 1);
+                f_changed = f_changed_;
+        }
+
+
+        @Override
+        public void onResult(final TResult res, final double cost)
+        {
+                //Add result, remove the worst one if more than K results are stored
+                boolean changed;
+
+                synchronized (this)
+                {
+                        changed = results.size() < k || cost < results.lastKey();
+
+                        if (changed)
+                        {
+                                results.put(cost, res);
+
+                                if (results.size() > k)
+                                        results.pollLastEntry();
+                        }
+                }
+
+                //Notify about the new leader candidate
+                if (changed && f_changed != null)
+                        f_changed.onResult(res, cost);
+        }
+
+
+        public synchronized TreeMap <Double, TResult> getResults()
+        {
+                //Get copy of the current K best results
+                return new TreeMap<>(results);
+        }
+
+
+        public synchronized void clear()
+        {
+                results.clear();
+        }
+}
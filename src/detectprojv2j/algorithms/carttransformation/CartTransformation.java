@@ -32,12 +32,15 @@ import static detectprojv2j.consts.Consts.*;
 import detectprojv2j.structures.point.Point3DGeographic;
 import detectprojv2j.structures.projection.Projection;
 import detectprojv2j.structures.point.Point3DCartesian;
+import detectprojv2j.structures.dual.Dual;
 
 import detectprojv2j.exceptions.MathInvalidArgumentException;
 
 
 public class CartTransformation
 {    
+        private static final int BATCH_SIZE = 256;                                      //Amount of points converted by the batch projection equations at once
+        
         public static double redLon0(final double lon, final double lon0) 
         { 
                 return (lon - lon0 < MIN_LON ? 360.0 + (lon - lon0) : (lon - lon0 > MAX_LON ? (lon - lon0) - 360 : lon - lon0)); 
@@ -249,8 +252,127 @@ public class CartTransformation
 
                 return lon_trans;
         }
-        
-        
+
+
+        public static void latToLatTransDer( final double lat, final double lon, final double latp, final double lonp, double [] der)
+        {
+                //Partial derivatives of the transformed latitude ( lat, lon ) -> ( lat_trans ) with respect to the cartographic pole (latp, lonp)
+                //der = [dlat_trans/dlatp, dlat_trans/dlonp], singular at lat_trans = +-90 (not finite values)
+                final double latr = lat * PI / 180.0, latpr = latp * PI / 180.0, dlonr = (lonp - lon) * PI / 180.0;
+
+                //Compute cos(lat_trans)
+                final double lat_trans_asin = sin(latr) * sin(latpr) + cos(latr) * cos(latpr) * cos(dlonr);
+                final double lat_trans_cos = sqrt(max(1.0 - lat_trans_asin * lat_trans_asin, 0.0));
+
+                //Partial derivatives
+                der[0] = (sin(latr) * cos(latpr) - cos(latr) * sin(latpr) * cos(dlonr)) / lat_trans_cos;
+                der[1] = -cos(latr) * cos(latpr) * sin(dlonr) / lat_trans_cos;
+        }
+
+
+        public static void lonToLonTransDer( final double lat, final double lon, final double latp, final double lonp, final TTransformedLongitudeDirection lon_direction, double [] der)
+        {
+                //Partial derivatives of the transformed longitude ( lat, lon ) -> ( lon_trans ) with respect to the cartographic pole (latp, lonp)
+                //der = [dlon_trans/dlatp, dlon_trans/dlonp], singular at lat_trans = +-90 (not finite values)
+                final double latr = lat * PI / 180.0, latpr = latp * PI / 180.0, dlonr = (lon - lonp) * PI / 180.0;
+
+                //Arguments of atan2(y, x) and their partial derivatives
+                final double y = cos(latr) * sin(dlonr);
+                final double x = sin(latr) * cos(latpr) - cos(dlonr) * sin(latpr) * cos(latr);
+                final double dy_dlonp = -cos(latr) * cos(dlonr);
+                final double dx_dlatp = -sin(latr) * sin(latpr) - cos(dlonr) * cos(latpr) * cos(latr);
+                final double dx_dlonp = -sin(dlonr) * sin(latpr) * cos(latr);
+                final double d = x * x + y * y;
+
+                //Reversed direction 2 (Mode M4), reversed direction (Mode M2): shift by 180 deg does not change derivatives
+                der[0] = -y * dx_dlatp / d;
+                der[1] = (x * dy_dlonp - y * dx_dlonp) / d;
+
+                //Normal direction 2 (Mode M3), normal direction (Mode M1): opposite sign
+                if ((lon_direction == NormalDirection2) || (lon_direction == NormalDirection))
+                {
+                        der[0] = -der[0];
+                        der[1] = -der[1];
+                }
+        }
+
+
+        public static Dual redLon0(final Dual lon, final Dual lon0)
+        {
+                //Reduce longitude, dual numbers
+                final double dlon = lon.getValue() - lon0.getValue();
+
+                return (dlon < MIN_LON ? lon.minus(lon0).plus(360.0) : (dlon > MAX_LON ? lon.minus(lon0).minus(360.0) : lon.minus(lon0)));
+        }
+
+
+        public static Dual latToLatTrans( final double lat, final double lon, final Dual latp, final Dual lonp)
+        {
+                //Transform latitude  ( lat, lon ) -> ( lat_tans ) using a cartographic pole (latp, lonp), dual numbers
+                //Same branches as latToLatTrans(double, double, double, double), no exceptions
+                //Normal aspect is not treated separately: the general formula gives lat_trans = lat and the gradient with respect to latp
+                final double latr = lat * PI / 180.0;
+
+                //Same coordinates as the cartographic pole, singular point
+                if ((abs(lon - lonp.getValue()) < ANGLE_ROUND_ERROR) && (abs(lat - latp.getValue()) < ANGLE_ROUND_ERROR)) {
+                        return new Dual(MAX_LAT);
+                }
+
+                //Compute latitude
+                final Dual latpr = latp.mult(PI / 180.0);
+                final Dual lat_trans_asin = Dual.sin(latpr).mult(sin(latr)).plus(Dual.cos(latpr).mult(Dual.cos(lonp.minus(lon).mult(PI / 180.0))).mult(cos(latr)));
+
+                //Correct latitude
+                if (lat_trans_asin.getValue() > 1.0) {
+                        return new Dual(MAX_LAT);
+                }
+
+                //Correct latitude
+                if (lat_trans_asin.getValue() < -1.0) {
+                        return new Dual(MIN_LAT);
+                }
+
+                //Compute transformed latitude
+                return Dual.asin(lat_trans_asin).mult(180.0 / PI);
+        }
+
+
+        public static Dual lonToLonTrans( final double lat, final double lon, final Dual latp, final Dual lonp, final TTransformedLongitudeDirection lon_direction)
+        {
+                //Transform longitude  ( lat, lon ) -> ( lon_tans ) using a cartographic pole (latp, lonp), dual numbers
+                //Same branches as lonToLonTrans(double, double, double, double, TTransformedLongitudeDirection), no exceptions
+                final double latr = lat * PI / 180.0;
+
+                //Reversed direction 2 (Mode M4)
+                final Dual latpr = latp.mult(PI / 180.0);
+                final Dual dlonr = lonp.rminus(lon).mult(PI / 180.0);
+                Dual lon_trans = Dual.atan2(Dual.sin(dlonr).mult(cos(latr)), Dual.cos(latpr).mult(sin(latr)).minus(Dual.cos(dlonr).mult(Dual.sin(latpr)).mult(cos(latr)))).mult(180 / PI);
+
+                //Normal direction 2 (Mode M3), DEFAULT
+                if (lon_direction == NormalDirection2) {
+                        lon_trans = lon_trans.neg();
+                }
+
+                //Reversed direction (Mode M2)
+                else if (lon_direction == ReversedDirection) {
+                        lon_trans = (lon_trans.getValue() < 0 ? lon_trans.plus(180) : lon_trans.minus(180));
+                }
+
+                //Normal direction (Mode M1)
+                else if (lon_direction == NormalDirection) {
+                        lon_trans = (lon_trans.getValue() < 0 ? lon_trans.rminus(-180) : lon_trans.rminus(180));
+                }
+
+                //Projection in normal position: value lon, gradient of the general formula in the given direction (as lonToLonTransDer)
+                if ((abs(MAX_LAT - latp.getValue()) < ANGLE_ROUND_ERROR) && (abs(lonp.getValue()) < ANGLE_ROUND_ERROR))
+                {
+                        return lon_trans.plus(lon - lon_trans.getValue());
+                }
+
+                return lon_trans;
+        }
+
+
         public static double lonTransToLon( final double lat_trans, final double lon_trans, final double latp, final double lonp, final TTransformedLongitudeDirection lon_direction)
         {
                 //Transform longitude  ( lat_trans, lon_trans ) -> ( lon ) using a cartographic pole (latp, lonp)
@@ -381,62 +503,219 @@ public class CartTransformation
         }
 
         
-        public static List <Point3DCartesian> latsLonsToXY (final List <Point3DGeographic> reference_points, final Projection proj, final double alpha)
+        public static int latsLonsToXY(final double [] lat, final double [] lon, final int m, final Projection proj, final double alpha, double [] X, double [] Y)
         {
-                //Convert all geographic points to the Cartesian coordinates using the projection equations
-                List <Point3DCartesian> projected_points = new ArrayList<>();
+                //Convert geographic points stored in the primitive arrays to the Cartesian coordinates using the batch projection equations
+                //Points that can not be converted are set to NaN, returns the amount of converted points
+                final double R = proj.getR(), lat1 = proj.getLat1(), lat2 = proj.getLat2(), lon0 = proj.getLon0(), dx = proj.getDx(), dy = proj.getDy(), c = proj.getC();
+                final PoleRotation pole = new PoleRotation(proj.getCartPole(), proj.getLonDir());
+                final ICoordFunctionProjBatch FG = proj.getXYBatch();
+
+                //Compute Helmert transformation coefficients (for the M8 method)
+                final double q1 = cos(alpha * PI / 180);
+                final double q2 = sin(alpha * PI / 180);
+
+                //Buffers for one batch
+                final int n = min(m, BATCH_SIZE);
+                final double [] lat_trans = new double[n], lon_trans = new double[n], Xr = new double[n], Yr = new double[n];
                 
-                for (Point3DGeographic p:reference_points)
+                int converted = 0;
+                for (int i = 0; i < m; i += n)
                 {
-                        double [] X = {0.0}, Y = {0.0}, lat_trans = {0.0}, lon_trans = {0.0};
+                        final int k = min(n, m - i);
                         
                         try
                         {
-                                //Convert a point
-                                CartTransformation.latLonToXY(p.getLat(), p.getLon(), proj, alpha,lat_trans, lon_trans, X, Y);
-                         
-                                //Add to the list of points
-                                projected_points.add(new Point3DCartesian(X[0], Y[0], p.getH()));
+                                //(lat, lon) -> (lat_trans, lon_trans)
+                                pole.latsLonsToLatsLonsTrans(lat, lon, i, k, lat_trans, lon_trans);
+
+                                //(lat_trans, lon_trans) -> (X, Y)
+                                FG.f(lat_trans, lon_trans, k, R, lat1, lat2, lon0, 0.0, 0.0, c, Xr, Yr);
+
+                                //Rotate points (for the M8 method)
+                                for (int j = 0; j < k; j++)
+                                {
+                                        X[i + j] = Xr[j] * q1 - Yr[j] * q2 + dx;
+                                        Y[i + j] = Xr[j] * q2 + Yr[j] * q1 + dy;
+                                }
+                        }
+
+                        //Some point of the batch can not be converted: process the batch point by point
+                        catch (Exception e)
+                        {
+                                latsLonsToXY(lat, lon, i, k, proj, alpha, X, Y);
                         }
                         
-                        //Throw exception
-                        catch(Exception e)
+                        //Count converted points
+                        for (int j = 0; j < k; j++)
                         {
-                                
-                                // System.out.println( p.getLat()+ " " + p.getLon() + " " + X[0] + " " + Y[0]);
-                                //e.printStackTrace();     
+                                if (!Double.isNaN(X[i + j]))
+                                        converted++;
                         }
-                } 
+                }
                 
-                return projected_points;
+                return converted;
         }
         
         
-        public static List <Point3DGeographic> XYToLatsLons (final List <Point3DCartesian> reference_points, final Projection proj, final double alpha)
+        private static void latsLonsToXY(final double [] lat, final double [] lon, final int i1, final int k, final Projection proj, final double alpha, double [] X, double [] Y)
         {
-                //Convert all points in the Cartesian coordinates to geographic using inverse projection equations
-                List <Point3DGeographic> projected_points = new ArrayList<>();
+                //Convert k geographic points starting at the index i1 to the Cartesian coordinates point by point
+                //Points that can not be converted are set to NaN
+                double [] X_i = {0.0}, Y_i = {0.0}, lat_trans = {0.0}, lon_trans = {0.0};
                 
-                for (Point3DCartesian p : reference_points) 
+                for (int i = i1; i < i1 + k; i++)
                 {
-                        double[] lat = {0.0}, lon = {0.0}, lat_trans = {0.0}, lon_trans = {0.0};
-
-                        try 
+                        try
                         {
                                 //Convert a point
-                                CartTransformation.XYToLatLon(p.getX(), p.getY(), proj, alpha, lat_trans, lon_trans, lat, lon);
-                                
-                                //Add to the list of points
-                                projected_points.add(new Point3DGeographic(lat[0], lon[0], p.getZ()));
-                        } 
+                                latLonToXY(lat[i], lon[i], proj, alpha, lat_trans, lon_trans, X_i, Y_i);
+                                X[i] = X_i[0];
+                                Y[i] = Y_i[0];
+                        }
+
+                        //Throw exception
+                        catch (Exception e)
+                        {
+                                X[i] = Double.NaN;
+                                Y[i] = Double.NaN;
+                        }
+                }
+        }
+        
+        
+        public static int XYToLatsLons(final double [] X, final double [] Y, final int m, final Projection proj, final double alpha, double [] lat, double [] lon)
+        {
+                //Convert points in the Cartesian coordinates stored in the primitive arrays to geographic using the batch inverse projection equations
+                //Points that can not be converted are set to NaN, returns the amount of converted points
+                final double R = proj.getR(), lat1 = proj.getLat1(), lat2 = proj.getLat2(), lon0 = proj.getLon0(), dx = proj.getDx(), dy = proj.getDy(), c = proj.getC();
+                final PoleRotation pole = new PoleRotation(proj.getCartPole(), proj.getLonDir());
+                final ICoordFunctionProjBatch FGI = proj.getLatLonBatch();
+
+                //Compute Helmert transformation coefficients (for the M8 method)
+                final double q1 = cos(alpha * PI / 180);
+                final double q2 = sin(alpha * PI / 180);
+
+                //Buffers for one batch
+                final int n = min(m, BATCH_SIZE);
+                final double [] lat_trans = new double[n], lon_trans = new double[n], Xr = new double[n], Yr = new double[n];
+                
+                int converted = 0;
+                for (int i = 0; i < m; i += n)
+                {
+                        final int k = min(n, m - i);
+                        
+                        try
+                        {
+                                //Unrotate points (for the M8 method)
+                                for (int j = 0; j < k; j++)
+                                {
+                                        Xr[j] = (X[i + j] - dx) * q1 + (Y[i + j] - dy) * q2;
+                                        Yr[j] = -(X[i + j] - dx) * q2 + (Y[i + j] - dy) * q1;
+                                }
+
+                                //(X, Y) -> (lat_trans, lon_trans)
+                                FGI.f(Xr, Yr, k, R, lat1, lat2, lon0, 0.0, 0.0, c, lat_trans, lon_trans);
+
+                                //(lat_trans, lon_trans) -> (lat, lon)
+                                pole.latsLonsTransToLatsLons(lat_trans, lon_trans, i, k, lat, lon);
+                        }
+
+                        //Some point of the batch can not be converted: process the batch point by point
+                        catch (Exception e)
+                        {
+                                XYToLatsLons(X, Y, i, k, proj, alpha, lat, lon);
+                        }
                         
+                        //Count converted points
+                        for (int j = 0; j < k; j++)
+                        {
+                                if (!Double.isNaN(lat[i + j]))
+                                        converted++;
+                        }
+                }
+                
+                return converted;
+        }
+        
+        
+        private static void XYToLatsLons(final double [] X, final double [] Y, final int i1, final int k, final Projection proj, final double alpha, double [] lat, double [] lon)
+        {
+                //Convert k points in the Cartesian coordinates starting at the index i1 to geographic point by point
+                //Points that can not be converted are set to NaN
+                double [] lat_i = {0.0}, lon_i = {0.0}, lat_trans = {0.0}, lon_trans = {0.0};
+                
+                for (int i = i1; i < i1 + k; i++)
+                {
+                        try
+                        {
+                                //Convert a point
+                                XYToLatLon(X[i], Y[i], proj, alpha, lat_trans, lon_trans, lat_i, lon_i);
+                                lat[i] = lat_i[0];
+                                lon[i] = lon_i[0];
+                        }
+
                         //Throw exception
-                        catch (Exception e) 
+                        catch (Exception e)
                         {
-                                //e.printStackTrace();
-                                //System.out.println("     Error:" + p.getX()+ " " + p.getY());
+                                lat[i] = Double.NaN;
+                                lon[i] = Double.NaN;
                         }
                 }
+        }
+        
+        
+        public static List <Point3DCartesian> latsLonsToXY (final List <Point3DGeographic> reference_points, final Projection proj, final double alpha)
+        {
+                //Convert all geographic points to the Cartesian coordinates using the projection equations
+                //Points that can not be converted are skipped
+                final int m = reference_points.size();
+                final double [] lat = new double[m], lon = new double[m], X = new double[m], Y = new double[m];
+                
+                for (int i = 0; i < m; i++)
+                {
+                        lat[i] = reference_points.get(i).getLat();
+                        lon[i] = reference_points.get(i).getLon();
+                }
+                
+                //Convert all points
+                final int converted = latsLonsToXY(lat, lon, m, proj, alpha, X, Y);
+                
+                //Add to the list of points
+                List <Point3DCartesian> projected_points = new ArrayList<>(converted);
+                for (int i = 0; i < m; i++)
+                {
+                        if (!Double.isNaN(X[i]))
+                                projected_points.add(new Point3DCartesian(X[i], Y[i], reference_points.get(i).getH()));
+                } 
+                
+                return projected_points;
+        }
+        
+        
+        public static List <Point3DGeographic> XYToLatsLons (final List <Point3DCartesian> reference_points, final Projection proj, final double alpha)
+        {
+                //Convert all points in the Cartesian coordinates to geographic using inverse projection equations
+                //Points that can not be converted are skipped
+                final int m = reference_points.size();
+                final double [] X = new double[m], Y = new double[m], lat = new double[m], lon = new double[m];
+                
+                for (int i = 0; i < m; i++)
+                {
+                        X[i] = reference_points.get(i).getX();
+                        Y[i] = reference_points.get(i).getY();
+                }
+                
+                //Convert all points
+                final int converted = XYToLatsLons(X, Y, m, proj, alpha, lat, lon);
+                
+                //Add to the list of points
+                List <Point3DGeographic> projected_points = new ArrayList<>(converted);
+                for (int i = 0; i < m; i++) 
+                {
+                        if (!Double.isNaN(lat[i]))
+                                projected_points.add(new Point3DGeographic(lat[i], lon[i], reference_points.get(i).getZ()));
+                }
                 
                 return projected_points;
         }
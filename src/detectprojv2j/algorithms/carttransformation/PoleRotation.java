@@ -0,0 +1,279 @@
+// Description: Oblique aspect transformation (lat, lon) <-> (lat_trans, lon_trans) with a fixed cartographic pole (immutable)
+// Trigonometric functions of the pole are computed once, both transformed coordinates share
+// the trigonometric functions of the point. Same branches and exceptions as latToLatTrans(),
+// lonToLonTrans(), latTransToLat() and lonTransToLon() in CartTransformation.
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.algorithms.carttransformation;
+
+import static java.lang.Math.*;
+
+import detectprojv2j.types.TTransformedLongitudeDirection;
+import static detectprojv2j.types.TTransformedLongitudeDirection.*;
+
+import static detectprojv2j.consts.Consts.*;
+
+import detectprojv2j.structures.point.Point3DGeographic;
+
+import detectprojv2j.exceptions.MathInvalidArgumentException;
+
+
+public final class PoleRotation {
+
+        private double latp, lonp;                                      //Cartographic pole
+        private final TTransformedLongitudeDirection lon_dir;           //Transformed longitude direction
+        private double sin_latp, cos_latp;                              //Trigonometric functions of the pole latitude
+        private boolean normal_lat;                                     //Normal aspect: lat_trans = lat
+        private boolean normal_lon;                                     //Normal position: lon_trans = lon
+
+
+        public PoleRotation(final double latp_, final double lonp_, final TTransformedLongitudeDirection lon_dir_)
+        {
+                lon_dir = lon_dir_;
+
+                //Pole not set
+                latp = Double.NaN;
+                lonp = Double.NaN;
+
+                setPole(latp_, lonp_);
+        }
+
+
+        public PoleRotation(final Point3DGeographic pole, final TTransformedLongitudeDirection lon_dir_)
+        {
+                this(pole.getLat(), pole.getLon(), lon_dir_);
+        }
+
+
+        public void setPole(final double latp_, final double lonp_)
+        {
+                //Change the cartographic pole, the rotation is reused by the residual functions (no allocation per evaluation)
+                if (latp_ == latp && lonp_ == lonp)
+                        return;
+
+                latp = latp_;
+                lonp = lonp_;
+
+                sin_latp = sin(latp * PI / 180.0);
+                cos_latp = cos(latp * PI / 180.0);
+
+                normal_lat = abs(MAX_LAT - latp) < ANGLE_ROUND_ERROR;
+                normal_lon = normal_lat && (abs(lonp) < ANGLE_ROUND_ERROR);
+        }
+
+
+        public double getLatP() { return latp; }
+        public double getLonP() { return lonp; }
+        public TTransformedLongitudeDirection getLonDir() { return lon_dir; }
+
+
+        public void latLonToLatLonTrans(final double lat, final double lon, double [] lat_trans, double [] lon_trans)
+        {
+                //Transform ( lat, lon ) -> ( lat_trans, lon_trans ) using the cartographic pole (latp, lonp)
+                latLonToLatLonTrans(lat, lon, lat_trans, lon_trans, 0);
+        }
+
+
+        public void latsLonsToLatsLonsTrans(final double [] lat, final double [] lon, final int i1, final int k, double [] lat_trans, double [] lon_trans)
+        {
+                //Transform k points starting at the index i1 ( lat, lon ) -> ( lat_trans, lon_trans ), results are stored from the index 0
+                for (int j = 0; j < k; j++)
+                        latLonToLatLonTrans(lat[i1 + j], lon[i1 + j], lat_trans, lon_trans, j);
+        }
+
+
+        public void latLonTransToLatLon(final double lat_trans, final double lon_trans, double [] lat, double [] lon)
+        {
+                //Transform ( lat_trans, lon_trans ) -> ( lat, lon ) using the cartographic pole (latp, lonp)
+                latLonTransToLatLon(lat_trans, lon_trans, lat, lon, 0);
+        }
+
+
+        public void latsLonsTransToLatsLons(final double [] lat_trans, final double [] lon_trans, final int i1, final int k, double [] lat, double [] lon)
+        {
+                //Transform k points ( lat_trans, lon_trans ) -> ( lat, lon ), results are stored from the index i1
+                for (int j = 0; j < k; j++)
+                        latLonTransToLatLon(lat_trans[j], lon_trans[j], lat, lon, i1 + j);
+        }
+
+
+        private void latLonToLatLonTrans(final double lat, final double lon, double [] lat_trans, double [] lon_trans, final int index)
+        {
+                //Transform ( lat, lon ) -> ( lat_trans, lon_trans ), results are stored at the index
+
+                //Throw exception: bad lat
+                if (abs(lat) > MAX_LAT) {
+                        throw new MathInvalidArgumentException ("MathInvalidArgumentException: ", "can not convert lat to lat_trans, lat > +- Pi/2", lat);
+                }
+
+                //Throw exception: bad lon
+                if (abs(lon) > MAX_LON) {
+                        throw new MathInvalidArgumentException ("MathInvalidArgumentException: ", "can not convert lat to lat_trans, lon > +- Pi", lon);
+                }
+
+                //Projection in normal position
+                if (normal_lon) {
+                        lat_trans[index] = lat;
+                        lon_trans[index] = lon;
+
+                        return;
+                }
+
+                //Trigonometric functions of the point
+                final double latr = lat * PI / 180.0, dlonr = (lon - lonp) * PI / 180.0;
+                final double sin_lat = sin(latr), cos_lat = cos(latr), cos_dlon = cos(dlonr);
+
+                //Projection in normal aspect
+                if (normal_lat) {
+                        lat_trans[index] = lat;
+                }
+
+                //Same coordinates as the cartographic pole, singular point
+                else if ((abs(lon - lonp) < ANGLE_ROUND_ERROR) && (abs(lat - latp) < ANGLE_ROUND_ERROR)) {
+                        lat_trans[index] = MAX_LAT;
+                }
+
+                //Compute transformed latitude
+                else {
+                        lat_trans[index] = asinLat(sin_lat * sin_latp + cos_lat * cos_latp * cos_dlon, "can not convert lat to lat_trans, asin(arg), arg = ");
+                }
+
+                //Reversed direction 2 (Mode M4): lon_trans measured from the meridian arc north of K in the clockwise direction
+                final double lon_trans_r = atan2(cos_lat * sin(dlonr),  sin_lat * cos_latp - cos_dlon * sin_latp * cos_lat) * 180 / PI;
+
+                //Other directions
+                lon_trans[index] = lonTransFromReversed2(lon_trans_r);
+        }
+
+
+        private void latLonTransToLatLon(final double lat_trans, final double lon_trans, double [] lat, double [] lon, final int index)
+        {
+                //Transform ( lat_trans, lon_trans ) -> ( lat, lon ), results are stored at the index
+
+                //Throw exception: bad lat
+                if (abs(lat_trans) > MAX_LAT) {
+                        throw new MathInvalidArgumentException ("MathInvalidArgumentException: ", "can not convert lat_trans to lat, lat_trans > +- Pi/2", lat_trans);
+                }
+
+                //Throw exception: bad lon
+                if (abs(lon_trans) > MAX_LON) {
+                        throw new MathInvalidArgumentException ("MathInvalidArgumentException: ", "can not convert lat_trans to lat, lon > +- Pi", lon_trans);
+                }
+
+                //Projection in normal position
+                if (normal_lon) {
+                        lat[index] = lat_trans;
+                        lon[index] = CartTransformation.redLon0(lonp, -lon_trans);
+
+                        return;
+                }
+
+                //Longitude measured in the reversed direction 2 (Mode M4)
+                final double lon_trans2 = lonTransToReversed2(lon_trans);
+
+                //Trigonometric functions of the point
+                final double lat_transr = lat_trans * PI / 180.0, lon_trans2r = lon_trans2 * PI / 180.0;
+                final double sin_lat_trans = sin(lat_transr), cos_lat_trans = cos(lat_transr), cos_lon_trans2 = cos(lon_trans2r);
+
+                //Projection in normal aspect
+                if (normal_lat) {
+                        lat[index] = lat_trans;
+                }
+
+                //Same coordinates as the cartographic pole, singular point
+                else if (abs(lat_trans - MAX_LAT) < ANGLE_ROUND_ERROR) {
+                        lat[index] = latp;
+                }
+
+                //Compute latitude
+                else {
+                        lat[index] = asinLat(sin_lat_trans * sin_latp + cos_lat_trans * cos_latp * cos_lon_trans2, "can not convert lat_trans to lat, asin(arg), arg = ");
+                }
+
+                //Compute dlon
+                final double dlon = atan2(cos_lat_trans * sin(lon_trans2r),  sin_lat_trans * cos_latp - cos_lon_trans2 * sin_latp * cos_lat_trans) * 180 / PI;
+
+                //lon = lonp + dlon
+                lon[index] = CartTransformation.redLon0(lonp, -dlon);
+        }
+
+
+        private static double asinLat(final double arg, final String text)
+        {
+                //Compute latitude from the sine, the argument is corrected to [-1, 1]
+
+                //Throw exception
+                if ((arg > 1.0 + ARGUMENT_ROUND_ERROR) || (arg < -1.0 - ARGUMENT_ROUND_ERROR)) {
+                        throw new MathInvalidArgumentException ("MathInvalidArgumentException: ", text, arg);
+                }
+
+                //Correct latitude
+                if (arg > 1.0) {
+                        return MAX_LAT;
+                }
+
+                //Correct latitude
+                if (arg < -1.0) {
+                        return MIN_LAT;
+                }
+
+                return asin(arg) * 180.0 / PI;
+        }
+
+
+        private double lonTransFromReversed2(final double lon_trans)
+        {
+                //Convert lon_trans measured in the reversed direction 2 (Mode M4) to the direction lon_dir
+
+                //Normal direction 2 (Mode M3), DEFAULT
+                if (lon_dir == NormalDirection2)
+                        return -lon_trans;
+
+                //Reversed direction (Mode M2)
+                else if (lon_dir == ReversedDirection)
+                        return (lon_trans < 0 ? lon_trans + 180 : lon_trans - 180);
+
+                //Normal direction (Mode M1)
+                else if (lon_dir == NormalDirection)
+                        return (lon_trans < 0 ? -180 - lon_trans : 180 - lon_trans);
+
+                return lon_trans;
+        }
+
+
+        private double lonTransToReversed2(final double lon_trans)
+        {
+                //Convert lon_trans measured in the direction lon_dir to the reversed direction 2 (Mode M4)
+
+                //Normal direction 2 (Mode M3), DEFAULT
+                if (lon_dir == NormalDirection2)
+                        return -lon_trans;
+
+                //Reversed direction (Mode M2)
+                else if (lon_dir == ReversedDirection)
+                        return (lon_trans < 0 ? lon_trans - 180 : lon_trans + 180);
+
+                //Normal direction (Mode M1)
+                else if (lon_dir == NormalDirection)
+                        return (lon_trans < 0 ? -180 - lon_trans : 180 - lon_trans);
+
+                return lon_trans;
+        }
+}
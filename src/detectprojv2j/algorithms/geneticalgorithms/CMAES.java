@@ -0,0 +1,342 @@
+// Description: Find global minimum using the covariance matrix adaptation evolution strategy (CMA-ES)
+// The (mu/mu_w, lambda) strategy with the rank-one and rank-mu update of the covariance matrix
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+
+package detectprojv2j.algorithms.geneticalgorithms;
+
+import static java.lang.Math.*;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+
+import detectprojv2j.types.IResiduals;
+import detectprojv2j.types.TCancellationToken;
+
+import detectprojv2j.structures.matrix.Matrix;
+
+import static detectprojv2j.consts.Consts.*;
+
+import detectprojv2j.exceptions.BadDataException;
+import detectprojv2j.exceptions.MathMatrixDifferentSizeException;
+
+
+//Covariance matrix adaptation evolution strategy, the search space XMIN, XMAX is normalized to the unit cube
+public class CMAES {
+
+        public static double cmaes(IResiduals function, final int population_size, final double sigma_0, final double epsilon, final int max_gener, Matrix W, Matrix X, Matrix Y, Matrix RES,
+                Matrix XMIN, Matrix XMAX, int [] gener, final boolean add_x0, final TCancellationToken token)
+        {
+                //Sequential evaluation of the population, random seed
+                return cmaes(new IResiduals [] {function}, population_size, sigma_0, epsilon, max_gener, W, X, Y, RES, XMIN, XMAX, gener, add_x0, null, token, new SplittableRandom().nextLong());
+        }
+
+
+        public static double cmaes(IResiduals [] functions, final int population_size, final double sigma_0, final double epsilon, final int max_gener, Matrix W, Matrix X, Matrix Y, Matrix RES,
+                Matrix XMIN, Matrix XMAX, int [] gener, final boolean add_x0, final ExecutorService pool, final TCancellationToken token, final long seed)
+        {
+                //Compute global minimum of the function dim <2,m> using the CMA-ES algorithm
+                //X, XMIN, XMAX are row vectors, sigma_0 = initial step size relative to the search space (e.g. 0.3)
+                //add_x0: the search starts from X, otherwise from the center of the search space
+                //Sampled generation is evaluated in parallel, one residual function per thread (functions[0] is used for the final solution)
+                //pool: threads of the caller (may be shared), null = all residual functions are evaluated in the calling thread
+                //Each individual has its own random stream split from the seed: results are reproducible and do not depend on the amount of threads
+                final int dim = XMIN.cols(), n_threads = functions.length, lambda = population_size;
+
+                //Bad matrix size: throw exception
+                if (XMIN.cols() != XMAX.cols())
+                        throw new MathMatrixDifferentSizeException ("MathMatrixDifferentSizeException: ", " invalid dimension of the matrices, can not perform CMA-ES; (rows_count columns_count):  ", XMIN, XMAX);
+
+                //Too small population
+                if (lambda < 4)
+                        throw new BadDataException("BadDataException: too small population (pop < 4).", "Can not find the global minimum in this interval...");
+
+                //Bad limits: throw exception
+                for ( int i = 0; i < dim; i++)
+                        if (XMIN.items[0][i] > XMAX.items[0][i]) throw new BadDataException("BadDataException: all limits a(i) > b(i), should be a(i) < b(i).", "Can not find the global minimum in this interval...");
+
+                //Selection: mu best individuals, logarithmic weights
+                final int mu = lambda / 2;
+                final double [] w = new double [mu];
+                double w_sum = 0, w_sum2 = 0;
+
+                for (int i = 0; i < mu; i++)
+                {
+                        w[i] = log(mu + 0.5) - log(i + 1.0);
+                        w_sum += w[i];
+                }
+
+                for (int i = 0; i < mu; i++)
+                {
+                        w[i] /= w_sum;
+                        w_sum2 += w[i] * w[i];
+                }
+
+                final double mu_eff = 1.0 / w_sum2;
+
+                //Adaptation: cumulation constants, learning rates of the covariance matrix, damping of the step size
+                final double cc = (4.0 + mu_eff / dim) / (dim + 4.0 + 2.0 * mu_eff / dim);
+                final double cs = (mu_eff + 2.0) / (dim + mu_eff + 5.0);
+                final double c1 = 2.0 / ((dim + 1.3) * (dim + 1.3) + mu_eff);
+                final double cmu = min(1.0 - c1, 2.0 * (mu_eff - 2.0 + 1.0 / mu_eff) / ((dim + 2.0) * (dim + 2.0) + mu_eff));
+                final double damps = 1.0 + 2.0 * max(0.0, sqrt((mu_eff - 1.0) / (dim + 1.0)) - 1.0) + cs;
+
+                //Expectation of ||N(0, I)||
+                final double chi_n = sqrt(dim) * (1.0 - 1.0 / (4.0 * dim) + 1.0 / (21.0 * dim * dim));
+
+                //Create random streams of individuals
+                SplittableRandom rng = new SplittableRandom(seed);
+                SplittableRandom [] rngs = new SplittableRandom[lambda];
+                for (int k = 0; k < lambda; k++)
+                        rngs[k] = rng.split();
+
+                //Create per thread residual matrices
+                Matrix [] Y_t = new Matrix[n_threads], RES_t = new Matrix[n_threads];
+
+                for (int t = 0; t < n_threads; t++)
+                {
+                        Y_t[t] = (t == 0 ? Y : new Matrix(Y.rows(), Y.cols()));
+                        RES_t[t] = (t == 0 ? RES : new Matrix(RES.rows(), RES.cols()));
+                }
+
+                //Mean, evolution paths, covariance matrix C = B * D^2 * B' (normalized search space)
+                final Matrix M = new Matrix(dim, 1, 0.5);
+                final Matrix M_old = new Matrix(dim, 1);
+                final Matrix PS = new Matrix(dim, 1);
+                final Matrix PC = new Matrix(dim, 1);
+                final Matrix C = new Matrix(dim, dim, 0.0, 1.0);
+                final Matrix B = new Matrix(dim, dim, 0.0, 1.0);
+                final Matrix D = new Matrix(dim, 1, 1.0);
+                final Matrix D2 = new Matrix(dim, 1);
+                final Matrix YW = new Matrix(dim, 1);
+                final Matrix YC = new Matrix(dim, 1);
+
+                //Sampled generation: normalized individuals, their arguments and values
+                final Matrix [] T_N = new Matrix[lambda];
+                final Matrix [] T_A = new Matrix[lambda];
+                final double [] T_V = new double[lambda];
+                final Integer [] index = new Integer[lambda];
+
+                for (int k = 0; k < lambda; k++)
+                {
+                        T_N[k] = new Matrix(dim, 1);
+                        T_A[k] = new Matrix(1, dim);
+                }
+
+                //Start from the initial solution
+                if (add_x0)
+                {
+                        for (int i = 0; i < dim; i++)
+                                M.items[i][0] = normalize(X.items[0][i], XMIN.items[0][i], XMAX.items[0][i]);
+                }
+
+                //Initial step size
+                final double [] sigma = {sigma_0};
+
+                //Best solution found so far
+                final Matrix X_min = new Matrix(1, dim);
+                double fx_min = MAX_FLOAT, fx_min_old_100 = MAX_FLOAT;
+
+                //Set generation to zero
+                gener[0] = 0;
+
+                //Run CMA-ES
+                while (gener[0] < max_gener)
+                {
+                        //Cancelled or deadline expired: return the best solution
+                        if (TCancellationToken.isCancelled(token))
+                                break;
+
+                        //Sample and evaluate the generation, individual k = M + sigma * B * D * N(0, I)
+                        DifferentialEvolution.forEachThread(pool, n_threads, t ->
+                        {
+                                for (int k = t; k < lambda; k += n_threads)
+                                {
+                                        createIndividual(M, B, D, sigma[0], XMIN, XMAX, T_N[k], T_A[k], rngs[k]);
+                                        T_V[k] = DifferentialEvolution.evaluate(functions[t], T_A[k], W, Y_t[t], RES_t[t], MAX_FLOAT);
+                                }
+                        });
+
+                        //Sort the generation according to the values
+                        for (int k = 0; k < lambda; k++)
+                                index[k] = k;
+
+                        Arrays.sort(index, (k1, k2) -> Double.compare(T_V[k1], T_V[k2]));
+
+                        //Actualize the best solution
+                        if (T_V[index[0]] < fx_min)
+                        {
+                                fx_min = T_V[index[0]];
+                                X_min.copy(T_A[index[0]]);
+                        }
+
+                        //Recombination: new mean as the weighted average of mu best individuals
+                        M_old.copy(M);
+
+                        for (int i = 0; i < dim; i++)
+                        {
+                                double sum = 0;
+                                for (int j = 0; j < mu; j++)
+                                        sum += w[j] * T_N[index[j]].items[i][0];
+
+                                M.items[i][0] = sum;
+                        }
+
+                        //Mean shift YW = (M - M_old) / sigma
+                        YW.copy(M);
+                        YW.axpy(-1.0, M_old);
+                        YW.scale(1.0 / sigma[0]);
+
+                        //YC = C^(-1/2) * YW = B * D^(-1) * B' * YW
+                        for (int i = 0; i < dim; i++)
+                        {
+                                double sum = 0;
+                                for (int j = 0; j < dim; j++)
+                                        sum += B.items[j][i] * YW.items[j][0];
+
+                                D2.items[i][0] = sum / D.items[i][0];
+                        }
+
+                        B.multInto(D2, YC);
+
+                        //Cumulation of the step size path
+                        PS.scale(1.0 - cs);
+                        PS.axpy(sqrt(cs * (2.0 - cs) * mu_eff), YC);
+
+                        //Stall the rank-one update, if the step size path is too long
+                        final double ps_norm = PS.norm();
+                        final boolean hsig = ps_norm / sqrt(1.0 - pow(1.0 - cs, 2.0 * (gener[0] + 1))) / chi_n < 1.4 + 2.0 / (dim + 1.0);
+
+                        //Cumulation of the covariance matrix path
+                        PC.scale(1.0 - cc);
+                        if (hsig)
+                                PC.axpy(sqrt(cc * (2.0 - cc) * mu_eff), YW);
+
+                        //Rank-one and rank-mu update of the covariance matrix
+                        final double c_old = 1.0 - c1 - cmu + (hsig ? 0.0 : c1 * cc * (2.0 - cc));
+
+                        for (int i = 0; i < dim; i++)
+                        {
+                                for (int j = 0; j <= i; j++)
+                                {
+                                        double rank_mu = 0;
+                                        for (int l = 0; l < mu; l++)
+                                        {
+                                                final Matrix T = T_N[index[l]];
+                                                rank_mu += w[l] * (T.items[i][0] - M_old.items[i][0]) * (T.items[j][0] - M_old.items[j][0]);
+                                        }
+
+                                        C.items[i][j] = c_old * C.items[i][j] + c1 * PC.items[i][0] * PC.items[j][0] + cmu * rank_mu / (sigma[0] * sigma[0]);
+                                        C.items[j][i] = C.items[i][j];
+                                }
+                        }
+
+                        //Step size control
+                        sigma[0] *= exp((cs / damps) * (ps_norm / chi_n - 1.0));
+
+                        //Eigen decomposition of the covariance matrix C = B * D^2 * B'
+                        C.eigSym(D2, B);
+                        double d_max = 0;
+                        for (int i = 0; i < dim; i++)
+                        {
+                                D.items[i][0] = sqrt(max(D2.items[i][0], EPS));
+                                d_max = max(d_max, D.items[i][0]);
+                        }
+
+                        //Increment generation
+                        gener[0]++;
+
+                        //Terminal condition: values of the generation, step size, no improvement during the last 100 generations
+                        final double diff = T_V[index[lambda - 1]] - T_V[index[0]];
+                        if ((diff < epsilon * max(1.0, fx_min)) && (fx_min < 1.0e2) || (sigma[0] * d_max < epsilon) ||
+                                ((gener[0] % 100 == 0) && (abs(fx_min - fx_min_old_100) < epsilon * max(1.0, fx_min)) && (fx_min < 1.0e2)))
+                        {
+                                break;
+                        }
+
+                        //Remeber minimal value for every 100-th generation
+                        if (gener[0] % 100 == 0)
+                        {
+                                fx_min_old_100 = fx_min;
+                        }
+                }
+
+                //Cancelled before the first generation: evaluate the initial solution
+                if (fx_min == MAX_FLOAT)
+                {
+                        for (int i = 0; i < dim; i++)
+                                X_min.items[0][i] = XMIN.items[0][i] + M.items[i][0] * (XMAX.items[0][i] - XMIN.items[0][i]);
+
+                        fx_min = DifferentialEvolution.evaluate(functions[0], X_min, W, Y, RES, MAX_FLOAT);
+                }
+
+                //Actualize minimum argument
+                X.copy(X_min);
+
+                //Compute residuals
+                functions[0].f(X, Y, RES, W);
+
+                return fx_min;
+        }
+
+
+        private static void createIndividual(final Matrix M, final Matrix B, final Matrix D, final double sigma, final Matrix XMIN, final Matrix XMAX, Matrix N, Matrix A, final SplittableRandom rng)
+        {
+                //Sample the normalized individual N = M + sigma * B * D * z, z = N(0, I), reflected into the unit cube
+                //A = argument of the individual (row vector) in the search space XMIN, XMAX
+                final int dim = M.rows();
+                final double [] z = new double [dim];
+
+                for (int i = 0; i < dim; i++)
+                        z[i] = gaussian(rng) * D.items[i][0];
+
+                for (int i = 0; i < dim; i++)
+                {
+                        double sum = 0;
+                        for (int j = 0; j < dim; j++)
+                                sum += B.items[i][j] * z[j];
+
+                        //Reflection into <0, 1>
+                        final double t = abs(M.items[i][0] + sigma * sum) % 2.0;
+                        N.items[i][0] = (t > 1.0 ? 2.0 - t : t);
+
+                        A.items[0][i] = XMIN.items[0][i] + N.items[i][0] * (XMAX.items[0][i] - XMIN.items[0][i]);
+                }
+        }
+
+
+        private static double normalize(final double x, final double xmin, final double xmax)
+        {
+                //Normalize the argument into <0, 1>, the center for the fixed argument xmin = xmax
+                if (xmax - xmin < MIN_FLOAT)
+                        return 0.5;
+
+                return min(max((x - xmin) / (xmax - xmin), 0.0), 1.0);
+        }
+
+
+        private static double gaussian(final SplittableRandom rng)
+        {
+                //Normally distributed random number N(0, 1), Box-Muller transformation
+                final double u1 = 1.0 - rng.nextDouble(), u2 = rng.nextDouble();
+
+                return sqrt(-2.0 * log(u1)) * cos(2.0 * PI * u2);
+        }
+}
@@ -24,8 +24,16 @@ package detectprojv2j.algorithms.geneticalgorithms;
 import detectprojv2j.algorithms.nonlinearleastsquares.NonLinearLeastSquares;
 import static java.lang.Math.*;
 import java.io.PrintStream;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
 
 import detectprojv2j.types.IResiduals;
+import detectprojv2j.types.TCancellationToken;
 import detectprojv2j.types.TAdaptiveControl;
 import detectprojv2j.types.TMutationStrategy;
 
@@ -37,14 +45,47 @@ import detectprojv2j.exceptions.BadDataException;
 import detectprojv2j.exceptions.MathMatrixDifferentSizeException;
 
 public class DifferentialEvolution {
+        private static final double STAGNATION_TOL = 1.0e-3;                    //Relative decrease of the minimum resetting the stagnation counter
         
         public static double  diffEvolution ( IResiduals function, final int population_size, final double epsilon, final int max_gener, Matrix  F, double [] CR, final TMutationStrategy mutation_strategy,
                 final TAdaptiveControl adaptive_control, Matrix  W, Matrix  X, Matrix  Y, Matrix  RES, Matrix  XMIN, Matrix  XMAX, Matrix  XAVER, double [] aver_res, double [] fx_max,  int [] gener, final boolean add_x0, PrintStream output)
         {
+                //Without cancellation
+                return diffEvolution(function, population_size, epsilon, max_gener, F, CR, mutation_strategy, adaptive_control, W, X, Y, RES, XMIN, XMAX, XAVER, aver_res, fx_max, gener, add_x0, output, null);
+        }
+
+
+        public static double  diffEvolution ( IResiduals function, final int population_size, final double epsilon, final int max_gener, Matrix  F, double [] CR, final TMutationStrategy mutation_strategy,
+                final TAdaptiveControl adaptive_control, Matrix  W, Matrix  X, Matrix  Y, Matrix  RES, Matrix  XMIN, Matrix  XMAX, Matrix  XAVER, double [] aver_res, double [] fx_max,  int [] gener, final boolean add_x0, PrintStream output,
+                final TCancellationToken token)
+        {
+                //Sequential evaluation of the population, random seed
+                return diffEvolution(new IResiduals [] {function}, population_size, epsilon, max_gener, F, CR, mutation_strategy, adaptive_control, W, X, Y, RES, XMIN, XMAX, XAVER, aver_res, fx_max, gener, add_x0, output, null, token, new SplittableRandom().nextLong());
+        }
+
+
+        public static double  diffEvolution ( IResiduals [] functions, final int population_size, final double epsilon, final int max_gener, Matrix  F, double [] CR, final TMutationStrategy mutation_strategy,
+                final TAdaptiveControl adaptive_control, Matrix  W, Matrix  X, Matrix  Y, Matrix  RES, Matrix  XMIN, Matrix  XMAX, Matrix  XAVER, double [] aver_res, double [] fx_max,  int [] gener, final boolean add_x0, PrintStream output,
+                final ExecutorService pool, final TCancellationToken token, final long seed)
+        {
+                //Without stagnation criterion and the best individuals
+                return diffEvolution(functions, population_size, epsilon, max_gener, F, CR, mutation_strategy, adaptive_control, W, X, Y, RES, XMIN, XMAX, XAVER, aver_res, fx_max, gener, add_x0, output, pool, token, seed, 0, null);
+        }
+
+
+        public static double  diffEvolution ( IResiduals [] functions, final int population_size, final double epsilon, final int max_gener, Matrix  F, double [] CR, final TMutationStrategy mutation_strategy,
+                final TAdaptiveControl adaptive_control, Matrix  W, Matrix  X, Matrix  Y, Matrix  RES, Matrix  XMIN, Matrix  XMAX, Matrix  XAVER, double [] aver_res, double [] fx_max,  int [] gener, final boolean add_x0, PrintStream output,
+                final ExecutorService pool, final TCancellationToken token, final long seed, final int max_stagnation, Matrix P_best)
+        {
 
                 //Compute global minimum of the function dim <2,m> using the current differential evolution algorithm
-                int dim = XMIN.cols(), row_index_min = 0, column_index_min = 0;
-                boolean improve = false;
+                //Trial vectors of one generation are created and evaluated in parallel, one residual function per thread (functions[0] is used for the final solution)
+                //pool: threads of the caller (may be shared), null = all residual functions are evaluated in the calling thread
+                //Each individual has its own random stream split from the seed: results are reproducible and do not depend on the amount of threads
+                //max_stagnation: stop, if the minimum has not decreased by more than STAGNATION_TOL (relative) during max_stagnation generations (0 = not used)
+                //P_best: the best individuals of the final population sorted according to the values, one per row (null = not used)
+                final int dim = XMIN.cols(), n_threads = functions.length;
+                int row_index_min = 0, column_index_min = 0;
 
                 //Bad matrix size: throw exception
                 if (XMIN.cols() != XMAX.cols())
@@ -58,23 +99,50 @@ public class DifferentialEvolution {
                 for ( int i = 0; i < dim; i++)
                         if (XMIN.items[0][i] > XMAX.items[0][i]) throw new BadDataException("BadDataException: all limits a(i) > b(i), should be a(i) < b(i).", "Can not find the global minimum in this interval...");
 
+                //Create random streams: initial population and individuals
+                SplittableRandom rng = new SplittableRandom(seed);
+                SplittableRandom [] rngs = new SplittableRandom[population_size];
+                for (int i = 0; i < population_size; i++)
+                        rngs[i] = rng.split();
+
+                //Create per thread residual matrices, mutation and cross-over factors
+                Matrix [] Y_t = new Matrix[n_threads], RES_t = new Matrix[n_threads], F_t = new Matrix[n_threads];
+                double [][] CR_t = new double[n_threads][1];
+
+                for (int t = 0; t < n_threads; t++)
+                {
+                        Y_t[t] = (t == 0 ? Y : new Matrix(Y.rows(), Y.cols()));
+                        RES_t[t] = (t == 0 ? RES : new Matrix(RES.rows(), RES.cols()));
+                        F_t[t] = new Matrix(F.rows(), F.cols());
+                }
+
                 //Create population matrices: matrix of arguments and matrix of values
-                Matrix P_A = new Matrix(population_size, dim);
-                Matrix P_V = new Matrix(population_size, 1);
+                final Matrix P_A = new Matrix(population_size, dim);
+                final Matrix P_V = new Matrix(population_size, 1);
+
+                //Trial vectors and their values
+                final Matrix [] T_A = new Matrix[population_size];
+                final double [] T_V = new double[population_size];
 
                 //Add the initial solution to the population
                 if (add_x0) 
                         P_A.replace(X, 0, 0);
 
                 //Create intial populaton
-                createInitialPopulation(function, XMIN, XMAX, W, Y, RES, population_size, dim, P_A, P_V, add_x0);
-                
-                //Initialize min and old min
-                double fx_min = P_V.min(), fx_min_old_100 = fx_min, fx_min_old = fx_min;
+                createInitialPopulation(XMIN, XMAX, population_size, dim, P_A, add_x0, rng);
 
-                //Assign population attributes and values (residuals)
-                Matrix  Q_A = new Matrix(P_A);
-                Matrix  Q_V = new Matrix(P_V);
+                //Evaluate the initial population
+                forEachThread(pool, n_threads, t ->
+                {
+                        for (int i = t; i < population_size; i += n_threads)
+                                P_V.items[i][0] = evaluate(functions[t], P_A.row(i), W, Y_t[t], RES_t[t], 0);
+                });
+
+                //Initialize min and old min, position of the minimum (cancellation before the first generation)
+                int [] position_min = {0, 0};
+                double fx_min = P_V.min(position_min), fx_min_old_100 = fx_min, fx_min_old = fx_min, fx_min_stag = fx_min;
+                row_index_min = position_min[0];
+                int stagnation = 0;
 
                 //Set generation to zero
                 gener[0] = 0;
@@ -85,6 +153,10 @@ public class DifferentialEvolution {
                 //Run differential evolution
                 while (gener[0] < max_gener)
                 {
+                        //Cancelled or deadline expired: return the best element of the population
+                        if (TCancellationToken.isCancelled(token))
+                                break;
+
                         //Process each element of the population: apply differential evolution operators to one element, slightly modified version
                         //Current version differential evolution apply each operator to all population
 
@@ -92,136 +164,33 @@ public class DifferentialEvolution {
                         if (adaptive_control == TAdaptiveControl.AdaptiveDecreasing)
                                 F.items[0][0] = 0.5 * (max_gener - gener[0]) / max_gener;
 
-                        //Set initial dg
-                        double dg = 1.2;
+                        //Create and evaluate trial vectors, the population P is not overwritten inside the cycle
+                        final int gen = gener[0];
+                        final boolean improvement = fx_min < fx_min_old;
 
-                        for ( int i = 0; i < population_size; i++)
+                        forEachThread(pool, n_threads, t ->
                         {
-                                //Set mutation and cross-over factors depending on the adaptive control
-                                if (adaptive_control == TAdaptiveControl.AdaptiveRandom)
-                                {
-                                        F.items[0][0] = 0.5 * (1.0 + random());   //check
-                                }
-
-                                else if (adaptive_control == TAdaptiveControl.Jitter)
-                                {
-                                        //Create vector of random numbers (dim, 1)
-                                        for ( int j = 0; j < dim; j++)
-                                        {
-                                                //Generate the random number (0,1)
-                                                final double r = random();
-
-                                                F.items[0][j] = 0.5 * (1 + 0.001 * (r - 0.5));
-                                        }
-                                }
-
-                                else if ( ( adaptive_control == TAdaptiveControl.MFDE ) && (gener[0] > 0) )
-                                {
-                                        //Generate the random number (0,1)
-                                        final double r = random();
-
-                                        //Modify the mutation factor F: 
-                                        //Improvement of the solution
-                                        if (fx_min < fx_min_old) //Improvement
-                                        {
-                                                F.items[0][0] = 1.5 * sqrt(r * r * dg);
-                                        }
-
-                                        //No improvement
-                                        else
-                                        {
-                                                F.items[0][0] = sqrt(r * r * dg) - 0.2;
-                                        }
-
-                                        //Decrement dg
-                                        dg -= 1.0 / population_size;
-                                }
-
-                                else if (adaptive_control == TAdaptiveControl.SAM)
-                                {
-                                        final double TAU1 = 0.1;
-                                        final double r1 = random();
-
-                                        //Update mutation factor
-                                        if (r1 < TAU1)
-                                        {
-                                                final double r2 = random();
-                                                F.items[0][0] = 0.1 + 0.9  * r2;
-                                                FM.items[i][0] = F.items[0][0];
-                                        }
-
-                                        //Use the mutation factor from the previous generation
-                                        else F.items[0][0] = FM.items[i][0];
-
-                                        final double r3 = random();
-
-                                        //Update cross-over ratio
-                                        if (r3 < TAU1)
-                                        {
-                                                final double r4 = random();
-                                                CR[0] = r4;
-                                                CRM.items[i][0] = CR[0];
-                                        }
-
-                                        else CR[0] = CRM.items[i][0];
-                                }
-
-                                //Set mutation strategy, create mutated vector U
-                                Matrix  U = new Matrix(1, dim);
-                                Matrix AS = new Matrix(3, dim);
-
-                                if (mutation_strategy == TMutationStrategy.DERand1Strategy)
-                                        mutationStrategyDERand1(P_A, i, population_size, F, U);
-                                else if (mutation_strategy == TMutationStrategy.DERand2Strategy)
-                                        mutationStrategyDERand2(P_A, i, population_size, F, U);
-                                else if (mutation_strategy == TMutationStrategy.DERandDir1Strategy)
-                                        mutationStrategyDERandDir1(P_A, P_V,  i, population_size, F, U);
-                                else if (mutation_strategy == TMutationStrategy.DERandDir2Strategy)
-                                        mutationStrategyDERandDir2(P_A, P_V, i, population_size, F, U);
-                                else if (mutation_strategy == TMutationStrategy.DERandBest1Strategy)
-                                        mutationStrategyDERandBest1(P_A, P_V, i, population_size, F, U);
-                                else if (mutation_strategy == TMutationStrategy.DERandBest2Strategy)
-                                        mutationStrategyDERandBest2(P_A, P_V, i, population_size, F, U);
-                                else if (mutation_strategy == TMutationStrategy.DERandBestDir1Strategy)
-                                        mutationStrategyDERandBestDir1(P_A, P_V, i, population_size, F, U);
-                                else if (mutation_strategy == TMutationStrategy.DETargetToBest1Strategy)
-                                        mutationStrategyDETargetToBest1(P_A, P_V, i, population_size, F, U);
-                                else if (mutation_strategy == TMutationStrategy.SACPStrategy)
-                                        mutationStrategySACP(P_A, P_V, i, population_size, aver_res[0], F, CR, U);
-
-                                //Perform cross-over, create vector V
-                                Matrix  V = P_A.row(i); //Assign V = X
-                                crossover(U, CR[0], dim, V);
-
-                                //Perform redlection in to the search space
-                                reflection(V, XMIN, XMAX);
-
-                                //Compute residuals for perturbated vector V
-                                double function_val_y;
-
-                                try
-                                {
-                                        function.f(V, Y, RES, W);
-                                        function_val_y = (((RES.trans()).mult(W)).mult(RES)).norm();
-                                }
+                                //Mutation and cross-over factors of the thread
+                                F_t[t].copy(F);
+                                CR_t[t][0] = CR[0];
 
-                                catch (Exception error)
+                                for (int i = t; i < population_size; i += n_threads)
                                 {
-                                        function_val_y = MAX_FLOAT;
+                                        T_A[i] = createTrialVector(P_A, P_V, i, population_size, dim, gen, improvement, F_t[t], CR_t[t], FM, CRM, aver_res[0], mutation_strategy, adaptive_control, XMIN, XMAX, rngs[i]);
+                                        T_V[i] = evaluate(functions[t], T_A[i], W, Y_t[t], RES_t[t], MAX_FLOAT);
                                 }
+                        });
 
-                                //Replacement rule: new value is better, update Q
-                                if (function_val_y <= P_V.items[i][0])
+                        //Replacement rule: new value is better, update P
+                        for (int i = 0; i < population_size; i++)
+                        {
+                                if (T_V[i] <= P_V.items[i][0])
                                 {
-                                        Q_A.row(V, i);
-                                        Q_V.items[i][0] = function_val_y;
+                                        P_A.row(T_A[i], i);
+                                        P_V.items[i][0] = T_V[i];
                                 }
                         }
 
-                        //Replace P with Q: P elements can not be overwritten inside the cycle
-                        P_A = Q_A;
-                        P_V = Q_V;
-
                         //Compute average of the population
                         XAVER = (P_A.sumCols()).mult( 1.0 / population_size);
 
@@ -251,13 +220,36 @@ public class DifferentialEvolution {
                         {
                                 fx_min_old_100 = fx_min;
                         }
+
+                        //Stagnation: no significant improvement of the minimum during the last max_stagnation generations
+                        if (fx_min < (1.0 - STAGNATION_TOL) * fx_min_stag)
+                        {
+                                fx_min_stag = fx_min;
+                                stagnation = 0;
+                        }
+
+                        else if ((max_stagnation > 0) && (++stagnation >= max_stagnation))
+                        {
+                                break;
+                        }
+                }
+
+                //Get the best individuals of the population
+                if (P_best != null)
+                {
+                        Matrix IX = new Matrix(population_size, 1);
+                        Matrix P_V_sort = new Matrix(P_V);
+                        P_V_sort.sort(IX, 0);
+
+                        for (int i = 0; i < min(P_best.rows(), population_size); i++)
+                                P_best.row(P_A.row((int) IX.items[i][0]), i);
                 }
 
                 //Actualize minimum argument
                 X.copy(P_A.row(row_index_min));
 
                 //Compute residuals
-                function.f(X, Y, RES, W );
+                functions[0].f(X, Y, RES, W );
 
                 //System.out.print(" [" + gener[0] + " it., fmin = " + fx_min + "]" + '\n');
 
@@ -265,52 +257,183 @@ public class DifferentialEvolution {
         }
 
 
-        public static void createInitialPopulation(IResiduals function, final Matrix  XMIN, final Matrix  XMAX, Matrix  W,  Matrix  Y, Matrix  RES, final int population_size, final  int dim, Matrix  P_A, Matrix  P_V, final boolean add_x0)
+        static void forEachThread(final ExecutorService pool, final int n_threads, final IntConsumer task)
         {
-                //Create initial population
+                //Run the task for all thread indices, sequential evaluation in the calling thread
+                if (pool == null)
+                {
+                        for (int t = 0; t < n_threads; t++)
+                                task.accept(t);
+                        return;
+                }
 
-                //Create individual and comoute its cost
-                for ( int i = 0; i < population_size; i++)
+                List <Future<?>> tasks = new ArrayList<>();
+                for (int t = 0; t < n_threads; t++)
                 {
-                        //Create random vectors
-                        if ( ( i != 0 ) && ( add_x0 ) || ( ! add_x0 ) )
+                        final int index = t;
+                        tasks.add(pool.submit(() -> task.accept(index)));
+                }
+
+                //Wait for all threads
+                try
+                {
+                        for (Future<?> task_t : tasks)
+                                task_t.get();
+                }
+
+                catch (InterruptedException | ExecutionException e)
+                {
+                        throw new IllegalStateException(e);
+                }
+        }
+
+
+        static double evaluate(IResiduals function, final Matrix V, final Matrix W, Matrix Y, Matrix RES, final double failed_val)
+        {
+                //Compute the objective function of the individual, failed_val if the residuals can not be computed
+                try
+                {
+                        function.f(V, Y, RES, W);
+                        return RES.sum2(W);
+                }
+
+                catch (Exception error)
+                {
+                        return failed_val;
+                }
+        }
+
+
+        static Matrix createTrialVector(final Matrix P_A, final Matrix P_V, final int i, final int population_size, final int dim, final int gener, final boolean improvement, Matrix F, double [] CR,
+                Matrix FM, Matrix CRM, final double aver_res, final TMutationStrategy mutation_strategy, final TAdaptiveControl adaptive_control, final Matrix XMIN, final Matrix XMAX, final SplittableRandom rng)
+        {
+                //Create trial vector of the i-th element of the population: adaptive control, mutation, cross-over and reflection
+                //Set mutation and cross-over factors depending on the adaptive control
+                if (adaptive_control == TAdaptiveControl.AdaptiveRandom)
+                {
+                        F.items[0][0] = 0.5 * (1.0 + rng.nextDouble());   //check
+                }
+
+                else if (adaptive_control == TAdaptiveControl.Jitter)
+                {
+                        //Create vector of random numbers (dim, 1)
+                        for ( int j = 0; j < dim; j++)
                         {
-                                for ( int j = 0; j < dim; j++)
-                                        P_A.items[i][j] = XMIN.items[0][j] + (XMAX.items[0][j] - XMIN.items[0][j]) * random();
+                                //Generate the random number (0,1)
+                                final double r = rng.nextDouble();
+
+                                F.items[0][j] = 0.5 * (1 + 0.001 * (r - 0.5));
                         }
+                }
+
+                else if ( ( adaptive_control == TAdaptiveControl.MFDE ) && (gener > 0) )
+                {
+                        //Generate the random number (0,1)
+                        final double r = rng.nextDouble();
 
-                        //Compute function values for random population
-                        try
+                        //Decreasing dg, starts at 1.2 for the first element
+                        final double dg = 1.2 - (double) i / population_size;
+
+                        //Modify the mutation factor F: 
+                        //Improvement of the solution
+                        if (improvement) //Improvement
                         {
-                                //Get current row
-                                Matrix  P_AR = P_A.row(i);
+                                F.items[0][0] = 1.5 * sqrt(r * r * dg);
+                        }
 
-                                //Compute residuals
-                                function.f(P_AR, Y, RES, W);
+                        //No improvement
+                        else
+                        {
+                                F.items[0][0] = sqrt(r * r * dg) - 0.2;
+                        }
+                }
 
-                                //Evaluate objective function
-                                P_V.items[i][0] = (((RES.trans()).mult(W)).mult(RES)).items[0][0];
+                else if (adaptive_control == TAdaptiveControl.SAM)
+                {
+                        final double TAU1 = 0.1;
+                        final double r1 = rng.nextDouble();
 
+                        //Update mutation factor
+                        if (r1 < TAU1)
+                        {
+                                final double r2 = rng.nextDouble();
+                                F.items[0][0] = 0.1 + 0.9  * r2;
+                                FM.items[i][0] = F.items[0][0];
                         }
 
-                        catch (Exception error)
+                        //Use the mutation factor from the previous generation
+                        else F.items[0][0] = FM.items[i][0];
+
+                        final double r3 = rng.nextDouble();
+
+                        //Update cross-over ratio
+                        if (r3 < TAU1)
                         {
-                                P_V.items[i][0] = 0;
+                                final double r4 = rng.nextDouble();
+                                CR[0] = r4;
+                                CRM.items[i][0] = CR[0];
                         }
+
+                        else CR[0] = CRM.items[i][0];
                 }
 
+                //Set mutation strategy, create mutated vector U
+                Matrix  U = new Matrix(1, dim);
+
+                if (mutation_strategy == TMutationStrategy.DERand1Strategy)
+                        mutationStrategyDERand1(P_A, i, population_size, F, U, rng);
+                else if (mutation_strategy == TMutationStrategy.DERand2Strategy)
+                        mutationStrategyDERand2(P_A, i, population_size, F, U, rng);
+                else if (mutation_strategy == TMutationStrategy.DERandDir1Strategy)
+                        mutationStrategyDERandDir1(P_A, P_V,  i, population_size, F, U, rng);
+                else if (mutation_strategy == TMutationStrategy.DERandDir2Strategy)
+                        mutationStrategyDERandDir2(P_A, P_V, i, population_size, F, U, rng);
+                else if (mutation_strategy == TMutationStrategy.DERandBest1Strategy)
+                        mutationStrategyDERandBest1(P_A, P_V, i, population_size, F, U, rng);
+                else if (mutation_strategy == TMutationStrategy.DERandBest2Strategy)
+                        mutationStrategyDERandBest2(P_A, P_V, i, population_size, F, U, rng);
+                else if (mutation_strategy == TMutationStrategy.DERandBestDir1Strategy)
+                        mutationStrategyDERandBestDir1(P_A, P_V, i, population_size, F, U, rng);
+                else if (mutation_strategy == TMutationStrategy.DETargetToBest1Strategy)
+                        mutationStrategyDETargetToBest1(P_A, P_V, i, population_size, F, U, rng);
+                else if (mutation_strategy == TMutationStrategy.SACPStrategy)
+                        mutationStrategySACP(P_A, P_V, i, population_size, aver_res, F, CR, U, rng);
+
+                //Perform cross-over, create vector V
+                Matrix  V = P_A.row(i); //Assign V = X
+                crossover(U, CR[0], dim, V, rng);
+
+                //Perform redlection in to the search space
+                reflection(V, XMIN, XMAX);
+
+                return V;
+        }
+
+
+        public static void createInitialPopulation(final Matrix  XMIN, final Matrix  XMAX, final int population_size, final  int dim, Matrix  P_A, final boolean add_x0, final SplittableRandom rng)
+        {
+                //Create initial population, random vectors inside the search space
+                for ( int i = 0; i < population_size; i++)
+                {
+                        //Create random vectors
+                        if ( ( i != 0 ) && ( add_x0 ) || ( ! add_x0 ) )
+                        {
+                                for ( int j = 0; j < dim; j++)
+                                        P_A.items[i][j] = XMIN.items[0][j] + (XMAX.items[0][j] - XMIN.items[0][j]) * rng.nextDouble();
+                        }
+                }
         }
 
 
-        public static void mutationStrategyDERand1(final Matrix  P_A, final int i, final int population_size, final Matrix  F, Matrix  U)
+        public static void mutationStrategyDERand1(final Matrix  P_A, final int i, final int population_size, final Matrix  F, Matrix  U, final SplittableRandom rng)
         {
                 //Create next generation picking 3 random random vectors from the current population
                  int i1 = 0, i2 = 0, i3 = 0, m = F.rows();
 
                 //Get three random indices different from i
-                do {i1 = (int)(random() * population_size);} while ( i1 == i );
-                do {i2 = (int)(random() * population_size);} while ( ( i2 == i1 ) || ( i2 == i ) );
-                do {i3 = (int)(random() * population_size);} while ( ( i3 == i2 ) || ( i3 == i1 ) || ( i3 == i ) );
+                do {i1 = (int)(rng.nextDouble() * population_size);} while ( i1 == i );
+                do {i2 = (int)(rng.nextDouble() * population_size);} while ( ( i2 == i1 ) || ( i2 == i ) );
+                do {i3 = (int)(rng.nextDouble() * population_size);} while ( ( i3 == i2 ) || ( i3 == i1 ) || ( i3 == i ) );
 
                 //Get vectors corresponding to indices
                 Matrix  R1 = P_A.row ( i1 ), R2 = P_A.row ( i2 ), R3 = P_A.row ( i3 );
@@ -325,17 +448,17 @@ public class DifferentialEvolution {
         }
 
 
-        public static void mutationStrategyDERand2(final Matrix P_A, final int i, final int population_size, final Matrix F, Matrix U)
+        public static void mutationStrategyDERand2(final Matrix P_A, final int i, final int population_size, final Matrix F, Matrix U, final SplittableRandom rng)
         {
                 //Create next generation picking 5 random random vectors from the current population
                  int i1 = 0, i2 = 0, i3 = 0, i4 = 0, i5 = 0, m = F.rows();
 
                 //Get five random indices different from i
-                do {i1 = (int)(random() * population_size);} while (i1 == i);
-                do {i2 = (int)(random() * population_size);} while ((i2 == i1) || (i2 == i));
-                do {i3 = (int)(random() * population_size);} while ((i3 == i2) || (i3 == i1) || (i3 == i));
-                do {i4 = (int)(random() * population_size);} while ((i4 == i3) || (i4 == i2) || (i4 == i1) || (i4 == i));
-                do {i5 = (int)(random() * population_size);} while ((i5 == i4) || (i5 == i3) || (i5 == i2) || (i5 == i1) || (i5 == i));
+                do {i1 = (int)(rng.nextDouble() * population_size);} while (i1 == i);
+                do {i2 = (int)(rng.nextDouble() * population_size);} while ((i2 == i1) || (i2 == i));
+                do {i3 = (int)(rng.nextDouble() * population_size);} while ((i3 == i2) || (i3 == i1) || (i3 == i));
+                do {i4 = (int)(rng.nextDouble() * population_size);} while ((i4 == i3) || (i4 == i2) || (i4 == i1) || (i4 == i));
+                do {i5 = (int)(rng.nextDouble() * population_size);} while ((i5 == i4) || (i5 == i3) || (i5 == i2) || (i5 == i1) || (i5 == i));
 
                 //Get vectors corresponding to indices
                 Matrix  R1 = P_A.row(i1), R2 = P_A.row(i2), R3 = P_A.row(i3), R4 = P_A.row(i4), R5 = P_A.row(i5);
@@ -350,15 +473,15 @@ public class DifferentialEvolution {
         }
 
 
-        public static void mutationStrategyDERandDir1(final Matrix P_A, final Matrix P_V, final int i, final int population_size, final Matrix F, Matrix U)
+        public static void mutationStrategyDERandDir1(final Matrix P_A, final Matrix P_V, final int i, final int population_size, final Matrix F, Matrix U, final SplittableRandom rng)
         {
                 //Create next generation picking 2 random random vectors from the current population + aproximate gradient
                 int i1 = 0, i2 = 0;
                 final  int m = P_A.rows(), n = P_A.cols(), nf = F.cols();
 
                 //Get two random indices different from i
-                do {i1 = (int)(random() * population_size);} while (i1 == i);
-                do {i2 = (int)(random() * population_size);} while ((i2 == i1) || (i2 == i));
+                do {i1 = (int)(rng.nextDouble() * population_size);} while (i1 == i);
+                do {i2 = (int)(rng.nextDouble() * population_size);} while ((i2 == i1) || (i2 == i));
 
                 //Get vectors corresponding to indices  and objective function values
                 Matrix  R1 = P_A.row(i1), R2 = P_A.row(i2);
@@ -387,17 +510,17 @@ public class DifferentialEvolution {
         }
 
 
-        public static void mutationStrategyDERandDir2(final Matrix P_A, final Matrix P_V, final int i, final int population_size, final Matrix F, Matrix U)
+        public static void mutationStrategyDERandDir2(final Matrix P_A, final Matrix P_V, final int i, final int population_size, final Matrix F, Matrix U, final SplittableRandom rng)
         {
                 //Create next generation picking 4 random sorted vectors from the current population + approximate gradient
                 int i1 = 0, i2 = 0, i3 = 0, i4 = 0;
                 final  int m = P_A.rows(), n = P_A.cols(), nf = F.cols();
 
                 //Get four random indices different from i
-                do {i1 = (int)(random() * population_size);} while (i1 == i);
-                do {i2 = (int)(random() * population_size);} while ((i2 == i1) || (i2 == i));
-                do {i3 = (int)(random() * population_size);} while ((i3 == i2) || (i3 == i1) || (i3 == i));
-                do {i4 = (int)(random() * population_size);} while ((i4 == i3) || (i4 == i2) || (i4 == i1) || (i4 == i));
+                do {i1 = (int)(rng.nextDouble() * population_size);} while (i1 == i);
+                do {i2 = (int)(rng.nextDouble() * population_size);} while ((i2 == i1) || (i2 == i));
+                do {i3 = (int)(rng.nextDouble() * population_size);} while ((i3 == i2) || (i3 == i1) || (i3 == i));
+                do {i4 = (int)(rng.nextDouble() * population_size);} while ((i4 == i3) || (i4 == i2) || (i4 == i1) || (i4 == i));
 
                 //Get individuals corresponding to indices and their values
                 Matrix  R1 = P_A.row(i1), R2 = P_A.row(i2), R3 = P_A.row(i3), R4 = P_A.row(i4);
@@ -427,7 +550,7 @@ public class DifferentialEvolution {
         }
 
         
-        public static void mutationStrategyDERandBest1(final Matrix P_A, final Matrix P_V, final int i, final int population_size, final Matrix F, Matrix U)
+        public static void mutationStrategyDERandBest1(final Matrix P_A, final Matrix P_V, final int i, final int population_size, final Matrix F, Matrix U, final SplittableRandom rng)
         {
                 //Create next generation picking the minimum and 4 random random vectors from the current population
                  int i1 = 0, i2 = 0;
@@ -440,8 +563,8 @@ public class DifferentialEvolution {
                 column_index_min = position[1];
 
                 //Get two random indices different from i
-                do {i1 = (int)(random() * population_size);} while ((i1 == i) || (i1 == row_index_min));
-                do {i2 = (int)(random() * population_size);} while ((i2 == i1) || (i2 == i) || (i2 == row_index_min));
+                do {i1 = (int)(rng.nextDouble() * population_size);} while ((i1 == i) || (i1 == row_index_min));
+                do {i2 = (int)(rng.nextDouble() * population_size);} while ((i2 == i1) || (i2 == i) || (i2 == row_index_min));
 
                 //Get vectors corresponding to indices
                 Matrix  R1 = P_A.row(i1), R2 = P_A.row(i2);
@@ -458,7 +581,7 @@ public class DifferentialEvolution {
         }
 
         
-        public static void mutationStrategyDERandBest2(final Matrix P_A, final Matrix P_V, final int i, final int population_size, final Matrix F, Matrix U)
+        public static void mutationStrategyDERandBest2(final Matrix P_A, final Matrix P_V, final int i, final int population_size, final Matrix F, Matrix U, final SplittableRandom rng)
         {
                 //Create next generation picking the minimum and 4 random random vectors from the current population
                  int i1 = 0, i2 = 0, i3 = 0, i4 = 0;
@@ -471,10 +594,10 @@ public class DifferentialEvolution {
                 column_index_min = position[1];
 
                 //Get four random indices different from i
-                do { i1 = (int)(random() * population_size );} while ( ( i1 == i ) || ( i1 == row_index_min ) );
-                do { i2 = (int)(random() * population_size );} while ( ( i2 == i1 ) || ( i2 == i ) || ( i2 == row_index_min ) );
-                do { i3 = (int)(random() * population_size );} while ( ( i3 == i2 ) || ( i3 == i1 ) || ( i3 == i ) || ( i3 == row_index_min ) );
-                do { i4 = (int)(random() * population_size );} while ( ( i4 == i3 ) || ( i4 == i2 ) || ( i4 == i1 ) || ( i4 == i ) || ( i4 == row_index_min ) );
+                do { i1 = (int)(rng.nextDouble() * population_size );} while ( ( i1 == i ) || ( i1 == row_index_min ) );
+                do { i2 = (int)(rng.nextDouble() * population_size );} while ( ( i2 == i1 ) || ( i2 == i ) || ( i2 == row_index_min ) );
+                do { i3 = (int)(rng.nextDouble() * population_size );} while ( ( i3 == i2 ) || ( i3 == i1 ) || ( i3 == i ) || ( i3 == row_index_min ) );
+                do { i4 = (int)(rng.nextDouble() * population_size );} while ( ( i4 == i3 ) || ( i4 == i2 ) || ( i4 == i1 ) || ( i4 == i ) || ( i4 == row_index_min ) );
 
                 //Get vectors corresponding to indices
                 Matrix  R1 = P_A.row ( i1 ), R2 = P_A.row ( i2 ), R3 = P_A.row ( i3 ), R4 = P_A.row ( i4 );
@@ -489,7 +612,7 @@ public class DifferentialEvolution {
         }
 
 
-        public static void mutationStrategyDERandBestDir1(final Matrix P_A, final Matrix P_V, final  int i, final int population_size, final Matrix F, Matrix U)
+        public static void mutationStrategyDERandBestDir1(final Matrix P_A, final Matrix P_V, final  int i, final int population_size, final Matrix F, Matrix U, final SplittableRandom rng)
         {
                 //Create next generation picking the minimum and 2 random random, best and current vectors from the population
                  int i1 = 0, i2 = 0;
@@ -502,8 +625,8 @@ public class DifferentialEvolution {
                 column_index_min = position[1];
 
                 //Get two random indices different from i
-                do {i1 = (int)(random() * population_size);} while ((i1 == i) || (i1 == row_index_min));
-                do {i2 = (int)(random() * population_size);} while ((i2 == i1) || (i2 == i) || (i2 == row_index_min));
+                do {i1 = (int)(rng.nextDouble() * population_size);} while ((i1 == i) || (i1 == row_index_min));
+                do {i2 = (int)(rng.nextDouble() * population_size);} while ((i2 == i1) || (i2 == i) || (i2 == row_index_min));
 
                 //Get vectors corresponding to indices
                 Matrix  R1 = P_A.row(i1), R2 = P_A.row(i2), Ri = P_A.row(i);
@@ -518,7 +641,7 @@ public class DifferentialEvolution {
         }
 
 
-        public static void mutationStrategyDETargetToBest1(final Matrix P_A, final Matrix P_V, final int i, final int population_size, final Matrix  F, Matrix  U)
+        public static void mutationStrategyDETargetToBest1(final Matrix P_A, final Matrix P_V, final int i, final int population_size, final Matrix  F, Matrix  U, final SplittableRandom rng)
         {
                 //Create next generation picking the minimum and 2 random random, best and current vectors from the population
                  int i1 = 0, i2 = 0;
@@ -531,8 +654,8 @@ public class DifferentialEvolution {
                 column_index_min = position[1];
 
                 //Get two random indices different from i
-                do {i1 = (int)(random()* population_size);} while ((i1 == i) || (i1 == row_index_min));
-                do {i2 = (int)(random()* population_size);} while ((i2 == i1) || (i2 == i) || (i2 == row_index_min));
+                do {i1 = (int)(rng.nextDouble()* population_size);} while ((i1 == i) || (i1 == row_index_min));
+                do {i2 = (int)(rng.nextDouble()* population_size);} while ((i2 == i1) || (i2 == i) || (i2 == row_index_min));
 
                 //Get vectors corresponding to indices
                 Matrix  R1 = P_A.row(i1), R2 = P_A.row(i2), Ri = P_A.row(i);
@@ -547,16 +670,16 @@ public class DifferentialEvolution {
         }
 
 
-        public static void mutationStrategySACP(final Matrix P_A, final Matrix P_V, final int i, final int  population_size, final double aver_res, Matrix  F, double [] CR, Matrix  U)
+        public static void mutationStrategySACP(final Matrix P_A, final Matrix P_V, final int i, final int  population_size, final double aver_res, Matrix  F, double [] CR, Matrix  U, final SplittableRandom rng)
         {
                 //Adaptive strategy for SACP method, modifying the mutation and cross-over factors F, CR
                 int i1 = 0, i2 = 0, i3 = 0;
                 final  int m = P_A.rows(), n = P_A.cols();
 
                 //Get three random indices different from i
-                do {i1 = (int)(random() * population_size);} while (i1 == i);
-                do {i2 = (int)(random() * population_size);} while ((i2 == i1) || (i2 == i));
-                do {i3 = (int)(random() * population_size);} while ((i3 == i2) || (i3 == i1) || (i3 == i));
+                do {i1 = (int)(rng.nextDouble() * population_size);} while (i1 == i);
+                do {i2 = (int)(rng.nextDouble() * population_size);} while ((i2 == i1) || (i2 == i));
+                do {i3 = (int)(rng.nextDouble() * population_size);} while ((i3 == i2) || (i3 == i1) || (i3 == i));
 
                 //Create matrix of attributes corresponding to indices and their values
                 Matrix A = new Matrix(3, n);
@@ -596,7 +719,7 @@ public class DifferentialEvolution {
         }
 
 
-        public static void crossover ( final Matrix U, final double CR, final int dim, Matrix V )
+        public static void crossover ( final Matrix U, final double CR, final int dim, Matrix V, final SplittableRandom rng )
         {
                 //Compute cross-over: rewrite U elements
                  short total_swap = 0;
@@ -604,7 +727,7 @@ public class DifferentialEvolution {
                 for (  int j = 0; j < dim; j++ )
                 {
                         //Generate random number and compare to C
-                        final double r_val = random();
+                        final double r_val = rng.nextDouble();
 
                         //Rewrite elements
                         if ( r_val < CR )
@@ -617,7 +740,7 @@ public class DifferentialEvolution {
                 //No cross over has been performed: rewrite random element
                 if ( total_swap == 0 )
                 {
-                        final int index = (int)(random() * dim);
+                        final int index = (int)(rng.nextDouble() * dim);
                         V.items [0][index] = U.items[0][index];
                 }
         }
@@ -37,8 +37,8 @@ public class FRM7DE {
         
        public void function (Matrix X, Matrix Y, Matrix V, Matrix W)
        {
-		//Call NLS function
-                frm7.function(X.trans(), Y, V, W);
+		//Call NLS function, parameters are stored in the row vector
+                frm7.function(X, Y, V, W);
        }
         
 }
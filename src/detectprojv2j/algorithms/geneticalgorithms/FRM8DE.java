@@ -38,7 +38,7 @@ public class FRM8DE {
         
        public void function (Matrix X, Matrix Y, Matrix V, Matrix W)
        {
-		//Call NLS function
-                frm8.function(X.trans(), Y, V, W);
+		//Call NLS function, parameters are stored in the row vector
+                frm8.function(X, Y, V, W);
        }
 }
@@ -0,0 +1,377 @@
+// Description: Find global minimum using the island model differential evolution
+// Independent populations with different mutation strategies exchange elite individuals
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+
+package detectprojv2j.algorithms.geneticalgorithms;
+
+import static java.lang.Math.*;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import detectprojv2j.types.IResiduals;
+import detectprojv2j.types.TCancellationToken;
+import detectprojv2j.types.TAdaptiveControl;
+import detectprojv2j.types.TIslandModel;
+import detectprojv2j.types.TMigrationTopology;
+import detectprojv2j.types.TMutationStrategy;
+
+import detectprojv2j.structures.matrix.Matrix;
+
+import static detectprojv2j.consts.Consts.*;
+
+import detectprojv2j.exceptions.BadDataException;
+import detectprojv2j.exceptions.MathMatrixDifferentSizeException;
+
+
+public class IslandDifferentialEvolution {
+
+        public static double diffEvolution(IResiduals [] functions, final TIslandModel model, final int population_size, final double epsilon, final int max_gener, final double F, final double CR,
+                Matrix W, Matrix X, Matrix Y, Matrix RES, final Matrix XMIN, final Matrix XMAX, int [] gener, final boolean add_x0, final ExecutorService pool, final TCancellationToken token, final long seed)
+        {
+                //Compute global minimum of the function using several islands evolved for the migration interval, then elite individuals migrate
+                //One residual function per island (functions[0] is used for the final solution), population_size = population of one island
+                //Islands are evolved in parallel on the given pool (may be shared), null = sequentially in the calling thread
+                final int dim = XMIN.cols(), n_islands = model.n_islands;
+
+                //Bad matrix size: throw exception
+                if (XMIN.cols() != XMAX.cols())
+                        throw new MathMatrixDifferentSizeException ("MathMatrixDifferentSizeException: ", " invalid dimension of the matrices, can not perform differential evolution; (rows_count columns_count):  ", XMIN, XMAX);
+
+                //Too small population
+                if (population_size < dim + 1)
+                        throw new BadDataException("BadDataException: too small population (pop < dim + 1).", "Can not find the global minimum in this interval...");
+
+                //Not enough residual functions
+                if (functions.length < n_islands)
+                        throw new BadDataException("BadDataException: not enough residual functions (functions < islands).", "Can not find the global minimum in this interval...");
+
+                //Bad limits: throw exception
+                for ( int i = 0; i < dim; i++)
+                        if (XMIN.items[0][i] > XMAX.items[0][i]) throw new BadDataException("BadDataException: all limits a(i) > b(i), should be a(i) < b(i).", "Can not find the global minimum in this interval...");
+
+                //Create islands, the initial solution is added to the first island
+                SplittableRandom rng = new SplittableRandom(seed);
+                Island [] islands = new Island[n_islands];
+
+                for (int k = 0; k < n_islands; k++)
+                        islands[k] = new Island(functions[k], model.getStrategy(k), model.getControl(k), population_size, dim, F, CR, W, (k == 0 ? Y : new Matrix(Y.rows(), Y.cols())),
+                                (k == 0 ? RES : new Matrix(RES.rows(), RES.cols())), XMIN, XMAX, (k == 0 && add_x0 ? X : null), rng.split());
+
+                //Create and evaluate initial populations
+                runIslands(islands, pool, island -> island.initialize());
+
+                //Set generation to zero
+                gener[0] = 0;
+
+                //Run epochs: evolve all islands, then migrate
+                while (gener[0] < max_gener)
+                {
+                        //Cancelled or deadline expired: return the best individual
+                        if (TCancellationToken.isCancelled(token))
+                                break;
+
+                        //All islands converged
+                        boolean converged = true;
+                        for (Island island : islands)
+                                converged = converged && island.converged;
+
+                        if (converged)
+                                break;
+
+                        //Evolve islands
+                        final int n_gener = min(model.migration_interval, max_gener - gener[0]);
+                        runIslands(islands, pool, island -> island.evolve(n_gener, max_gener, epsilon, token));
+                        gener[0] += n_gener;
+
+                        //Exchange elite individuals
+                        migrate(islands, model.n_migrants, model.topology);
+                }
+
+                //Find the best island
+                int k_min = 0;
+                for (int k = 1; k < n_islands; k++)
+                {
+                        if (islands[k].fx_min < islands[k_min].fx_min)
+                                k_min = k;
+                }
+
+                //Actualize minimum argument
+                X.copy(islands[k_min].P_A.row(islands[k_min].row_index_min));
+
+                //Compute residuals
+                functions[0].f(X, Y, RES, W);
+
+                return islands[k_min].fx_min;
+        }
+
+
+        private static void runIslands(final Island [] islands, final ExecutorService pool, final Consumer <Island> task)
+        {
+                //Run the task for all islands, sequentially in the calling thread if the pool is not given
+                if (pool == null)
+                {
+                        for (Island island : islands)
+                                task.accept(island);
+
+                        return;
+                }
+
+                List <Callable<Object>> tasks = new ArrayList<>();
+                for (final Island island : islands)
+                {
+                        tasks.add(() ->
+                        {
+                                task.accept(island);
+                                return null;
+                        });
+                }
+
+                //Wait for all islands
+                try
+                {
+                        for (Future<Object> task_k : pool.invokeAll(tasks))
+                                task_k.get();
+                }
+
+                catch (InterruptedException | ExecutionException e)
+                {
+                        throw new IllegalStateException(e);
+                }
+        }
+
+
+        private static void migrate(final Island [] islands, final int n_migrants, final TMigrationTopology topology)
+        {
+                //Send elite individuals of each island to its neighbors, migrants replace the worst individuals of the receiving island
+                final int n_islands = islands.length;
+
+                if (n_islands < 2 || n_migrants == 0)
+                        return;
+
+                //Select emigrants of all islands before any replacement
+                List <Integer []> elites = new ArrayList<>();
+                for (Island island : islands)
+                        elites.add(island.getSortedIndices());
+
+                Matrix [][] migrants_A = new Matrix[n_islands][n_migrants];
+                double [][] migrants_V = new double[n_islands][n_migrants];
+
+                for (int k = 0; k < n_islands; k++)
+                {
+                        for (int j = 0; j < n_migrants; j++)
+                        {
+                                final int index = elites.get(k)[j];
+                                migrants_A[k][j] = islands[k].P_A.row(index);
+                                migrants_V[k][j] = islands[k].P_V.items[index][0];
+                        }
+                }
+
+                //Receive migrants
+                for (int k = 0; k < n_islands; k++)
+                {
+                        List <Matrix> received_A = new ArrayList<>();
+                        List <Double> received_V = new ArrayList<>();
+
+                        //Ring: migrants of the previous island
+                        if (topology == TMigrationTopology.Ring)
+                        {
+                                final int k_prev = (k + n_islands - 1) % n_islands;
+                                for (int j = 0; j < n_migrants; j++)
+                                {
+                                        received_A.add(migrants_A[k_prev][j]);
+                                        received_V.add(migrants_V[k_prev][j]);
+                                }
+                        }
+
+                        //Fully connected: the best migrants of all other islands
+                        else
+                        {
+                                List <int []> candidates = new ArrayList<>();
+                                for (int l = 0; l < n_islands; l++)
+                                        for (int j = 0; j < n_migrants; j++)
+                                                if (l != k)
+                                                        candidates.add(new int [] {l, j});
+
+                                candidates.sort((c1, c2) -> Double.compare(migrants_V[c1[0]][c1[1]], migrants_V[c2[0]][c2[1]]));
+
+                                for (int j = 0; j < n_migrants && j < candidates.size(); j++)
+                                {
+                                        received_A.add(migrants_A[candidates.get(j)[0]][candidates.get(j)[1]]);
+                                        received_V.add(migrants_V[candidates.get(j)[0]][candidates.get(j)[1]]);
+                                }
+                        }
+
+                        islands[k].receive(received_A, received_V, elites.get(k));
+                }
+        }
+
+
+        private static class Island
+        {
+                final IResiduals function;                                      //Residual function of the island (not shared with other islands)
+                final TMutationStrategy mutation_strategy;                      //Mutation strategy of the island
+                final TAdaptiveControl adaptive_control;                        //Adaptive control of the island
+                final int population_size, dim;                                 //Size of the population, dimension
+                final Matrix F;                                                 //Mutation factor
+                final double [] CR;                                             //Cross-over ratio
+                final Matrix W, Y, RES, XMIN, XMAX;                             //Weights, residual matrices, search space
+                final Matrix X0;                                                //Initial solution added to the population (null = not added)
+                final Matrix P_A, P_V, FM, CRM;                                 //Population: arguments, values, mutation and cross-over factors of individuals
+                final SplittableRandom rng;                                     //Random stream of the initial population
+                final SplittableRandom [] rngs;                                 //Random streams of individuals
+                double fx_min, fx_min_old, aver_res;                            //Minimum, previous minimum and average of the population
+                int row_index_min, gener;                                       //Best individual, amount of generations of the island
+                boolean converged;                                              //Population has converged, evolution is stopped
+
+                Island(final IResiduals function_, final TMutationStrategy mutation_strategy_, final TAdaptiveControl adaptive_control_, final int population_size_, final int dim_, final double F_, final double CR_,
+                        final Matrix W_, final Matrix Y_, final Matrix RES_, final Matrix XMIN_, final Matrix XMAX_, final Matrix X0_, final SplittableRandom rng_)
+                {
+                        function = function_;
+                        mutation_strategy = mutation_strategy_;
+                        adaptive_control = adaptive_control_;
+                        population_size = population_size_;
+                        dim = dim_;
+                        F = new Matrix(1, (adaptive_control == TAdaptiveControl.Jitter ? dim : 1), F_);
+                        CR = new double [] {CR_};
+                        W = W_; Y = Y_; RES = RES_;
+                        XMIN = XMIN_; XMAX = XMAX_;
+                        X0 = X0_;
+                        P_A = new Matrix(population_size, dim);
+                        P_V = new Matrix(population_size, 1);
+                        FM = new Matrix(population_size, 1, F_);
+                        CRM = new Matrix(population_size, 1, CR_);
+                        rng = rng_;
+                        rngs = new SplittableRandom[population_size];
+                        for (int i = 0; i < population_size; i++)
+                                rngs[i] = rng.split();
+                }
+
+
+                void initialize()
+                {
+                        //Create and evaluate initial population
+                        if (X0 != null)
+                                P_A.replace(X0, 0, 0);
+
+                        DifferentialEvolution.createInitialPopulation(XMIN, XMAX, population_size, dim, P_A, X0 != null, rng);
+
+                        for (int i = 0; i < population_size; i++)
+                                P_V.items[i][0] = DifferentialEvolution.evaluate(function, P_A.row(i), W, Y, RES, MAX_FLOAT);
+
+                        updateStatistics();
+                        fx_min_old = fx_min;
+                }
+
+
+                void evolve(final int n_gener, final int max_gener, final double epsilon, final TCancellationToken token)
+                {
+                        //Evolve the population for n_gener generations, synchronous replacement
+                        Matrix [] T_A = new Matrix[population_size];
+                        double [] T_V = new double[population_size];
+
+                        for (int g = 0; g < n_gener && !converged; g++)
+                        {
+                                //Cancelled or deadline expired
+                                if (TCancellationToken.isCancelled(token))
+                                        break;
+
+                                //Set the mutation factor depending on the adaptive control
+                                if (adaptive_control == TAdaptiveControl.AdaptiveDecreasing)
+                                        F.items[0][0] = 0.5 * (max_gener - gener) / max_gener;
+
+                                //Create and evaluate trial vectors
+                                final boolean improvement = fx_min < fx_min_old;
+                                for (int i = 0; i < population_size; i++)
+                                {
+                                        T_A[i] = DifferentialEvolution.createTrialVector(P_A, P_V, i, population_size, dim, gener, improvement, F, CR, FM, CRM, aver_res, mutation_strategy, adaptive_control, XMIN, XMAX, rngs[i]);
+                                        T_V[i] = DifferentialEvolution.evaluate(function, T_A[i], W, Y, RES, MAX_FLOAT);
+                                }
+
+                                //Replacement rule: new value is better, update P
+                                for (int i = 0; i < population_size; i++)
+                                {
+                                        if (T_V[i] <= P_V.items[i][0])
+                                        {
+                                                P_A.row(T_A[i], i);
+                                                P_V.items[i][0] = T_V[i];
+                                        }
+                                }
+
+                                fx_min_old = fx_min;
+                                updateStatistics();
+                                gener++;
+
+                                //Terminal condition: population diversity
+                                if ((P_V.max() - fx_min < epsilon * max(1.0, fx_min)) && (fx_min < 1.0e2))
+                                        converged = true;
+                        }
+                }
+
+
+                void updateStatistics()
+                {
+                        //Actualize minimum and average of the population
+                        int [] position = {0, 0};
+                        fx_min = P_V.min(position);
+                        row_index_min = position[0];
+                        aver_res = P_V.sumCol(0) / population_size;
+                }
+
+
+                Integer [] getSortedIndices()
+                {
+                        //Indices of individuals sorted according to their values
+                        Integer [] indices = new Integer[population_size];
+                        for (int i = 0; i < population_size; i++)
+                                indices[i] = i;
+
+                        Arrays.sort(indices, (i1, i2) -> Double.compare(P_V.items[i1][0], P_V.items[i2][0]));
+
+                        return indices;
+                }
+
+
+                void receive(final List <Matrix> received_A, final List <Double> received_V, final Integer [] sorted)
+                {
+                        //Replace the worst individuals by better migrants, the population may leave the convergence
+                        for (int j = 0; j < received_A.size(); j++)
+                        {
+                                final int index = sorted[population_size - 1 - j];
+
+                                if (received_V.get(j) < P_V.items[index][0])
+                                {
+                                        P_A.row(received_A.get(j), index);
+                                        P_V.items[index][0] = received_V.get(j);
+                                        converged = false;
+                                }
+                        }
+
+                        updateStatistics();
+                }
+        }
+}
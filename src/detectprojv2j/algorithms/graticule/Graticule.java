@@ -33,6 +33,7 @@ import detectprojv2j.structures.graticule.Parallel;
 import detectprojv2j.structures.point.Point3DCartesian;
 import detectprojv2j.structures.point.Point3DGeographic;
 import detectprojv2j.structures.projection.Projection;
+import detectprojv2j.structures.projection.ProjectionKernel;
 
 import static detectprojv2j.consts.Consts.*;
 
@@ -342,6 +343,8 @@ public class Graticule {
         {
                 //Create meridian fragment given by the latitude interval
                 //A meridian is interrupted at its intersection with the prime meridian of the transfomed system [lat_trans, lon_trans]
+                final ProjectionKernel kernel = proj.compile(alpha);
+                
                 for (TInterval lat_interval_split : splitLatInterval(lat_interval, lon, proj.getCartPole(), proj.getLonDir(), proj.getLon0(), eps))
                 {
                         Meridian mer = null;
@@ -351,7 +354,7 @@ public class Graticule {
                         if (sampling_method == TGraticuleSampling.UniformSampling)
                         {
                                 Meridian mer_u = new Meridian(lon, lat_interval_split, dlat, 0.0, 0.0);
-                                mer_u.project(proj, alpha, mer_proj);
+                                mer_u.project(proj, kernel, alpha, mer_proj);
                                 mer = mer_u;
                         }
 
@@ -373,6 +376,8 @@ public class Graticule {
         {
                 //Create parallel fragment given by the longitude interval [lon_minm lon_max]
                 //A parallel is interrupted at its intersection with the prime meridian of the transformed system [lat_trans, lon_trans]
+                final ProjectionKernel kernel = proj.compile(alpha);
+                
                 for (TInterval lon_interval_split : splitLonInterval(lon_interval, lat, proj.getCartPole(), proj.getLonDir(), proj.getLon0(), eps))
                 {
                         Parallel par = null;
@@ -382,7 +387,7 @@ public class Graticule {
                         if (sampling_method == TGraticuleSampling.UniformSampling)
                         {
                                 Parallel par_u = new Parallel(lat, lon_interval_split, dlon, 0.0, 0.0);
-                                par_u.project(proj, alpha, par_proj);
+                                par_u.project(proj, kernel, alpha, par_proj);
                                 par = par_u;
                         }
 
@@ -23,36 +23,21 @@ package detectprojv2j.algorithms.mapreproject;
 
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.awt.image.BufferedImage;
-import java.awt.Color;
-import java.awt.Graphics2D;
-import java.awt.RenderingHints;
-import java.util.Map;
-import java.util.HashMap;
 
 import static java.lang.Math.ceil;
-import static java.lang.Math.min;
-import static java.lang.Math.max;
-import static java.lang.Math.round;
 import javax.swing.JLabel;
 import javax.swing.SwingUtilities;
 
-import detectprojv2j.structures.point.Point3DCartesian;
 import detectprojv2j.structures.projection.Projection;
-import detectprojv2j.structures.point.Point3DGeographic;
+import detectprojv2j.structures.projection.ProjectionKernel;
 import detectprojv2j.structures.tile.MercTile;
 
-import detectprojv2j.comparators.SortPointsByX;
-import detectprojv2j.comparators.SortPointsByY;
-
-import detectprojv2j.comparators.MaxLatPredicate;
-import detectprojv2j.comparators.SortPointsByLat;
-import detectprojv2j.comparators.SortPointsByLon;
+import static detectprojv2j.consts.Consts.MAX_LAT_MERC;
 
-import detectprojv2j.algorithms.carttransformation.CartTransformation;
+import detectprojv2j.algorithms.backwardwarp.BackwardWarp;
 
-import static detectprojv2j.consts.Consts.MAX_LAT_MERC;
+import detectprojv2j.types.TInterpolationMethod;
 
 import detectprojv2j.forms.OSMMap;
 
@@ -67,10 +52,17 @@ public class MapReproject implements Runnable {
         private final int tile_size;                    //Raster tile size in pixels (500-1000
         private final JLabel label;                     //Label text
         private final OSMMap map;                       //Current map in Web Mercator projection
+        private final TInterpolationMethod interpolation;       //Interpolation method of the backward warp
 
         
         
         public MapReproject(final BufferedImage img_map_, final Projection iproj_, final Projection proj_, final double rotation_, final int tile_size_, final JLabel label_, final OSMMap map_)
+        {
+                this(img_map_, iproj_, proj_, rotation_, tile_size_, label_, map_, TInterpolationMethod.Bilinear);
+        }
+        
+        
+        public MapReproject(final BufferedImage img_map_, final Projection iproj_, final Projection proj_, final double rotation_, final int tile_size_, final JLabel label_, final OSMMap map_, final TInterpolationMethod interpolation_)
         {
                 img_map = img_map_;
                 iproj = iproj_;
@@ -79,6 +71,7 @@ public class MapReproject implements Runnable {
                 tile_size = tile_size_;
                 label = label_;
                 map = map_;   
+                interpolation = interpolation_;
         }
         
         
@@ -113,6 +106,13 @@ public class MapReproject implements Runnable {
                 //Print status
                 label.setText(status_bar_text);
 
+                //Compile both projections: parameters do not change during the warping
+                final ProjectionKernel ikernel = iproj.compile(rotation);
+                final ProjectionKernel kernel = proj.compile(rotation);
+                
+                //Backward mapping: destination pixels are converted to the early map and interpolated
+                final BackwardWarp warp = new BackwardWarp(img_map, ikernel, kernel, interpolation, MAX_LAT_MERC);
+                
                 //Initialize scale ratio
                 double[] ratio = {-1};
 
@@ -122,57 +122,41 @@ public class MapReproject implements Runnable {
                 {
                         for (int j = 0; j < h; j += tile_size) //i < h
                         {
-                                //Create list of points for a tile
-                                List<Point3DCartesian> tile_points_proj = rasterTileToPointTile(img_map, i, j, w, h);
+                                //Initialize shifts as a projection dX, dY values
+                                final double[] sx = {proj.getDx()};
+                                final double[] sy = {proj.getDy()};
 
-                                //Inverse projection of tile points onto the sphere
-                                List<Point3DGeographic> tile_points_sphere = CartTransformation.XYToLatsLons(tile_points_proj, iproj, rotation);
+                                //Vertices of the min-max box: transformed raster will placed inside
+                                final double[] lat_sw = {0}, lon_sw = {0}, lat_ne = {0}, lon_ne = {0};
 
-                                //Remove all points with the latitude > 85 deg (resampled map looks strange here)
-                                tile_points_sphere.removeIf(new MaxLatPredicate(MAX_LAT_MERC));
+                                //Warp the tile to the destination projection (Web Mercator in JMapViewer), latitude > 85 deg is skipped
+                                final BufferedImage img_map_proj = warp.warpTile(i, j, tile_size, lat_sw, lon_sw, lat_ne, lon_ne, sx, sy, ratio);
 
-                                //Remove all unique points
-                                //At least 2 points have been converted
-                                if (tile_points_sphere.size() > 2) {
+                                //The image has been created
+                                if (img_map_proj != null) {
                                         
-                                        //Find vertices of the min-max box: transformed raster will placed inside
-                                        final double lat_nw = (Collections.max(tile_points_sphere, new SortPointsByLat())).getLat();
-                                        final double lon_nw = (Collections.min(tile_points_sphere, new SortPointsByLon())).getLon();
-                                        final double lat_se = (Collections.min(tile_points_sphere, new SortPointsByLat())).getLat();
-                                        final double lon_se = (Collections.max(tile_points_sphere, new SortPointsByLon())).getLon();
-
-                                        //Initialize shifts as a projection dX, dY values
-                                        final double[] sx = {proj.getDx()};
-                                        final double[] sy = {proj.getDy()};
-
-                                        //Convert geographic coordinates to the destination projection (Web Mercator in JMapViewer)
-                                        final List<Point3DCartesian> tile_points_reproj = CartTransformation.latsLonsToXY(tile_points_sphere, proj, rotation);
-
-                                        //Convert points to the raster: create reprojected map
-                                        final BufferedImage img_map_proj = pointTileToRaster(tile_points_reproj, sx, sy, ratio);
-
-                                        //The image has been created
-                                        if (img_map_proj != null) {
-
-                                                try {
-                                                        //Safe painting
-                                                        SwingUtilities.invokeLater(() -> { 
-                                                                
-                                                                //Create new tile
-                                                                MercTile tile = new MercTile(img_map_proj, lat_nw, lon_nw, lat_se, lon_se, 0.65);
-
-                                                                //Add reprojected tile to the tile source list
-                                                                tiles_reproj_temp.add(tile);
-
-                                                                //Map repaint
-                                                                map.repaint();
-                                                       });
-                                                } 
-                                                
-                                                //Throw exception
-                                                catch (Exception e) {
-                                                        e.printStackTrace();
-                                                }
+                                        //North-west and south-east corners of the tile
+                                        final double lat_nw = lat_ne[0], lon_nw = lon_sw[0];
+                                        final double lat_se = lat_sw[0], lon_se = lon_ne[0];
+
+                                        try {
+                                                //Safe painting
+                                                SwingUtilities.invokeLater(() -> { 
+                                                        
+                                                        //Create new tile
+                                                        MercTile tile = new MercTile(img_map_proj, lat_nw, lon_nw, lat_se, lon_se, 0.65);
+
+                                                        //Add reprojected tile to the tile source list
+                                                        tiles_reproj_temp.add(tile);
+
+                                                        //Map repaint
+                                                        map.repaint();
+                                               });
+                                        } 
+                                        
+                                        //Throw exception
+                                        catch (Exception e) {
+                                                e.printStackTrace();
                                         }
                                 }
 
@@ -195,139 +179,4 @@ public class MapReproject implements Runnable {
                 //Warping has been completed
                 label.setText("Completed...");
         }
-       
-                
-        public List<Point3DCartesian> rasterTileToPointTile (final BufferedImage img_map, final int i_start, final int j_start, final int w, final int h)                
-        {
-                //Convert raster tile to the point tile (list of points)
-                final double pix_step = 1.0;
-                final int white_threshold = 13824000;
-                
-                //Tile converted to points
-                List<Point3DCartesian> tile_points = new ArrayList<>(); 
-               
-                //Maximum pixel limits
-                final int k_max = min(i_start + tile_size, w - 1);
-                final int l_max = min(j_start + tile_size, h - 1);
-                
-                //Process tile pixels
-                for (int k = i_start; k <= k_max; k++)
-                {
-                        for (int l = j_start; l <= l_max; l++)
-                        {
-                                //Color of the pixel
-                                final int color = img_map.getRGB(k, l);
-                                final int blue = color & 0xff;
-                                final int green = (color & 0xff00) >> 8;
-                                final int red = (color & 0xff0000) >> 16;
-                                
-                                //Jump white pixels
-                                if (red * green * blue < white_threshold)
-                                {                                
-                                        //Add point to the list
-                                        tile_points.add(new Point3DCartesian(k, -l, color));
-                                } 
-                        }
-                }
-
-                //Get color of the south-west pixel
-                final int color_sw = img_map.getRGB(i_start, l_max - 1);
-                final int blue_sw = color_sw & 0xff;
-                final int green_sw = (color_sw & 0xff00) >> 8;
-                final int red_sw = (color_sw & 0xff0000) >> 16;
-                
-                //White pixel, do not add to the list
-                if (red_sw * green_sw * blue_sw > white_threshold)
-                        tile_points.add(new Point3DCartesian(i_start, -(l_max - 1), color_sw));
-                
-                //Get color of the north-east pixel
-                final int color_ne = img_map.getRGB(k_max - 1, j_start);
-                final int blue_ne = color_ne & 0xff;
-                final int green_ne = (color_ne & 0xff00) >> 8;
-                final int red_ne = (color_ne & 0xff0000) >> 16;
-                
-                //White pixel, do not add to the list
-                if (red_ne * green_ne * blue_ne > white_threshold)
-                        tile_points.add(new Point3DCartesian(k_max - 1, -j_start, color_ne));
-                
-                //Add tile to the list of tiles
-                return tile_points;   
-        }
-        
-
-        public BufferedImage pointTileToRaster(final List <Point3DCartesian> points, double [] sx, double [] sy, double [] ratio)
-        {
-                //Convert point tile (list of points) to the raster tile: rasterization
-                BufferedImage img_map_proj = null;
-                
-                //Tile contains at least two points
-                if (points.size() > 2)
-                {
-                        //Find minimum coordinates
-                        final double xmin = (Collections.min(points, new SortPointsByX())).getX();
-                        final double ymin = (Collections.min(points, new SortPointsByY())).getY();
-                        final double xmax = (Collections.max(points, new SortPointsByX())).getX();
-                        final double ymax = (Collections.max(points, new SortPointsByY())).getY();
-
-                        //Add raster shifts to the projection shifts
-                        sx[0] += - xmin;
-                        sy[0] += - ymin;
-
-                        //Compute differences and ratio so as the longest edge of the raster is smaller than MAX_RASTER_SIZE
-                        final double dx = xmax - xmin;
-                        final double dy = ymax - ymin;
-                        final double rx = dx / tile_size;
-                        final double ry = dy / tile_size;
-                        
-                        //Variable ratio for tile downsample (multiply by 3) because of memory reasons
-                        ratio[0] = 1.0 * (0.5*(rx + ry));
-
-                        //Size of the created raster: width and height
-                        final double w = max(dx / ratio[0], 100.0);
-                        final double h = max(dy / ratio[0], 100.0);
-
-                        //Create new raster with the white background
-                        img_map_proj = new BufferedImage((int)round(w), (int)round(h), BufferedImage.TYPE_INT_ARGB);
-                        
-                        //Set white background
-                        Graphics2D g = img_map_proj.createGraphics();
-                        
-                        //Set rendering properties of the raster
-                        Map<RenderingHints.Key, Object> hm = new HashMap<>();
-                        hm.put(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-                        hm.put(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-                        hm.put(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                        RenderingHints renderHints = new RenderingHints(hm);
-                        g.setRenderingHints(renderHints);
-                        
-                        //Write all points of tile to the image as dots
-                        for (Point3DCartesian p:points)
-                        {
-                                //Apply shift and rescaling to the pixel coordinates [x_pix, y_pix]
-                                //Change direction due to the different orientation of Y axis
-                                double x_pix = ( p.getX() + sx[0] ) / ratio[0];
-                                double y_pix = h - ( p.getY() + sy[0] ) / ratio[0];
-
-                                //Check, if coordinates are inside the raster
-                                x_pix = min(max (0, x_pix), w - 1);
-                                y_pix = min(max (0, y_pix), h - 1);
-
-                                //Convert (r, g,b) components to JColor
-                                final int col = (int) p.getZ();
-                                final int red = (col >> 16) & 0xFF;
-                                final int green = (col >> 8) & 0xFF;
-                                final int blue = (col >> 0) & 0xFF;
-                                
-                                //Set color
-                                g.setColor(new Color(red, green, blue));
-                                
-                                //Write pixel to the raster: draw oversized to avoid interpolation
-                                final double pixel_radius = 3.0;                                                               
-                                g.fillOval((int)(x_pix - 0.5 * pixel_radius), (int)(y_pix -0.5 * pixel_radius), (int)pixel_radius + 1, (int)pixel_radius + 1);
-                        }
-                }
-                
-                return img_map_proj;
-        }
-        
 }
\ No newline at end of file
@@ -28,14 +28,8 @@ import java.util.Collections;
 import java.awt.image.BufferedImage;
 import java.awt.Color;
 import java.awt.Graphics2D;
-import java.awt.RenderingHints;
-import java.util.Map;
-import java.util.HashMap;
 import java.util.concurrent.Callable;
 import static java.lang.Math.ceil;
-import static java.lang.Math.min;
-import static java.lang.Math.max;
-import static java.lang.Math.round;
 import javax.swing.JLabel;
 import javax.swing.JSlider;
 
@@ -45,20 +39,14 @@ import javax.imageio.ImageIO;
 import org.openstreetmap.gui.jmapviewer.Coordinate;
 import org.openstreetmap.gui.jmapviewer.interfaces.MapMarker;
 
-import detectprojv2j.structures.point.Point3DCartesian;
 import detectprojv2j.structures.projection.Projection;
-import detectprojv2j.structures.point.Point3DGeographic;
+import detectprojv2j.structures.projection.ProjectionKernel;
 import detectprojv2j.structures.tile.MercTile;
 
 import detectprojv2j.structures.tile.BigBufferedImage;
 import detectprojv2j.structures.tile.Pixel;
 
-import detectprojv2j.comparators.SortPointsByX;
-import detectprojv2j.comparators.SortPointsByY;
 
-import detectprojv2j.comparators.MaxLatPredicate;
-import detectprojv2j.comparators.SortPointsByLat;
-import detectprojv2j.comparators.SortPointsByLon;
 //import detectprojv2j.comparators.MaxLatPredcate;
 
 //import detectprojv2j.algorithms.carttransformation.CartTransformation;
@@ -68,7 +56,9 @@ import detectprojv2j.comparators.SortPixelsByY;
 //import detectprojv2j.forms.RasterMapMarker;
 //import detectprojv2j.forms.OSMMap;
 
-import detectprojv2j.algorithms.carttransformation.CartTransformation;
+import detectprojv2j.algorithms.backwardwarp.BackwardWarp;
+
+import detectprojv2j.types.TInterpolationMethod;
 
 import detectprojv2j.forms.RasterMapMarker;
 import detectprojv2j.forms.OSMMap;
@@ -85,9 +75,16 @@ public class MapWarp implements Callable <List<MercTile>> {
         private final JSlider slider;
         private final JLabel label;
         private final OSMMap map;
+        private final TInterpolationMethod interpolation;
         
         
         public MapWarp(final BufferedImage img_, final Projection iproj_, final Projection proj_, final double rotation_, final int tile_size_, final JSlider slider_, final JLabel label_, final OSMMap map_)
+        {
+                this(img_, iproj_, proj_, rotation_, tile_size_, slider_, label_, map_, TInterpolationMethod.Bilinear);
+        }
+        
+        
+        public MapWarp(final BufferedImage img_, final Projection iproj_, final Projection proj_, final double rotation_, final int tile_size_, final JSlider slider_, final JLabel label_, final OSMMap map_, final TInterpolationMethod interpolation_)
         {
                 img = img_;
                 iproj = iproj_;
@@ -97,6 +94,7 @@ public class MapWarp implements Callable <List<MercTile>> {
                 slider = slider_;
                 label = label_;
                 map = map_;     
+                interpolation = interpolation_;
         }
         
         
@@ -124,6 +122,13 @@ public class MapWarp implements Callable <List<MercTile>> {
                 //Print status
                 label.setText(status_bar_text);
                 
+                //Compile both projections: parameters do not change during the warping
+                final ProjectionKernel ikernel = iproj.compile(rotation);
+                final ProjectionKernel kernel = proj.compile(rotation);
+                
+                //Backward mapping: destination pixels are converted to the early map and interpolated
+                final BackwardWarp warp = new BackwardWarp(img, ikernel, kernel, interpolation, 85.0);
+                
                 //Initialize scale ratio
                 double [] ratio = {-1};
                         
@@ -136,73 +141,46 @@ public class MapWarp implements Callable <List<MercTile>> {
                 {
                         for (int j = 0; j < h; j+= tile_size)
                         {
-                                //Create list of points for a tile
-                                List<Point3DCartesian> tile_points_proj = rasterTileToPointTile (img, i, j, w, h);
-                                
-                                //Inverse projection of map points to the sphere
-                                List <Point3DGeographic> tile_points_sphere = CartTransformation.XYToLatsLons(tile_points_proj, iproj, rotation);        
-
-                                //Remove all points with the latitude > 85 deg (resampled map looks strange here)
-                                tile_points_sphere.removeIf(new MaxLatPredicate(85.0));
-                                
-                                //Remove all unique points
+                                //Initialize shifts as a projection dX, dY values
+                                final double [] sx = {proj.getDx()};
+                                final double [] sy = {proj.getDy()};
 
-                                //At least 2 points have been converted
-                                if (tile_points_sphere.size() > 2)
-                                {
-                                        //Find vertices of the min-max box: transformed raster will placed inside
-                                        final double lat_sw = (Collections.min(tile_points_sphere, new SortPointsByLat())).getLat();
-                                        final double lon_sw = (Collections.min(tile_points_sphere, new SortPointsByLon())).getLon();
-                                        final double lat_ne = (Collections.max(tile_points_sphere, new SortPointsByLat())).getLat();
-                                        final double lon_ne = (Collections.max(tile_points_sphere, new SortPointsByLon())).getLon();
-                                                                                
-                                        //Initialize shifts as a projection dX, dY values
-                                        final double [] sx = {proj.getDx()};
-                                        final double [] sy = {proj.getDy()};
+                                //Vertices of the min-max box: transformed raster will placed inside
+                                final double [] lat_sw = {0}, lon_sw = {0}, lat_ne = {0}, lon_ne = {0};
 
-                                        //System.out.println(lat_sw + " " + lon_sw + " " + lat_ne + " " + lon_ne);
+                                //Warp the tile to the destination projection (Web Mercator in JMapViewer), latitude > 85 deg is skipped
+                                final BufferedImage img_proj = warp.warpTile(i, j, tile_size, lat_sw, lon_sw, lat_ne, lon_ne, sx, sy, ratio);
 
-                                        //Convert geographic coordinates to the destination projection (Web Mercator in JMapViewer)
-                                        final List <Point3DCartesian> tile_points_reproj = CartTransformation.latsLonsToXY(tile_points_sphere, proj, rotation);
+                                if (img_proj != null)
+                                {
                                         /*
-                                        for(Point3DCartesian point : tile_points_reproj)
-                                                System.out.println("X, Y:"+ point.getX() + " " + point.getY());
-                                        System.out.println("---");
-                                        */
-                                        //Convert points to the raster: create reprojected map
-                                        final BufferedImage img_proj = pointTileToRaster(tile_points_reproj, sx, sy, ratio);
-
-                                        if (img_proj != null)
+                                        //Store tiles
+                                        try
+                                        {
+                                                String file_name = "image_" + String.valueOf(i) + "_" + String.valueOf(j); 
+                                                File outputfile = new File(file_name + ".jpg");
+                                                ImageIO.write(img_proj, "jpg", outputfile);
+                                                String text = String.valueOf(lat_sw[0]) + "  " + String.valueOf(lon_sw[0]) + "  " + String.valueOf(lat_ne[0]) + "  " + String.valueOf(lon_ne[0]);
+                                                Files.write(Paths.get(file_name+ ".txt"), text.getBytes()); 
+                                        }
+                                        
+                                        catch (Exception e)
                                         {
-                                                /*
-                                                //Store tiles
-                                                try
-                                                {
-                                                        String file_name = "image_" + String.valueOf(i) + "_" + String.valueOf(j); 
-                                                        File outputfile = new File(file_name + ".jpg");
-                                                        ImageIO.write(img_proj, "jpg", outputfile);
-                                                        String text = String.valueOf(lat_sw) + "  " + String.valueOf(lon_sw) + "  " + String.valueOf(lat_ne) + "  " + String.valueOf(lon_ne);
-                                                        Files.write(Paths.get(file_name+ ".txt"), text.getBytes()); 
-                                                }
-                                                
-                                                catch (Exception e)
-                                                {
-                                                        
-                                                }
-                                                */
-                                                
-                                                //Create tile
-                                                MercTile tile = new MercTile(img_proj, new Coordinate(lat_sw, lon_sw), new Coordinate(lat_ne, lon_ne), 0.01f * slider.getValue(), sx[0], sy[0], ratio[0]);
-                                                
-                                                //Add tile to the list
-                                                proj_tiles.add(tile);
                                                 
+                                        }
+                                        */
+                                        
+                                        //Create tile
+                                        MercTile tile = new MercTile(img_proj, new Coordinate(lat_sw[0], lon_sw[0]), new Coordinate(lat_ne[0], lon_ne[0]), 0.01f * slider.getValue(), sx[0], sy[0], ratio[0]);
+                                        
+                                        //Add tile to the list
+                                        proj_tiles.add(tile);
+                                        
+                                        //Add map to the maker list: it will be displayed as a raster map marker
+                                        synchronized (map_markers)
+                                        {
                                                 //Add map to the maker list: it will be displayed as a raster map marker
-                                                synchronized (map_markers)
-                                                {
-                                                        //Add map to the maker list: it will be displayed as a raster map marker
-                                                        map_markers.add(new RasterMapMarker(tile.getSWCorner(), tile.getNECorner(), img_proj, 0.01f * slider.getValue(), map));
-                                                }
+                                                map_markers.add(new RasterMapMarker(tile.getSWCorner(), tile.getNECorner(), img_proj, 0.01f * slider.getValue(), map));
                                         }
                                 }
                                 
@@ -228,159 +206,8 @@ public class MapWarp implements Callable <List<MercTile>> {
                 //Return list of warped raster tiles
                 return proj_tiles;   
         }
-       
-                
-        public List<Point3DCartesian> rasterTileToPointTile (final BufferedImage img, final int i, final int j, final int w, final int h)                
-        {
-                //Convert raster tile to the point tile (list of points)
-                final double pix_step = 2.0;
-                final int white_threshold = 13824000;
-                List<Point3DCartesian> tile_points = new ArrayList<>(); 
-               
-                //Process tile pixels
-                final int k_max = min(i + tile_size, w - 1);
-                final int l_max = min(j + tile_size, h - 1);
-                
-                for (int k = i; k <= k_max; k+=pix_step)
-                {
-                        for (int l = j; l <= l_max; l+=pix_step)
-                        {
-                                //Color of the pixel
-                                final int color = img.getRGB(k, l);
-                                final int blue = color & 0xff;
-                                final int green = (color & 0xff00) >> 8;
-                                final int red = (color & 0xff0000) >> 16;
-                                
-                                //Jump white pixels
-                                if (red * green * blue < white_threshold)
-                                {                                
-                                        //Add point to the list
-                                        tile_points.add(new Point3DCartesian(k, -l, color));
-                                } 
-                        }
-                }
-
-                //Get color of the south-west pixel
-                final int color_sw = img.getRGB(i, l_max - 1);
-                final int blue_sw = color_sw & 0xff;
-                final int green_sw = (color_sw & 0xff00) >> 8;
-                final int red_sw = (color_sw & 0xff0000) >> 16;
-                
-                //White pixel, do not add to the list
-                if (red_sw * green_sw * blue_sw > white_threshold)
-                        tile_points.add(new Point3DCartesian(i, -(l_max - 1), color_sw));
-                
-                //Get color of the north-east pixel
-                final int color_ne = img.getRGB(k_max - 1, j);
-                final int blue_ne = color_ne & 0xff;
-                final int green_ne = (color_ne & 0xff00) >> 8;
-                final int red_ne = (color_ne & 0xff0000) >> 16;
-                
-                //White pixel, do not add to the list
-                if (red_ne * green_ne * blue_ne > white_threshold)
-                        tile_points.add(new Point3DCartesian(k_max - 1, -j, color_ne));
-                
-                //Add tile to the list of tiles
-                return tile_points;   
-        }
-        
-
-        public BufferedImage pointTileToRaster(final List <Point3DCartesian> points, double [] sx, double [] sy, double [] ratio)
-        {
-                //Convert point tile (list of points) to the raster tile
-                BufferedImage img_proj = null;
-                
-                //Tile contains at least two points
-                if (points.size() > 2)
-                {
-                        //Find minimum coordinates
-                        final double xmin = (Collections.min(points, new SortPointsByX())).getX();
-                        final double ymin = (Collections.min(points, new SortPointsByY())).getY();
-                        final double xmax = (Collections.max(points, new SortPointsByX())).getX();
-                        final double ymax = (Collections.max(points, new SortPointsByY())).getY();
-
 
-                        //Add raster shifts to the projection shifts
-                        sx[0] += - xmin;
-                        sy[0] += - ymin;
 
-                        //Compute differences and ratio so as the longest edge of the raster is smaller than MAX_RASTER_SIZE
-                        final double dx = xmax - xmin;
-                        final double dy = ymax - ymin;
-                        final double rx = dx / tile_size;
-                        final double ry = dy / tile_size;
-                        
-                        //Ratio is unique for the entire raster
-                        //if (ratio[0] < 0)
-                                //ratio[0] = min(rx, ry);
-                                //ratio[0] = 7500;
-                        
-                        //Ratio is different for each tile
-                        ratio[0] = min(rx, ry);
-                                
-                        //System.out.println(ratio[0]);
-                        
-                        //Size of the created raster: width and height
-                        final double w = max(dx / ratio[0], 2.0);
-                        final double h = max(dy / ratio[0], 2.0);
-
-
-                        //System.out.println(xmin + " " + ymin + " " + xmax + " " + ymax);
-                        //Create new raster with the white background
-                        img_proj = new BufferedImage((int)round(w), (int)round(h), BufferedImage.TYPE_INT_ARGB);
-                        
-                        //Set white background
-                        Graphics2D g = img_proj.createGraphics();
-                        //g.setPaint ( new Color ( 255, 255, 255 ) );
-                        //g.fillRect ( 0, 0, img_proj.getWidth(), img_proj.getHeight() );
-                        
-                        //Set rendering properties of the raster
-                        Map<RenderingHints.Key, Object> hm = new HashMap<>();
-                        hm.put(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-                        hm.put(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-                        hm.put(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                        RenderingHints renderHints = new RenderingHints(hm);
-                        g.setRenderingHints(renderHints);
-                        
-                        //Write all points of tile to the image as dots
-                        for (Point3DCartesian p:points)
-                        {
-                                //Apply shift and rescaling to the pixel coordinates [x_pix, y_pix]
-                                //Change direction due to the different orientation of Y axis
-                                double x_pix = ( p.getX() + sx[0] ) / ratio[0];
-                                double y_pix = h - ( p.getY() + sy[0] ) / ratio[0];
-                                
-                                //double invx = x_pix  * ratio[0] - sx[0];
-                                //double invy = (h - y_pix) * ratio[0] - sy[0];
-
-                                //Check, if coordinates are not negative
-                                x_pix = max (0, x_pix);
-                                y_pix = max (0, y_pix);
-
-                                //Check, if coordinates are not bigger than raster size
-                                x_pix = min (x_pix, w - 1);
-                                y_pix = min (y_pix, h - 1);
-
-
-                                //Convert (r, g,b) to Color
-                                final int col = (int) p.getZ();
-                                final int red = (col >> 16) & 0xFF;
-                                final int green = (col >> 8) & 0xFF;
-                                final int blue = (col >> 0) & 0xFF;
-
-                                //Write pixel to the raster
-                                g.setColor(new Color(red, green, blue));
-                                
-                                double radius = 3.0;
-
-                                g.fillOval((int)(x_pix - 0.5 * radius), (int)(y_pix -0.5 * radius), (int)radius + 1, (int)radius + 1);
-                        }
-                }
-                
-                return img_proj;
-        }
-        
-        
         public void mergeTiles(List <MercTile> proj_tiles)
         {
                 //List of all pixels
@@ -0,0 +1,151 @@
+// Description: Stateful solver of the auxiliary angle theta, f(lat, theta) = 0, used in pseudocylindrical projections
+// The iteration starts from the previous solution (warm start), neighbouring points along a scanline have
+// almost identical solutions. The Halley step is used if the second derivative is available, otherwise
+// the Newton step. If the warm-started iteration does not converge, it restarts from the initial estimate.
+// No objects are allocated during the iteration. Not thread safe, one solver per thread.
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.algorithms.newtonraphson;
+
+import static java.lang.Math.abs;
+
+import detectprojv2j.types.IThetaFunction;
+
+import static detectprojv2j.consts.Consts.MIN_FLOAT;
+
+
+public final class ThetaSolver {
+
+        private final IThetaFunction f;                                 //Function f(lat, theta)
+        private final IThetaFunction f_der;                             //First derivative df/dtheta
+        private final IThetaFunction f_der2;                            //Second derivative d2f/dtheta2, null = Newton step
+        private final int max_iterations;                               //Maximum amount of iterations
+        private final double max_diff;                                  //Terminal condition: abs(theta_(i+1) - theta_i) < max_diff
+
+        private boolean warm = false;                                   //Previous solution is available
+        private double theta_prev;                                      //Previous solution
+        private double theta_i;                                         //Result of the last iteration
+        private int iterations;                                         //Amount of iterations of the last call
+
+
+        public ThetaSolver(final IThetaFunction f_, final IThetaFunction f_der_, final IThetaFunction f_der2_, final int max_iterations_, final double max_diff_)
+        {
+                f = f_;
+                f_der = f_der_;
+                f_der2 = f_der2_;
+                max_iterations = max_iterations_;
+                max_diff = max_diff_;
+        }
+
+
+        public int getIterations() { return iterations; }
+        public void reset() { warm = false; }
+
+
+        public double findRoot(final double lat, final double theta0)
+        {
+                //Solve f(lat, theta) = 0, theta0 is the initial estimate used without the previous solution
+                iterations = 0;
+
+                //Warm start from the previous solution
+                //The solution may not move more than twice the distance of the initial estimate (spurious roots)
+                if (warm && iterate(lat, theta_prev, true) && abs(theta_i - theta_prev) <= 2.0 * abs(theta0 - theta_prev) + max_diff)
+                {
+                        theta_prev = theta_i;
+                        return theta_prev;
+                }
+
+                //Cold start from the initial estimate, same terminal conditions as NewtonRaphson.findRoot()
+                iterate(lat, theta0, false);
+
+                theta_prev = theta_i;
+                warm = !Double.isNaN(theta_i) && !Double.isInfinite(theta_i);
+
+                return theta_prev;
+        }
+
+
+        private boolean iterate(final double lat, final double x0, final boolean last_step)
+        {
+                //Newton or Halley iteration starting at x0, returns true if converged
+                //The last (small) step is applied for the warm start, the neighbouring solutions differ less than max_diff
+                //Warm start is safeguarded: it fails, if f'(x) = 0, abs(f(x)) increases or the Halley step stalls
+                double x = x0, fx_abs = Double.MAX_VALUE;
+                int i = 0;
+
+                do {
+                        //Compute f(x) and f'(x)
+                        final double fx = f.f(lat, x);
+                        final double fx_der = f_der.f(lat, x);
+
+                        //Safeguard of the warm start
+                        if (last_step && (abs(fx_der) <= MIN_FLOAT || abs(fx) > fx_abs))
+                                return false;
+
+                        fx_abs = abs(fx);
+
+                        //Derivative is zero: the same point as the Newton-Raphson method
+                        double xn = x, dx_n = 0.0;
+                        if (abs(fx_der) > MIN_FLOAT)
+                        {
+                                //Newton step
+                                dx_n = fx / fx_der;
+                                double dx = dx_n;
+
+                                //Halley step, safeguarded by the Newton step
+                                if (f_der2 != null)
+                                {
+                                        final double den = 2.0 * fx_der * fx_der - fx * f_der2.f(lat, x);
+                                        if (abs(den) > MIN_FLOAT)
+                                        {
+                                                final double dx_h = 2.0 * fx * fx_der / den;
+                                                if (!Double.isNaN(dx_h) && abs(dx_h) <= 2.0 * abs(dx_n))
+                                                        dx = dx_h;
+                                        }
+                                }
+
+                                xn = x - dx;
+                        }
+
+                        iterations++;
+
+                        //Diverged
+                        if (Double.isNaN(xn) || Double.isInfinite(xn))
+                        {
+                                theta_i = xn;
+                                return false;
+                        }
+
+                        //Test the terminal condition, the warm start also requires a small Newton step (flat f near a double root)
+                        if (abs(xn - x) < max_diff && (!last_step || abs(dx_n) < max_diff))
+                        {
+                                theta_i = (last_step ? xn : x);
+                                return true;
+                        }
+
+                        //Assign new x
+                        x = xn;
+
+                } while (++i <= max_iterations);
+
+                theta_i = x;
+                return false;
+        }
+}
@@ -24,7 +24,6 @@ package detectprojv2j.algorithms.nonlinearleastsquares;
 
 import static java.lang.Math.*;
 import java.util.List;
-import java.util.ArrayList;
 
 import detectprojv2j.types.TTransformedLongitudeDirection;
 
@@ -33,103 +32,113 @@ import detectprojv2j.structures.point.Point3DGeographic;
 import  detectprojv2j.structures.matrix.Matrix;
 
 import detectprojv2j.algorithms.carttransformation.CartTransformation;
-import detectprojv2j.types.ICoordFunctionProj;
+import detectprojv2j.algorithms.carttransformation.PoleRotation;
+import detectprojv2j.types.ICoordFunctionProjBatch;
 
 public class FRM8{
 
         private final List <Point3DCartesian> test_points;                              //List of test points
 	private final List <Point3DGeographic> reference_points;                        //List of analyzed points
-	private final ICoordFunctionProj F, G;                                          //References to the coordinate functions
+	private final ICoordFunctionProjBatch FG;                                       //Reference to the batch coordinate functions
 	private final TTransformedLongitudeDirection trans_lon_dir;                     //Transformed longitude direction
+        private final PoleRotation pole;                                                //Oblique aspect transformation, the pole is updated by each evaluation
 	private final double [] R;							//Earth radius (will be updated)
 	private final double [] q1, q2;							//Coefficient of  2D Helmert transformation (will be updated)
 	private final double [] dx, dy;                                                 //Shifts between analyzed and reference maps
+        private final double [] lat, lon;                                               //Coordinates of the analyzed points (struct of arrays)
+        private final double [] xt, yt;                                                 //Reduced coordinates of the test points (struct of arrays)
+        private final double [] lat_trans, lon_trans;                                   //Transformed coordinates of the analyzed points (preallocated buffer)
+        private final double [] xr, yr;                                                 //Projected analyzed points (preallocated buffer)
+        private final double x_mass_test, y_mass_test;                                  //Center of mass of the test points
         
-        public	FRM8(final List test_points_, final List reference_points_, final ICoordFunctionProj  pF_, final ICoordFunctionProj pG_, final TTransformedLongitudeDirection trans_lon_dir_, 
+        public	FRM8(final List test_points_, final List reference_points_, final ICoordFunctionProjBatch pFG_, final TTransformedLongitudeDirection trans_lon_dir_, 
                 double [] R_, double [] q1_, double [] q2_, double [] dx_, double [] dy_) 
         {
                 test_points = test_points_;
                 reference_points = reference_points_;
-                F = pF_;
-                G = pG_;
+                FG = pFG_;
                 trans_lon_dir = trans_lon_dir_;
+                pole = new PoleRotation(90.0, 0.0, trans_lon_dir);
                 R = R_;
                 q1 = q1_;
                 q2 = q2_;
                 dx = dx_; 
                 dy = dy_;
+
+                //Copy both sets to the primitive arrays, the test points are reduced to their center of mass
+                final int m = test_points.size();
+                lat = new double[m]; lon = new double[m];
+                xt = new double[m]; yt = new double[m];
+                lat_trans = new double[m]; lon_trans = new double[m];
+                xr = new double[m]; yr = new double[m];
+
+                double [] x_mass = {0}, y_mass = {0};
+                FRM7.toArrays(test_points, reference_points, lat, lon, xt, yt, x_mass, y_mass);
+                x_mass_test = x_mass[0];
+                y_mass_test = y_mass[0];
         }
 
        public void function (Matrix X, Matrix Y, Matrix V, Matrix W)
        {
                 //Apply projection proj(Q->P'): convert geographic points to the cartesian
-                final int m = test_points.size();
-                int index = 0;
-		double x_mass_test = 0.0, y_mass_test = 0.0, x_mass_reference = 0.0, y_mass_reference = 0.0;
+                final int m = lat.length;
+		double x_mass_reference = 0.0, y_mass_reference = 0.0;
+
+                //Determined parameters
+                final double latp = FRM7.param(X, 0), lonp = FRM7.param(X, 1), lat1 = FRM7.param(X, 2), lat2 = FRM7.param(X, 3), lon0 = FRM7.param(X, 4), c = FRM7.param(X, 5);
 		
-                //Processa all points
-                List <Point3DCartesian> reference_points_projected = new ArrayList<>();
+                //Process all points: (lat, lon) -> (lat_trans, lon_trans)
+                pole.setPole(latp, lonp);
+                pole.latsLonsToLatsLonsTrans(lat, lon, 0, m, lat_trans, lon_trans);
 
-		for (final Point3DGeographic p : reference_points)
+		for (int i = 0; i < m; i++)
 		{
-			//(lat, lon) -> (lat_trans, lon_trans)
-			Point3DGeographic pole = new Point3DGeographic(X.items[0][0], X.items[1][0],0);
-			final double lat_trans = CartTransformation.latToLatTrans(p.getLat(), p.getLon(), pole.getLat(), pole.getLon());
-			final double lon_trans = CartTransformation.lonToLonTrans(p.getLat(), p.getLon(), pole.getLat(), pole.getLon(), trans_lon_dir);
-
                         //Reduce longitude lon0 (not lon0_trans)
-			final double lon_transr = CartTransformation.redLon0(lon_trans, X.items[4][0]);
-                        
-			// (lat_trans, lon_trans) -> (X, Y)
-			final double XR = F.f(lat_trans, lon_transr, R[0], X.items[2][0], X.items[3][0], 0, 0, 0, X.items[5][0]);
-			final double YR = G.f(lat_trans, lon_transr, R[0], X.items[2][0], X.items[3][0], 0, 0, 0, X.items[5][0]);
-			
-			//Add point to the list
-			Point3DCartesian  p_temp = new Point3DCartesian(XR, YR, 0);
-			reference_points_projected.add(p_temp);
-
-			//Coordinate sums
-			x_mass_test += test_points.get(index).getX();
-			y_mass_test += test_points.get(index).getY();
-			x_mass_reference += XR;
-			y_mass_reference += YR;
-
-			index++;
+			lon_trans[i] = CartTransformation.redLon0(lon_trans[i], lon0);
+		}
+
+                // (lat_trans, lon_trans) -> (X, Y), all points at once
+                FG.f(lat_trans, lon_trans, m, R[0], lat1, lat2, 0, 0, 0, c, xr, yr);
+
+                //Coordinate sums
+		for (int i = 0; i < m; i++)
+		{
+			x_mass_reference += xr[i];
+			y_mass_reference += yr[i];
 		}
 
-		//Update weight matrix
-		//W = eye(2 * m, 2 * m, 1.0);
+		//Update diagonal weight matrix stored as a vector
+		//W = ones(2 * m, 1);
 
-		//Compute centers of mass for both systems P, P'
-		x_mass_test = x_mass_test / m;
-		y_mass_test = y_mass_test / m;
+		//Compute center of mass for the projected system P'
 		x_mass_reference = x_mass_reference / m;
 		y_mass_reference = y_mass_reference / m;
 
+		//Reduce projected points to the center of mass
+		for (int i = 0; i < m; i++)
+		{
+			xr[i] -= x_mass_reference;
+			yr[i] -= y_mass_reference;
+		}
+
 		//Compute scale using the least squares adjustment: h = inv (A'WA)A'WL, 2D Helmert transformation
 		double sum_xy_1 = 0, sum_xy_2 = 0, sum_xx_yy = 0;
 		for (int i = 0; i < m; i++)
 		{
-			sum_xy_1 = sum_xy_1 + (test_points.get(i).getX() - x_mass_test) * (reference_points_projected.get(i).getX() - x_mass_reference) +
-				(test_points.get(i).getY() - y_mass_test) * (reference_points_projected.get(i).getY() - y_mass_reference);
-			sum_xy_2 = sum_xy_2 + (test_points.get(i).getY() - y_mass_test) * (reference_points_projected.get(i).getX() - x_mass_reference) -
-				(test_points.get(i).getX() - x_mass_test) * (reference_points_projected.get(i).getY() - y_mass_reference);
-			sum_xx_yy = sum_xx_yy + (reference_points_projected.get(i).getX() - x_mass_reference) * (reference_points_projected.get(i).getX() - x_mass_reference) +
-				(reference_points_projected.get(i).getY() - y_mass_reference) * (reference_points_projected.get(i).getY() - y_mass_reference);
+			sum_xy_1 += xt[i] * xr[i] + yt[i] * yr[i];
+			sum_xy_2 += yt[i] * xr[i] - xt[i] * yr[i];
+			sum_xx_yy += xr[i] * xr[i] + yr[i] * yr[i];
 		}
 
 		//Transformation ratios
 		q1[0] = sum_xy_1 / sum_xx_yy;
 		q2[0] = sum_xy_2 / sum_xx_yy;
 
-		//Rotation
-		final double alpha = atan2(q2[0], q1[0]) * 180.0 / PI;
-
 		//Compute coordinate differences (residuals): estimated - input
 		for (int i = 0; i < m; i++)
 		{
-			V.items[i][0] = (q1[0] * (reference_points_projected.get(i).getX() - x_mass_reference) - q2[0] * (reference_points_projected.get(i).getY() - y_mass_reference) - (test_points.get(i).getX() - x_mass_test));
-			V.items[i + m][0] = (q2[0] * (reference_points_projected.get(i).getX() - x_mass_reference) + q1[0] * (reference_points_projected.get(i).getY() - y_mass_reference) - (test_points.get(i).getY() - y_mass_test));
+			V.items[i][0] = q1[0] * xr[i] - q2[0] * yr[i] - xt[i];
+			V.items[i + m][0] = q2[0] * xr[i] + q1[0] * yr[i] - yt[i];
 		}
 
 		//Compute shifts dx, dy
@@ -138,6 +147,5 @@ public class FRM8{
 
 		//Evaluate new radius
 		R[0] *= sqrt(q1[0] * q1[0] + q2[0] * q2[0]);
-                System.out.println(q1[0] + "  " + q2[0] + "  " + R[0] + "  " + x_mass_test + "  " + y_mass_test + "  " + x_mass_reference + "  " + y_mass_reference);
        }    
-}
\ No newline at end of file
+}
@@ -23,6 +23,7 @@ import static detectprojv2j.consts.Consts.*;
 
 import detectprojv2j.types.IJacobian;
 import detectprojv2j.types.IResiduals;
+import detectprojv2j.types.TCancellationToken;
 
 import detectprojv2j.structures.matrix.Matrix;
 
@@ -31,19 +32,32 @@ public class NonLinearLeastSquares {
         
         public static double BFGSH(IJacobian function_j, IResiduals function_v, Matrix  W, Matrix  X, Matrix  Y, Matrix  V, final Matrix  A, final Matrix  B, int [] iterations,
 	final double alpha, final double nu, final double max_error, final int max_iterations, final double max_diff)
+        {
+                //Without cancellation
+                return BFGSH(function_j, function_v, W, X, Y, V, A, B, iterations, alpha, nu, max_error, max_iterations, max_diff, null);
+        }
+
+
+        public static double BFGSH(IJacobian function_j, IResiduals function_v, Matrix  W, Matrix  X, Matrix  Y, Matrix  V, final Matrix  A, final Matrix  B, int [] iterations,
+	final double alpha, final double nu, final double max_error, final int max_iterations, final double max_diff, final TCancellationToken token)
         {
                 //Solving Non-linear Least Squares using the hybrid BFGS algorithm
                 //Combination of the Gauss-Newton and BFGS method, algorithm by L Luksan
                 //Default values: nu = 0.0001, alpha = 0.0001;
 
-                //Create matrices
+                //Create matrices, all matrices are allocated once and updated in place
                 final int m = W.rows(), n = X.rows();
                 Matrix J = new Matrix(m, n);
                 Matrix V2 = new Matrix(m, 1); 
+                Matrix X2 = new Matrix(n, 1); 
                 Matrix dX = new Matrix(n, 1); 
-                Matrix E = new Matrix(n, n, 0.0, 1.0);
+                Matrix H = new Matrix(n, n);
                 Matrix H_new = new Matrix(n, n);
+                Matrix G = new Matrix(n, 1); 
                 Matrix G_new = new Matrix(n, 1); 
+                Matrix s = new Matrix(n, 1); 
+                Matrix y = new Matrix(n, 1); 
+                Matrix Hs = new Matrix(n, 1); 
 
                 //Assign matrix
                 Matrix  Y2 = Y;
@@ -54,14 +68,12 @@ public class NonLinearLeastSquares {
                 //Compute initial J matrix
                 function_j.f(X, J);
 
-                //Compute gradient G and square of residuals fx = trans(V) * V
-                Matrix  H = ((J.trans()).mult(W)).mult(J);
-                Matrix  G = ((J.trans()).mult(W)).mult(V);
-                H_new.copy(H);
-                G_new.copy(G);
+                //Compute Hessian H = trans(J) * W * J and gradient G = trans(J) * W * V, W is diagonal
+                J.transMultInto(W, J, H);
+                J.transMultInto(W, V, G);
 
                 //Compute objective function
-                double fx = (((V.trans()).mult(W)).mult(V)).norm();
+                double fx = V.sum2(W);
                 double fx_new = fx;
 
                 //Set iterations to 0
@@ -70,19 +82,25 @@ public class NonLinearLeastSquares {
                 //Perform iterations
                 while (iterations[0] < max_iterations)
                 {
+                        //Cancelled or deadline expired: return the current solution
+                        if (TCancellationToken.isCancelled(token))
+                                break;
+
                         //Increment iterations
                         iterations[0]++;
 
-                        //Compute new step dX
-                        dX = (H.pinv()).mult(G).mult(-1.0);
+                        //Compute new step dX: solve H * dX = -G
+                        H.solveSym(G, dX);
+                        dX.scale(-1.0);
 
                         //Too long step dX, reduction
                         final double ndX = dX.norm();
                         if (ndX > MAX_NLS_STEP_LENGTH) 
-                                dX = dX.mult(100 / ndX);
+                                dX.scale(100 / ndX);
 
                         //Compute new trial solution X2
-                        Matrix  X2 = X.plus(dX);
+                        X2.copy(X);
+                        X2.axpy(1.0, dX);
 
                         //Reflection of X2 into the search space
                         reflection(X2, A, B);
@@ -90,17 +108,19 @@ public class NonLinearLeastSquares {
                         //Compute new trial matrix residuals V2 of the reflected solution
                         function_v.f(X2, Y2, V2, W);
 
-                        //Apply line search strategy
+                        //Apply line search strategy, trans(V) * W * J * dX = trans(G) * dX
                         final double t_min = 1.0e-10;
+                        final double gdX = G.dot(dX);
                         double t = 1.0;
 
-                        while ((V2.sum2() > V.sum2() + (((V.trans()).mult(J)).mult(dX)).sum() * t * alpha * 2.0) && (t > t_min))
+                        while ((V2.sum2(W) > fx + gdX * t * alpha * 2.0) && (t > t_min))
                         {
                                 //Step t bisection
                                 t /= 2;
 
                                 //Compute new trial X2
-                                X2 = X.plus(dX.mult(t));
+                                X2.copy(X);
+                                X2.axpy(t, dX);
 
                                 //Reflection of trial X2 into the search space
                                 reflection(X2, A, B);
@@ -110,7 +130,7 @@ public class NonLinearLeastSquares {
                         }
 
                         //Compute new X using the line search method
-                        X.copy(X.plus(dX.mult(t)));
+                        X.axpy(t, dX);
 
                         //Reflection of X into the search space
                         reflection(X, A, B);
@@ -121,9 +141,9 @@ public class NonLinearLeastSquares {
                         //Compute new Jacobian matrix J
                         function_j.f(X, J);
 
-                        //Compute new gradient G and square of residuals fx = trans(V) * V
-                        G_new = ((J.trans()).mult(W)).mult(V);
-                        fx_new = (((V.trans()).mult(W)).mult(V)).norm();
+                        //Compute new gradient G and square of residuals fx = trans(V) * W * V
+                        J.transMultInto(W, V, G_new);
+                        fx_new = V.sum2(W);
 
                         //Check the terminal condition
                         if ((G.norm() < max_error) /*|| (fabs(fx_new - fx) < 1.0 * max_diff * std::min(1.0, fx))*/ || (fx < max_error) || ( dX.norm() < 1.0e-10 ) )
@@ -135,48 +155,41 @@ public class NonLinearLeastSquares {
                         final double df = (fx - fx_new) / fx;
 
                         //Compute Hessian matrix as H=J*W*J (Gauss-Newton)
-                        if (df > nu)
-                        {
-                                H_new = ((J.trans()).mult(W)).mult(J);
-                        }
+                        J.transMultInto(W, J, H_new);
 
                         //Compute Hessian matrix from BFGS update
-                        else
+                        if (df <= nu)
                         {
                                 //Compute solution difference
-                                Matrix  s = dX.mult(t);
+                                s.copy(dX);
+                                s.scale(t);
 
                                 //Compute gradient difference
-                                Matrix  y = G_new.minus(G);
+                                y.copy(G_new);
+                                y.axpy(-1.0, G);
 
                                 //Compute denominators
-                                final double ys = ((y.trans()).mult(s)).sum();
-                                final double shs = (((s.trans()).mult(H)).mult(s)).sum();
+                                H.multInto(s, Hs);
+                                final double ys = y.dot(s);
+                                final double shs = s.dot(Hs);
 
                                 //Compute update, if trans(y) * s > 0 (symmetric positive definite update)
-                                if (ys > 0)
+                                //Quasi-Newton update: H = J*W*J + y * trans(y) / ys - H * s * trans(H * s) / shs
+                                if (ys > 0 && abs(ys) > MIN_FLOAT && abs(shs) > MIN_FLOAT)
                                 {
-                                        Matrix dH = new Matrix (n, n);
-
-                                        if (abs(ys) > MIN_FLOAT && abs(shs) > MIN_FLOAT)
+                                        for (int i = 0; i < n; i++)
                                         {
-                                                Matrix dH1 = (y.mult(y.trans())).mult(1.0/ys);
-                                                Matrix dH2 = (H.mult(s)).mult(((H.mult(s)).trans()).mult(1.0/shs));
-                                                dH = dH.plus(dH1.minus(dH2));
+                                                for (int j = 0; j < n; j++)
+                                                {
+                                                        H_new.items[i][j] += y.items[i][0] * y.items[j][0] / ys - Hs.items[i][0] * Hs.items[j][0] / shs;
+                                                }
                                         }
-
-                                        //Compute Hessian matrix using quasi-Newton update: H = J*W*J + dH
-                                        H_new = (((J.trans()).mult(W)).mult(J)).plus(dH);
                                 }
-
-                                //Do not update, if trans(y) * s < = 0
-                                else
-                                        H_new = ((J.trans()).mult(W)).mult(J);
                         }
 
-                        //Assign values
-                        H = H_new;
-                        G = G_new;
+                        //Swap values
+                        Matrix T = H; H = H_new; H_new = T;
+                        T = G; G = G_new; G_new = T;
                         fx = fx_new;
                 }
 
@@ -184,7 +197,135 @@ public class NonLinearLeastSquares {
                 function_v.f(X, Y, V, W);
 
                 //Evaluate minimum
-                final double fxmin = (((V.trans()).mult(W)).mult(V)).norm();
+                final double fxmin = V.sum2(W);
+
+                return fxmin;
+        }
+
+
+        public static double LM(IJacobian function_j, IResiduals function_v, Matrix  W, Matrix  X, Matrix  Y, Matrix  V, final Matrix  A, final Matrix  B, int [] iterations,
+	final double max_error, final int max_iterations, final boolean reuse_jacobian, final TCancellationToken token)
+        {
+                //Solving Non-linear Least Squares using the Levenberg-Marquardt trust-region algorithm
+                //Damping mu is adapted according to the ratio of the actual and predicted reduction (Nielsen update)
+                //The trial solution is reflected into the search space
+                //reuse_jacobian: the Jacobian of the current solution is kept after a rejected step, otherwise it is recomputed
+                //(residual functions with an internal state, e.g. M8, may change the Jacobian by evaluating the trial solution)
+
+                //Create matrices, all matrices are allocated once and updated in place
+                final int m = W.rows(), n = X.rows();
+                Matrix J = new Matrix(m, n);
+                Matrix V2 = new Matrix(m, 1); 
+                Matrix X2 = new Matrix(n, 1); 
+                Matrix dX = new Matrix(n, 1); 
+                Matrix H = new Matrix(n, n);
+                Matrix HD = new Matrix(n, n);
+                Matrix G = new Matrix(n, 1); 
+                Matrix Hh = new Matrix(n, 1); 
+
+                //Reflection of the initial solution into the search space, otherwise the first steps are distorted by the reflection
+                reflection(X, A, B);
+
+                //Compute initial V matrix (residuals) and J matrix
+                function_v.f(X, Y, V, W);
+                function_j.f(X, J);
+
+                //Compute Hessian H = trans(J) * W * J and gradient G = trans(J) * W * V, W is diagonal
+                J.transMultInto(W, J, H);
+                J.transMultInto(W, V, G);
+
+                //Compute objective function
+                double fx = V.sum2(W);
+
+                //Initial damping, relative to the diagonal of H (Marquardt scaling)
+                final double tau = 1.0e-3, mu_max = 1.0e20;
+                double mu = tau, nu = 2.0;
+
+                //Set iterations to 0
+                iterations[0] = 0;
+
+                //Perform iterations
+                while (iterations[0] < max_iterations)
+                {
+                        //Cancelled or deadline expired: return the current solution
+                        if (TCancellationToken.isCancelled(token))
+                                break;
+
+                        //Check the terminal condition
+                        if ((G.norm() < max_error) || (fx < max_error) || (mu > mu_max))
+                                break;
+
+                        //Increment iterations
+                        iterations[0]++;
+
+                        //Damped matrix HD = H + mu * diag(H) (Marquardt scaling)
+                        HD.copy(H);
+                        for (int i = 0; i < n; i++)
+                                HD.items[i][i] += mu * H.items[i][i];
+
+                        //Compute new step dX: solve HD * dX = -G
+                        HD.solveSym(G, dX);
+                        dX.scale(-1.0);
+
+                        //Too long step dX, reduction
+                        final double ndX = dX.norm();
+                        if (ndX > MAX_NLS_STEP_LENGTH) 
+                                dX.scale(100 / ndX);
+
+                        //Step too short
+                        if (ndX < 1.0e-10)
+                                break;
+
+                        //Predicted reduction of the Gauss-Newton model for the damped step: -(2 * trans(G) * dX + trans(dX) * H * dX)
+                        //Computed before the reflection, positive for any mu > 0
+                        H.multInto(dX, Hh);
+                        final double pred = -(2.0 * G.dot(dX) + dX.dot(Hh));
+
+                        //Compute new trial solution X2, reflection of X2 into the search space
+                        X2.copy(X);
+                        X2.axpy(1.0, dX);
+                        reflection(X2, A, B);
+
+                        //Compute new trial matrix residuals V2
+                        function_v.f(X2, Y, V2, W);
+                        final double fx_new = V2.sum2(W);
+
+                        //Gain ratio of the actual and predicted reduction
+                        final double rho = (pred > 0 && Double.isFinite(fx_new) ? (fx - fx_new) / pred : -1.0);
+
+                        //Step accepted: decrease damping
+                        if (rho > 0)
+                        {
+                                X.copy(X2);
+                                V.copy(V2);
+                                fx = fx_new;
+
+                                mu *= max(1.0 / 3.0, 1.0 - pow(2.0 * rho - 1.0, 3));
+                                nu = 2.0;
+                        }
+
+                        //Step rejected: increase damping
+                        else
+                        {
+                                mu *= nu;
+                                nu *= 2.0;
+
+                                //Keep the Jacobian of the current solution
+                                if (reuse_jacobian)
+                                        continue;
+                        }
+
+                        //Compute new Jacobian matrix J, Hessian H and gradient G
+                        function_j.f(X, J);
+                        J.transMultInto(W, J, H);
+                        J.transMultInto(W, V, G);
+                }
+
+                //Compute final values in V
+                function_v.f(X, Y, V, W);
+
+                //Evaluate minimum
+                final double fxmin = V.sum2(W);
 
                 return fxmin;
         }
@@ -0,0 +1,74 @@
+// Description: Analytic differentiation of the coordinate function in the oblique aspect
+// using closed-form partial derivatives of the projection equations and the chain rule
+// grad = [dF/dR, dF/dlatp, dF/dlonp, dF/dlat1, dF/dlat2, dF/dlon0, dF/dc], angular variables in degrees
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.algorithms.numdifferentiation;
+
+import static java.lang.Double.isFinite;
+
+import detectprojv2j.types.ICoordFunctionProjDer;
+import detectprojv2j.types.TTransformedLongitudeDirection;
+
+import detectprojv2j.algorithms.carttransformation.CartTransformation;
+
+
+public class AnalyticDifferentiation {
+
+        public static boolean getGradient(final ICoordFunctionProjDer equat_der, final double lat, final double lon, final double R, final double latp, final double lonp, final double lat1, final double lat2,
+                final double lon0, final double c, final TTransformedLongitudeDirection trans_lon_dir, double [] der, double [] lat_trans_der, double [] lon_trans_der, double [] grad)
+        {
+                //Compute the gradient of the coordinate function with respect to the determined parameters
+                //der (6), lat_trans_der (2), lon_trans_der (2): temporary arrays, grad (7): output
+                //Returns false, if the gradient is not finite (singular point): numeric differentiation has to be used
+
+                //Convert ( lat, lon ) -> ( lat_trans, lon_trans)_trans
+                final double lat_trans = CartTransformation.latToLatTrans(lat, lon, latp, lonp);
+                final double lon_trans = CartTransformation.lonToLonTrans(lat, lon, latp, lonp, trans_lon_dir);
+
+                //Reduce longitude lon0 (not lon0_trans)
+                final double lon_transr = CartTransformation.redLon0(lon_trans, lon0);
+
+                //Partial derivatives of the map projection equation: [lat, lon, R, lat1, lat2, c]
+                equat_der.f(lat_trans, lon_transr, R, lat1, lat2, 0, 0, 0, c, der);
+
+                //Partial derivatives of the transformed coordinates: [latp, lonp]
+                CartTransformation.latToLatTransDer(lat, lon, latp, lonp, lat_trans_der);
+                CartTransformation.lonToLonTransDer(lat, lon, latp, lonp, trans_lon_dir, lon_trans_der);
+
+                //Chain rule
+                grad[0] = der[2];
+                grad[1] = der[0] * lat_trans_der[0] + der[1] * lon_trans_der[0];
+                grad[2] = der[0] * lat_trans_der[1] + der[1] * lon_trans_der[1];
+                grad[3] = der[3];
+                grad[4] = der[4];
+                grad[5] = -der[1];
+                grad[6] = der[5];
+
+                //Test, whether the gradient is finite
+                for (double g : grad)
+                {
+                        if (!isFinite(g))
+                                return false;
+                }
+
+                return true;
+        }
+}
@@ -0,0 +1,65 @@
+// Description: Automatic differentiation of the coordinate function in the oblique aspect
+// using dual numbers: the value and the gradient are computed in one pass
+// grad = [dF/dR, dF/dlatp, dF/dlonp, dF/dlat1, dF/dlat2, dF/dlon0, dF/dc], angular variables in degrees
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.algorithms.numdifferentiation;
+
+import static java.lang.Double.isFinite;
+
+import detectprojv2j.types.ICoordFunctionProjDual;
+import detectprojv2j.types.TTransformedLongitudeDirection;
+
+import detectprojv2j.structures.dual.Dual;
+
+import detectprojv2j.algorithms.carttransformation.CartTransformation;
+
+
+public class AutoDifferentiation {
+
+        public static boolean getGradient(final ICoordFunctionProjDual equat_dual, final double lat, final double lon, final Dual R, final Dual latp, final Dual lonp, final Dual lat1, final Dual lat2,
+                final Dual lon0, final Dual c, final TTransformedLongitudeDirection trans_lon_dir, double [] grad)
+        {
+                //Compute the gradient of the coordinate function with respect to the determined parameters
+                //The parameters are dual variables, constant parameters have an empty gradient
+                //Returns false, if the gradient is not finite (singular point): numeric differentiation has to be used
+
+                //Convert ( lat, lon ) -> ( lat_trans, lon_trans)_trans
+                final Dual lat_trans = CartTransformation.latToLatTrans(lat, lon, latp, lonp);
+                final Dual lon_trans = CartTransformation.lonToLonTrans(lat, lon, latp, lonp, trans_lon_dir);
+
+                //Reduce longitude lon0 (not lon0_trans)
+                final Dual lon_transr = CartTransformation.redLon0(lon_trans, lon0);
+
+                //Evaluate the map projection equation in dual numbers
+                final Dual f = equat_dual.f(lat_trans, lon_transr, R, lat1, lat2, new Dual(0), 0, 0, c);
+
+                f.getGradient(grad);
+
+                //Test, whether the gradient is finite
+                for (double g : grad)
+                {
+                        if (!isFinite(g))
+                                return false;
+                }
+
+                return true;
+        }
+}
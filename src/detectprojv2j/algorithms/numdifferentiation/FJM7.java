@@ -28,12 +28,15 @@ import detectprojv2j.types.TTransformedLongitudeDirection;
 import static detectprojv2j.types.TDerivativeType.*;
 import static detectprojv2j.types.TDerivativeVariable.*;
 import detectprojv2j.types.ICoordFunctionProj;
+import detectprojv2j.types.ICoordFunctionProjDer;
+import detectprojv2j.types.ICoordFunctionProjDual;
 
 import static detectprojv2j.consts.Consts.*;
 
 import detectprojv2j.structures.point.Point3DCartesian;
 import detectprojv2j.structures.point.Point3DGeographic;
 import detectprojv2j.structures.matrix.Matrix;
+import detectprojv2j.structures.dual.Dual;
 
 public class FJM7 {
         
@@ -41,14 +44,28 @@ public class FJM7 {
 	private final List <Point3DGeographic>  reference_points;			//List of reference points
 	private final ICoordFunctionProj  F;                                            //Reference to the coordinate function X = F(lat, lon)
         private final ICoordFunctionProj  G;                                            //Reference to the coordinate function Y = G(lat, lon)
+        private final ICoordFunctionProjDer  FD;                                        //Reference to the partial derivatives of F (null = numeric differentiation)
+        private final ICoordFunctionProjDer  GD;                                        //Reference to the partial derivatives of G (null = numeric differentiation)
+        private final ICoordFunctionProjDual  FDual;                                    //Reference to the dual coordinate function F (null = not available)
+        private final ICoordFunctionProjDual  GDual;                                    //Reference to the dual coordinate function G (null = not available)
        	private final TTransformedLongitudeDirection trans_lon_dir;			//Transformed longitude direction
-        
+
         public FJM7(final List <Point3DCartesian > test_points_, final List <Point3DGeographic > reference_points_, final ICoordFunctionProj  pF, final ICoordFunctionProj  pG, final TTransformedLongitudeDirection trans_lon_dir_)
-        { 
+        {
+                this(test_points_, reference_points_, pF, pG, null, null, null, null, trans_lon_dir_);
+        }
+
+        public FJM7(final List <Point3DCartesian > test_points_, final List <Point3DGeographic > reference_points_, final ICoordFunctionProj  pF, final ICoordFunctionProj  pG,
+                final ICoordFunctionProjDer  pFD, final ICoordFunctionProjDer  pGD, final ICoordFunctionProjDual  pFDual, final ICoordFunctionProjDual  pGDual, final TTransformedLongitudeDirection trans_lon_dir_)
+        {
                 test_points = test_points_;
                 reference_points = reference_points_;
-                F = pF; 
+                F = pF;
                 G = pG;
+                FD = pFD;
+                GD = pGD;
+                FDual = pFDual;
+                GDual = pGDual;
                 trans_lon_dir  = trans_lon_dir_;
         }
 
@@ -63,13 +80,54 @@ public class FJM7 {
 
 		//Process all points: compute Jacobian matrix of partial derivatives
 		int i = 0, m = test_points.size();
-                        
+
+                //Temporary arrays for the analytic partial derivatives
+                double [] der = new double [6], lat_trans_der = new double [2], lon_trans_der = new double [2];
+                double [] gradx = new double [7], grady = new double [7];
+
 		for (final Point3DGeographic p : reference_points)
 		{
 			//Get coordinates of the point
 			final double lat = p.getLat();
 			final double lon = p.getLon();
-                        
+
+                        //Analytic partial derivatives are available
+                        if ((FD != null) && (GD != null) &&
+                                AnalyticDifferentiation.getGradient(FD, lat, lon, XT.items[0][0], XT.items[0][1], XT.items[0][2], XT.items[0][3], XT.items[0][4], XT.items[0][5], XT.items[0][6], trans_lon_dir, der, lat_trans_der, lon_trans_der, gradx) &&
+                                AnalyticDifferentiation.getGradient(GD, lat, lon, XT.items[0][0], XT.items[0][1], XT.items[0][2], XT.items[0][3], XT.items[0][4], XT.items[0][5], XT.items[0][6], trans_lon_dir, der, lat_trans_der, lon_trans_der, grady))
+                        {
+                                //Upper and lower part of the Jacobian matrix
+                                System.arraycopy(gradx, 0, J_T.items[i], 0, 7);
+                                System.arraycopy(grady, 0, J_T.items[i + m], 0, 7);
+
+                                //Increment index
+                                i++;
+
+                                continue;
+                        }
+
+                        //Dual coordinate functions are available: value and gradient in one pass
+                        if ((FDual != null) && (GDual != null))
+                        {
+                                //Parameters as dual variables
+                                final Dual R = Dual.variable(XT.items[0][0], 0, 7), latp = Dual.variable(XT.items[0][1], 1, 7), lonp = Dual.variable(XT.items[0][2], 2, 7),
+                                        lat1 = Dual.variable(XT.items[0][3], 3, 7), lat2 = Dual.variable(XT.items[0][4], 4, 7), lon0 = Dual.variable(XT.items[0][5], 5, 7), c = Dual.variable(XT.items[0][6], 6, 7);
+
+                                if (AutoDifferentiation.getGradient(FDual, lat, lon, R, latp, lonp, lat1, lat2, lon0, c, trans_lon_dir, gradx) &&
+                                        AutoDifferentiation.getGradient(GDual, lat, lon, R, latp, lonp, lat1, lat2, lon0, c, trans_lon_dir, grady))
+                                {
+                                        //Upper and lower part of the Jacobian matrix
+                                        System.arraycopy(gradx, 0, J_T.items[i], 0, 7);
+                                        System.arraycopy(grady, 0, J_T.items[i + m], 0, 7);
+
+                                        //Increment index
+                                        i++;
+
+                                        continue;
+                                }
+                        }
+
+                        //Otherwise use numeric differentiation
                         //Create objects
                         FDiffM7  fderx = new FDiffM7(lat, lon, F, trans_lon_dir);
                         FDiffM7  fdery = new FDiffM7(lat, lon, G, trans_lon_dir);
@@ -0,0 +1,399 @@
+// Description: Numeric inverse (X, Y) -> (lat, lon) of the coordinate functions (F, G) with fixed parameters
+// Solves F(lat, lon) = X, G(lat, lon) = Y by the damped 2D Newton iteration, the Jacobian is computed
+// by finite differences. The initial solution is the previous (neighbouring) point, if it does not converge,
+// the nearest forward sample stored in the coarse inverse lookup grid over the projected domain is used.
+// The lookup grid is built lazily by the first inversion.
+// Some coordinate functions are not one-to-one (e.g. hemispherical projections folded along lon - lon0 = +-90):
+// the main domain is formed by points with the same orientation (sign of the Jacobian determinant) as the reference point
+// on the central meridian. Mirrored forward samples are not used as seeds, and mirrored solutions are rejected.
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.algorithms.numericinverse;
+
+import static java.lang.Math.*;
+import java.util.Arrays;
+
+import detectprojv2j.types.ICoordFunctionProj;
+
+import static detectprojv2j.consts.Consts.*;
+
+import detectprojv2j.exceptions.MathInvalidArgumentException;
+
+
+public final class NumericInverse {
+
+        private final ICoordFunctionProj F, G;                          //Coordinate functions of the projection
+        private final double R, lat1, lat2, lon0, dx, dy, c;            //Fixed parameters of the projection
+        private final double eps_xy;                                    //Maximum residual of the coordinates X, Y
+        private final double eps_xy_fold;                               //Maximum residual of the coordinates X, Y at folds and boundaries (linear convergence)
+
+        private volatile boolean initialized = false;                   //Lookup grid has been built
+        private int orientation;                                        //Orientation of the main domain (sign of the Jacobian determinant), 0 = not folded
+        private double xmin, ymin, cell_w, cell_h;                      //Extent of the lookup grid
+        private double [] cell_lat, cell_lon, cell_x, cell_y;           //Forward sample nearest to the cell center, NaN = empty cell
+
+        private static final double SAMPLE_STEP = 2.0;                  //Step of the forward samples (lat, lon) in degrees
+        private static final int CELLS = 128;                           //Amount of cells of the lookup grid in X and Y directions
+        private static final int MAX_RING = 4;                          //Maximum distance of the searched cells
+        private static final int MAX_ITERATIONS = 50;                   //Maximum amount of iterations of the damped Newton iteration
+        private static final int MAX_HALVINGS = 10;                     //Maximum amount of step halvings of the damped Newton iteration
+        private static final double DIFF_STEP = 1.0e-6;                 //Step of the finite differences in degrees
+        private static final double SINGULAR_RATIO = 1.0e-8;            //Jacobian is nearly singular, if abs(det) <= SINGULAR_RATIO * norm^2
+        private static final double FOLD_RATIO = 1.0e-3;                //Orientation is determined, if abs(det) > FOLD_RATIO * norm^2 (points near the fold are not mirrored)
+        private static final double REFERENCE_LAT = 45.0;               //Latitude of the reference point of the main domain on the central meridian
+
+
+        public NumericInverse(final ICoordFunctionProj F_, final ICoordFunctionProj G_, final double R_, final double lat1_, final double lat2_, final double lon0_, final double dx_, final double dy_, final double c_)
+        {
+                F = F_;
+                G = G_;
+                R = R_;
+                lat1 = lat1_;
+                lat2 = lat2_;
+                lon0 = lon0_;
+                dx = dx_;
+                dy = dy_;
+                c = c_;
+
+                eps_xy = 1.0e-10 * max(abs(R), 1.0);
+                eps_xy_fold = 1.0e-7 * max(abs(R), 1.0);
+        }
+
+
+        public void XYToLatLon(final double X, final double Y, double [] lat, double [] lon)
+        {
+                //Convert (X, Y) -> (lat, lon)
+                //On input, lat and lon store the initial solution (the previous neighbouring point, NaN = not available)
+                //The solution must lie in the main domain: the previous solution may converge to the mirrored point
+                if (!initialized)
+                        init();
+
+                //Use the previous solution
+                if (!Double.isNaN(lat[0]) && !Double.isNaN(lon[0]) && abs(lat[0]) <= MAX_LAT && abs(lon[0]) <= MAX_LON)
+                {
+                        if (newton(X, Y, lat[0], lon[0], lat, lon) && !isMirrored(lat[0], lon[0]))
+                                return;
+                }
+
+                //Use the nearest forward sample from the lookup grid
+                final int [] index = {-1};
+                if (findSeed(X, Y, index) && newton(X, Y, cell_lat[index[0]], cell_lon[index[0]], lat, lon) && !isMirrored(lat[0], lon[0]))
+                        return;
+
+                //Throw exception
+                lat[0] = Double.NaN;
+                lon[0] = Double.NaN;
+
+                throw new MathInvalidArgumentException ("MathInvalidArgumentException: can not evaluate the numeric inverse, ", "Newton iteration does not converge, X = ", X);
+        }
+
+
+        private boolean newton(final double X, final double Y, final double lat_0, final double lon_0, double [] lat, double [] lon)
+        {
+                //Damped 2D Newton iteration starting at (lat_0, lon_0), returns true if converged
+                double lat_i = lat_0, lon_i = lon_0;
+                double [] fx = {0}, fy = {0}, fx_n = {0}, fy_n = {0};
+
+                if (!evaluate(lat_i, lon_i, fx, fy))
+                        return false;
+
+                double rx = fx[0] - X, ry = fy[0] - Y;
+                double res = abs(rx) + abs(ry);
+
+                for (int iterations = 0; iterations < MAX_ITERATIONS; iterations++)
+                {
+                        //Terminal condition
+                        if (res < eps_xy)
+                        {
+                                lat[0] = lat_i;
+                                lon[0] = lon_i;
+
+                                return true;
+                        }
+
+                        //Jacobian by finite differences, backward steps at the upper bounds
+                        final double hlat = (lat_i + DIFF_STEP > MAX_LAT ? -DIFF_STEP : DIFF_STEP);
+                        final double hlon = (lon_i + DIFF_STEP > MAX_LON ? -DIFF_STEP : DIFF_STEP);
+                        double [] fx_lat = {0}, fy_lat = {0}, fx_lon = {0}, fy_lon = {0};
+
+                        if (!evaluate(lat_i + hlat, lon_i, fx_lat, fy_lat) || !evaluate(lat_i, lon_i + hlon, fx_lon, fy_lon))
+                                return false;
+
+                        final double j11 = (fx_lat[0] - fx[0]) / hlat, j12 = (fx_lon[0] - fx[0]) / hlon;
+                        final double j21 = (fy_lat[0] - fy[0]) / hlat, j22 = (fy_lon[0] - fy[0]) / hlon;
+                        final double det = j11 * j22 - j12 * j21;
+                        final double norm = j11 * j11 + j12 * j12 + j21 * j21 + j22 * j22;
+
+                        //Zero Jacobian
+                        if (norm < MIN_FLOAT)
+                                return false;
+
+                        double dlat, dlon;
+
+                        //Newton step
+                        if (abs(det) > SINGULAR_RATIO * norm)
+                        {
+                                dlat = -( j22 * rx - j12 * ry) / det;
+                                dlon = -(-j21 * rx + j11 * ry) / det;
+                        }
+
+                        //Nearly singular Jacobian (fold or constant part of the coordinate functions): Levenberg-Marquardt step
+                        //(J'J + mi * I) * d = -J'r
+                        else
+                        {
+                                final double mi = SINGULAR_RATIO * norm;
+                                final double a11 = j11 * j11 + j21 * j21 + mi, a12 = j11 * j12 + j21 * j22, a22 = j12 * j12 + j22 * j22 + mi;
+                                final double b1 = -(j11 * rx + j21 * ry), b2 = -(j12 * rx + j22 * ry);
+                                final double det_a = a11 * a22 - a12 * a12;
+
+                                dlat = (a22 * b1 - a12 * b2) / det_a;
+                                dlon = (a11 * b2 - a12 * b1) / det_a;
+                        }
+
+                        //Halve the step until the residual decreases, the iterates of the folded coordinate functions remain in the main domain
+                        boolean decreased = false;
+                        for (int k = 0; k <= MAX_HALVINGS && !decreased; k++, dlat *= 0.5, dlon *= 0.5)
+                        {
+                                final double lat_n = max(min(lat_i + dlat, MAX_LAT), MIN_LAT);
+                                final double lon_n = max(min(lon_i + dlon, MAX_LON), MIN_LON);
+
+                                if (!evaluate(lat_n, lon_n, fx_n, fy_n) || isMirrored(lat_n, lon_n))
+                                        continue;
+
+                                final double rx_n = fx_n[0] - X, ry_n = fy_n[0] - Y;
+                                final double res_n = abs(rx_n) + abs(ry_n);
+
+                                if (res_n < res)
+                                {
+                                        lat_i = lat_n; lon_i = lon_n;
+                                        fx[0] = fx_n[0]; fy[0] = fy_n[0];
+                                        rx = rx_n; ry = ry_n;
+                                        res = res_n;
+                                        decreased = true;
+                                }
+                        }
+
+                        //Step can not be improved
+                        if (!decreased)
+                                break;
+                }
+
+                //Terminal condition after the last iteration or stagnation
+                if (res < eps_xy_fold)
+                {
+                        lat[0] = lat_i;
+                        lon[0] = lon_i;
+
+                        return true;
+                }
+
+                return false;
+        }
+
+
+        private boolean evaluate(final double lat, final double lon, double [] X, double [] Y)
+        {
+                //Evaluate the coordinate functions, false if not defined at the point
+                try
+                {
+                        X[0] = F.f(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                        Y[0] = G.f(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+
+                        return !Double.isNaN(X[0]) && !Double.isNaN(Y[0]);
+                }
+
+                catch (Exception e)
+                {
+                        return false;
+                }
+        }
+
+
+        private int getOrientation(final double j11, final double j12, final double j21, final double j22)
+        {
+                //Orientation of the coordinate functions given by the Jacobian: sign of the determinant, 0 = nearly singular (fold)
+                final double det = j11 * j22 - j12 * j21;
+                final double norm = j11 * j11 + j12 * j12 + j21 * j21 + j22 * j22;
+
+                if (Double.isNaN(det) || abs(det) <= FOLD_RATIO * norm)
+                        return 0;
+
+                return (det > 0 ? 1 : -1);
+        }
+
+
+        private int getOrientation(final double lat, final double lon)
+        {
+                //Orientation of the coordinate functions at the point, the Jacobian is computed by finite differences
+                final double hlat = (lat + DIFF_STEP > MAX_LAT ? -DIFF_STEP : DIFF_STEP);
+                final double hlon = (lon + DIFF_STEP > MAX_LON ? -DIFF_STEP : DIFF_STEP);
+                double [] fx = {0}, fy = {0}, fx_lat = {0}, fy_lat = {0}, fx_lon = {0}, fy_lon = {0};
+
+                if (!evaluate(lat, lon, fx, fy) || !evaluate(lat + hlat, lon, fx_lat, fy_lat) || !evaluate(lat, lon + hlon, fx_lon, fy_lon))
+                        return 0;
+
+                return getOrientation((fx_lat[0] - fx[0]) / hlat, (fx_lon[0] - fx[0]) / hlon, (fy_lat[0] - fy[0]) / hlat, (fy_lon[0] - fy[0]) / hlon);
+        }
+
+
+        private boolean isMirrored(final double lat, final double lon)
+        {
+                //Is the solution outside the main domain of the folded coordinate functions?
+                return orientation != 0 && getOrientation(lat, lon) == -orientation;
+        }
+
+
+        private synchronized void init()
+        {
+                //Build the coarse inverse lookup grid: forward samples are assigned to the cells of the projected domain
+                if (initialized)
+                        return;
+
+                final int n_lat = (int) round((MAX_LAT - MIN_LAT) / SAMPLE_STEP) + 1, n_lon = (int) round((MAX_LON - MIN_LON) / SAMPLE_STEP) + 1;
+                final double [] g_x = new double[n_lat * n_lon], g_y = new double[n_lat * n_lon];
+                double [] X = {0}, Y = {0};
+
+                //Forward samples on the regular grid, NaN = the coordinate functions are not defined
+                for (int i = 0; i < n_lat; i++)
+                {
+                        for (int j = 0; j < n_lon; j++)
+                        {
+                                final double lat = MIN_LAT + i * SAMPLE_STEP, lon = MIN_LON + j * SAMPLE_STEP;
+                                final boolean defined = evaluate(lat, lon, X, Y) && abs(X[0]) <= MAX_FLOAT && abs(Y[0]) <= MAX_FLOAT;
+
+                                g_x[i * n_lon + j] = (defined ? X[0] : Double.NaN);
+                                g_y[i * n_lon + j] = (defined ? Y[0] : Double.NaN);
+                        }
+                }
+
+                //Detect the fold: orientation of the forward samples given by the differences of the neighbouring samples (backward differences at the upper bounds)
+                final int reference = getOrientation(REFERENCE_LAT, lon0);
+                boolean folded = false;
+
+                for (int i = 0; i < n_lat; i++)
+                {
+                        for (int j = 0; j < n_lon; j++)
+                        {
+                                final int k = i * n_lon + j;
+                                final int di = (i + 1 < n_lat ? 1 : -1), dj = (j + 1 < n_lon ? 1 : -1);
+                                final int k_lat = k + di * n_lon, k_lon = k + dj;
+
+                                //Mirrored sample: the coordinate functions are folded
+                                if (reference != 0 && getOrientation((g_x[k_lat] - g_x[k]) / di, (g_x[k_lon] - g_x[k]) / dj, (g_y[k_lat] - g_y[k]) / di, (g_y[k_lon] - g_y[k]) / dj) == -reference)
+                                        folded = true;
+                        }
+                }
+
+                orientation = (folded ? reference : 0);
+
+                //Forward samples in the main domain
+                final double [] s_lat = new double[n_lat * n_lon], s_lon = new double[n_lat * n_lon], s_x = new double[n_lat * n_lon], s_y = new double[n_lat * n_lon];
+                int n = 0;
+                double x_min = Double.MAX_VALUE, y_min = Double.MAX_VALUE, x_max = -Double.MAX_VALUE, y_max = -Double.MAX_VALUE;
+                for (int i = 0; i < n_lat; i++)
+                {
+                        for (int j = 0; j < n_lon; j++)
+                        {
+                                final int k = i * n_lon + j;
+                                final double lat = MIN_LAT + i * SAMPLE_STEP, lon = MIN_LON + j * SAMPLE_STEP;
+
+                                //Skip points, where the coordinate functions are not defined, and mirrored points (the differences of the samples are not accurate near the fold)
+                                if (Double.isNaN(g_x[k]) || Double.isNaN(g_y[k]) || isMirrored(lat, lon))
+                                        continue;
+
+                                s_lat[n] = lat; s_lon[n] = lon;
+                                s_x[n] = g_x[k]; s_y[n] = g_y[k];
+                                n++;
+
+                                x_min = min(x_min, g_x[k]); x_max = max(x_max, g_x[k]);
+                                y_min = min(y_min, g_y[k]); y_max = max(y_max, g_y[k]);
+                        }
+                }
+
+                //Cells of the lookup grid
+                final double [] c_lat = new double[CELLS * CELLS], c_lon = new double[CELLS * CELLS], c_x = new double[CELLS * CELLS], c_y = new double[CELLS * CELLS];
+                Arrays.fill(c_lat, Double.NaN);
+
+                xmin = x_min;
+                ymin = y_min;
+                cell_w = max((x_max - x_min) / CELLS, MIN_FLOAT);
+                cell_h = max((y_max - y_min) / CELLS, MIN_FLOAT);
+
+                //Keep the sample nearest to the cell center
+                for (int k = 0; k < n; k++)
+                {
+                        final int ix = min((int) ((s_x[k] - xmin) / cell_w), CELLS - 1), iy = min((int) ((s_y[k] - ymin) / cell_h), CELLS - 1);
+                        final int index = iy * CELLS + ix;
+                        final double xc = xmin + (ix + 0.5) * cell_w, yc = ymin + (iy + 0.5) * cell_h;
+
+                        if (Double.isNaN(c_lat[index]) || (s_x[k] - xc) * (s_x[k] - xc) + (s_y[k] - yc) * (s_y[k] - yc) < (c_x[index] - xc) * (c_x[index] - xc) + (c_y[index] - yc) * (c_y[index] - yc))
+                        {
+                                c_lat[index] = s_lat[k]; c_lon[index] = s_lon[k];
+                                c_x[index] = s_x[k]; c_y[index] = s_y[k];
+                        }
+                }
+
+                cell_lat = c_lat;
+                cell_lon = c_lon;
+                cell_x = c_x;
+                cell_y = c_y;
+
+                initialized = true;
+        }
+
+
+        private boolean findSeed(final double X, final double Y, int [] index)
+        {
+                //Find the forward sample nearest to (X, Y) in the surrounding cells of the lookup grid, false if not found
+                final int ix = (int) floor((X - xmin) / cell_w), iy = (int) floor((Y - ymin) / cell_h);
+
+                //Point outside the projected domain
+                if (ix < -MAX_RING || ix >= CELLS + MAX_RING || iy < -MAX_RING || iy >= CELLS + MAX_RING)
+                        return false;
+
+                //Search rings of cells with the increasing distance
+                double dist_min = Double.MAX_VALUE;
+                for (int r = 0; r <= MAX_RING && index[0] < 0; r++)
+                {
+                        for (int i = max(iy - r, 0); i <= min(iy + r, CELLS - 1); i++)
+                        {
+                                for (int j = max(ix - r, 0); j <= min(ix + r, CELLS - 1); j++)
+                                {
+                                        //Cells on the ring
+                                        if (max(abs(i - iy), abs(j - ix)) != r)
+                                                continue;
+
+                                        final int k = i * CELLS + j;
+                                        if (Double.isNaN(cell_lat[k]))
+                                                continue;
+
+                                        final double dist = (cell_x[k] - X) * (cell_x[k] - X) + (cell_y[k] - Y) * (cell_y[k] - Y);
+                                        if (dist < dist_min)
+                                        {
+                                                dist_min = dist;
+                                                index[0] = k;
+                                        }
+                                }
+                        }
+                }
+
+                return index[0] >= 0;
+        }
+}
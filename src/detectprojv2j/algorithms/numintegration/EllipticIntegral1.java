@@ -0,0 +1,149 @@
+// Description: Incomplete elliptic integral of the first kind with a fixed modulus k (tabulated)
+// F(phi) = int ((1 - k^2 * sin^2(t))^(-1/2), 0, phi) = c0 * phi + sum (b_n * sin(2 * n * phi)), n = 1, ..., N
+// The integrand is an even periodic function in 2 * phi, its Fourier coefficients are computed once
+// by the trapezoidal rule, the sine series is evaluated by the Clenshaw recurrence.
+// The truncation error is bounded using the Cauchy estimate of the coefficients of a function
+// analytic in the strip |Im(2 * phi)| < tau0, tau0 = acosh(a / b), a = 1 - k^2 / 2, b = k^2 / 2:
+// |b_n| <= M_tau * exp(-n * tau) / n, M_tau = (a - b * cosh(tau))^(-1/2), tau < tau0
+// The amount of samples is at least 4 times the amount of terms, the aliasing error of the coefficients
+// is of the order of exp(-3 * N * tau) and negligible with respect to the truncation error.
+// If the error eps requires more than MAX_TERMS terms (k close to 1), the series is not tabulated
+// and F(phi, k) is evaluated by the Carlson RF integral (NumIntegration).
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.algorithms.numintegration;
+
+import static java.lang.Math.*;
+
+import detectprojv2j.exceptions.MathInvalidArgumentException;
+
+
+public class EllipticIntegral1 {
+
+        private final double k;                                 //Modulus
+        private final double c0;                                //Coefficient of the linear term, c0 = 2 * K / pi
+        private final double [] b;                              //Coefficients of the sine series b_1, ..., b_N, null = Carlson RF integral
+        private final double error;                             //Upper bound of the truncation error
+
+        private static final int MIN_SAMPLES = 256;             //Minimum amount of samples of the integrand over the period
+        private static final int MAX_TERMS = 1024;              //Maximum amount of terms of the sine series
+        private static final double CARLSON_ERROR = 1.0e-15;    //Relative error of the Carlson RF integral
+
+
+        public EllipticIntegral1(final double k_, final double eps)
+        {
+                //Tabulate the incomplete elliptic integral of the first kind for the modulus k, truncation error < eps
+                k = k_;
+
+                //Throw exception
+                if (k <= 0.0 || k >= 1.0)
+                        throw new MathInvalidArgumentException ("MathInvalidArgumentException: can not tabulate elliptic integral, ", "k <= 0 or k >= 1: ", k);
+
+                //1 - k^2 * sin^2(phi) = a + b * cos(2 * phi)
+                final double aa = 1.0 - 0.5 * k * k;
+                final double bb = 0.5 * k * k;
+
+                //Analytic strip of the integrand, Cauchy estimate of the coefficients
+                final double tau0 = log(aa / bb + sqrt((aa / bb) * (aa / bb) - 1.0));
+                final double tau = 0.8 * tau0;
+                final double M_tau = 1.0 / sqrt(aa - bb * cosh(tau));
+                final double q = exp(-tau);
+
+                //Find the amount of terms: sum (M_tau * q^n / n, n = N + 1, ...) <= M_tau * q^(N + 1) / ((N + 1) * (1 - q)) < eps
+                int n_terms = 1;
+                double bound = M_tau * q * q / (2 * (1.0 - q));
+                while (bound >= eps && n_terms < MAX_TERMS)
+                {
+                        n_terms++;
+                        bound *= q * (n_terms) / (n_terms + 1);
+                }
+
+                //Error can not be reached by the series: use the Carlson RF integral
+                if (bound >= eps)
+                {
+                        c0 = 2.0 * NumIntegration.getCompleteEllipticIntegral1(k) / PI;
+                        b = null;
+                        error = CARLSON_ERROR * 0.5 * PI * c0;
+
+                        return;
+                }
+
+                error = bound;
+
+                //Amount of samples: power of 2, at least 4 * N
+                int samples = MIN_SAMPLES;
+                while (samples < 4 * n_terms)
+                        samples *= 2;
+
+                //Sample the integrand 1 / sqrt(1 - k^2 * sin^2(phi)) over the period [0, pi) and cos(2 * pi * j / samples)
+                final double [] f = new double[samples];
+                final double [] cos_j = new double[samples];
+                for (int j = 0; j < samples; j++)
+                {
+                        final double s = sin(j * PI / samples);
+                        f[j] = 1.0 / sqrt((1.0 - k * s) * (1.0 + k * s));
+                        cos_j[j] = cos(2.0 * PI * j / samples);
+                }
+
+                //Fourier coefficients c_n of the integrand by the trapezoidal rule, b_n = c_n / (2n)
+                double sum = 0.0;
+                for (int j = 0; j < samples; j++)
+                        sum += f[j];
+
+                c0 = sum / samples;
+
+                b = new double[n_terms];
+                for (int n = 1; n <= n_terms; n++)
+                {
+                        sum = 0.0;
+                        for (int j = 0; j < samples; j++)
+                                sum += f[j] * cos_j[(int) ((long) n * j % samples)];
+
+                        b[n - 1] = 2.0 * sum / samples / (2.0 * n);
+                }
+        }
+
+
+        public double getK() { return k; }
+        public double getError() { return error; }
+        public double getCompleteEllipticIntegral() { return 0.5 * PI * c0; }
+
+
+        public double getF(final double phi_radians)
+        {
+                //Evaluate the incomplete elliptic integral of the first kind F(phi, k)
+                if (b == null)
+                        return NumIntegration.getInEllipticIntegral1(k, phi_radians);
+
+                final double theta = 2.0 * phi_radians;
+                final double c2 = 2.0 * cos(theta);
+
+                //Clenshaw recurrence for sum (b_n * sin(n * theta))
+                double y1 = 0.0, y2 = 0.0;
+                for (int n = b.length - 1; n >= 0; n--)
+                {
+                        final double y = b[n] + c2 * y1 - y2;
+                        y2 = y1;
+                        y1 = y;
+                }
+
+                return c0 * phi_radians + y1 * sin(theta);
+        }
+}
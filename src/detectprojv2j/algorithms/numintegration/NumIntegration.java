@@ -20,8 +20,12 @@
 package detectprojv2j.algorithms.numintegration;
 
 import static java.lang.Math.PI;
+import static java.lang.Math.abs;
 import static java.lang.Math.asin;
+import static java.lang.Math.cos;
 import static java.lang.Math.log;
+import static java.lang.Math.max;
+import static java.lang.Math.rint;
 import static java.lang.Math.sin;
 import static java.lang.Math.sqrt;
 import static java.lang.Math.tan;
@@ -79,4 +83,78 @@ public class NumIntegration
                                 getInEllipticIntegral1( n_k, n_phi, eps) - k * sin( phi_radians);
                 }
         }
+        
+        
+        public static double getCarlsonRF(double x, double y, double z)
+        {
+                //Carlson symmetric elliptic integral of the first kind RF(x, y, z) = 1/2 * int ((t + x)(t + y)(t + z))^(-1/2), 0, inf)
+                //Iterative duplication, x, y, z >= 0, at most one of them is zero
+                //Algorithm by B. C. Carlson, 1995, Numerical computation of real or complex elliptic integrals
+                final double errtol = 0.0025;
+                final double c1 = 1.0 / 24.0, c2 = 0.1, c3 = 3.0 / 44.0, c4 = 1.0 / 14.0;
+                
+                //Singular point: two arguments are zero
+                if ((x == 0.0 && y == 0.0) || (x == 0.0 && z == 0.0) || (y == 0.0 && z == 0.0))
+                        return Double.POSITIVE_INFINITY;
+                
+                double ave, delx, dely, delz;
+                do
+                {
+                        //Duplication step
+                        final double sx = sqrt(x), sy = sqrt(y), sz = sqrt(z);
+                        final double lambda = sx * (sy + sz) + sy * sz;
+                        
+                        x = 0.25 * (x + lambda);
+                        y = 0.25 * (y + lambda);
+                        z = 0.25 * (z + lambda);
+                        
+                        ave = (x + y + z) / 3.0;
+                        delx = (ave - x) / ave;
+                        dely = (ave - y) / ave;
+                        delz = (ave - z) / ave;
+                        
+                } while (max(max(abs(delx), abs(dely)), abs(delz)) > errtol);
+                
+                //Taylor series of the 5-th order, relative error < errtol^6 / (4 * (1 - errtol))
+                final double e2 = delx * dely - delz * delz;
+                final double e3 = delx * dely * delz;
+                
+                return (1.0 + (c1 * e2 - c2 - c3 * e3) * e2 + c4 * e3) / sqrt(ave);
+        }
+        
+        
+        public static double getCompleteEllipticIntegral1(final double k)
+        {
+                //Complete elliptic integral of the first kind K(k) = pi / (2 * AGM(1, sqrt(1 - k^2)))
+                //Arithmetic-geometric mean, quadratic convergence
+                double a = 1.0, b = sqrt((1.0 - k) * (1.0 + k));
+                
+                while (abs(a - b) > 1.0e-15 * a)
+                {
+                        final double an = 0.5 * (a + b);
+                        b = sqrt(a * b);
+                        a = an;
+                }
+                
+                return 0.5 * PI / a;
+        }
+        
+        
+        public static double getInEllipticIntegral1(final double k, final double phi_radians)
+        {
+                //Incomplete elliptic integral of the first kind: iterative approach based on the Carlson RF integral
+                //F = int ((1 - k^2 * sin^2(phi))^(-1/2), 0, phi) = sin(phi) * RF(cos^2(phi), 1 - k^2 * sin^2(phi), 1)
+                //Reduction to the interval [-pi/2, pi/2]: F(phi + m * pi) = F(phi) + 2 * m * K
+                final double m = rint(phi_radians / PI);
+                final double phir = phi_radians - m * PI;
+                
+                final double s = sin(phir), c = cos(phir);
+                final double F = s * getCarlsonRF(c * c, (1.0 - k * s) * (1.0 + k * s), 1.0);
+                
+                //Add multiple of the complete elliptic integral
+                if (m != 0.0)
+                        return F + 2.0 * m * getCompleteEllipticIntegral1(k);
+                
+                return F;
+        }
 }
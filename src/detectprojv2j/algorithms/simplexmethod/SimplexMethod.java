@@ -25,6 +25,7 @@ import java.util.Random;
 import static java.lang.Math.*;
 
 import detectprojv2j.types.IResiduals;
+import detectprojv2j.types.TCancellationToken;
 
 import static detectprojv2j.consts.Consts.*;
 
@@ -36,6 +37,14 @@ import detectprojv2j.algorithms.nonlinearleastsquares.NonLinearLeastSquares;
 public class SimplexMethod {
         
         public static double NelderMead ( IResiduals function, Matrix W, Matrix X, Matrix Y, Matrix V, final Matrix XMIN, final Matrix XMAX, int iterations[], final double max_error, final int max_iterations, final boolean add_x0,PrintStream s )
+        {
+                //Without cancellation
+                return NelderMead(function, W, X, Y, V, XMIN, XMAX, iterations, max_error, max_iterations, add_x0, s, null);
+        }
+
+
+        public static double NelderMead ( IResiduals function, Matrix W, Matrix X, Matrix Y, Matrix V, final Matrix XMIN, final Matrix XMAX, int iterations[], final double max_error, final int max_iterations, final boolean add_x0,PrintStream s,
+                final TCancellationToken token )
         {
                 //Compute Nelder-Mead method for a function
                 //Algorithm based on Lagarias, Reeds, Wright, 1998, SIAM
@@ -55,14 +64,8 @@ public class SimplexMethod {
                 Matrix YE = new Matrix(m1, 1);
                 Matrix YCO = new Matrix(m1, 1); 
                 Matrix YCI = new Matrix(m1, 1); 
-                Matrix WR = new Matrix(m1, m1, 0, 1); 
-                Matrix WS = new Matrix(m1, m1, 0, 1); 
-                Matrix WE = new Matrix(m1, m1, 0, 1); 
-                Matrix WCO = new Matrix(m1, m1, 0, 1); 
-                Matrix WCI = new Matrix(m1, m1, 0, 1);
                 Matrix YBEST = new Matrix(m1, 1);
                 Matrix VBEST = new Matrix(1, 1);
-                Matrix WBEST = new Matrix(m1, m1, 0, 1);
                 Matrix XX = new Matrix(m, n);
                 
                 //Add the initial solution to the simplex
@@ -80,12 +83,11 @@ public class SimplexMethod {
                 {
                         Matrix VVI = new Matrix(m1, 1);
                         Matrix YI = new Matrix(m1, 1);
-                        Matrix WI = new Matrix(m1, m1, 0, 1);
 
                         Matrix XXI = XX.row(i);
 
-                        function.f(XXI, YI, VVI, WI);
-                        final double res2 = (((VVI.trans()).mult(W)).mult(VVI)).norm();
+                        function.f(XXI, YI, VVI, W);
+                        final double res2 = VVI.sum2(W);
                         VV2.items[i][0] = res2;
                 }
 
@@ -104,6 +106,10 @@ public class SimplexMethod {
                 //Perform Nelder-Mead algorithm
                 do
                 {
+                        //Cancelled or deadline expired: return the best vertex
+                        if (TCancellationToken.isCancelled(token))
+                                break;
+
                         //Compute centroid
                         Matrix XC = (( XX.getMatrix(0, n - 1, 0, n - 1 ) ).sumCols()).mult( 1.0 / n);
 
@@ -114,8 +120,8 @@ public class SimplexMethod {
                         reflection ( XMIN, XMAX, n, XR );
 
                         //Compute residuals
-                        function.f ( XR, YR, VR, WR );
-                        final double  fr = (((VR.trans()).mult(W)).mult(VR)).norm();
+                        function.f ( XR, YR, VR, W );
+                        final double  fr = VR.sum2(W);
 
                         //A reflection point acceptable
                         if ( ( VV2.items [0][0] <= fr ) && ( fr < VV2.items[n - 1][0] ) )
@@ -134,8 +140,8 @@ public class SimplexMethod {
                                 reflection ( XMIN, XMAX, n, XE );
 
                                 //Compute residuals
-                                function.f ( XE, YE, VE, WE );
-                                final double  fe = (((VE.trans()).mult(W)).mult(VE)).norm();
+                                function.f ( XE, YE, VE, W );
+                                final double  fe = VE.sum2(W);
 
                                 //An expanded point is acceptable
                                 if ( fe < fr )
@@ -162,8 +168,8 @@ public class SimplexMethod {
                                 reflection ( XMIN, XMAX, n, XCO );
 
                                 //Compute residuals
-                                function.f( XCO, YCO, VCO, WCO );
-                                final double  fco = (((VCO.trans()).mult(W)).mult(VCO)).norm();
+                                function.f( XCO, YCO, VCO, W );
+                                final double  fco = VCO.sum2(W);
 
                                 //An outside contracted point is acceptable
                                 if ( fco < VV2.items[n][0] )
@@ -192,8 +198,8 @@ public class SimplexMethod {
                                 reflection ( XMIN, XMAX, n, XCI );
 
                                 //Compute residuals
-                                function.f ( XCI, YCI, VCI, WCI );
-                                final double  fci = (((VCI.trans()).mult(W)).mult(VCI)).norm();
+                                function.f ( XCI, YCI, VCI, W );
+                                final double  fci = VCI.sum2(W);
 
                                 //An inside contracted point is acceptable
                                 if ( fci < VV2.items[n][0] )
@@ -233,7 +239,7 @@ public class SimplexMethod {
 
                 //Compute residuals for the found solution
                 function.f ( X, Y, V, W );
-                final double fx_min =(((V.trans()).mult(W)).mult(V)).norm();
+                final double fx_min =V.sum2(W);
 
                 //System.out.print(" [" + iterations[0] + " it., fmin = " + fx_min + "]" + '\n');
 
@@ -274,15 +280,13 @@ public class SimplexMethod {
                 Matrix VSH = new Matrix ( m1, 1 );
                 Matrix Y1 = new Matrix ( m1, 1 );
                 Matrix YSH = new Matrix ( m1, 1) ;
-                Matrix W1 = new Matrix ( m1, m1, 0, 1 );
-                Matrix WSH = new Matrix ( m1, m1, 0, 1 );
 
                 //Get first point of the simplex (best)
                 Matrix X1 = XX.getMatrix(0, 0, 0, n - 1 );
 
                 //Compute residuals
-                function.f ( X1, Y1, V1, W1 );
-                final double  fv1 = (((V1.trans()).mult(W1)).mult(V1)).norm();
+                function.f ( X1, Y1, V1, W );
+                final double  fv1 = V1.sum2(W);
 
                 //Actualize VV matrix
                 VV2.items[0][0] = fv1;
@@ -296,8 +300,8 @@ public class SimplexMethod {
                         reflection ( XMIN, XMAX, n, XSH );
 
                         //Compute residuals
-                        function.f ( XSH, YSH, VSH, WSH );
-                        final double  fvs = (((VSH.trans()).mult(WSH)).mult(VSH)).norm();
+                        function.f ( XSH, YSH, VSH, W );
+                        final double  fvs = VSH.sum2(W);
 
                         //Set submatrix
                         XX.replace ( XSH, i, 0 );
@@ -21,15 +21,30 @@
 package detectprojv2j.exceptions;
 
 
+//Math errors signal routine out-of-domain arguments (optimization, graticule sampling), the singular argument is recovered by getArg()
+//The stack trace is not filled by default: creating the exception is cheap, it may be enabled for debugging
+//Exceptions signaling programming errors (matrix algebra) always fill the stack trace
 public abstract class MathException extends RuntimeException{
         
+        private static volatile boolean stack_trace = false;                    //Fill the stack trace of the new exceptions
         private final String math_text;
 
         public MathException(final String exception_text_, final String math_text_) {
-                super(exception_text_);
+                this(exception_text_, math_text_, stack_trace);
+        }
+
+        protected MathException(final String exception_text_, final String math_text_, final boolean stack_trace_) {
+                super(exception_text_, null, false, stack_trace_);
                 math_text = math_text_;
         }
 
+        public static void setStackTrace(final boolean stack_trace_) {
+                //Enable or disable the stack trace of the new exceptions (debugging)
+                stack_trace = stack_trace_;
+        }
+
+        public static boolean isStackTrace() {return stack_trace;}
+
         public void printException() {
                 super.printStackTrace();
                 System.out.println(math_text + '\n');
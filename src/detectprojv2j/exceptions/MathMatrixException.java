@@ -28,7 +28,7 @@ public class MathMatrixException extends MathException{
         
         public MathMatrixException (final String exception_text_, final String math_text_, final Matrix M_)
         {
-                super (exception_text_, math_text_);
+                super (exception_text_, math_text_, true);
                 M = M_;
         }
         
@@ -27,6 +27,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.TreeMap;
 import javax.imageio.ImageIO;
@@ -34,6 +35,7 @@ import javax.swing.JFileChooser;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.util.List;
 import javax.swing.UIManager;
+import javax.swing.SwingUtilities;
 import javax.swing.JOptionPane;
 import java.io.InputStream;
 import java.nio.file.Files;
@@ -53,6 +55,7 @@ import java.awt.Toolkit;
 import detectprojv2j.types.TAnalysisMethod;
 import detectprojv2j.types.TInterval;
 import detectprojv2j.types.TResult;
+import detectprojv2j.types.TWarmStart;
 import detectprojv2j.types.IPoint3DFeatures;
 import detectprojv2j.types.TTransformedLongitudeDirection;
 import detectprojv2j.types.TGraticuleSampling;
@@ -71,11 +74,13 @@ import static detectprojv2j.consts.Consts.MIN_LAT;
 import detectprojv2j.comparators.SortPointsByLat;
 import detectprojv2j.comparators.SortPointsByLon;
 import detectprojv2j.algorithms.cartanalysis.CartAnalysisMT;
+import detectprojv2j.algorithms.cartanalysis.TopResults;
 import detectprojv2j.algorithms.carttransformation.CartTransformation;
 import detectprojv2j.algorithms.graticule.Graticule;
 import detectprojv2j.algorithms.imagedpireader.ImageDPIReader;
 import detectprojv2j.io.DXFExport;
 import detectprojv2j.io.IO;
+import detectprojv2j.io.ResultCache;
 import detectprojv2j.structures.tile.DPI;
 
 import org.openstreetmap.gui.jmapviewer.interfaces.MapMarker;
@@ -93,6 +98,9 @@ public class MainApplication extends javax.swing.JFrame  {
         private int index_method;                                                             //Index of the method from combo box
         private int index_optimization;                                                       //Index of the optimization from combo box
         private final short n_results;                                                        //Displayed amount of candidate projections (results)
+        private final int n_threads;                                                          //Amount of threads used for the projection analysis
+        private final ResultCache result_cache;                                               //Persistent cache of the analysis results
+        private CartAnalysisMT analysis;                                                      //Running cartometric analysis (null = no analysis in progress)
         
         private final TTransformedLongitudeDirection [] default_lon_dir;                      //Default transformed longitude direction mode (modes M1-M4)
         private final boolean [] analyze_lon0;                                                //Enable/disable lon0_trans analysis 
@@ -123,6 +131,10 @@ public class MainApplication extends javax.swing.JFrame  {
         private final TInterval lon_interval;                                                 //Geographic extent of the analyzed territory in the longitudinal direction
         
         private TAnalysisMethod method;                                                       //Method of the projection analysis
+        private TAnalysisMethod method_prev;                                                  //Method of the previous projection analysis (null = not analyzed)
+        private boolean analyze_lon0_prev;                                                    //Enable/disable lon0_trans analysis in the previous projection analysis
+        private TTransformedLongitudeDirection lon_dir_prev;                                  //Default transformed longitude direction in the previous projection analysis
+        private double [] control_points_prev;                                                //Coordinates of the control points used by the previous projection analysis
            
         private final ControlPointsForm control_points_form;                                  //Form displaying control points on the analyzed/reference maps
         private final ResultsForm results_form;                                               //Form displaying results, the determined projections
@@ -211,6 +223,12 @@ public class MainApplication extends javax.swing.JFrame  {
                 
                 //Amount of printed results
                 n_results = 20;              
+                
+                //Analyze projections in parallel, use all available cores
+                n_threads = Runtime.getRuntime().availableProcessors();
+
+                //Cache results of the analysis in the user home directory
+                result_cache = new ResultCache(System.getProperty("user.home") + File.separator + ".detectprojv2j" + File.separator + "cache", 10000);
 
                 //Initialize ComboBox items
                 selectDetectionMethodComboBox.setSelectedIndex(index_method - 1);
@@ -440,6 +458,9 @@ public class MainApplication extends javax.swing.JFrame  {
                 nonLinearLeastSquaresCheckBoxMenuItem = new javax.swing.JCheckBoxMenuItem();
                 nelderMeadCheckBoxMenuItem = new javax.swing.JCheckBoxMenuItem();
                 differentialEvolutionCheckBoxMenuItem = new javax.swing.JCheckBoxMenuItem();
+                levenbergMarquardtCheckBoxMenuItem = new javax.swing.JCheckBoxMenuItem();
+                cmaesCheckBoxMenuItem = new javax.swing.JCheckBoxMenuItem();
+                hybridCheckBoxMenuItem = new javax.swing.JCheckBoxMenuItem();
                 jSeparator5 = new javax.swing.JPopupMenu.Separator();
                 analyzeMapMenuItem = new javax.swing.JMenuItem();
                 jSeparator3 = new javax.swing.JPopupMenu.Separator();
@@ -482,7 +503,7 @@ public class MainApplication extends javax.swing.JFrame  {
                 selectOptimizationPanel.add(selectDetectionMethodComboBox);
 
                 selectOptimizationTechniqueComboBox.setFont(new java.awt.Font("Tahoma", 0, 11)); // NOI18N
-                selectOptimizationTechniqueComboBox.setModel(new javax.swing.DefaultComboBoxModel<>(new String[] { "Non-linear least squares", "Nelder-Mead", "Differential evolution" }));
+                selectOptimizationTechniqueComboBox.setModel(new javax.swing.DefaultComboBoxModel<>(new String[] { "Non-linear least squares", "Nelder-Mead", "Differential evolution", "Levenberg-Marquardt", "CMA-ES", "Differential evolution + NLS" }));
                 selectOptimizationTechniqueComboBox.setToolTipText("Select optimization technique");
                 selectOptimizationTechniqueComboBox.addItemListener(new java.awt.event.ItemListener() {
                         public void itemStateChanged(java.awt.event.ItemEvent evt) {
@@ -1054,6 +1075,33 @@ public class MainApplication extends javax.swing.JFrame  {
                 });
                 optimizationTechniqueMenu.add(differentialEvolutionCheckBoxMenuItem);
 
+                optimizationTechniqueGroup.add(levenbergMarquardtCheckBoxMenuItem);
+                levenbergMarquardtCheckBoxMenuItem.setText("Levenberg-Marquardt");
+                levenbergMarquardtCheckBoxMenuItem.addChangeListener(new javax.swing.event.ChangeListener() {
+                        public void stateChanged(javax.swing.event.ChangeEvent evt) {
+                                levenbergMarquardtCheckBoxMenuItemStateChanged(evt);
+                        }
+                });
+                optimizationTechniqueMenu.add(levenbergMarquardtCheckBoxMenuItem);
+
+                optimizationTechniqueGroup.add(cmaesCheckBoxMenuItem);
+                cmaesCheckBoxMenuItem.setText("CMA-ES");
+                cmaesCheckBoxMenuItem.addChangeListener(new javax.swing.event.ChangeListener() {
+                        public void stateChanged(javax.swing.event.ChangeEvent evt) {
+                                cmaesCheckBoxMenuItemStateChanged(evt);
+                        }
+                });
+                optimizationTechniqueMenu.add(cmaesCheckBoxMenuItem);
+
+                optimizationTechniqueGroup.add(hybridCheckBoxMenuItem);
+                hybridCheckBoxMenuItem.setText("Differential evolution + NLS");
+                hybridCheckBoxMenuItem.addChangeListener(new javax.swing.event.ChangeListener() {
+                        public void stateChanged(javax.swing.event.ChangeEvent evt) {
+                                hybridCheckBoxMenuItemStateChanged(evt);
+                        }
+                });
+                optimizationTechniqueMenu.add(hybridCheckBoxMenuItem);
+
                 analysisMenu.add(optimizationTechniqueMenu);
                 analysisMenu.add(jSeparator5);
 
@@ -1181,6 +1229,13 @@ public class MainApplication extends javax.swing.JFrame  {
                         analyzeButton.setSelected(false);
                         analyzeMapMenuItem.setEnabled(true);
                 }
+
+                //Analysis in progress: stop it, results found so far are displayed
+                else if (analysis != null)
+                {
+                        analysis.cancel();
+                        analyzeButton.setSelected(false);
+                }
         }//GEN-LAST:event_analyzeButtonActionPerformed
 
         
@@ -1199,7 +1254,7 @@ public class MainApplication extends javax.swing.JFrame  {
         }//GEN-LAST:event_selectDetectionMethodComboBoxItemStateChanged
 
         private void selectOptimizationTechniqueComboBoxItemStateChanged(java.awt.event.ItemEvent evt) {//GEN-FIRST:event_selectOptimizationTechniqueComboBoxItemStateChanged
-                // Set optimization technique (NLS, NM, DE)
+                // Set optimization technique (NLS, NM, DE, LM, CMA-ES, DE + NLS)
                 zoomGroup.clearSelection();
                 addControlPointsToggleButton.setSelected(false);
 
@@ -1210,8 +1265,14 @@ public class MainApplication extends javax.swing.JFrame  {
                         nonLinearLeastSquaresCheckBoxMenuItem.setSelected(true);
                 else if (index_optimization ==20) 
                         nelderMeadCheckBoxMenuItem.setSelected(true);
-                else 
+                else if (index_optimization == 30) 
                         differentialEvolutionCheckBoxMenuItem.setSelected(true);
+                else if (index_optimization == 40) 
+                        levenbergMarquardtCheckBoxMenuItem.setSelected(true);
+                else if (index_optimization == 50) 
+                        cmaesCheckBoxMenuItem.setSelected(true);
+                else 
+                        hybridCheckBoxMenuItem.setSelected(true);
         }//GEN-LAST:event_selectOptimizationTechniqueComboBoxItemStateChanged
 
         
@@ -1569,6 +1630,45 @@ public class MainApplication extends javax.swing.JFrame  {
         }//GEN-LAST:event_differentialEvolutionCheckBoxMenuItemStateChanged
 
         
+        private void levenbergMarquardtCheckBoxMenuItemStateChanged(javax.swing.event.ChangeEvent evt) {//GEN-FIRST:event_levenbergMarquardtCheckBoxMenuItemStateChanged
+                // Set optimization technique: LM
+                zoomGroup.clearSelection();
+                addControlPointsToggleButton.setSelected(false);
+
+                //Set optimization technique
+                index_optimization = 40;
+
+                //Change ComboBox item
+                selectOptimizationTechniqueComboBox.setSelectedIndex(index_optimization / 10 - 1);
+        }//GEN-LAST:event_levenbergMarquardtCheckBoxMenuItemStateChanged
+
+        
+        private void cmaesCheckBoxMenuItemStateChanged(javax.swing.event.ChangeEvent evt) {//GEN-FIRST:event_cmaesCheckBoxMenuItemStateChanged
+                // Set optimization technique: CMA-ES
+                zoomGroup.clearSelection();
+                addControlPointsToggleButton.setSelected(false);
+
+                //Set optimization technique
+                index_optimization = 50;
+
+                //Change ComboBox item
+                selectOptimizationTechniqueComboBox.setSelectedIndex(index_optimization / 10 - 1);
+        }//GEN-LAST:event_cmaesCheckBoxMenuItemStateChanged
+
+        
+        private void hybridCheckBoxMenuItemStateChanged(javax.swing.event.ChangeEvent evt) {//GEN-FIRST:event_hybridCheckBoxMenuItemStateChanged
+                // Set optimization technique: DE + NLS
+                zoomGroup.clearSelection();
+                addControlPointsToggleButton.setSelected(false);
+
+                //Set optimization technique
+                index_optimization = 60;
+
+                //Change ComboBox item
+                selectOptimizationTechniqueComboBox.setSelectedIndex(index_optimization / 10 - 1);
+        }//GEN-LAST:event_hybridCheckBoxMenuItemStateChanged
+
+        
         private void aboutMenuItemActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_aboutMenuItemActionPerformed
                 // Show about box
                 about_form.setVisible(true);
@@ -1726,6 +1826,9 @@ public class MainApplication extends javax.swing.JFrame  {
                 //The previous analysis has been finished
                 if (!computation_in_progress[0])
                 {
+                        //Store previous results before they are cleared
+                        final TWarmStart warm_start_prev = (results.isEmpty() ? null : new TWarmStart(results, 2 * n_results));
+
                         //Clear results
                         clearResults();
                         
@@ -1753,6 +1856,24 @@ public class MainApplication extends javax.swing.JFrame  {
                                 case 32:
                                         method = TAnalysisMethod.DEM8;
                                         break;
+                                case 41:
+                                        method = TAnalysisMethod.LMM7;
+                                        break;
+                                case 42:
+                                        method = TAnalysisMethod.LMM8;
+                                        break;
+                                case 51:
+                                        method = TAnalysisMethod.CMAESM7;
+                                        break;
+                                case 52:
+                                        method = TAnalysisMethod.CMAESM8;
+                                        break;
+                                case 61:
+                                        method = TAnalysisMethod.HYBM7;
+                                        break;
+                                case 62:
+                                        method = TAnalysisMethod.HYBM8;
+                                        break;
                         }
 
                         //Different amount of points (1 omitted point)
@@ -1805,6 +1926,19 @@ public class MainApplication extends javax.swing.JFrame  {
                         if (n_test < 5)
                                         return;
 
+                        //Incremental re-analysis: previous results are initial solutions, only the best projections are refitted
+                        //Used only if the control points have been edited and the settings of the analysis remain unchanged, otherwise
+                        //projections not refitted would be evaluated with parameters of a different model, full (cached) analysis is performed
+                        final double [] control_points = getControlPointsCoordinates();
+                        final boolean settings_unchanged = (method == method_prev) && (analyze_lon0[0] == analyze_lon0_prev) && (default_lon_dir[0] == lon_dir_prev);
+                        final TWarmStart warm_start = ((settings_unchanged && !Arrays.equals(control_points, control_points_prev)) ? warm_start_prev : null);
+
+                        //Remember settings of the analysis
+                        method_prev = method;
+                        analyze_lon0_prev = analyze_lon0[0];
+                        lon_dir_prev = default_lon_dir[0];
+                        control_points_prev = control_points;
+
                         //Analyze map projection in new thread
                         CartAnalysisMT ca = new CartAnalysisMT(early_map.test_points, map.reference_points, projections, results, method, analyze_lon0[0], System.out, analyzeButton, new Runnable() 
                         {
@@ -1812,6 +1946,15 @@ public class MainApplication extends javax.swing.JFrame  {
                                 public void run()
                                 {
                                         //Cartometric analysis run in the separate thread has heen finished
+                                        analysis = null;
+
+                                        //Analysis cancelled before any projection has been analyzed
+                                        if (results.isEmpty())
+                                        {
+                                                computation_in_progress[0] = false;
+                                                return;
+                                        }
+
                                         //Print results: all operation performed after finishing the thread
                                         results_form.printResults(n_results);
 
@@ -1912,18 +2055,54 @@ public class MainApplication extends javax.swing.JFrame  {
                                         //Enable change buttons
                                         computation_in_progress[0] = false;
                                 }
-                        });
+                        }, n_threads, null, result_cache, warm_start);
+
+                        //Live view of the best results: the table is filled immediately after the fit of each projection
+                        final TopResults [] top_results = {null};
+                        top_results[0] = new TopResults(n_results, (res, cost) -> SwingUtilities.invokeLater(() ->
+                        {
+                                //Analysis has been finished, all results are printed by the callback
+                                if (analysis != ca)
+                                        return;
+
+                                results_form.printLiveResults(top_results[0].getResults());
+                                results_form.setVisible(true);
+                        }));
+                        ca.addListener(top_results[0]);
 
                         //Disable change buttons
                         computation_in_progress[0] = true;
 
-                        //Create new thread and run
+                        //Create new thread and run, the analysis may be stopped by the analyze button
+                        analysis = ca;
                         Thread t = new Thread(ca);
                         t.start(); 
                 }
         }
        
         
+        private double [] getControlPointsCoordinates()
+        {
+                //Get coordinates of the test and reference points [x, y, ..., lat, lon, ...]
+                final int n_test = early_map.test_points.size(), n_reference = map.reference_points.size();
+                double [] coords = new double[2 * (n_test + n_reference)];
+
+                for (int i = 0; i < n_test; i++)
+                {
+                        coords[2 * i] = early_map.test_points.get(i).getX();
+                        coords[2 * i + 1] = early_map.test_points.get(i).getY();
+                }
+
+                for (int i = 0; i < n_reference; i++)
+                {
+                        coords[2 * (n_test + i)] = map.reference_points.get(i).getLat();
+                        coords[2 * (n_test + i) + 1] = map.reference_points.get(i).getLon();
+                }
+
+                return coords;
+        }
+
+
         public void importEarlyMap ()
         {
                 //Import early map from raster file
@@ -2234,6 +2413,7 @@ public class MainApplication extends javax.swing.JFrame  {
         private javax.swing.JMenuItem clearAllMenuItem;
         private javax.swing.JButton clearResultsButton;
         private javax.swing.JMenuItem clearResultsMenuItem;
+        private javax.swing.JCheckBoxMenuItem cmaesCheckBoxMenuItem;
         private javax.swing.JToolBar controlPointsToolBar;
         private javax.swing.ButtonGroup detectionMethodGroup;
         private javax.swing.JMenu detectionMethodMenu;
@@ -2247,6 +2427,7 @@ public class MainApplication extends javax.swing.JFrame  {
         private javax.swing.ButtonGroup fileGroup;
         private javax.swing.JToolBar fileToolBar;
         private javax.swing.JMenu helpMenu;
+        private javax.swing.JCheckBoxMenuItem hybridCheckBoxMenuItem;
         private javax.swing.JButton importMapButton;
         private javax.swing.JButton importReferencePointsButton;
         private javax.swing.JMenuItem importReferencePointsMenuItem;
@@ -2272,6 +2453,7 @@ public class MainApplication extends javax.swing.JFrame  {
         private javax.swing.JPopupMenu.Separator jSeparator7;
         private javax.swing.JToolBar.Separator jSeparator8;
         private javax.swing.JToolBar.Separator jSeparator9;
+        private javax.swing.JCheckBoxMenuItem levenbergMarquardtCheckBoxMenuItem;
         private javax.swing.JCheckBoxMenuItem m7CheckBoxMenuItem;
         private javax.swing.JCheckBoxMenuItem m8CheckBoxMenuItem;
         private javax.swing.JPanel mainMenuPanel;
@@ -132,8 +132,8 @@ public class ResultsForm extends javax.swing.JFrame {
                                 //Index of the selected row
                                 proj_index  = getSelectedProjIndex();
 
-                                //Test, whether amount of results < index
-                                if ((proj_index < results.size()) && (proj_index >= 0))
+                                //Test, whether amount of results < index, live results of the running analysis can not be selected
+                                if ((proj_index < results.size()) && (proj_index >= 0) && (!computation_in_progress[0]))
                                 {
                                         //Get selected item
                                         TResult res = results.get(results.keySet().toArray()[proj_index]);
@@ -177,8 +177,9 @@ public class ResultsForm extends javax.swing.JFrame {
                                         performReprojection();  
                                 }
                                 
-                                //Update results
-                                printResults(20);
+                                //Update results, the live results of the running analysis remain displayed
+                                if (!computation_in_progress[0])
+                                        printResults(20);
                         }
                 });  
         }
@@ -745,6 +746,20 @@ public class ResultsForm extends javax.swing.JFrame {
         
         
         public void printResults(final int n_results)
+        {
+                //Print results to the table
+                printResults(results);
+        }
+
+
+        public void printLiveResults(final TreeMap <Double, TResult> results_live)
+        {
+                //Print the best results of the running analysis (e.g. TopResults), called from the event dispatch thread
+                printResults(results_live);
+        }
+
+
+        private void printResults(final Map <Double, TResult> results)
         {
                 //Print results to the table
                 clearTable();
@@ -0,0 +1,235 @@
+// Description: Persistent cache of the cartometric analysis results stored in a local directory
+// Key: hash of the test and reference points, projection id, analysis method, lon0 analysis, direction of the transformed longitude
+// and the configuration of the solver (e.g. island model), constant settings of the solvers are represented by VERSION
+// One result per file, the amount of results is held in memory, the least recently used results are removed
+// only when it exceeds the limit (down to 90 % of the limit, so that the directory is not listed at every insertion)
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.io;
+
+import java.util.List;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import detectprojv2j.types.TAnalysisMethod;
+import detectprojv2j.types.TResult;
+import detectprojv2j.types.TTransformedLongitudeDirection;
+
+import detectprojv2j.structures.point.Point3DCartesian;
+import detectprojv2j.structures.point.Point3DGeographic;
+import detectprojv2j.structures.projection.Projection;
+
+
+public class ResultCache {
+
+        public static final int VERSION = 1;                                    //Version of the analysis algorithms and constant solver settings, increase to invalidate older results
+        private static final String EXTENSION = ".res";                         //Extension of the cached results
+
+        private final File dir;                                                 //Cache directory
+        private final int max_results;                                          //Maximum amount of cached results
+        private final int min_results;                                          //Amount of cached results kept after the removal
+        private int n_results;                                                  //Amount of cached results in the directory
+
+        public ResultCache(final String dir_, final int max_results_)
+        {
+                dir = new File(dir_);
+                max_results = Math.max(max_results_, 1);
+                min_results = Math.max((int) (0.9 * max_results), 1);
+
+                //Create directory, apply the limit
+                dir.mkdirs();
+                n_results = 0;
+                removeLeastRecentlyUsed(max_results);
+        }
+
+
+        public static String getKey(final List<Point3DCartesian> test_points, final List <Point3DGeographic> reference_points, final String proj_id, final TAnalysisMethod method, final boolean analyze_lon0,
+                final TTransformedLongitudeDirection lon_dir, final String solver_config)
+        {
+                //Compute SHA-256 hash of the analysis inputs, the version is a part of the key
+                StringBuilder sb = new StringBuilder();
+                sb.append(VERSION).append(' ').append(proj_id).append(' ').append(method.name()).append(' ').append(analyze_lon0).append(' ').append(lon_dir.name()).append('\n');
+                sb.append(solver_config).append('\n');
+
+                for (final Point3DCartesian p : test_points)
+                        sb.append(Double.doubleToLongBits(p.getX())).append(' ').append(Double.doubleToLongBits(p.getY())).append('\n');
+
+                for (final Point3DGeographic p : reference_points)
+                        sb.append(Double.doubleToLongBits(p.getLat())).append(' ').append(Double.doubleToLongBits(p.getLon())).append('\n');
+
+                try
+                {
+                        final byte [] hash = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+
+                        //Convert to hexadecimal string
+                        StringBuilder key = new StringBuilder();
+                        for (byte b : hash)
+                                key.append(String.format("%02x", b));
+
+                        return key.toString();
+                }
+
+                //SHA-256 is always available
+                catch (NoSuchAlgorithmException e)
+                {
+                        throw new IllegalStateException(e);
+                }
+        }
+
+
+        public synchronized TResult get(final String key, final Projection proj, double [] cost)
+        {
+                //Get cached result: set the determined parameters to the projection, cost = value of the objective function
+                //Returns null, if the result is not cached or it has been computed by a different version
+                final File file = new File(dir, key + EXTENSION);
+
+                if (!file.exists())
+                        return null;
+
+                try
+                {
+                        final String [] words = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim().split("\\s+");
+
+                        //Older version or corrupted file: remove
+                        if (words.length != 16 || Integer.parseInt(words[0]) != VERSION)
+                        {
+                                remove(file);
+                                return null;
+                        }
+
+                        double [] v = new double[15];
+                        for (int i = 0; i < 15; i++)
+                                v[i] = Double.parseDouble(words[i + 1]);
+
+                        //Set parameters of the projection
+                        proj.setR(v[1]);
+                        proj.setCartPole(new Point3DGeographic(v[2], v[3], 0));
+                        proj.setLat1(v[4]);
+                        proj.setLat2(v[5]);
+                        proj.setLon0(v[6]);
+                        proj.setC(v[7]);
+                        proj.setDx(v[8]);
+                        proj.setDy(v[9]);
+
+                        //Most recently used result
+                        file.setLastModified(System.currentTimeMillis());
+
+                        cost[0] = v[0];
+
+                        return new TResult(proj, v[10], v[11], v[12], v[13], (int) v[14]);
+                }
+
+                //Corrupted file: remove
+                catch (IOException | NumberFormatException e)
+                {
+                        remove(file);
+                }
+
+                return null;
+        }
+
+
+        public synchronized void put(final String key, final TResult res, final double cost)
+        {
+                //Store the result and its cost, remove the least recently used results when the limit is exceeded
+                final Projection proj = res.proj;
+                final double [] v = {cost, proj.getR(), proj.getCartPole().getLat(), proj.getCartPole().getLon(), proj.getLat1(), proj.getLat2(), proj.getLon0(), proj.getC(), proj.getDx(), proj.getDy(),
+                        res.map_scale, res.map_rotation, res.q1, res.q2, res.iterations};
+
+                StringBuilder sb = new StringBuilder();
+                sb.append(VERSION);
+                for (double val : v)
+                        sb.append(' ').append(val);
+                sb.append('\n');
+
+                try
+                {
+                        //Write to the temporary file and rename: the cached result is never read incomplete
+                        final File file = new File(dir, key + EXTENSION);
+                        final File file_temp = new File(dir, key + ".tmp");
+                        final boolean exists = file.exists();
+                        Files.write(file_temp.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+                        Files.move(file_temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+                        //New result: the directory is listed only if the limit is exceeded
+                        if (!exists && ++n_results > max_results)
+                                removeLeastRecentlyUsed(min_results);
+                }
+
+                catch (IOException e)
+                {
+                        e.printStackTrace();
+                }
+        }
+
+
+        private void remove(final File file)
+        {
+                //Remove the cached result, update the amount of results
+                if (file.delete())
+                        n_results = Math.max(n_results - 1, 0);
+        }
+
+
+        private void removeLeastRecentlyUsed(final int n_kept)
+        {
+                //Remove the least recently used results, keep n_kept results
+                //The amount of results is updated from the directory (results may be added or removed externally)
+                File [] files = dir.listFiles((d, name) -> name.endsWith(EXTENSION));
+
+                if (files == null)
+                        return;
+
+                n_results = files.length;
+
+                if (files.length > n_kept)
+                {
+                        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+
+                        for (int i = 0; i < files.length - n_kept; i++)
+                        {
+                                if (files[i].delete())
+                                        n_results--;
+                        }
+                }
+        }
+
+
+        public synchronized void clear()
+        {
+                //Remove all cached results
+                File [] files = dir.listFiles((d, name) -> name.endsWith(EXTENSION));
+
+                if (files != null)
+                {
+                        for (File file : files)
+                                file.delete();
+                }
+
+                n_results = 0;
+        }
+}
@@ -0,0 +1,139 @@
+// Description: Dual number (value + gradient), forward-mode automatic differentiation
+// Elementary functions propagate the gradient using the chain rule, angular arguments in radians
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.structures.dual;
+
+import static java.lang.Math.*;
+
+
+public class Dual {
+
+        private final double v;                                                 //Value
+        private final double [] d;                                              //Gradient (partial derivatives with respect to the independent variables)
+
+        public Dual(final double v_)
+        {
+                //Constant: zero gradient
+                v = v_;
+                d = new double[0];
+        }
+
+
+        public Dual(final double v_, final double [] d_)
+        {
+                v = v_;
+                d = d_;
+        }
+
+
+        public static Dual variable(final double v_, final int index, final int n_variables)
+        {
+                //Independent variable: unit gradient
+                double [] d_ = new double[n_variables];
+                d_[index] = 1.0;
+
+                return new Dual(v_, d_);
+        }
+
+
+        public double getValue() { return v; }
+        public double getDer(final int index) { return index < d.length ? d[index] : 0.0; }
+        public int getDerCount() { return d.length; }
+
+
+        public void getGradient(double [] grad)
+        {
+                //Copy gradient, missing partial derivatives are zero
+                for (int i = 0; i < grad.length; i++)
+                        grad[i] = getDer(i);
+        }
+
+
+        private static Dual lin(final double v_, final Dual a, final double ca, final Dual b, final double cb)
+        {
+                //Linear combination of gradients: d = ca * a.d + cb * b.d
+                double [] d_ = new double[max(a.d.length, b.d.length)];
+
+                for (int i = 0; i < a.d.length; i++)
+                        d_[i] = ca * a.d[i];
+
+                for (int i = 0; i < b.d.length; i++)
+                        d_[i] += cb * b.d[i];
+
+                return new Dual(v_, d_);
+        }
+
+
+        private Dual chain(final double v_, final double der)
+        {
+                //Chain rule for the elementary function f: d = f'(v) * d
+                double [] d_ = new double[d.length];
+
+                for (int i = 0; i < d.length; i++)
+                        d_[i] = der * d[i];
+
+                return new Dual(v_, d_);
+        }
+
+
+        public Dual plus(final Dual b) { return lin(v + b.v, this, 1.0, b, 1.0); }
+        public Dual plus(final double b) { return new Dual(v + b, d); }
+        public Dual minus(final Dual b) { return lin(v - b.v, this, 1.0, b, -1.0); }
+        public Dual minus(final double b) { return new Dual(v - b, d); }
+        public Dual mult(final Dual b) { return lin(v * b.v, this, b.v, b, v); }
+        public Dual mult(final double b) { return chain(v * b, b); }
+        public Dual div(final Dual b) { return lin(v / b.v, this, 1.0 / b.v, b, -v / (b.v * b.v)); }
+        public Dual div(final double b) { return chain(v / b, 1.0 / b); }
+        public Dual neg() { return chain(-v, -1.0); }
+        public Dual rdiv(final double a) { return chain(a / v, -a / (v * v)); }
+        public Dual rminus(final double a) { return chain(a - v, -1.0); }
+
+
+        public static Dual sin(final Dual a) { return a.chain(Math.sin(a.v), Math.cos(a.v)); }
+        public static Dual cos(final Dual a) { return a.chain(Math.cos(a.v), -Math.sin(a.v)); }
+        public static Dual tan(final Dual a) { return a.chain(Math.tan(a.v), 1.0 / (Math.cos(a.v) * Math.cos(a.v))); }
+        public static Dual asin(final Dual a) { return a.chain(Math.asin(a.v), 1.0 / Math.sqrt(1.0 - a.v * a.v)); }
+        public static Dual acos(final Dual a) { return a.chain(Math.acos(a.v), -1.0 / Math.sqrt(1.0 - a.v * a.v)); }
+        public static Dual atan(final Dual a) { return a.chain(Math.atan(a.v), 1.0 / (1.0 + a.v * a.v)); }
+        public static Dual sqrt(final Dual a) { return a.chain(Math.sqrt(a.v), 0.5 / Math.sqrt(a.v)); }
+        public static Dual log(final Dual a) { return a.chain(Math.log(a.v), 1.0 / a.v); }
+        public static Dual exp(final Dual a) { return a.chain(Math.exp(a.v), Math.exp(a.v)); }
+        public static Dual abs(final Dual a) { return a.chain(Math.abs(a.v), Math.signum(a.v)); }
+        public static Dual pow(final Dual a, final double b) { return a.chain(Math.pow(a.v, b), b * Math.pow(a.v, b - 1.0)); }
+
+
+        public static Dual pow(final Dual a, final Dual b)
+        {
+                //a^b = exp(b * log(a))
+                final double p = Math.pow(a.v, b.v);
+
+                return lin(p, a, b.v * Math.pow(a.v, b.v - 1.0), b, p * Math.log(a.v));
+        }
+
+
+        public static Dual atan2(final Dual y, final Dual x)
+        {
+                //Partial derivatives of atan2: (x dy - y dx) / (x^2 + y^2)
+                final double r2 = x.v * x.v + y.v * y.v;
+
+                return lin(Math.atan2(y.v, x.v), y, x.v / r2, x, -y.v / r2);
+        }
+}
@@ -31,11 +31,11 @@ import detectprojv2j.types.TInterval;
 
 import detectprojv2j.structures.point.Point3DCartesian;
 import detectprojv2j.structures.projection.Projection;
+import detectprojv2j.structures.projection.ProjectionKernel;
 
 import static detectprojv2j.consts.Consts.*;
 
 import detectprojv2j.algorithms.angle3points.Angle3Points;
-import detectprojv2j.algorithms.carttransformation.CartTransformation;
 import detectprojv2j.algorithms.round.Round;
 import detectprojv2j.algorithms.singularitydetection.SingularityDetection;
 
@@ -137,6 +137,13 @@ public class Meridian {
         
         
         public void project(final Projection proj, final double alpha, List <Point3DCartesian> mer)
+        {
+                //Project meridian, compile the projection
+                project(proj, proj.compile(alpha), alpha, mer);
+        }
+        
+        
+        public void project(final Projection proj, final ProjectionKernel kernel, final double alpha, List <Point3DCartesian> mer)
         {
                 //Project meridian
                 for (final double lat : lats)
@@ -146,7 +153,7 @@ public class Meridian {
                         //Project point
                         try
                         {
-                                CartTransformation.latLonToXY(lat, lon, proj, alpha, lat_trans, lon_trans, X, Y);
+                                kernel.latLonToXY(lat, lon, lat_trans, lon_trans, X, Y);
                                 
                                 //Throw exception: X coordinate
                                 if (Double.isNaN(X[0]) || Double.isInfinite(X[0]))
@@ -187,11 +194,11 @@ public class Meridian {
         {
                 //Create polygonal approximation of a meridian using adaptive sampling
                 //Polygonal representation refers to a given projection and its parameters
-                asInit(proj, alpha, mer_proj, fmax, dmin, dmax, eps);
+                asInit(proj, proj.compile(alpha), alpha, mer_proj, fmax, dmin, dmax, eps);
         }
         
         
-        public void asInit(final Projection proj, final double alpha, List <Point3DCartesian> mer_proj, final double fmax, final int dmin, final int dmax, final double eps)
+        public void asInit(final Projection proj, final ProjectionKernel kernel, final double alpha, List <Point3DCartesian> mer_proj, final double fmax, final int dmin, final int dmax, final double eps)
         {
                 //Create polygonal approximation of the meridian using adaptive sampling
                 //Initial phase, call the recursive function
@@ -209,8 +216,8 @@ public class Meridian {
                 SingularityDetection.checkProjDiscontinuity(b, lon, proj, alpha, fmax, 0.5 * eps);
 
                 //Compute image of a point
-                CartTransformation.latLonToXY(a, lon, proj, alpha, lat_trans_a, lon_trans_a, xa, ya);
-                CartTransformation.latLonToXY(b, lon, proj, alpha, lat_trans_b, lon_trans_b, xb, yb);
+                kernel.latLonToXY(a, lon, lat_trans_a, lon_trans_a, xa, ya);
+                kernel.latLonToXY(b, lon, lat_trans_b, lon_trans_b, xb, yb);
 
                 //Add first meridian point a to the list 
                 lats.add(a);
@@ -220,7 +227,7 @@ public class Meridian {
                 mer_proj.add(pa);
 
                 //Apply recursive approach
-                asPoints3(proj, alpha, mer_proj, a, b, a, b, xa[0], ya[0], xb[0], yb[0], d, fmax, dmin, dmax, eps);
+                asPoints3(proj, kernel, alpha, mer_proj, a, b, a, b, xa[0], ya[0], xb[0], yb[0], d, fmax, dmin, dmax, eps);
 
                 //Add last meridian point b to the list
                 lats.add(b);
@@ -231,7 +238,7 @@ public class Meridian {
         }
         
         
-        public void asPoints3(final Projection proj, final double alpha, List <Point3DCartesian> mer_proj, final double a, final double b, final double ap, final double bn, final double xa, final double ya, final double xb, final double yb, final int d, final double fmax, final int dmin, final int dmax, final double eps)
+        public void asPoints3(final Projection proj, final ProjectionKernel kernel, final double alpha, List <Point3DCartesian> mer_proj, final double a, final double b, final double ap, final double bn, final double xa, final double ya, final double xb, final double yb, final int d, final double fmax, final int dmin, final int dmax, final double eps)
         {
                 //Adaptive sampling of meridian points
                 final double r_min = 0.45, r_max = 0.55;
@@ -266,7 +273,7 @@ public class Meridian {
                 //Point [lat0, lon]
                 try
                 {
-                        CartTransformation.latLonToXY(lat0, lon, proj, alpha, lat_trans, lon_trans, x0, y0);
+                        kernel.latLonToXY(lat0, lon, lat_trans, lon_trans, x0, y0);
                         
                         //Throw exception: X coordinate
                         if (Double.isNaN(x0[0]) || Double.isInfinite(x0[0]))
@@ -287,7 +294,7 @@ public class Meridian {
                 //Point [lat1, lon]
                 try
                 {
-                        CartTransformation.latLonToXY(lat1, lon, proj, alpha, lat_trans, lon_trans, x1, y1);
+                        kernel.latLonToXY(lat1, lon, lat_trans, lon_trans, x1, y1);
                         
                         //Throw exception: X coordinate
                         if (Double.isNaN(x1[0]) || Double.isInfinite(x1[0]))
@@ -308,7 +315,7 @@ public class Meridian {
                 //Point [lat2, lon]
                 try
                 {
-                       CartTransformation.latLonToXY(lat2, lon, proj, alpha, lat_trans, lon_trans, x2, y2);
+                       kernel.latLonToXY(lat2, lon, lat_trans, lon_trans, x2, y2);
                        
                        //Throw exception: X coordinate
                        if (Double.isNaN(x2[0]) || Double.isInfinite(x2[0]))
@@ -329,7 +336,7 @@ public class Meridian {
                 //Point [lat3, lon]
                 try
                 {
-                        CartTransformation.latLonToXY(lat3, lon, proj, alpha, lat_trans, lon_trans, x3, y3);
+                        kernel.latLonToXY(lat3, lon, lat_trans, lon_trans, x3, y3);
                         
                         //Throw exception: X coordinate
                         if (Double.isNaN(x3[0]) || Double.isInfinite(x3[0]))
@@ -350,7 +357,7 @@ public class Meridian {
                 //Point [lat4, lon]
                 try
                 {
-                        CartTransformation.latLonToXY(lat4, lon, proj, alpha, lat_trans, lon_trans, x4, y4);
+                        kernel.latLonToXY(lat4, lon, lat_trans, lon_trans, x4, y4);
                         
                         //Throw exception: X coordinate
                         if (Double.isNaN(x4[0]) || Double.isInfinite(x4[0]))
@@ -378,7 +385,7 @@ public class Meridian {
                 //First sub interval
                 if (alpha0 > dff || alpha1 > dff || alpha2 > dff || alpha3 > dff || alpha4 > dff || d < dmin)
                 {
-                        asPoints3(proj, alpha, mer_proj, a, lat1, lat0, lat2, xa, ya, x1[0], y1[0], d + 1, fmax, dmin, dmax, eps);
+                        asPoints3(proj, kernel, alpha, mer_proj, a, lat1, lat0, lat2, xa, ya, x1[0], y1[0], d + 1, fmax, dmin, dmax, eps);
                 }
 
                 //Add new meridian point p1
@@ -391,7 +398,7 @@ public class Meridian {
                 //Second sub interval
                 if (alpha0 > dff || alpha1 > dff || alpha2 > dff || alpha3 > dff || alpha4 > dff || d < dmin)
                 {
-                        asPoints3(proj, alpha, mer_proj, lat1, lat2, a, lat3, x1[0], y1[0], x2[0], y2[0], d + 1, fmax, dmin, dmax, eps);
+                        asPoints3(proj, kernel, alpha, mer_proj, lat1, lat2, a, lat3, x1[0], y1[0], x2[0], y2[0], d + 1, fmax, dmin, dmax, eps);
                 }
 
                 //Add new meridian point p2
@@ -404,7 +411,7 @@ public class Meridian {
                 //Third sub interval
                 if (alpha0 > dff || alpha1 > dff || alpha2 > dff || alpha3 > dff || alpha4 > dff || d < dmin)
                 {
-                        asPoints3(proj, alpha, mer_proj, lat2, lat3, lat1, b, x2[0], y2[0], x3[0], y3[0], d + 1, fmax, dmin, dmax, eps);
+                        asPoints3(proj, kernel, alpha, mer_proj, lat2, lat3, lat1, b, x2[0], y2[0], x3[0], y3[0], d + 1, fmax, dmin, dmax, eps);
                 }
 
                 //Add new meridian point p3
@@ -417,7 +424,7 @@ public class Meridian {
                 //Fourth sub interval
                 if (alpha0 > dff || alpha1 > dff || alpha2 > dff || alpha3 > dff || alpha4 > dff || d < dmin)
                 {
-                        asPoints3(proj, alpha, mer_proj, lat3, b, lat2, lat4, x3[0], y3[0], xb, yb, d + 1, fmax, dmin, dmax, eps);
+                        asPoints3(proj, kernel, alpha, mer_proj, lat3, b, lat2, lat4, x3[0], y3[0], xb, yb, d + 1, fmax, dmin, dmax, eps);
                 }
         }
 }
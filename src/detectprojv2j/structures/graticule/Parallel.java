@@ -32,10 +32,10 @@ import detectprojv2j.types.TInterval;
 import detectprojv2j.structures.point.Point3DGeographic;
 import detectprojv2j.structures.point.Point3DCartesian;
 import detectprojv2j.structures.projection.Projection;
+import detectprojv2j.structures.projection.ProjectionKernel;
 
 import static detectprojv2j.consts.Consts.*;
 
-import detectprojv2j.algorithms.carttransformation.CartTransformation;
 import detectprojv2j.algorithms.round.Round;
 import detectprojv2j.algorithms.singularitydetection.SingularityDetection;
 
@@ -140,6 +140,13 @@ public class Parallel {
 
         
         public void project(final Projection proj, final double alpha, List <Point3DCartesian> par)
+        {
+                //Project parallel, compile the projection
+                project(proj, proj.compile(alpha), alpha, par);
+        }
+        
+        
+        public void project(final Projection proj, final ProjectionKernel kernel, final double alpha, List <Point3DCartesian> par)
         {
                 //Project parallel
                 Point3DGeographic pole = proj.getCartPole();
@@ -152,7 +159,7 @@ public class Parallel {
                         //Project point
                         try
                         {
-                                CartTransformation.latLonToXY(lat, lon, proj, alpha, lat_trans, lon_trans, X, Y);
+                                kernel.latLonToXY(lat, lon, lat_trans, lon_trans, X, Y);
                                 
                                 //Throw exception: X coordinate
                                 if (Double.isNaN(X[0]) || Double.isInfinite(X[0]))
@@ -192,12 +199,12 @@ public class Parallel {
         {
                 //Create polygonal approximation of a meridian using adaptive sampling
                 //Polygonal representation refers to a given projection and its parameters
-                asInit(proj, alpha, par_proj, fmax, dmin, dmax, eps);
+                asInit(proj, proj.compile(alpha), alpha, par_proj, fmax, dmin, dmax, eps);
         }
 
 
 
-        public void asInit(final Projection proj, final double alpha, List <Point3DCartesian> par_proj, final double fmax, final int dmin, final int dmax, final double eps)
+        public void asInit(final Projection proj, final ProjectionKernel kernel, final double alpha, List <Point3DCartesian> par_proj, final double fmax, final int dmin, final int dmax, final double eps)
         {
                 //Create polygonal approximation of the meridian using adaptive sampling
                 //Initial phase, call the recursive function
@@ -215,8 +222,8 @@ public class Parallel {
                 SingularityDetection.checkProjDiscontinuity(lat, b, proj, alpha, fmax, 0.5 * eps);
 
                 //Compute image
-                CartTransformation.latLonToXY(lat, a, proj, alpha, lat_trans_a, lon_trans_a, xa, ya);
-                CartTransformation.latLonToXY(lat, b, proj, alpha, lat_trans_b, lon_trans_b, xb, yb);
+                kernel.latLonToXY(lat, a, lat_trans_a, lon_trans_a, xa, ya);
+                kernel.latLonToXY(lat, b, lat_trans_b, lon_trans_b, xb, yb);
 
                 //Add first parallel point a to the list 
                 lons.add(a);
@@ -227,7 +234,7 @@ public class Parallel {
 
                 //Apply recursive approach
                 //asPoints(proj, alpha, par_proj, a, b, xa, ya, xb, yb, d, fmax, dmin, dmax, eps);
-                asPoints3(proj, alpha, par_proj, a, b, a, b, xa[0], ya[0], xb[0], yb[0], d, fmax, dmin, dmax, eps);
+                asPoints3(proj, kernel, alpha, par_proj, a, b, a, b, xa[0], ya[0], xb[0], yb[0], d, fmax, dmin, dmax, eps);
 
                 //Add last parallel point b to the list
                 lons.add(b);
@@ -238,7 +245,7 @@ public class Parallel {
         }
 
 
-        public void asPoints3(final Projection proj, final double alpha, List <Point3DCartesian> par_proj, final double a, final double b, final double ap, final double bn, final double xa, final double ya, final double xb, final double yb, final int d, final double fmax, final int dmin, final int dmax, final double eps)
+        public void asPoints3(final Projection proj, final ProjectionKernel kernel, final double alpha, List <Point3DCartesian> par_proj, final double a, final double b, final double ap, final double bn, final double xa, final double ya, final double xb, final double yb, final int d, final double fmax, final int dmin, final int dmax, final double eps)
         {
                 //Adaptive sampling of parallel points
                 final double r_min = 0.45, r_max = 0.55;
@@ -273,7 +280,7 @@ public class Parallel {
                 //Point [lat, lon0]
                 try
                 {
-                        CartTransformation.latLonToXY(lat, lon0, proj, alpha, lat_trans, lon_trans, x0, y0);
+                        kernel.latLonToXY(lat, lon0, lat_trans, lon_trans, x0, y0);
                         
                         //Throw exception: X coordinate
                         if (Double.isNaN(x0[0]) || Double.isInfinite(x0[0]))
@@ -294,7 +301,7 @@ public class Parallel {
                 //Point [lat, lon1]
                 try
                 {
-                        CartTransformation.latLonToXY(lat, lon1, proj, alpha, lat_trans, lon_trans, x1, y1);
+                        kernel.latLonToXY(lat, lon1, lat_trans, lon_trans, x1, y1);
                         
                         //Throw exception: X coordinate
                         if (Double.isNaN(x1[0]) || Double.isInfinite(x1[0]))
@@ -315,7 +322,7 @@ public class Parallel {
                 //Point [lat, lon2]
                 try
                 {
-                        CartTransformation.latLonToXY(lat, lon2, proj, alpha, lat_trans, lon_trans, x2, y2);
+                        kernel.latLonToXY(lat, lon2, lat_trans, lon_trans, x2, y2);
                         
                         //Throw exception: X coordinate
                         if (Double.isNaN(x2[0]) || Double.isInfinite(x2[0]))
@@ -336,7 +343,7 @@ public class Parallel {
                 //Point [lat, lon3]
                 try
                 {
-                        CartTransformation.latLonToXY(lat, lon3, proj, alpha, lat_trans, lon_trans, x3, y3);
+                        kernel.latLonToXY(lat, lon3, lat_trans, lon_trans, x3, y3);
                         
                         //Throw exception: X coordinate
                         if (Double.isNaN(x3[0]) || Double.isInfinite(x3[0]))
@@ -357,7 +364,7 @@ public class Parallel {
                 //Point [lat, lon4]
                 try
                 {
-                        CartTransformation.latLonToXY(lat, lon4, proj, alpha, lat_trans, lon_trans, x4, y4);
+                        kernel.latLonToXY(lat, lon4, lat_trans, lon_trans, x4, y4);
                         
                         //Throw exception: X coordinate
                         if (Double.isNaN(x4[0]) || Double.isInfinite(x4[0]))
@@ -385,7 +392,7 @@ public class Parallel {
                 //First sub interval
                 if (alpha0 > dff || alpha1 > dff || alpha2 > dff || alpha3 > dff || alpha4 > dff || d < dmin)
                 {
-                        asPoints3(proj, alpha, par_proj, a, lon1, lon0, lon2, xa, ya, x1[0], y1[0], d + 1, fmax, dmin, dmax, eps);
+                        asPoints3(proj, kernel, alpha, par_proj, a, lon1, lon0, lon2, xa, ya, x1[0], y1[0], d + 1, fmax, dmin, dmax, eps);
                 }
                 
                 //Add new parallel point p1
@@ -398,7 +405,7 @@ public class Parallel {
                 //Second sub interval
                 if (alpha0 > dff || alpha1 > dff || alpha2 > dff || alpha3 > dff || alpha4 > dff || d < dmin)
                 {
-                        asPoints3(proj, alpha, par_proj, lon1, lon2, a, lon3, x1[0], y1[0], x2[0], y2[0], d + 1, fmax, dmin, dmax, eps);
+                        asPoints3(proj, kernel, alpha, par_proj, lon1, lon2, a, lon3, x1[0], y1[0], x2[0], y2[0], d + 1, fmax, dmin, dmax, eps);
                 }
                 
                 //Add new parallel point p2
@@ -411,7 +418,7 @@ public class Parallel {
                 //Third sub interval
                 if (alpha0 > dff || alpha1 > dff || alpha2 > dff || alpha3 > dff || alpha4 > dff || d < dmin)
                 {
-                        asPoints3(proj, alpha, par_proj, lon2, lon3, lon1, b, x2[0], y2[0], x3[0], y3[0], d + 1, fmax, dmin, dmax, eps);
+                        asPoints3(proj, kernel, alpha, par_proj, lon2, lon3, lon1, b, x2[0], y2[0], x3[0], y3[0], d + 1, fmax, dmin, dmax, eps);
                 }
                 
                 //Add new parallel point p3
@@ -424,7 +431,7 @@ public class Parallel {
                 //Fourth sub interval
                 if (alpha0 > dff || alpha1 > dff || alpha2 > dff || alpha3 > dff || alpha4 > dff || d < dmin)
                 {
-                        asPoints3(proj, alpha, par_proj, lon3, b, lon2, lon4, x3[0], y3[0], xb, yb, d + 1, fmax, dmin, dmax, eps);
+                        asPoints3(proj, kernel, alpha, par_proj, lon3, b, lon2, lon4, x3[0], y3[0], xb, yb, d + 1, fmax, dmin, dmax, eps);
                 }
         }
 }
@@ -205,19 +205,85 @@ public class Matrix{
 
                 //Create matrices
                 Matrix C = new Matrix(rows_count, n2);
+                multInto(B, C);
                 
+                return C;
+        }
+
+
+        //Matrix product C = A * B stored in the existing matrix C (rows_count, B.cols), no allocation
+        public void multInto(final Matrix B, Matrix C)
+        {
+                final int n2 = B.cols();
+
+                //Matrix dimemension are invalid, throw exception
+                if ( columns_count != B.rows() || C.rows() != rows_count || C.cols() != n2 )
+                {
+                        throw new MathMatrixDifferentSizeException ( "MathMatrixDifferentSizeException: ", " different rows count.  Cannot compute C = A * B. " , this, B );
+                }
+
                 for (int i = 0; i < rows_count; i++)
                 {
+                        final double [] a = items[i], c = C.items[i];
+                        Arrays.fill(c, 0.0);
+
                         for (int k = 0; k < columns_count; k++)
                         {
+                                final double aik = a[k];
+                                final double [] b = B.items[k];
+
                                 for (int j = 0; j < n2; j++)
                                 {
-                                        C.items[i][j] += items[i][k] * B.items[k][j];
+                                        c[j] += aik * b[j];
                                 }
                         }
                 }
-                
-                return C;
+        }
+
+
+        //Operator A += a * B performed in place, no allocation
+        public void axpy(final double a, final Matrix B)
+        {
+                //Matrix dimemension are invalid, throw exception
+                if ( rows_count != B.rows() || columns_count != B.cols() )
+                {
+                        throw new MathMatrixDifferentSizeException ( "MathMatrixDifferentSizeException: ", " different size.  Cannot compute A += a * B. " , this, B );
+                }
+
+                for (int i = 0; i < rows_count; i++)
+                {
+                        final double [] r = items[i], b = B.items[i];
+
+                        for (int j = 0; j < columns_count; j++)
+                        {
+                                r[j] += a * b[j];
+                        }
+                }
+        }
+
+
+        //Scalar product of the matrices of the same size: sum of A(i, j) * B(i, j), e.g. trans(a) * b for column vectors
+        public double dot(final Matrix B)
+        {
+                //Matrix dimemension are invalid, throw exception
+                if ( rows_count != B.rows() || columns_count != B.cols() )
+                {
+                        throw new MathMatrixDifferentSizeException ( "MathMatrixDifferentSizeException: ", " different size.  Cannot compute scalar product. " , this, B );
+                }
+
+                double sum = 0;
+
+                for (int i = 0; i < rows_count; i++)
+                {
+                        final double [] r = items[i], b = B.items[i];
+
+                        for (int j = 0; j < columns_count; j++)
+                        {
+                                sum += r[j] * b[j];
+                        }
+                }
+
+                return sum;
         }
         
         
@@ -238,6 +304,19 @@ public class Matrix{
         }
         
         
+        //Operator A *= val performed in place, no allocation
+        public void scale(final double val)
+        {
+                for (double [] row : items)
+                {
+                        for (int j = 0; j < columns_count; j++)
+                        {
+                                row[j] *= val;
+                        }
+                }
+        }
+
+
         //Get row of the matrix
         public Matrix row ( final int r )
         {
@@ -588,6 +667,99 @@ public class Matrix{
 	{
                 return sqrt(this.sum2());
         }
+
+
+        //Weighted sum2 of the matrix items: trans(V) * W * V, the diagonal weight matrix W stored as a vector (rows_count, 1)
+	public double sum2(final Matrix W)
+	{
+                //Matrix dimemension are invalid, throw exception
+                if ( rows_count != W.rows() )
+                {
+                        throw new MathMatrixDifferentSizeException ( "MathMatrixDifferentSizeException: ", " different rows count.  Cannot compute trans(A) * W * A. " , this, W );
+                }
+
+		double sum = 0;
+
+		for (int i = 0; i < rows_count; i++)
+		{
+                        final double w = W.items[i][0];
+
+			for (int j = 0; j < columns_count; j++)
+			{
+				sum += w * items[i][j] * items[i][j];
+			}
+		}
+
+		return sum;
+	}
+
+
+        //Matrix product trans(A) * W * B, the diagonal weight matrix W stored as a vector (rows_count, 1)
+        public Matrix transMult(final Matrix W, final Matrix B)
+        {
+                final int n2 = B.cols();
+
+                //Matrix dimemension are invalid, throw exception
+                if ( rows_count !=  B.rows() || rows_count != W.rows() )
+                {
+                        throw new MathMatrixDifferentSizeException ( "MathMatrixDifferentSizeException: ", " different rows count.  Cannot compute trans(A) * W * B. " , this, B );
+                }
+
+                //Create matrices
+                Matrix C = new Matrix(columns_count, n2);
+                transMultInto(W, B, C);
+
+                return C;
+        }
+
+
+        //Matrix product C = trans(A) * W * B stored in the existing matrix C (cols, B.cols), no allocation
+        //The transposed matrix is never created, both matrices are traversed by rows
+        public void transMultInto(final Matrix W, final Matrix B, Matrix C)
+        {
+                final int n2 = B.cols();
+
+                //Matrix dimemension are invalid, throw exception
+                if ( rows_count !=  B.rows() || rows_count != W.rows() || C.rows() != columns_count || C.cols() != n2 )
+                {
+                        throw new MathMatrixDifferentSizeException ( "MathMatrixDifferentSizeException: ", " different rows count.  Cannot compute trans(A) * W * B. " , this, B );
+                }
+
+                for (double [] row : C.items)
+                        Arrays.fill(row, 0.0);
+
+                //Symmetric product trans(A) * W * A: compute the upper triangle only
+                final boolean symmetric = (B == this);
+
+                for (int k = 0; k < rows_count; k++)
+                {
+                        final double w = W.items[k][0];
+                        final double [] a = items[k], b = B.items[k];
+
+                        for (int i = 0; i < columns_count; i++)
+                        {
+                                final double aw = w * a[i];
+                                final double [] c = C.items[i];
+
+                                for (int j = (symmetric ? i : 0); j < n2; j++)
+                                {
+                                        c[j] += aw * b[j];
+                                }
+                        }
+                }
+
+                //Copy the upper triangle to the lower one
+                if (symmetric)
+                {
+                        for (int i = 1; i < columns_count; i++)
+                        {
+                                for (int j = 0; j < i; j++)
+                                {
+                                        C.items[i][j] = C.items[j][i];
+                                }
+                        }
+                }
+        }
         
         
         //Sort matrix by columns and return array of indices
@@ -1282,8 +1454,200 @@ public class Matrix{
 			//Return A_I or transposed A_I
 			return (transpose ? AA_I.trans() : AA_I);
 		}
-	}  
-        
+	}
+
+
+        //Solve A * X = B, A is a small symmetric positive (semi)definite matrix, e.g. the matrix of normal equations
+        //Use LDLT decomposition A = L * D * L', zero rows and columns of A (undetermined variables) are skipped, X = 0
+        //Indefinite or rank deficient matrix: use pseudo-inverse, X = pinv(A) * B
+        public Matrix solveSym(final Matrix B)
+        {
+                Matrix X = new Matrix(rows_count, B.columns_count);
+                solveSym(B, X);
+
+                return X;
+        }
+
+
+        //Solve A * X = B, the solution is stored in the existing matrix X (rows_count, B.cols)
+        public void solveSym(final Matrix B, Matrix X)
+        {
+                final int n = rows_count, nb = B.columns_count;
+
+                //Rectangular matrix
+                if (n != columns_count)
+                        throw new MathMatrixNotSquareException ("MathMatrixNotSquareException: ", " invalid dimension of the matrix (rectangle matrix), can not solve the system; (rows_count, columns_count):  ", this);
+
+                //Different rows count
+                if (n != B.rows_count || n != X.rows_count || nb != X.columns_count)
+                        throw new MathMatrixDifferentSizeException ( "MathMatrixDifferentSizeException: ", " different rows count.  Cannot solve A * X = B. " , this, B );
+
+                //Set tolerance according to the maximum diagonal item
+                double max_diag = 0;
+                for (int i = 0; i < n; i++)
+                        max_diag = Math.max(max_diag, abs(items[i][i]));
+
+                final double eps = n * max_diag * EPS;
+
+                //Find non-zero rows and columns of A
+                int [] index = new int [n];
+                int k = 0;
+
+                for (int i = 0; i < n; i++)
+                {
+                        boolean zero = true;
+                        for (int j = 0; j < n && zero; j++)
+                                zero = abs(items[i][j]) <= eps;
+
+                        if (!zero)
+                                index[k++] = i;
+                }
+
+                //LDLT decomposition of the reduced matrix, L is stored in the strict lower triangle, D on the diagonal
+                double [][] LD = new double [k][k];
+
+                for (int j = 0; j < k; j++)
+                {
+                        double d = items[index[j]][index[j]];
+                        for (int l = 0; l < j; l++)
+                                d -= LD[j][l] * LD[j][l] * LD[l][l];
+
+                        //Indefinite or rank deficient matrix
+                        if (d <= eps)
+                        {
+                                pinv().multInto(B, X);
+                                return;
+                        }
+
+                        LD[j][j] = d;
+
+                        for (int i = j + 1; i < k; i++)
+                        {
+                                double sum = items[index[i]][index[j]];
+                                for (int l = 0; l < j; l++)
+                                        sum -= LD[i][l] * LD[j][l] * LD[l][l];
+
+                                LD[i][j] = sum / d;
+                        }
+                }
+
+                //Forward and back substitution for all columns of B
+                for (double [] row : X.items)
+                        Arrays.fill(row, 0.0);
+
+                double [] y = new double [k];
+
+                for (int c = 0; c < nb; c++)
+                {
+                        //L * z = b
+                        for (int i = 0; i < k; i++)
+                        {
+                                double sum = B.items[index[i]][c];
+                                for (int l = 0; l < i; l++)
+                                        sum -= LD[i][l] * y[l];
+
+                                y[i] = sum;
+                        }
+
+                        //D * L' * x = z
+                        for (int i = k - 1; i >= 0; i--)
+                        {
+                                double sum = y[i] / LD[i][i];
+                                for (int l = i + 1; l < k; l++)
+                                        sum -= LD[l][i] * y[l];
+
+                                y[i] = sum;
+                                X.items[index[i]][c] = sum;
+                        }
+                }
+        }
+
+
+        //Eigen decomposition A = V * diag(D) * V' of a small symmetric matrix, e.g. the covariance matrix
+        //Use cyclic Jacobi method, eigenvalues are stored in the vector D (rows_count, 1), eigenvectors in the columns of V
+        public void eigSym(Matrix D, Matrix V)
+        {
+                final int n = rows_count;
+
+                //Rectangular matrix
+                if (n != columns_count)
+                        throw new MathMatrixNotSquareException ("MathMatrixNotSquareException: ", " invalid dimension of the matrix (rectangle matrix), can not compute eigen decomposition; (rows_count, columns_count):  ", this);
+
+                //Different size of the output matrices
+                if (n != D.rows_count || n != V.rows_count || n != V.columns_count)
+                        throw new MathMatrixDifferentSizeException ( "MathMatrixDifferentSizeException: ", " different rows count.  Cannot compute eigen decomposition. " , this, V );
+
+                //Copy upper triangle, V = I
+                double [][] S = new double [n][n];
+                for (int i = 0; i < n; i++)
+                {
+                        for (int j = 0; j < n; j++)
+                        {
+                                S[i][j] = (i <= j ? items[i][j] : items[j][i]);
+                                V.items[i][j] = (i == j ? 1.0 : 0.0);
+                        }
+                }
+
+                //Perform sweeps until the off-diagonal items vanish
+                for (int sweep = 0; sweep < 50; sweep++)
+                {
+                        //Sum of the off-diagonal and diagonal items
+                        double off = 0, diag = 0;
+                        for (int i = 0; i < n; i++)
+                        {
+                                diag += S[i][i] * S[i][i];
+                                for (int j = i + 1; j < n; j++)
+                                        off += S[i][j] * S[i][j];
+                        }
+
+                        //Terminal condition
+                        if (off <= EPS * EPS * diag)
+                                break;
+
+                        //Rotate all pairs (p, q)
+                        for (int p = 0; p < n - 1; p++)
+                        {
+                                for (int q = p + 1; q < n; q++)
+                                {
+                                        if (abs(S[p][q]) <= MIN_FLOAT)
+                                                continue;
+
+                                        //Compute rotation angle: t = tan(phi), c = cos(phi), s = sin(phi)
+                                        final double theta = (S[q][q] - S[p][p]) / (2.0 * S[p][q]);
+                                        final double t = (theta >= 0 ? 1.0 : -1.0) / (abs(theta) + sqrt(theta * theta + 1.0));
+                                        final double c = 1.0 / sqrt(t * t + 1.0), s = t * c;
+
+                                        //Apply rotation S = J' * S * J
+                                        for (int k = 0; k < n; k++)
+                                        {
+                                                final double skp = S[k][p], skq = S[k][q];
+                                                S[k][p] = c * skp - s * skq;
+                                                S[k][q] = s * skp + c * skq;
+                                        }
+
+                                        for (int k = 0; k < n; k++)
+                                        {
+                                                final double spk = S[p][k], sqk = S[q][k];
+                                                S[p][k] = c * spk - s * sqk;
+                                                S[q][k] = s * spk + c * sqk;
+                                        }
+
+                                        //Accumulate eigenvectors V = V * J
+                                        for (int k = 0; k < n; k++)
+                                        {
+                                                final double vkp = V.items[k][p], vkq = V.items[k][q];
+                                                V.items[k][p] = c * vkp - s * vkq;
+                                                V.items[k][q] = s * vkp + c * vkq;
+                                        }
+                                }
+                        }
+                }
+
+                //Eigenvalues
+                for (int i = 0; i < n; i++)
+                        D.items[i][0] = S[i][i];
+        }
+
         
         public void print() 
         {
@@ -24,6 +24,9 @@ package detectprojv2j.structures.projection;
 import detectprojv2j.types.TInterval;
 import detectprojv2j.types.TTransformedLongitudeDirection;
 import detectprojv2j.types.ICoordFunctionProj;
+import detectprojv2j.types.ICoordFunctionProjDer;
+import detectprojv2j.types.ICoordFunctionProjDual;
+import detectprojv2j.types.ICoordFunctionProjBatch;
 
 import detectprojv2j.structures.point.Point3DGeographic;
 
@@ -90,6 +93,11 @@ public abstract class Projection
         public final double getY(final double lat, final double lon) { return G.f(lat, lon, this.getR(), this.getLat1(), this.getLat2(), this.getLon0(), this.getDx(), this.getDy(), this.getC()); }
 	public final double getY(final double lat, final double lon, final double R_, final double lat1_, final double lat2_, final double lon0_, final double dx_, final double dy_, final double c_) { return G.f(lat, lon, R_, lat1_, lat2_, lon0_, dx_, dy_, c_); }
 	public final ICoordFunctionProj  getY() { return G; }
+        public final ICoordFunctionProjDer  getXDer() { return ProjectionsDer.getXDer(id); }
+        public final ICoordFunctionProjDer  getYDer() { return ProjectionsDer.getYDer(id); }
+        public final ICoordFunctionProjDual  getXDual() { return ProjectionsDual.getXDual(id); }
+        public final ICoordFunctionProjDual  getYDual() { return ProjectionsDual.getYDual(id); }
+        public final ICoordFunctionProjBatch  getXYBatch() { final ICoordFunctionProjBatch FG = ProjectionsBatch.getXYBatch(id); return FG != null ? FG : ProjectionsBatch.getBatch(F, G); }
         
         public final double getLat(final double x, final double y) { return FI.f(x, y, this.getR(), this.getLat1(), this.getLat2(), this.getLon0(), this.getDx(), this.getDy(), this.getC()); }
 	public final double getLat(final double x_, final double y_, final double R_, final double lat1_, final double lat2_, final double lon0_, final double dx_, final double dy_, final double c_) {return FI.f(x_, y_, R_, lat1_, lat2_, lon0_, dx_, dy_, c_);}
@@ -98,6 +106,9 @@ public abstract class Projection
         public final double getLon(final double x, final double y) { return GI.f(x, y, this.getR(), this.getLat1(), this.getLat2(), this.getLon0(), this.getDx(), this.getDy(), this.getC()); }
 	public final double getLon(final double x, final double y, final double R_, final double lat1_, final double lat2_, final double lon0_, final double dx_, final double dy_, final double c_) { return GI.f(x, y, R_, lat1_, lat2_, lon0_, dx_, dy_, c_); }
 	public final ICoordFunctionProj  getLon() { return GI; }
+        public final ICoordFunctionProjBatch  getLatLonBatch() { final ICoordFunctionProjBatch FGI = ProjectionsBatch.getLatLonBatch(id); return FGI != null ? FGI : ProjectionsBatch.getBatch(FI, GI); }
+        
+        public final ProjectionKernel compile(final double alpha) { return new ProjectionKernel(this, alpha); }
         
         public final String getName() {return name;}
         public final String getID() {return id;}
@@ -128,4 +139,8 @@ public abstract class Projection
 	public abstract void setA(final double a);
 	public abstract void setB(final double b);
 	public abstract void setLonDir(final TTransformedLongitudeDirection lon_dir_);
+
+        //Create a copy of the projection (independent parameters, shared coordinate functions)
+        @Override
+        public abstract Projection clone();
 }
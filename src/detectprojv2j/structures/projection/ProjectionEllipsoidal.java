@@ -48,6 +48,9 @@ public class ProjectionEllipsoidal extends Projection
                 a = a_;
                 b = b_;
         }
+
+        @Override
+        public Projection clone() { return new ProjectionEllipsoidal (R, a, b, lat1, lon0, dx, dy, c, F, G, FI, GI, name, id); }
         
         @Override
         public Point3DGeographic getCartPole() { return new Point3DGeographic(MAX_LAT, 0, 0);}
@@ -0,0 +1,155 @@
+// Description: Compiled cartographic projection with fixed parameters (immutable)
+// Invariants of the coordinate functions and of the Helmert transformation are computed once,
+// points are converted by a tight per-point evaluation. Used for reprojection, map warping and
+// graticule construction, where the projection parameters do not change.
+// Iterative equations start from the solution of the previous point (warm start), use one kernel per thread.
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.structures.projection;
+
+import static java.lang.Math.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import detectprojv2j.types.ICoordFunctionProjKernel;
+
+import detectprojv2j.structures.point.Point3DCartesian;
+import detectprojv2j.structures.point.Point3DGeographic;
+
+import detectprojv2j.algorithms.carttransformation.PoleRotation;
+
+
+public final class ProjectionKernel {
+        
+        private final PoleRotation pole;                                //Oblique aspect transformation using the cartographic pole
+        private final double dx, dy;                                    //Additive constants dx, dy
+        private final double q1, q2;                                    //Coefficients of the Helmert transformation (rotation alpha)
+        private final ICoordFunctionProjKernel FG;                      //Compiled coordinate functions (X, Y) = (F, G)(lat, lon)
+        private final ICoordFunctionProjKernel FGI;                     //Compiled inverse coordinate functions (lat, lon) = (F_inv, G_inv)(X, Y)
+        
+        
+        ProjectionKernel(final Projection proj, final double alpha)
+        {
+                //Compile the projection: parameters are copied, invariants precomputed
+                final double R = proj.getR(), lat1 = proj.getLat1(), lat2 = proj.getLat2(), lon0 = proj.getLon0(), c = proj.getC();
+                
+                pole = new PoleRotation(proj.getCartPole(), proj.getLonDir());
+                dx = proj.getDx();
+                dy = proj.getDy();
+                
+                //Compute Helmert transformation coefficients (for the M8 method)
+                q1 = cos(alpha * PI / 180);
+                q2 = sin(alpha * PI / 180);
+                
+                //Compiled coordinate functions, shifts are applied after the rotation
+                final ICoordFunctionProjKernel FG_c = ProjectionsKernel.compileXY(proj.getID(), R, lat1, lat2, lon0, 0.0, 0.0, c);
+                FG = (FG_c != null ? FG_c : ProjectionsKernel.compile(proj.getX(), proj.getY(), R, lat1, lat2, lon0, 0.0, 0.0, c));
+                
+                final ICoordFunctionProjKernel FGI_c = ProjectionsKernel.compileLatLon(proj.getID(), R, lat1, lat2, lon0, 0.0, 0.0, c);
+                FGI = (FGI_c != null ? FGI_c : ProjectionsKernel.compile(proj.getLat(), proj.getLon(), R, lat1, lat2, lon0, 0.0, 0.0, c));
+        }
+        
+        
+        public void latLonToXY(final double lat, final double lon, double [] lat_trans, double [] lon_trans, double [] X, double [] Y)
+        {
+                //Convert a geographic point to the Cartesian coordinates using compiled projection equations
+                
+                //(lat, lon) -> (lat_trans, lon_trans)
+                pole.latLonToLatLonTrans(lat, lon, lat_trans, lon_trans);
+                
+                //(lat_trans, lon_trans) -> (X, Y)
+                FG.f(lat_trans[0], lon_trans[0], X, Y);
+                
+                //Rotate points (for the M8 method)
+                final double Xr = X[0], Yr = Y[0];
+                X[0] = Xr * q1 - Yr * q2 + dx; 
+                Y[0] = Xr * q2 + Yr * q1 + dy; 
+        }
+        
+        
+        public void XYToLatLon(final double X, final double Y, double [] lat_trans, double [] lon_trans, double [] lat, double [] lon)
+        {
+                //Convert a point in the Cartesian coordinates to geographic using compiled inverse projection equations
+
+                //Unrotate points (for the M8 method)
+                final double Xr = (X - dx) * q1 + ( Y - dy) * q2;
+                final double Yr = -(X - dx) * q2 + (Y - dy) * q1;
+
+                //(X, Y)->(lat_trans, lon_trans), the numeric inverse starts from the previous lat_trans, lon_trans
+                FGI.f(Xr, Yr, lat_trans, lon_trans);
+
+                //(lat_trans, lon_trans)->(lat, lon)
+                pole.latLonTransToLatLon(lat_trans[0], lon_trans[0], lat, lon);
+        }
+        
+        
+        public List <Point3DCartesian> latsLonsToXY (final List <Point3DGeographic> points)
+        {
+                //Convert all geographic points to the Cartesian coordinates, points that can not be converted are skipped
+                List <Point3DCartesian> projected_points = new ArrayList<>(points.size());
+                double [] X = {0.0}, Y = {0.0}, lat_trans = {0.0}, lon_trans = {0.0};
+                
+                for (Point3DGeographic p : points)
+                {
+                        try
+                        {
+                                //Convert a point
+                                latLonToXY(p.getLat(), p.getLon(), lat_trans, lon_trans, X, Y);
+                         
+                                //Add to the list of points
+                                projected_points.add(new Point3DCartesian(X[0], Y[0], p.getH()));
+                        }
+                        
+                        //Throw exception
+                        catch (Exception e)
+                        {
+                        }
+                }
+                
+                return projected_points;
+        }
+        
+        
+        public List <Point3DGeographic> XYToLatsLons (final List <Point3DCartesian> points)
+        {
+                //Convert all points in the Cartesian coordinates to geographic, points that can not be converted are skipped
+                List <Point3DGeographic> projected_points = new ArrayList<>(points.size());
+                double [] lat = {0.0}, lon = {0.0}, lat_trans = {0.0}, lon_trans = {0.0};
+                
+                for (Point3DCartesian p : points)
+                {
+                        try
+                        {
+                                //Convert a point
+                                XYToLatLon(p.getX(), p.getY(), lat_trans, lon_trans, lat, lon);
+                                
+                                //Add to the list of points
+                                projected_points.add(new Point3DGeographic(lat[0], lon[0], p.getZ()));
+                        }
+                        
+                        //Throw exception
+                        catch (Exception e)
+                        {
+                        }
+                }
+                
+                return projected_points;
+        }
+}
@@ -49,6 +49,9 @@ public class ProjectionMiscellaneous extends Projection
                 cart_pole = new Point3DGeographic (latp_, lonp_, 0.0);
                 lon_dir = lon_dir_;
         }
+
+        @Override
+        public Projection clone() { return new ProjectionMiscellaneous (R, cart_pole.getLat(), cart_pole.getLon(), lat1, lon_dir, lon0, dx, dy, c, F, G, FI, GI, name, id); }
         
         @Override
         public Point3DGeographic getCartPole() { return cart_pole;}
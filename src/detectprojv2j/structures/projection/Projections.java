@@ -38,13 +38,18 @@ import detectprojv2j.algorithms.newtonraphson.FILonDer;
 import detectprojv2j.algorithms.newtonraphson.FTheta;
 import detectprojv2j.algorithms.newtonraphson.FThetaDer;
 import detectprojv2j.algorithms.newtonraphson.NewtonRaphson;
-import detectprojv2j.algorithms.numintegration.NumIntegration;
+import detectprojv2j.algorithms.numintegration.EllipticIntegral1;
 import detectprojv2j.algorithms.quartic.Quartic;
 import java.util.ArrayList;
 
 
 public class Projections {
         
+        //Tabulated elliptic integrals of the first kind with the fixed modulus
+        private static final EllipticIntegral1 ELLIPTIC_SQRT05 = new EllipticIntegral1(sqrt(0.5), 1.0e-15);                    //Adams, Guyou, Peirce quincuncial, k = sqrt(0.5)
+        private static final EllipticIntegral1 ELLIPTIC_CWE_KS = new EllipticIntegral1(sin(23.8958 / RO), 1.0e-15);            //Conformal world in ellipse, k = sin(theta)
+        private static final EllipticIntegral1 ELLIPTIC_CWE_KC = new EllipticIntegral1(cos(23.8958 / RO), 1.0e-15);            //Conformal world in ellipse, k = cos(theta)
+        
         public static void init (final List <Projection> projections, final TTransformedLongitudeDirection default_lon_dir)
         {
                 //Initialize all supported projections and add them to the list
@@ -362,8 +367,8 @@ public class Projections {
                 final double N = asin(n);
                 
                 //Compute elliptic integral of the first kind
-                final double Xe = NumIntegration.getInEllipticIntegral1(sqrt(0.5), M, 1.0e-14);
-                final double Ye = NumIntegration.getInEllipticIntegral1(sqrt(0.5), N, 1.0e-14);
+                final double Xe = ELLIPTIC_SQRT05.getF(M);
+                final double Ye = ELLIPTIC_SQRT05.getF(N);
                 double X =  R * 0.5 * (Ye - Xe) / sqrt(2) + dx;
 
                 //Throw exception
@@ -411,8 +416,8 @@ public class Projections {
                 final double N = asin(n);
                 
                 //Compute elliptic integral of the first kind
-                final double Xe = NumIntegration.getInEllipticIntegral1(sqrt(0.5), M, 1.0e-14);
-                final double Ye = NumIntegration.getInEllipticIntegral1(sqrt(0.5), N, 1.0e-14);
+                final double Xe = ELLIPTIC_SQRT05.getF(M);
+                final double Ye = ELLIPTIC_SQRT05.getF(N);
                 double Y =  R * 0.5 * (Ye + Xe) / sqrt(2) + dy;
 
                 //Throw exception
@@ -457,7 +462,7 @@ public class Projections {
                 final double N = asin(n);
                 
                 //Compute elliptic integral of the first kind
-                final double Xe = NumIntegration.getInEllipticIntegral1(sqrt(0.5), N, 1.0e-14);
+                final double Xe = ELLIPTIC_SQRT05.getF(N);
                 double X = R * Xe + dx;
 
                 //Throw exception
@@ -500,7 +505,7 @@ public class Projections {
                 final double  M = asin(m);
 
                 //Compute elliptic integral of the first kind
-                final double Ye = NumIntegration.getInEllipticIntegral1(sqrt(0.5), M, 1.0e-14);
+                final double Ye = ELLIPTIC_SQRT05.getF(M);
                 double Y = R * Ye + dy;
 
                 //Throw exception
@@ -552,8 +557,8 @@ public class Projections {
                 final double N = asin(n);
                 
                 //Compute elliptic integral of the first kind
-                final double Xe = NumIntegration.getInEllipticIntegral1(sqrt(0.5), M, 1.0e-14);
-                final double Ye = NumIntegration.getInEllipticIntegral1(sqrt(0.5), N, 1.0e-14);
+                final double Xe = ELLIPTIC_SQRT05.getF(M);
+                final double Ye = ELLIPTIC_SQRT05.getF(N);
                 double X =  R * 0.5 * (Ye - Xe) / sqrt(2) + dx;
                 
                 //Throw exception
@@ -603,8 +608,8 @@ public class Projections {
                 final double N = asin(n);
                 
                 //Compute elliptic integral of the first kind
-                final double Xe = NumIntegration.getInEllipticIntegral1(sqrt(0.5), M, 1.0e-14);
-                final double Ye = NumIntegration.getInEllipticIntegral1(sqrt(0.5), N, 1.0e-14);
+                final double Xe = ELLIPTIC_SQRT05.getF(M);
+                final double Ye = ELLIPTIC_SQRT05.getF(N);
                 double Y =  R * 0.5 * (Ye + Xe) / sqrt(2) + dy;
 
                 //Throw exception
@@ -2378,7 +2383,7 @@ public class Projections {
                 final double kc = cos(theta / RO);
 
                 //Compute elliptic integrals of the first kind
-                final double K = NumIntegration.getInEllipticIntegral1(kc, 0.5 * PI, 1.0e-14);
+                final double K = ELLIPTIC_CWE_KC.getCompleteEllipticIntegral();
 
                 final double u1 = 2 * (1 - kc) * cos(lat / RO);
                 final double v1 = (1 + kc) * (1 + cos(lat / RO) * cos(lonr / RO));
@@ -2446,8 +2451,8 @@ public class Projections {
                 final double phi = asin(F);
 
                 //Compute elliptic integrals of the first kind
-                final double u2 = NumIntegration.getInEllipticIntegral1(ks, phi, 1.0e-14);
-                final double v2 = K - NumIntegration.getInEllipticIntegral1(kc, lambda, 1.0e-14);
+                final double u2 = ELLIPTIC_CWE_KS.getF(phi);
+                final double v2 = K - ELLIPTIC_CWE_KC.getF(lambda);
 
                 final double u3 = exp(PI * u2 / (4 * K));
                 final double v3 = PI * v2 / (4 * K);
@@ -2470,7 +2475,7 @@ public class Projections {
                 final double kc = cos(theta / RO);
 
                 //Compute elliptic integrals of the first kind
-                final double K = NumIntegration.getInEllipticIntegral1(kc, 0.5 * PI, 1.0e-14);
+                final double K = ELLIPTIC_CWE_KC.getCompleteEllipticIntegral();
 
                 final double u1 = 2 * (1 - kc) * cos(lat / RO);
                 final double v1 = (1 + kc) * (1 + cos(lat / RO) * cos(lonr / RO));
@@ -2538,8 +2543,8 @@ public class Projections {
                 final double phi = asin(F);
 
                 //Compute elliptic integrals of the first kind
-                final double u2 = NumIntegration.getInEllipticIntegral1(ks, phi, 1.0e-14);
-                final double v2 = K - NumIntegration.getInEllipticIntegral1(kc, lambda, 1.0e-14);
+                final double u2 = ELLIPTIC_CWE_KS.getF(phi);
+                final double v2 = K - ELLIPTIC_CWE_KC.getF(lambda);
 
                 final double u3 = exp(PI * u2 / (4 * K));
                 final double v3 = PI * v2 / (4 * K);
@@ -2996,6 +3001,12 @@ public class Projections {
         {
                 return (1.0 + cos(2.0 * theta / RO) + 2.0 * cos(theta / RO))/RO;
         }
+
+
+        public static double FThetaDer2_eck4(final double lat, final double theta)
+        {
+                return (- 2.0 * sin(2.0 * theta / RO) - 2.0 * sin(theta / RO)) / (RO * RO);
+        }
         
         
         public static double FI_eck4(final double X, final double Y, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
@@ -3216,6 +3227,12 @@ public class Projections {
                 return (1 + cos(theta / RO)) / RO;
         }
 
+
+        public static double FThetaDer2_eck6(final double lat, final double theta)
+        {
+                return - sin(theta / RO) / (RO * RO);
+        }
+
         
         public static double FI_eck6(final double X, final double Y, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
         {
@@ -4973,7 +4990,7 @@ public class Projections {
                         final double N = asin(n);
 
                         //Compute elliptic integral of the first kind
-                        final double Xe = NumIntegration.getInEllipticIntegral1(sqrt(0.5), N, 1.0e-14);
+                        final double Xe = ELLIPTIC_SQRT05.getF(N);
                         X = R * Xe + dx; 
                 }
                 
@@ -5026,7 +5043,7 @@ public class Projections {
                         final double  M = asin(m);
                         
                         //Compute elliptic integral of the first kind
-                        final double Ye = NumIntegration.getInEllipticIntegral1(sqrt(0.5), M, 1.0e-14);
+                        final double Ye = ELLIPTIC_SQRT05.getF(M);
                         Y = R * Ye + dy; 
                 }
                 
@@ -5198,6 +5215,12 @@ public class Projections {
                 return (2.0 + 2.0 * cos(2.0 * theta / RO)) / RO;
         }
 
+
+        public static double FThetaDer2_hataea(final double lat, final double theta)
+        {
+                return - 4.0 * sin(2.0 * theta / RO) / (RO * RO);
+        }
+
         
         public static double FI_hataea(final double X, final double Y, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
         {
@@ -7694,6 +7717,12 @@ public class Projections {
         {
                 return ( 2.0 + 2.0 * cos(2.0 * theta / RO)) / RO;
         }
+
+
+        public static double FThetaDer2_moll(final double lat, final double theta)
+        {
+                return - 4.0 * sin(2.0 * theta / RO) / (RO * RO);
+        }
         
         
         public static double FI_moll(final double X, final double Y, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
@@ -7828,6 +7857,12 @@ public class Projections {
         {
                 return (1 + cos(theta / RO)) / RO;
         }
+
+
+        public static double FThetaDer2_nell(final double lat, final double theta)
+        {
+                return - sin(theta / RO) / (RO * RO);
+        }
         
         
         public static double FI_nell(final double X, final double Y, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
@@ -8773,8 +8808,8 @@ public class Projections {
                 final double N = asin(n);
                 
                 //Compute elliptic integral of the first kind
-                final double Xe = NumIntegration.getInEllipticIntegral1(sqrt(0.5), M, 1.0e-14);
-                final double Ye = NumIntegration.getInEllipticIntegral1(sqrt(0.5), N, 1.0e-14);
+                final double Xe = ELLIPTIC_SQRT05.getF(M);
+                final double Ye = ELLIPTIC_SQRT05.getF(N);
                 double X =  R * 0.5 * (Ye - Xe) / sqrt(2.0) + dx;
 
                 //Throw exception
@@ -8828,8 +8863,8 @@ public class Projections {
                 final double N = asin(n);
                 
                 //Compute elliptic integral of the first kind
-                final double Xe = NumIntegration.getInEllipticIntegral1(sqrt(0.5), M, 1.0e-14);
-                final double Ye = NumIntegration.getInEllipticIntegral1(sqrt(0.5), N, 1.0e-14);
+                final double Xe = ELLIPTIC_SQRT05.getF(M);
+                final double Ye = ELLIPTIC_SQRT05.getF(N);
                 double Y =  R * 0.5 * (Ye + Xe) / sqrt(2.0) + dy;
                 
                 //Throw exception
@@ -9578,6 +9613,12 @@ public class Projections {
         {
                 return (2.0 + 2.0 * cos(2.0 * theta / RO) - 2.0 * cos(theta / RO)) / RO;
         }
+
+
+        public static double FThetaDer2_putp2(final double lat, final double theta)
+        {
+                return (- 4.0 * sin(2.0 * theta / RO) + 2.0 * sin(theta / RO)) / (RO * RO);
+        }
         
         
         public static double FI_putp2(final double X, final double Y, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
@@ -12192,6 +12233,12 @@ public class Projections {
         {
                 return ( 2.0 + 2.0 * cos(2.0 * theta / RO)) / RO;
         }
+
+
+        public static double FThetaDer2_wag4(final double lat, final double theta)
+        {
+                return - 4.0 * sin(2.0 * theta / RO) / (RO * RO);
+        }
         
         
         public static double FI_wag4(final double X, final double Y, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
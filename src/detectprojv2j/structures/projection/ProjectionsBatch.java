@@ -0,0 +1,318 @@
+// Description: Batch coordinate functions of the projections evaluated over the primitive arrays
+// Hand-optimized kernels for the common projections: invariants depending on the projection
+// parameters are evaluated once per batch, both coordinates share the intermediate results.
+// The same equations as in Projections, singular points are passed to the scalar coordinate
+// functions throwing the exception.
+// Projections without batch coordinate functions return null (scalar loop is used instead)
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.structures.projection;
+
+import static java.lang.Math.*;
+
+import detectprojv2j.types.ICoordFunctionProj;
+import detectprojv2j.types.ICoordFunctionProjBatch;
+
+import static detectprojv2j.consts.Consts.*;
+
+import detectprojv2j.algorithms.carttransformation.CartTransformation;
+
+
+public class ProjectionsBatch {
+
+        public static ICoordFunctionProjBatch getXYBatch(final String id)
+        {
+                //Get batch coordinate functions (X, Y) = (F, G)(lat, lon), null if not available
+                return switch (id) {
+                        case "cea" -> ProjectionsBatch::FG_cea;
+                        case "eqc" -> ProjectionsBatch::FG_eqc;
+                        case "eqdc" -> ProjectionsBatch::FG_eqdc;
+                        case "merc" -> ProjectionsBatch::FG_merc;
+                        case "mill" -> ProjectionsBatch::FG_mill;
+                        case "sinu" -> ProjectionsBatch::FG_sinu;
+                        default -> null;
+                };
+        }
+
+
+        public static ICoordFunctionProjBatch getLatLonBatch(final String id)
+        {
+                //Get batch inverse coordinate functions (lat, lon) = (F_inv, G_inv)(X, Y), null if not available
+                return switch (id) {
+                        case "cea" -> ProjectionsBatch::FGI_cea;
+                        case "eqc" -> ProjectionsBatch::FGI_eqc;
+                        case "merc" -> ProjectionsBatch::FGI_merc;
+                        case "sinu" -> ProjectionsBatch::FGI_sinu;
+                        default -> null;
+                };
+        }
+
+
+        public static ICoordFunctionProjBatch getBatch(final ICoordFunctionProj F, final ICoordFunctionProj G)
+        {
+                //Batch coordinate functions evaluating the scalar coordinate functions point by point
+                return (u, v, m, R, lat1, lat2, lon0, dx, dy, c, x, y) ->
+                {
+                        for (int i = 0; i < m; i++)
+                        {
+                                x[i] = F.f(u[i], v[i], R, lat1, lat2, lon0, dx, dy, c);
+                                y[i] = G.f(u[i], v[i], R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                };
+        }
+
+
+        public static void FG_cea(final double [] lat, final double [] lon, final int m, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] X, double [] Y)
+        {
+                final double cos_lat1 = cos(lat1 / RO);
+
+                for (int i = 0; i < m; i++)
+                {
+                        final double lonr = CartTransformation.redLon0(lon[i], lon0);
+
+                        X[i] = R * lonr * cos_lat1 / RO + dx;
+                        Y[i] = R * sin(lat[i] / RO) + dy;
+
+                        //Throw exception
+                        if (abs(X[i]) > MAX_FLOAT || abs(Y[i]) > MAX_FLOAT)
+                        {
+                                X[i] = Projections.F_cea(lat[i], lon[i], R, lat1, lat2, lon0, dx, dy, c);
+                                Y[i] = Projections.G_cea(lat[i], lon[i], R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                }
+        }
+
+
+        public static void FGI_cea(final double [] X, final double [] Y, final int m, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] lat, double [] lon)
+        {
+                final double R_cos_lat1 = R * cos(lat1 / RO);
+                final boolean singular = abs(lat1) > MAX_LAT - MAX_ANGULAR_DIFF;
+
+                for (int i = 0; i < m; i++)
+                {
+                        final double x = X[i], y = Y[i];
+
+                        //Inverse equations
+                        final double arg = (y - dy) / R;
+                        final double lat_i = asin(arg) * RO;
+                        final double lonr = (x - dx) / R_cos_lat1 * RO;
+
+                        //Throw exception
+                        if (singular || abs(x) > MAX_FLOAT || abs(y) > MAX_FLOAT || abs(arg) > 1.0 || abs(lat_i) > MAX_LAT || abs(lonr) > MAX_LON)
+                        {
+                                lat[i] = Projections.FI_cea(x, y, R, lat1, lat2, lon0, dx, dy, c);
+                                lon[i] = Projections.GI_cea(x, y, R, lat1, lat2, lon0, dx, dy, c);
+                                continue;
+                        }
+
+                        lat[i] = lat_i;
+                        lon[i] = CartTransformation.redLon0(lonr, -lon0);
+                }
+        }
+
+
+        public static void FG_eqc(final double [] lat, final double [] lon, final int m, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] X, double [] Y)
+        {
+                final double cos_lat1 = cos(lat1 / RO);
+
+                for (int i = 0; i < m; i++)
+                {
+                        final double lonr = CartTransformation.redLon0(lon[i], lon0);
+
+                        X[i] = R * lonr * cos_lat1 / RO + dx;
+                        Y[i] = R * lat[i] / RO + dy;
+
+                        //Throw exception
+                        if (abs(X[i]) > MAX_FLOAT || abs(Y[i]) > MAX_FLOAT)
+                        {
+                                X[i] = Projections.F_eqc(lat[i], lon[i], R, lat1, lat2, lon0, dx, dy, c);
+                                Y[i] = Projections.G_eqc(lat[i], lon[i], R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                }
+        }
+
+
+        public static void FGI_eqc(final double [] X, final double [] Y, final int m, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] lat, double [] lon)
+        {
+                final double R_cos_lat1 = R * cos(lat1 / RO);
+                final boolean singular = abs(lat1) > MAX_LAT - MAX_ANGULAR_DIFF;
+
+                for (int i = 0; i < m; i++)
+                {
+                        final double x = X[i], y = Y[i];
+
+                        //Inverse equations
+                        final double lat_i = (y - dy) / R * RO;
+                        final double lonr = (x - dx) / R_cos_lat1 * RO;
+
+                        //Throw exception
+                        if (singular || abs(x) > MAX_FLOAT || abs(y) > MAX_FLOAT || abs(lat_i) > MAX_LAT || abs(lonr) > MAX_LON)
+                        {
+                                lat[i] = Projections.FI_eqc(x, y, R, lat1, lat2, lon0, dx, dy, c);
+                                lon[i] = Projections.GI_eqc(x, y, R, lat1, lat2, lon0, dx, dy, c);
+                                continue;
+                        }
+
+                        lat[i] = lat_i;
+                        lon[i] = CartTransformation.redLon0(lonr, -lon0);
+                }
+        }
+
+
+        public static void FG_eqdc(final double [] lat, final double [] lon, final int m, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] X, double [] Y)
+        {
+                final double A = tan(lat1 / RO);
+                final double rho0 = R / A;
+                final double n = sin(lat1 / RO);
+                final boolean singular = abs(A) < MIN_FLOAT;
+
+                for (int i = 0; i < m; i++)
+                {
+                        final double lonr = CartTransformation.redLon0(lon[i], lon0);
+                        final double rho = rho0 + R * (lat1 - lat[i]) / RO;
+
+                        X[i] = rho * sin(n * lonr / RO) + dx;
+                        Y[i] = rho0 - rho * cos(n * lonr / RO) + dy;
+
+                        //Throw exception
+                        if (singular || abs(X[i]) > MAX_FLOAT || abs(Y[i]) > MAX_FLOAT)
+                        {
+                                X[i] = Projections.F_eqdc(lat[i], lon[i], R, lat1, lat2, lon0, dx, dy, c);
+                                Y[i] = Projections.G_eqdc(lat[i], lon[i], R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                }
+        }
+
+
+        public static void FG_merc(final double [] lat, final double [] lon, final int m, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] X, double [] Y)
+        {
+                final double cos_lat1 = cos(lat1 / RO);
+
+                for (int i = 0; i < m; i++)
+                {
+                        final double lonr = CartTransformation.redLon0(lon[i], lon0);
+                        final double A = tan((lat[i] / 2.0 + 45) / RO);
+
+                        X[i] = R * lonr * cos_lat1 / RO + dx;
+                        Y[i] = R * log(A) + dy;
+
+                        //Throw exception
+                        if (abs(lat[i]) == MAX_LAT || A <= 0 || abs(X[i]) > MAX_FLOAT || abs(Y[i]) > MAX_FLOAT)
+                        {
+                                X[i] = Projections.F_merc(lat[i], lon[i], R, lat1, lat2, lon0, dx, dy, c);
+                                Y[i] = Projections.G_merc(lat[i], lon[i], R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                }
+        }
+
+
+        public static void FGI_merc(final double [] X, final double [] Y, final int m, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] lat, double [] lon)
+        {
+                final double R_cos_lat1 = R * cos(lat1 / RO);
+                final boolean singular = abs(lat1) > MAX_LAT - MAX_ANGULAR_DIFF;
+
+                for (int i = 0; i < m; i++)
+                {
+                        final double x = X[i], y = Y[i];
+
+                        //Inverse equations
+                        final double lat_i = 90 - 2 * atan(exp( -(y - dy) / R)) * RO;
+                        final double lonr = (x - dx) / R_cos_lat1 * RO;
+
+                        //Throw exception
+                        if (singular || abs(x) > MAX_FLOAT || abs(y) > MAX_FLOAT || abs(lat_i) > MAX_LAT || abs(lonr) > MAX_LON)
+                        {
+                                lat[i] = Projections.FI_merc(x, y, R, lat1, lat2, lon0, dx, dy, c);
+                                lon[i] = Projections.GI_merc(x, y, R, lat1, lat2, lon0, dx, dy, c);
+                                continue;
+                        }
+
+                        lat[i] = lat_i;
+                        lon[i] = CartTransformation.redLon0(lonr, -lon0);
+                }
+        }
+
+
+        public static void FG_mill(final double [] lat, final double [] lon, final int m, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] X, double [] Y)
+        {
+                final double cos_lat1 = cos(lat1 / RO);
+
+                for (int i = 0; i < m; i++)
+                {
+                        final double lonr = CartTransformation.redLon0(lon[i], lon0);
+                        final double A = tan((0.4 * lat[i] + 45) / RO);
+
+                        X[i] = R * lonr * cos_lat1 / RO + dx;
+                        Y[i] = R * log(A) / 0.8 + dy;
+
+                        //Throw exception
+                        if (A <= 0 || abs(X[i]) > MAX_FLOAT || abs(Y[i]) > MAX_FLOAT)
+                        {
+                                X[i] = Projections.F_mill(lat[i], lon[i], R, lat1, lat2, lon0, dx, dy, c);
+                                Y[i] = Projections.G_mill(lat[i], lon[i], R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                }
+        }
+
+
+        public static void FG_sinu(final double [] lat, final double [] lon, final int m, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] X, double [] Y)
+        {
+                for (int i = 0; i < m; i++)
+                {
+                        final double lonr = CartTransformation.redLon0(lon[i], lon0);
+
+                        X[i] = R * lonr * cos(lat[i] / RO) / RO + dx;
+                        Y[i] = R * lat[i] / RO + dy;
+
+                        //Throw exception
+                        if (abs(X[i]) > MAX_FLOAT || abs(Y[i]) > MAX_FLOAT)
+                        {
+                                X[i] = Projections.F_sinu(lat[i], lon[i], R, lat1, lat2, lon0, dx, dy, c);
+                                Y[i] = Projections.G_sinu(lat[i], lon[i], R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                }
+        }
+
+
+        public static void FGI_sinu(final double [] X, final double [] Y, final int m, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] lat, double [] lon)
+        {
+                final boolean singular = abs(lat1) > MAX_LAT - MAX_ANGULAR_DIFF;
+
+                for (int i = 0; i < m; i++)
+                {
+                        final double x = X[i], y = Y[i];
+
+                        //Inverse equations
+                        final double lat_i = (y - dy) / R * RO;
+                        final double lonr = (x - dx) / (R * cos(lat_i / RO)) * RO;
+
+                        //Throw exception
+                        if (singular || abs(x) > MAX_FLOAT || abs(y) > MAX_FLOAT || abs(lat_i) > MAX_LAT || abs(lonr) > MAX_LON)
+                        {
+                                lat[i] = Projections.FI_sinu(x, y, R, lat1, lat2, lon0, dx, dy, c);
+                                lon[i] = Projections.GI_sinu(x, y, R, lat1, lat2, lon0, dx, dy, c);
+                                continue;
+                        }
+
+                        lat[i] = lat_i;
+                        lon[i] = CartTransformation.redLon0(lonr, -lon0);
+                }
+        }
+}
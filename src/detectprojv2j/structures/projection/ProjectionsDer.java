@@ -0,0 +1,564 @@
+// Description: Closed-form partial derivatives of the coordinate functions for common projections
+// (conic, azimuthal, cylindrical and pseudocylindrical) in the normal aspect
+// der = [dF/dlat, dF/dlon, dF/dR, dF/dlat1, dF/dlat2, dF/dc], angular variables in degrees
+// Projections without analytic derivatives return null: numeric differentiation is used instead
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.structures.projection;
+
+import static java.lang.Math.*;
+
+import detectprojv2j.types.ICoordFunctionProjDer;
+import detectprojv2j.types.IThetaFunction;
+
+import static detectprojv2j.consts.Consts.*;
+
+import detectprojv2j.algorithms.carttransformation.CartTransformation;
+import detectprojv2j.algorithms.newtonraphson.FTheta;
+import detectprojv2j.algorithms.newtonraphson.FThetaDer;
+import detectprojv2j.algorithms.newtonraphson.NewtonRaphson;
+
+
+public class ProjectionsDer {
+
+        public static ICoordFunctionProjDer getXDer(final String id)
+        {
+                //Get partial derivatives of the coordinate function X = F(lat, lon), null if not available
+                return switch (id) {
+                        case "aea" -> ProjectionsDer::FD_aea;
+                        case "aeqd" -> ProjectionsDer::FD_aeqd;
+                        case "cea" -> ProjectionsDer::FD_cea;
+                        case "eck3" -> ProjectionsDer::FD_eck3;
+                        case "eck4" -> ProjectionsDer::FD_eck4;
+                        case "eck5" -> ProjectionsDer::FD_eck5;
+                        case "eck6" -> ProjectionsDer::FD_eck6;
+                        case "eqc" -> ProjectionsDer::FD_eqc;
+                        case "eqdc" -> ProjectionsDer::FD_eqdc;
+                        case "gall" -> ProjectionsDer::FD_gall;
+                        case "gnom" -> ProjectionsDer::FD_gnom;
+                        case "kav7" -> ProjectionsDer::FD_kav7;
+                        case "laea" -> ProjectionsDer::FD_laea;
+                        case "lcc" -> ProjectionsDer::FD_lcc;
+                        case "merc" -> ProjectionsDer::FD_merc;
+                        case "mill" -> ProjectionsDer::FD_mill;
+                        case "moll" -> ProjectionsDer::FD_moll;
+                        case "ortho" -> ProjectionsDer::FD_ortho;
+                        case "sinu" -> ProjectionsDer::FD_sinu;
+                        case "stere" -> ProjectionsDer::FD_stere;
+                        case "wag6" -> ProjectionsDer::FD_wag6;
+                        default -> null;
+                };
+        }
+
+
+        public static ICoordFunctionProjDer getYDer(final String id)
+        {
+                //Get partial derivatives of the coordinate function Y = G(lat, lon), null if not available
+                return switch (id) {
+                        case "aea" -> ProjectionsDer::GD_aea;
+                        case "aeqd" -> ProjectionsDer::GD_aeqd;
+                        case "cea" -> ProjectionsDer::GD_cea;
+                        case "eck3" -> ProjectionsDer::GD_eck3;
+                        case "eck4" -> ProjectionsDer::GD_eck4;
+                        case "eck5" -> ProjectionsDer::GD_eck5;
+                        case "eck6" -> ProjectionsDer::GD_eck6;
+                        case "eqc" -> ProjectionsDer::GD_eqc;
+                        case "eqdc" -> ProjectionsDer::GD_eqdc;
+                        case "gall" -> ProjectionsDer::GD_gall;
+                        case "gnom" -> ProjectionsDer::GD_gnom;
+                        case "kav7" -> ProjectionsDer::GD_kav7;
+                        case "laea" -> ProjectionsDer::GD_laea;
+                        case "lcc" -> ProjectionsDer::GD_lcc;
+                        case "merc" -> ProjectionsDer::GD_merc;
+                        case "mill" -> ProjectionsDer::GD_mill;
+                        case "moll" -> ProjectionsDer::GD_moll;
+                        case "ortho" -> ProjectionsDer::GD_ortho;
+                        case "sinu" -> ProjectionsDer::GD_sinu;
+                        case "stere" -> ProjectionsDer::GD_stere;
+                        case "wag6" -> ProjectionsDer::GD_wag6;
+                        default -> null;
+                };
+        }
+
+
+        private static void conicXDer(final double rho, final double n, final double lonr, final double drho_dlat, final double drho_dR, final double drho_dlat1, final double drho_dlat2,
+                final double dn_dlat1, final double dn_dlat2, double [] der)
+        {
+                //Partial derivatives of X = rho * sin(n * lonr), azimuthal projections: n = 1
+                final double s = sin(n * lonr / RO);
+                final double co = cos(n * lonr / RO);
+
+                der[0] = drho_dlat * s;
+                der[1] = rho * co * n / RO;
+                der[2] = drho_dR * s;
+                der[3] = drho_dlat1 * s + rho * co * lonr / RO * dn_dlat1;
+                der[4] = drho_dlat2 * s + rho * co * lonr / RO * dn_dlat2;
+                der[5] = 0.0;
+        }
+
+
+        private static void conicYDer(final double rho, final double n, final double lonr, final double drho_dlat, final double drho_dR, final double drho_dlat1, final double drho_dlat2,
+                final double drho0_dR, final double drho0_dlat1, final double drho0_dlat2, final double dn_dlat1, final double dn_dlat2, double [] der)
+        {
+                //Partial derivatives of Y = rho0 - rho * cos(n * lonr), azimuthal projections: n = 1, rho0 = 0
+                final double s = sin(n * lonr / RO);
+                final double co = cos(n * lonr / RO);
+
+                der[0] = -drho_dlat * co;
+                der[1] = rho * s * n / RO;
+                der[2] = drho0_dR - drho_dR * co;
+                der[3] = drho0_dlat1 - drho_dlat1 * co + rho * s * lonr / RO * dn_dlat1;
+                der[4] = drho0_dlat2 - drho_dlat2 * co + rho * s * lonr / RO * dn_dlat2;
+                der[5] = 0.0;
+        }
+
+
+        private static void cylXDer(final double R, final double lat1, final double lonr, double [] der)
+        {
+                //Partial derivatives of X = R * lonr * cos(lat1)
+                der[0] = 0.0;
+                der[1] = R * cos(lat1 / RO) / RO;
+                der[2] = lonr * cos(lat1 / RO) / RO;
+                der[3] = -R * lonr * sin(lat1 / RO) / (RO * RO);
+                der[4] = 0.0;
+                der[5] = 0.0;
+        }
+
+
+        private static void cylYDer(final double dY_dlat, final double dY_dR, final double dY_dlat1, double [] der)
+        {
+                //Partial derivatives of Y = Y(lat, R, lat1)
+                der[0] = dY_dlat;
+                der[1] = 0.0;
+                der[2] = dY_dR;
+                der[3] = dY_dlat1;
+                der[4] = 0.0;
+                der[5] = 0.0;
+        }
+
+
+        private static void pseudoCylXDer(final double R, final double lonr, final double fx, final double dfx_dlat, double [] der)
+        {
+                //Partial derivatives of X = R * lonr * fx(lat)
+                der[0] = R * lonr / RO * dfx_dlat;
+                der[1] = R * fx / RO;
+                der[2] = lonr * fx / RO;
+                der[3] = 0.0;
+                der[4] = 0.0;
+                der[5] = 0.0;
+        }
+
+
+        private static double theta(final double lat, final double theta0, final IThetaFunction ftheta, final IThetaFunction fthetader)
+        {
+                //Compute auxiliary angle theta using the Newton-Raphson method
+                FTheta ft = new FTheta(lat, ftheta);
+                FThetaDer ftd = new FThetaDer(lat, fthetader);
+
+                return NewtonRaphson.findRoot(ft::function, ftd::function, theta0, MAX_NR_ITERATIONS, MAX_NR_ERROR);
+        }
+
+
+        public static void FD_aea(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double lonr = CartTransformation.redLon0(lon, lon0);
+                final double n = 0.5 * (sin(lat1 / RO) + sin(lat2 / RO));
+                final double dn_dlat1 = 0.5 * cos(lat1 / RO) / RO;
+                final double dn_dlat2 = 0.5 * cos(lat2 / RO) / RO;
+                final double C = cos(lat1 / RO) * cos(lat1 / RO) + 2 * n * sin(lat1 / RO);
+                final double dC_dlat1 = -2.0 * cos(lat1 / RO) * sin(lat1 / RO) / RO + 2 * dn_dlat1 * sin(lat1 / RO) + 2 * n * cos(lat1 / RO) / RO;
+                final double dC_dlat2 = 2 * dn_dlat2 * sin(lat1 / RO);
+                final double D = C - 2 * n * sin(lat / RO);
+                final double rho = R * sqrt(D) / n;
+                final double drho_dlat = -R * n * cos(lat / RO) / RO / (sqrt(D) * n);
+                final double drho_dlat1 = R * (dC_dlat1 - 2 * dn_dlat1 * sin(lat / RO)) / (2.0 * sqrt(D) * n) - rho * dn_dlat1 / n;
+                final double drho_dlat2 = R * (dC_dlat2 - 2 * dn_dlat2 * sin(lat / RO)) / (2.0 * sqrt(D) * n) - rho * dn_dlat2 / n;
+
+                conicXDer(rho, n, lonr, drho_dlat, sqrt(D) / n, drho_dlat1, drho_dlat2, dn_dlat1, dn_dlat2, der);
+        }
+
+
+        public static void GD_aea(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double lonr = CartTransformation.redLon0(lon, lon0);
+                final double n = 0.5 * (sin(lat1 / RO) + sin(lat2 / RO));
+                final double dn_dlat1 = 0.5 * cos(lat1 / RO) / RO;
+                final double dn_dlat2 = 0.5 * cos(lat2 / RO) / RO;
+                final double C = cos(lat1 / RO) * cos(lat1 / RO) + 2 * n * sin(lat1 / RO);
+                final double dC_dlat1 = -2.0 * cos(lat1 / RO) * sin(lat1 / RO) / RO + 2 * dn_dlat1 * sin(lat1 / RO) + 2 * n * cos(lat1 / RO) / RO;
+                final double dC_dlat2 = 2 * dn_dlat2 * sin(lat1 / RO);
+                final double D = C - 2 * n * sin(lat / RO);
+                final double rho = R * sqrt(D) / n;
+                final double drho_dlat = -R * n * cos(lat / RO) / RO / (sqrt(D) * n);
+                final double drho_dlat1 = R * (dC_dlat1 - 2 * dn_dlat1 * sin(lat / RO)) / (2.0 * sqrt(D) * n) - rho * dn_dlat1 / n;
+                final double drho_dlat2 = R * (dC_dlat2 - 2 * dn_dlat2 * sin(lat / RO)) / (2.0 * sqrt(D) * n) - rho * dn_dlat2 / n;
+                final double E = C - 2 * n * sin(lat1 / RO);
+                final double rho0 = R * sqrt(E) / n;
+                final double drho0_dlat1 = R * (dC_dlat1 - 2 * dn_dlat1 * sin(lat1 / RO) - 2 * n * cos(lat1 / RO) / RO) / (2.0 * sqrt(E) * n) - rho0 * dn_dlat1 / n;
+                final double drho0_dlat2 = R * (dC_dlat2 - 2 * dn_dlat2 * sin(lat1 / RO)) / (2.0 * sqrt(E) * n) - rho0 * dn_dlat2 / n;
+
+                conicYDer(rho, n, lonr, drho_dlat, sqrt(D) / n, drho_dlat1, drho_dlat2, sqrt(E) / n, drho0_dlat1, drho0_dlat2, dn_dlat1, dn_dlat2, der);
+        }
+
+
+        public static void FD_eqdc(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double lonr = CartTransformation.redLon0(lon, lon0);
+                final double A = tan(lat1 / RO);
+                final double n = sin(lat1 / RO);
+                final double rho = R / A + R * (lat1 - lat) / RO;
+                final double drho0_dlat1 = -R / (RO * n * n);
+
+                conicXDer(rho, n, lonr, -R / RO, 1.0 / A + (lat1 - lat) / RO, drho0_dlat1 + R / RO, 0.0, cos(lat1 / RO) / RO, 0.0, der);
+        }
+
+
+        public static void GD_eqdc(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double lonr = CartTransformation.redLon0(lon, lon0);
+                final double A = tan(lat1 / RO);
+                final double n = sin(lat1 / RO);
+                final double rho = R / A + R * (lat1 - lat) / RO;
+                final double drho0_dlat1 = -R / (RO * n * n);
+
+                conicYDer(rho, n, lonr, -R / RO, 1.0 / A + (lat1 - lat) / RO, drho0_dlat1 + R / RO, 0.0, 1.0 / A, drho0_dlat1, 0.0, cos(lat1 / RO) / RO, 0.0, der);
+        }
+
+
+        public static void FD_lcc(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double lonr = CartTransformation.redLon0(lon, lon0);
+                final double A = tan(lat1 / RO);
+                final double n = sin(lat1 / RO);
+                final double D = tan((lat1 / 2.0 + 45) / RO) / tan((lat / 2.0 + 45) / RO);
+                final double rho = R / A * pow(D, n);
+                final double dn_dlat1 = cos(lat1 / RO) / RO;
+                final double drho_dlat1 = rho * (-1.0 / (RO * sin(lat1 / RO) * cos(lat1 / RO)) + dn_dlat1 * log(D) + n / (RO * cos(lat1 / RO)));
+
+                conicXDer(rho, n, lonr, -rho * n / (RO * cos(lat / RO)), pow(D, n) / A, drho_dlat1, 0.0, dn_dlat1, 0.0, der);
+        }
+
+
+        public static void GD_lcc(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double lonr = CartTransformation.redLon0(lon, lon0);
+                final double A = tan(lat1 / RO);
+                final double n = sin(lat1 / RO);
+                final double D = tan((lat1 / 2.0 + 45) / RO) / tan((lat / 2.0 + 45) / RO);
+                final double rho = R / A * pow(D, n);
+                final double dn_dlat1 = cos(lat1 / RO) / RO;
+                final double dlnrho0_dlat1 = -1.0 / (RO * sin(lat1 / RO) * cos(lat1 / RO));
+                final double drho_dlat1 = rho * (dlnrho0_dlat1 + dn_dlat1 * log(D) + n / (RO * cos(lat1 / RO)));
+
+                conicYDer(rho, n, lonr, -rho * n / (RO * cos(lat / RO)), pow(D, n) / A, drho_dlat1, 0.0, 1.0 / A, R / A * dlnrho0_dlat1, 0.0, dn_dlat1, 0.0, der);
+        }
+
+
+        public static void FD_aeqd(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double lonr = CartTransformation.redLon0(lon, lon0);
+                final double rho = R * (90 - lat) / RO;
+
+                conicXDer(rho, 1.0, lonr, -R / RO, (90 - lat) / RO, 0.0, 0.0, 0.0, 0.0, der);
+        }
+
+
+        public static void GD_aeqd(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double lonr = CartTransformation.redLon0(lon, lon0);
+                final double rho = R * (90 - lat) / RO;
+
+                conicYDer(rho, 1.0, lonr, -R / RO, (90 - lat) / RO, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, der);
+        }
+
+
+        public static void FD_stere(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double lonr = CartTransformation.redLon0(lon, lon0);
+                final double A = (90 - lat) / 2;
+                final double rho = 2.0 * R * tan(A / RO);
+
+                conicXDer(rho, 1.0, lonr, -R / (RO * cos(A / RO) * cos(A / RO)), 2.0 * tan(A / RO), 0.0, 0.0, 0.0, 0.0, der);
+        }
+
+
+        public static void GD_stere(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double lonr = CartTransformation.redLon0(lon, lon0);
+                final double A = (90 - lat) / 2;
+                final double rho = 2.0 * R * tan(A / RO);
+
+                conicYDer(rho, 1.0, lonr, -R / (RO * cos(A / RO) * cos(A / RO)), 2.0 * tan(A / RO), 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, der);
+        }
+
+
+        public static void FD_laea(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double lonr = CartTransformation.redLon0(lon, lon0);
+                final double rho = 2.0 * R * sin((90 - lat) / 2.0 / RO);
+
+                conicXDer(rho, 1.0, lonr, -R * cos((90 - lat) / 2.0 / RO) / RO, 2.0 * sin((90 - lat) / 2.0 / RO), 0.0, 0.0, 0.0, 0.0, der);
+        }
+
+
+        public static void GD_laea(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double lonr = CartTransformation.redLon0(lon, lon0);
+                final double rho = 2.0 * R * sin((90 - lat) / 2.0 / RO);
+
+                conicYDer(rho, 1.0, lonr, -R * cos((90 - lat) / 2.0 / RO) / RO, 2.0 * sin((90 - lat) / 2.0 / RO), 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, der);
+        }
+
+
+        public static void FD_gnom(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double lonr = CartTransformation.redLon0(lon, lon0);
+                final double rho = R * tan((90 - lat) / RO);
+
+                conicXDer(rho, 1.0, lonr, -R / (RO * cos((90 - lat) / RO) * cos((90 - lat) / RO)), tan((90 - lat) / RO), 0.0, 0.0, 0.0, 0.0, der);
+        }
+
+
+        public static void GD_gnom(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double lonr = CartTransformation.redLon0(lon, lon0);
+                final double rho = R * tan((90 - lat) / RO);
+
+                conicYDer(rho, 1.0, lonr, -R / (RO * cos((90 - lat) / RO) * cos((90 - lat) / RO)), tan((90 - lat) / RO), 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, der);
+        }
+
+
+        public static void FD_ortho(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double lonr = CartTransformation.redLon0(lon, lon0);
+                final double rho = R * cos(lat / RO);
+
+                conicXDer(rho, 1.0, lonr, -R * sin(lat / RO) / RO, cos(lat / RO), 0.0, 0.0, 0.0, 0.0, der);
+        }
+
+
+        public static void GD_ortho(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double lonr = CartTransformation.redLon0(lon, lon0);
+                final double rho = R * cos(lat / RO);
+
+                conicYDer(rho, 1.0, lonr, -R * sin(lat / RO) / RO, cos(lat / RO), 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, der);
+        }
+
+
+        public static void FD_merc(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                cylXDer(R, lat1, CartTransformation.redLon0(lon, lon0), der);
+        }
+
+
+        public static void GD_merc(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                cylYDer(R / (RO * cos(lat / RO)), log(tan((lat / 2.0 + 45) / RO)), 0.0, der);
+        }
+
+
+        public static void FD_eqc(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                cylXDer(R, lat1, CartTransformation.redLon0(lon, lon0), der);
+        }
+
+
+        public static void GD_eqc(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                cylYDer(R / RO, lat / RO, 0.0, der);
+        }
+
+
+        public static void FD_cea(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                cylXDer(R, lat1, CartTransformation.redLon0(lon, lon0), der);
+        }
+
+
+        public static void GD_cea(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                cylYDer(R * cos(lat / RO) / RO, sin(lat / RO), 0.0, der);
+        }
+
+
+        public static void FD_mill(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                cylXDer(R, lat1, CartTransformation.redLon0(lon, lon0), der);
+        }
+
+
+        public static void GD_mill(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                cylYDer(R / (RO * cos(0.8 * lat / RO)), log(tan((0.4 * lat + 45) / RO)) / 0.8, 0.0, der);
+        }
+
+
+        public static void FD_gall(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                cylXDer(R, lat1, CartTransformation.redLon0(lon, lon0), der);
+        }
+
+
+        public static void GD_gall(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double A = cos(lat / 2.0 / RO);
+
+                cylYDer(R * (1 + cos(lat1 / RO)) / (2.0 * RO * A * A), (1 + cos(lat1 / RO)) * tan(lat / 2.0 / RO), -R * sin(lat1 / RO) * tan(lat / 2.0 / RO) / RO, der);
+        }
+
+
+        public static void FD_sinu(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                pseudoCylXDer(R, CartTransformation.redLon0(lon, lon0), cos(lat / RO), -sin(lat / RO) / RO, der);
+        }
+
+
+        public static void GD_sinu(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                cylYDer(R / RO, lat / RO, 0.0, der);
+        }
+
+
+        public static void FD_eck3(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double cx = 2.0 / sqrt(PI * (4.0 + PI));
+                final double D = 1.0 - 4.0 * pow((lat / (RO * PI)), 2);
+
+                pseudoCylXDer(R, CartTransformation.redLon0(lon, lon0), cx * (1.0 + sqrt(D)), -cx * 4.0 * lat / pow(RO * PI, 2) / sqrt(D), der);
+        }
+
+
+        public static void GD_eck3(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double cy = 4.0 / sqrt(PI * (4.0 + PI));
+
+                cylYDer(cy * R / RO, cy * lat / RO, 0.0, der);
+        }
+
+
+        public static void FD_kav7(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double cx = sqrt(3.0) / (2.0);
+                final double D = 1.0 - 3.0 * pow((lat / (RO * PI)), 2);
+
+                pseudoCylXDer(R, CartTransformation.redLon0(lon, lon0), cx * sqrt(D), -cx * 3.0 * lat / pow(RO * PI, 2) / sqrt(D), der);
+        }
+
+
+        public static void GD_kav7(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                cylYDer(R / RO, lat / RO, 0.0, der);
+        }
+
+
+        public static void FD_wag6(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double cx = 1.89490;
+                final double D = 1.0 - 3.0 * pow((lat / (RO * PI)), 2);
+
+                pseudoCylXDer(R, CartTransformation.redLon0(lon, lon0), cx * (-0.5 + sqrt(D)), -cx * 3.0 * lat / pow(RO * PI, 2) / sqrt(D), der);
+        }
+
+
+        public static void GD_wag6(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double cy = 0.94745;
+
+                cylYDer(cy * R / RO, cy * lat / RO, 0.0, der);
+        }
+
+
+        public static void FD_eck5(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                pseudoCylXDer(R, CartTransformation.redLon0(lon, lon0), (1 + cos(lat / RO)) / sqrt(2.0 + PI), -sin(lat / RO) / RO / sqrt(2.0 + PI), der);
+        }
+
+
+        public static void GD_eck5(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                cylYDer(2.0 * R / RO / sqrt(2.0 + PI), 2.0 * lat / RO / sqrt(2.0 + PI), 0.0, der);
+        }
+
+
+        public static void FD_moll(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                //Implicit derivative of theta: 2 * theta + sin(2 * theta) = PI * sin(lat)
+                final double c1 = 2.0 * sqrt(2.0) / PI;
+                final double theta = theta(lat, lat, Projections::FTheta_moll, Projections::FThetaDer_moll);
+                final double dtheta_dlat = PI * cos(lat / RO) / (2.0 + 2.0 * cos(2.0 * theta / RO));
+
+                pseudoCylXDer(R, CartTransformation.redLon0(lon, lon0), c1 * cos(theta / RO), -c1 * sin(theta / RO) / RO * dtheta_dlat, der);
+        }
+
+
+        public static void GD_moll(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double c2 = sqrt(2.0);
+                final double theta = theta(lat, lat, Projections::FTheta_moll, Projections::FThetaDer_moll);
+                final double dtheta_dlat = PI * cos(lat / RO) / (2.0 + 2.0 * cos(2.0 * theta / RO));
+
+                cylYDer(c2 * R * cos(theta / RO) / RO * dtheta_dlat, c2 * sin(theta / RO), 0.0, der);
+        }
+
+
+        public static void FD_eck4(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                //Implicit derivative of theta: theta + sin(theta) * cos(theta) + 2 * sin(theta) = (2 + PI / 2) * sin(lat)
+                final double c1 = 2.0 / sqrt(PI * (4.0 + PI));
+                final double latr = lat / RO;
+                final double theta0 = (0.895168 * latr + 0.0218849 * latr * latr * latr + 0.00806809 * latr * latr * latr * latr * latr) * RO;
+                final double theta = theta(lat, theta0, Projections::FTheta_eck4, Projections::FThetaDer_eck4);
+                final double dtheta_dlat = (2.0 + PI / 2.0) * cos(lat / RO) / (1.0 + cos(2.0 * theta / RO) + 2.0 * cos(theta / RO));
+
+                pseudoCylXDer(R, CartTransformation.redLon0(lon, lon0), c1 * (1.0 + cos(theta / RO)), -c1 * sin(theta / RO) / RO * dtheta_dlat, der);
+        }
+
+
+        public static void GD_eck4(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double c2 = 2.0 * sqrt(PI / (4.0 + PI));
+                final double latr = lat / RO;
+                final double theta0 = (0.895168 * latr + 0.0218849 * latr * latr * latr + 0.00806809 * latr * latr * latr * latr * latr) * RO;
+                final double theta = theta(lat, theta0, Projections::FTheta_eck4, Projections::FThetaDer_eck4);
+                final double dtheta_dlat = (2.0 + PI / 2.0) * cos(lat / RO) / (1.0 + cos(2.0 * theta / RO) + 2.0 * cos(theta / RO));
+
+                cylYDer(c2 * R * cos(theta / RO) / RO * dtheta_dlat, c2 * sin(theta / RO), 0.0, der);
+        }
+
+
+        public static void FD_eck6(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                //Implicit derivative of theta: theta + sin(theta) = (1 + PI / 2) * sin(lat)
+                final double theta = theta(lat, lat, Projections::FTheta_eck6, Projections::FThetaDer_eck6);
+                final double dtheta_dlat = (1 + PI / 2) * cos(lat / RO) / (1.0 + cos(theta / RO));
+
+                pseudoCylXDer(R, CartTransformation.redLon0(lon, lon0), (1 + cos(theta / RO)) / sqrt(2.0 + PI), -sin(theta / RO) / RO * dtheta_dlat / sqrt(2.0 + PI), der);
+        }
+
+
+        public static void GD_eck6(final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der)
+        {
+                final double theta = theta(lat, lat, Projections::FTheta_eck6, Projections::FThetaDer_eck6);
+                final double dtheta_dlat = (1 + PI / 2) * cos(lat / RO) / (1.0 + cos(theta / RO));
+
+                cylYDer(2.0 * R / sqrt(2.0 + PI) / RO * dtheta_dlat, 2.0 * theta / sqrt(2.0 + PI) / RO, 0.0, der);
+        }
+}
@@ -0,0 +1,1049 @@
+// Description: Coordinate functions of the projections evaluated in dual numbers (value + gradient)
+// Forward-mode automatic differentiation: the same equations as in Projections, no exceptions are thrown
+// (not finite values indicate a singular point, numeric differentiation is used instead)
+// Projections without dual coordinate functions return null
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.structures.projection;
+
+import static java.lang.Math.PI;
+
+import detectprojv2j.types.ICoordFunctionProjDual;
+
+import static detectprojv2j.consts.Consts.*;
+
+import detectprojv2j.structures.dual.Dual;
+import static detectprojv2j.structures.dual.Dual.*;
+
+import detectprojv2j.algorithms.carttransformation.CartTransformation;
+
+
+public class ProjectionsDual {
+
+        public static ICoordFunctionProjDual getXDual(final String id)
+        {
+                //Get dual coordinate function X = F(lat, lon), null if not available
+                return switch (id) {
+                        case "aitoff" -> ProjectionsDual::F_aitoff;
+                        case "apiel" -> ProjectionsDual::F_apiel;
+                        case "august" -> ProjectionsDual::F_august;
+                        case "behr" -> ProjectionsDual::F_behr;
+                        case "bonne" -> ProjectionsDual::F_bonne;
+                        case "cc" -> ProjectionsDual::F_cc;
+                        case "collg" -> ProjectionsDual::F_collg;
+                        case "crast" -> ProjectionsDual::F_crast;
+                        case "eck1" -> ProjectionsDual::F_eck1;
+                        case "eck2" -> ProjectionsDual::F_eck2;
+                        case "eqc" -> ProjectionsDual::F_eqc;
+                        case "eqdc2" -> ProjectionsDual::F_eqdc2;
+                        case "eqdc3" -> ProjectionsDual::F_eqdc3;
+                        case "fahey" -> ProjectionsDual::F_fahey;
+                        case "fouc" -> ProjectionsDual::F_fouc;
+                        case "fouc_s" -> ProjectionsDual::F_fouc_s;
+                        case "hammer" -> ProjectionsDual::F_hammer;
+                        case "kav5" -> ProjectionsDual::F_kav5;
+                        case "larr" -> ProjectionsDual::F_larr;
+                        case "lask" -> ProjectionsDual::F_lask;
+                        case "leac" -> ProjectionsDual::F_leac;
+                        case "leac2" -> ProjectionsDual::F_leac2;
+                        case "litt" -> ProjectionsDual::F_litt;
+                        case "loxim" -> ProjectionsDual::F_loxim;
+                        case "mbt_s" -> ProjectionsDual::F_mbt_s;
+                        case "nell_h" -> ProjectionsDual::F_nell_h;
+                        case "parab" -> ProjectionsDual::F_parab;
+                        case "pers" -> ProjectionsDual::F_pers;
+                        case "persn" -> ProjectionsDual::F_persn;
+                        case "poly" -> ProjectionsDual::F_poly;
+                        case "putp1" -> ProjectionsDual::F_putp1;
+                        case "putp3" -> ProjectionsDual::F_putp3;
+                        case "putp3p" -> ProjectionsDual::F_putp3p;
+                        case "putp5" -> ProjectionsDual::F_putp5;
+                        case "putp5p" -> ProjectionsDual::F_putp5p;
+                        case "qua_aut" -> ProjectionsDual::F_qua_aut;
+                        case "solo" -> ProjectionsDual::F_solo;
+                        case "urm5" -> ProjectionsDual::F_urm5;
+                        case "wag1" -> ProjectionsDual::F_wag1;
+                        case "wag2" -> ProjectionsDual::F_wag2;
+                        case "wag3" -> ProjectionsDual::F_wag3;
+                        case "wag7" -> ProjectionsDual::F_wag7;
+                        case "wer" -> ProjectionsDual::F_wer;
+                        case "wiech" -> ProjectionsDual::F_wiech;
+                        case "wink1" -> ProjectionsDual::F_wink1;
+                        case "wintri" -> ProjectionsDual::F_wintri;
+                        default -> null;
+                };
+        }
+
+
+        public static ICoordFunctionProjDual getYDual(final String id)
+        {
+                //Get dual coordinate function Y = G(lat, lon), null if not available
+                return switch (id) {
+                        case "aitoff" -> ProjectionsDual::G_aitoff;
+                        case "apiel" -> ProjectionsDual::G_apiel;
+                        case "august" -> ProjectionsDual::G_august;
+                        case "behr" -> ProjectionsDual::G_behr;
+                        case "bonne" -> ProjectionsDual::G_bonne;
+                        case "cc" -> ProjectionsDual::G_cc;
+                        case "collg" -> ProjectionsDual::G_collg;
+                        case "crast" -> ProjectionsDual::G_crast;
+                        case "eck1" -> ProjectionsDual::G_eck1;
+                        case "eck2" -> ProjectionsDual::G_eck2;
+                        case "eqc" -> ProjectionsDual::G_eqc;
+                        case "eqdc2" -> ProjectionsDual::G_eqdc2;
+                        case "eqdc3" -> ProjectionsDual::G_eqdc3;
+                        case "fahey" -> ProjectionsDual::G_fahey;
+                        case "fouc" -> ProjectionsDual::G_fouc;
+                        case "fouc_s" -> ProjectionsDual::G_fouc_s;
+                        case "hammer" -> ProjectionsDual::G_hammer;
+                        case "kav5" -> ProjectionsDual::G_kav5;
+                        case "larr" -> ProjectionsDual::G_larr;
+                        case "lask" -> ProjectionsDual::G_lask;
+                        case "leac" -> ProjectionsDual::G_leac;
+                        case "leac2" -> ProjectionsDual::G_leac2;
+                        case "litt" -> ProjectionsDual::G_litt;
+                        case "loxim" -> ProjectionsDual::G_loxim;
+                        case "mbt_s" -> ProjectionsDual::G_mbt_s;
+                        case "nell_h" -> ProjectionsDual::G_nell_h;
+                        case "parab" -> ProjectionsDual::G_parab;
+                        case "pers" -> ProjectionsDual::G_pers;
+                        case "persn" -> ProjectionsDual::G_persn;
+                        case "poly" -> ProjectionsDual::G_poly;
+                        case "putp1" -> ProjectionsDual::G_putp1;
+                        case "putp3" -> ProjectionsDual::G_putp3;
+                        case "putp3p" -> ProjectionsDual::G_putp3p;
+                        case "putp5" -> ProjectionsDual::G_putp5;
+                        case "putp5p" -> ProjectionsDual::G_putp5p;
+                        case "qua_aut" -> ProjectionsDual::G_qua_aut;
+                        case "solo" -> ProjectionsDual::G_solo;
+                        case "urm5" -> ProjectionsDual::G_urm5;
+                        case "wag1" -> ProjectionsDual::G_wag1;
+                        case "wag2" -> ProjectionsDual::G_wag2;
+                        case "wag3" -> ProjectionsDual::G_wag3;
+                        case "wag7" -> ProjectionsDual::G_wag7;
+                        case "wer" -> ProjectionsDual::G_wer;
+                        case "wiech" -> ProjectionsDual::G_wiech;
+                        case "wink1" -> ProjectionsDual::G_wink1;
+                        case "wintri" -> ProjectionsDual::G_wintri;
+                        default -> null;
+                };
+        }
+
+
+        public static Dual F_aitoff(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual A = cos(lat.div(RO)).mult(cos(lonr.div(2.0 * RO)));
+                final Dual theta = acos(A);
+
+                if (Math.abs(theta.getValue()) < MIN_FLOAT)
+                        return new Dual(dx);
+
+                final Dual C = sin(lat.div(RO)).div(sin(theta));
+                final Dual D = C.mult(C).rminus(1.0);
+
+                //Correct D
+                final Dual D2 = (D.getValue() < 0.0 ? new Dual(0.0) : D);
+
+                return R.mult(theta).mult(sqrt(D2)).mult(2.0 * Math.signum(lonr.getValue())).plus(dx);
+        }
+
+
+        public static Dual G_aitoff(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual A = cos(lat.div(RO)).mult(cos(lonr.div(2.0 * RO)));
+                final Dual theta = acos(A);
+
+                if (Math.abs(theta.getValue()) < MIN_FLOAT)
+                        return new Dual(dy);
+
+                final Dual C = sin(lat.div(RO)).div(sin(theta));
+
+                return R.mult(theta).mult(C).plus(dy);
+        }
+
+
+        public static Dual F_apiel(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual A = lat.mult(2.0 / (RO * PI));
+
+                return R.mult(lonr).div(RO).mult(cos(asin(A))).plus(dx);
+        }
+
+
+        public static Dual G_apiel(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return R.mult(lat).div(RO).plus(dy);
+        }
+
+
+        public static Dual F_august(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual T = tan(lat.mult(0.5 / RO));
+                final Dual C1 = sqrt(T.mult(T).rminus(1.0));
+                final Dual C = C1.mult(cos(lonr.mult(0.5 / RO))).plus(1.0);
+
+                //Lagrange coordinates
+                final Dual xl = sin(lonr.mult(0.5 / RO)).mult(C1).div(C);
+                final Dual yl = T.div(C);
+
+                return R.mult(xl).mult(xl.mult(xl).plus(3.0).minus(yl.mult(yl).mult(3.0))).mult(4.0 / 3.0).plus(dx);
+        }
+
+
+        public static Dual G_august(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual T = tan(lat.mult(0.5 / RO));
+                final Dual C1 = sqrt(T.mult(T).rminus(1.0));
+                final Dual C = C1.mult(cos(lonr.mult(0.5 / RO))).plus(1.0);
+
+                //Lagrange coordinates
+                final Dual xl = sin(lonr.mult(0.5 / RO)).mult(C1).div(C);
+                final Dual yl = T.div(C);
+
+                return R.mult(yl).mult(xl.mult(xl).mult(3.0).plus(3.0).minus(yl.mult(yl))).mult(4.0 / 3.0).plus(dy);
+        }
+
+
+        public static Dual F_behr(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+
+                return R.mult(lonr).mult(Math.cos(30.0 / RO) / RO).plus(dx);
+        }
+
+
+        public static Dual G_behr(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return R.mult(sin(lat.div(RO))).div(Math.cos(30.0 / RO)).plus(dy);
+        }
+
+
+        public static Dual F_bonne(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual rho0 = R.div(tan(lat1.div(RO)));
+                final Dual rho = rho0.plus(R.mult(lat1.minus(lat)).div(RO));
+                final Dual E = R.mult(lonr).div(RO).mult(cos(lat.div(RO))).div(rho);
+
+                return rho.mult(sin(E)).plus(dx);
+        }
+
+
+        public static Dual G_bonne(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual rho0 = R.div(tan(lat1.div(RO)));
+                final Dual rho = rho0.plus(R.mult(lat1.minus(lat)).div(RO));
+                final Dual E = R.mult(lonr).div(RO).mult(cos(lat.div(RO))).div(rho);
+
+                return rho0.minus(rho.mult(cos(E))).plus(dy);
+        }
+
+
+        public static Dual F_cc(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+
+                return R.mult(lonr).div(RO).mult(cos(lat1.div(RO))).plus(dx);
+        }
+
+
+        public static Dual G_cc(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return R.mult(tan(lat.div(RO))).plus(dy);
+        }
+
+
+        public static Dual F_collg(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final double cx = 2.0 / Math.sqrt(PI);
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+
+                return R.mult(lonr).mult(cx / RO).mult(sqrt(sin(lat.div(RO)).rminus(1.0))).plus(dx);
+        }
+
+
+        public static Dual G_collg(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final double cy = Math.sqrt(PI);
+
+                return R.mult(sqrt(sin(lat.div(RO)).rminus(1.0)).rminus(1.0)).mult(cy).plus(dy);
+        }
+
+
+        public static Dual F_crast(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final double cx = Math.sqrt(3.0 / PI);
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+
+                return R.mult(lonr).mult(cx / RO).mult(cos(lat.mult(2.0 / 3.0 / RO)).mult(2.0).minus(1.0)).plus(dx);
+        }
+
+
+        public static Dual G_crast(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final double cy = Math.sqrt(3.0 * PI);
+
+                return R.mult(sin(lat.div(3.0 * RO))).mult(cy).plus(dy);
+        }
+
+
+        public static Dual F_eck1(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final double cx = 2.0 * Math.sqrt(2.0 / (3.0 * PI));
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+
+                return R.mult(lonr).mult(cx / RO).mult(abs(lat.div(PI * RO)).rminus(1.0)).plus(dx);
+        }
+
+
+        public static Dual G_eck1(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final double cy = 2.0 * Math.sqrt(2.0 / (3.0 * PI));
+
+                return R.mult(lat).mult(cy / RO).plus(dy);
+        }
+
+
+        public static Dual F_eck2(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final double cx = 2.0 / Math.sqrt(6.0 * PI);
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+
+                return R.mult(lonr).mult(cx / RO).mult(sqrt(sin(abs(lat.div(RO))).mult(-3.0).plus(4.0))).plus(dx);
+        }
+
+
+        public static Dual G_eck2(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final double cy = Math.sqrt(2.0 * PI / 3.0);
+
+                return R.mult(sqrt(sin(abs(lat.div(RO))).mult(-3.0).plus(4.0)).rminus(2.0)).mult(cy * Math.signum(lat.getValue())).plus(dy);
+        }
+
+
+        public static Dual F_eqc(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+
+                return R.mult(lonr).mult(cos(lat1.div(RO))).div(RO).plus(dx);
+        }
+
+
+        public static Dual G_eqc(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return R.mult(lat).div(RO).plus(dy);
+        }
+
+
+        public static Dual F_eqdc2(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual rho = R.mult(lat.rminus(90)).div(RO);
+                final Dual n = cos(lat1.div(RO)).div(lat1.rminus(90));
+
+                return rho.mult(sin(n.mult(lonr))).plus(dx);
+        }
+
+
+        public static Dual G_eqdc2(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual rho = R.mult(lat.rminus(90)).div(RO);
+                final Dual n = cos(lat1.div(RO)).div(lat1.rminus(90));
+
+                return rho.neg().mult(cos(n.mult(lonr))).plus(dy);
+        }
+
+
+        public static Dual F_eqdc3(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual A = cos(lat1.div(RO)).minus(cos(lat2.div(RO)));
+                final Dual n = A.div(lat2.minus(lat1)).mult(RO);
+                final Dual B = lat2.div(RO).mult(cos(lat1.div(RO))).minus(lat1.div(RO).mult(cos(lat2.div(RO)))).div(A);
+                final Dual rho = R.mult(B.minus(lat.div(RO)));
+
+                return rho.mult(sin(n.mult(lonr).div(RO))).plus(dx);
+        }
+
+
+        public static Dual G_eqdc3(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual A = cos(lat1.div(RO)).minus(cos(lat2.div(RO)));
+                final Dual n = A.div(lat2.minus(lat1)).mult(RO);
+                final Dual lat0 = lat1.plus(lat2).mult(0.5);
+                final Dual B = lat2.div(RO).mult(cos(lat1.div(RO))).minus(lat1.div(RO).mult(cos(lat2.div(RO)))).div(A);
+                final Dual rho0 = R.mult(B.minus(lat0.div(RO)));
+                final Dual rho = R.mult(B.minus(lat.div(RO)));
+
+                return rho0.minus(rho.mult(cos(n.mult(lonr).div(RO)))).plus(dy);
+        }
+
+
+        public static Dual F_fahey(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual A = tan(lat.div(2.0 * RO));
+                final Dual B = A.mult(A).rminus(1.0);
+
+                return R.mult(lonr).div(RO).mult(cos(lat1.div(RO))).mult(sqrt(B)).plus(dx);
+        }
+
+
+        public static Dual G_fahey(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return R.mult(cos(lat1.div(RO)).plus(1.0)).mult(tan(lat.div(2.0 * RO))).plus(dy);
+        }
+
+
+        public static Dual F_fouc(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final double p = Math.sqrt(PI);
+                final double q = 2.0;
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+
+                return R.mult(lonr).mult(q / p / RO).mult(cos(lat.div(RO))).mult(pow(cos(lat.div(q * RO)), 2)).plus(dx);
+        }
+
+
+        public static Dual G_fouc(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final double p = Math.sqrt(PI);
+                final double q = 2.0;
+
+                return R.mult(tan(lat.div(q * RO))).mult(p).plus(dy);
+        }
+
+
+        public static Dual F_fouc_s(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual A = cos(lat.div(RO));
+                final Dual B = sin(lat1.div(RO));
+                final Dual C = B.plus(B.rminus(1.0).mult(A));
+
+                return R.mult(lonr).div(RO).mult(A).div(C).plus(dx);
+        }
+
+
+        public static Dual G_fouc_s(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual A = sin(lat1.div(RO));
+
+                return R.mult(A.mult(lat).div(RO).plus(A.rminus(1.0).mult(sin(lat.div(RO))))).plus(dy);
+        }
+
+
+        public static Dual F_hammer(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final double W = 0.5;
+                final Dual D = cos(lat.div(RO)).mult(cos(lonr.mult(W / RO))).plus(1.0).rdiv(2.0);
+
+                return R.mult(sqrt(D)).div(W).mult(cos(lat.div(RO))).mult(sin(lonr.mult(W / RO))).plus(dx);
+        }
+
+
+        public static Dual G_hammer(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final double W = 0.5;
+                final Dual D = cos(lat.div(RO)).mult(cos(lonr.mult(W / RO))).plus(1.0).rdiv(2.0);
+
+                return R.mult(sqrt(D)).mult(sin(lat.div(RO))).plus(dy);
+        }
+
+
+        private static Dual FQ(final Dual lat, final Dual lonr, final Dual R, final double p, final double q, final double dx)
+        {
+                //X = q / p * R * lonr * cos(lat) / cos(lat / q), pseudocylindrical projections with the sine of lat / q
+                return R.mult(lonr).mult(q / p / RO).mult(cos(lat.div(RO))).div(cos(lat.div(q * RO))).plus(dx);
+        }
+
+
+        private static Dual GQ(final Dual lat, final Dual R, final double p, final double q, final double dy)
+        {
+                //Y = p * R * sin(lat / q), pseudocylindrical projections with the sine of lat / q
+                return R.mult(sin(lat.div(q * RO))).mult(p).plus(dy);
+        }
+
+
+        public static Dual F_kav5(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return FQ(lat, CartTransformation.redLon0(lon, lon0), R, 1.50488, 1.35439, dx);
+        }
+
+
+        public static Dual G_kav5(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return GQ(lat, R, 1.50488, 1.35439, dy);
+        }
+
+
+        public static Dual F_larr(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual A = cos(lat.div(RO));
+
+                return R.mult(lonr).mult(0.5 / RO).mult(sqrt(A).plus(1.0)).plus(dx);
+        }
+
+
+        public static Dual G_larr(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual A = cos(lat.div(2.0 * RO)).mult(cos(lonr.div(6.0 * RO)));
+
+                return R.mult(lat).div(RO).div(A).plus(dy);
+        }
+
+
+        public static Dual F_lask(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final double a10 = 0.975534;
+                final double a12 = -0.119161;
+                final double a32 = -0.0143059;
+                final double a14 = -0.0547009;
+                final Dual l = lonr.div(RO), f = lat.div(RO);
+                final Dual f2 = f.mult(f);
+
+                return R.mult(l.mult(a10).plus(l.mult(f2).mult(a12)).plus(pow(l, 3).mult(f2).mult(a32)).plus(l.mult(f2).mult(f2).mult(a14))).plus(dx);
+        }
+
+
+        public static Dual G_lask(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final double b01 = 1.00384;
+                final double b21 = 0.0802894;
+                final double b03 = 0.0998909;
+                final double b41 = 0.000199025;
+                final double b23 = -0.0285500;
+                final double b05 = -0.0491032;
+                final Dual l = lonr.div(RO), f = lat.div(RO);
+                final Dual l2 = l.mult(l), f3 = pow(f, 3);
+
+                return R.mult(f.mult(b01).plus(l2.mult(f).mult(b21)).plus(f3.mult(b03)).plus(l2.mult(l2).mult(f).mult(b41)).plus(l2.mult(f3).mult(b23)).plus(pow(f, 5).mult(b05))).plus(dy);
+        }
+
+
+        public static Dual F_leac(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual n = sin(lat1.div(RO));
+                final Dual rho0 = R.div(tan(lat1.div(RO)));
+                final Dual rho = sqrt(rho0.mult(rho0).plus(R.mult(R).mult(2.0).div(n).mult(n.minus(sin(lat.div(RO))))));
+
+                return rho.mult(sin(n.mult(lonr).div(RO))).plus(dx);
+        }
+
+
+        public static Dual G_leac(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual n = sin(lat1.div(RO));
+                final Dual rho0 = R.div(tan(lat1.div(RO)));
+                final Dual rho = sqrt(rho0.mult(rho0).plus(R.mult(R).mult(2.0).div(n).mult(n.minus(sin(lat.div(RO))))));
+
+                return rho0.minus(rho.mult(cos(n.mult(lonr).div(RO)))).plus(dy);
+        }
+
+
+        public static Dual F_leac2(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual n = sin(lat1.div(RO)).plus(1.0).div(2.0);
+                final Dual B = sin(lat.div(RO)).rminus(1.0).mult(2.0).div(n);
+                final Dual rho = R.mult(sqrt(B));
+
+                return rho.mult(sin(n.mult(lonr).div(RO))).plus(dx);
+        }
+
+
+        public static Dual G_leac2(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual n = sin(lat1.div(RO)).plus(1.0).div(2.0);
+                final Dual B = sin(lat.div(RO)).rminus(1.0).mult(2.0).div(n);
+                final Dual rho = R.mult(sqrt(B));
+                final Dual C = sin(lat1.div(RO)).rminus(1.0).mult(2.0).div(n);
+                final Dual rho0 = R.mult(sqrt(C));
+
+                return rho0.minus(rho.mult(cos(n.mult(lonr).div(RO)))).plus(dy);
+        }
+
+
+        public static Dual F_litt(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+
+                return R.mult(sin(lonr.div(RO))).div(cos(lat.div(RO))).plus(dx);
+        }
+
+
+        public static Dual G_litt(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                Dual lonr = CartTransformation.redLon0(lon, lon0);
+
+                //Correct lonr > 90
+                if (lonr.getValue() > 90)
+                        lonr = lonr.rminus(180);
+
+                //Correct lonr < -90
+                else if (lonr.getValue() < -90)
+                        lonr = lonr.rminus(-180);
+
+                return R.mult(tan(lat.div(RO))).mult(cos(lonr.div(RO))).plus(dy);
+        }
+
+
+        public static Dual F_loxim(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual dlat = lat.minus(lat1);
+
+                if (Math.abs(dlat.getValue()) < MAX_ANGULAR_DIFF)
+                        return R.mult(lonr).div(RO).mult(cos(lat1.div(RO))).plus(dx);
+
+                final Dual A = lat.mult(0.5).plus(45);
+                final Dual B = lat1.mult(0.5).plus(45);
+
+                if ((Math.abs(A.getValue()) < MAX_ANGULAR_DIFF) || (Math.abs(Math.abs(A.getValue()) - 90) < MAX_ANGULAR_DIFF))
+                        return new Dual(dx);
+
+                return R.mult(lonr).div(RO).mult(dlat).div(RO).div(log(tan(A.div(RO))).minus(log(tan(B.div(RO))))).plus(dx);
+        }
+
+
+        public static Dual G_loxim(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return R.mult(lat.minus(lat1)).div(RO).plus(dy);
+        }
+
+
+        public static Dual F_mbt_s(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return FQ(lat, CartTransformation.redLon0(lon, lon0), R, 1.48875, 1.36509, dx);
+        }
+
+
+        public static Dual G_mbt_s(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return GQ(lat, R, 1.48875, 1.36509, dy);
+        }
+
+
+        public static Dual F_nell_h(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+
+                return R.mult(lonr).mult(0.5 / RO).mult(cos(lat.div(RO)).plus(1.0)).plus(dx);
+        }
+
+
+        public static Dual G_nell_h(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return R.mult(lat.div(RO).minus(tan(lat.div(2.0 * RO)))).mult(2.0).plus(dy);
+        }
+
+
+        public static Dual F_parab(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return F_crast(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+        }
+
+
+        public static Dual G_parab(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return G_crast(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+        }
+
+
+        public static Dual F_pers(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final double h = Math.sqrt(5.0);
+                final Dual A = sin(lat.div(RO)).rminus(1.0).div(-h).plus(1.0);
+                final Dual rho = R.mult(cos(lat.div(RO))).div(A);
+
+                return rho.mult(sin(lonr.div(RO))).plus(dx);
+        }
+
+
+        public static Dual G_pers(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final double h = Math.sqrt(5.0);
+                final Dual A = sin(lat.div(RO)).rminus(1.0).div(-h).plus(1.0);
+                final Dual rho = R.mult(cos(lat.div(RO))).div(A);
+
+                return rho.neg().mult(cos(lonr.div(RO))).plus(dy);
+        }
+
+
+        public static Dual F_persn(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual A = sin(lat.div(RO)).plus(1.0).div(c).plus(1.0);
+                final Dual rho = R.mult(cos(lat.div(RO))).div(A);
+
+                return rho.mult(sin(lonr.div(RO))).plus(dx);
+        }
+
+
+        public static Dual G_persn(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual A = sin(lat.div(RO)).plus(1.0).div(c).plus(1.0);
+                final Dual rho = R.mult(cos(lat.div(RO))).div(A);
+
+                return rho.neg().mult(cos(lonr.div(RO))).plus(dy);
+        }
+
+
+        public static Dual F_poly(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+
+                //If lat = 0
+                if (Math.abs(lat.getValue()) < MAX_ANGULAR_DIFF)
+                        return R.mult(lonr).div(RO).plus(dx);
+
+                //Otherwise
+                final Dual delta = lonr.div(RO).mult(sin(lat.div(RO)));
+                final Dual rho = R.div(tan(lat.div(RO)));
+
+                return rho.mult(sin(delta)).plus(dx);
+        }
+
+
+        public static Dual G_poly(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+
+                //If lat = 0
+                if (Math.abs(lat.getValue()) < MAX_ANGULAR_DIFF)
+                        return R.mult(lat1).div(-RO).plus(dy);
+
+                //Otherwise
+                final Dual delta = lonr.div(RO).mult(sin(lat.div(RO)));
+                final Dual rho = R.div(tan(lat.div(RO)));
+                final Dual S = R.mult(lat.minus(lat1)).div(RO);
+
+                return S.plus(rho.mult(cos(delta).rminus(1.0))).plus(dy);
+        }
+
+
+        private static Dual FP(final Dual lat, final Dual lonr, final Dual R, final double cx, final double A, final double B, final double dx)
+        {
+                //X = cx * R * lonr * (A - sqrt(B + 12 * (lat / PI)^2)), Putnins P5 projections
+                return R.mult(lonr).mult(cx / RO).mult(sqrt(pow(lat.div(RO * PI), 2).mult(12.0).plus(B)).rminus(A)).plus(dx);
+        }
+
+
+        public static Dual F_putp1(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final double cx = 0.94745;
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual D = pow(lat.div(RO * PI), 2).mult(-3.0).plus(1.0);
+
+                return R.mult(lonr).mult(cx / RO).mult(sqrt(D)).plus(dx);
+        }
+
+
+        public static Dual G_putp1(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return R.mult(lat).mult(0.94745 / RO).plus(dy);
+        }
+
+
+        public static Dual F_putp3(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final double cx = Math.sqrt(2.0 / PI);
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+
+                return R.mult(lonr).mult(cx / RO).mult(pow(lat.div(RO * PI), 2).mult(-4.0).plus(1.0)).plus(dx);
+        }
+
+
+        public static Dual G_putp3(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return R.mult(lat).mult(Math.sqrt(2.0 / PI) / RO).plus(dy);
+        }
+
+
+        public static Dual F_putp3p(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final double cx = Math.sqrt(2.0 / PI);
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+
+                return R.mult(lonr).mult(cx / RO).mult(pow(lat.div(RO * PI), 2).mult(-2.0).plus(1.0)).plus(dx);
+        }
+
+
+        public static Dual G_putp3p(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return R.mult(lat).mult(Math.sqrt(2.0 / PI) / RO).plus(dy);
+        }
+
+
+        public static Dual F_putp5(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return FP(lat, CartTransformation.redLon0(lon, lon0), R, 1.01346, 2.0, 1.0, dx);
+        }
+
+
+        public static Dual G_putp5(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return R.mult(lat).mult(1.01346 / RO).plus(dy);
+        }
+
+
+        public static Dual F_putp5p(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return FP(lat, CartTransformation.redLon0(lon, lon0), R, 1.01346, 1.5, 0.5, dx);
+        }
+
+
+        public static Dual G_putp5p(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return R.mult(lat).mult(1.01346 / RO).plus(dy);
+        }
+
+
+        public static Dual F_qua_aut(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return FQ(lat, CartTransformation.redLon0(lon, lon0), R, 2.0, 2.0, dx);
+        }
+
+
+        public static Dual G_qua_aut(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return GQ(lat, R, 2.0, 2.0, dy);
+        }
+
+
+        public static Dual F_solo(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual rho = R.mult(tan(lat.rminus(90).div(4.0 * RO))).mult(4.0);
+
+                return rho.mult(sin(lonr.div(RO))).plus(dx);
+        }
+
+
+        public static Dual G_solo(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual rho = R.mult(tan(lat.rminus(90).div(4.0 * RO))).mult(4.0);
+
+                return rho.neg().mult(cos(lonr.div(RO))).plus(dy);
+        }
+
+
+        public static Dual F_urm5(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final double m = 2.0 * Math.pow(3, 0.25) / 3.0;
+                final double n = 0.8;
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual theta = asin(sin(lat.div(RO)).mult(n));
+
+                return R.mult(lonr).mult(m / RO).mult(cos(theta)).plus(dx);
+        }
+
+
+        public static Dual G_urm5(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final double m = 2.0 * Math.pow(3, 0.25) / 3.0;
+                final double n = 0.8;
+                final double q = 0.414524;
+                final Dual theta = asin(sin(lat.div(RO)).mult(n));
+
+                return R.mult(theta).mult(theta.mult(theta).mult(q / 3.0).plus(1.0)).div(m * n).plus(dy);
+        }
+
+
+        public static Dual F_wag1(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final double M = 2.0 * Math.sqrt(Math.sqrt(3)) / 3.0;
+                final double N = 0.5 * Math.sqrt(3);
+                final Dual theta = asin(sin(lat.div(RO)).mult(N));
+
+                return R.mult(lonr).mult(M / RO).mult(cos(theta)).plus(dx);
+        }
+
+
+        public static Dual G_wag1(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final double M = 2.0 * Math.sqrt(Math.sqrt(3)) / 3.0;
+                final double N = 0.5 * Math.sqrt(3);
+                final Dual theta = asin(sin(lat.div(RO)).mult(N));
+
+                return R.mult(theta).mult(3.0 * M * N / 2.0).plus(dy);
+        }
+
+
+        public static Dual F_wag2(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final double c1 = 0.88022;
+                final double c2 = 0.88550;
+                final double c3 = 0.92483;
+                final Dual theta = asin(sin(lat.mult(c2 / RO)).mult(c1));
+
+                return R.mult(lonr).mult(c3 / RO).mult(cos(theta)).plus(dx);
+        }
+
+
+        public static Dual G_wag2(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final double c1 = 0.88022;
+                final double c2 = 0.88550;
+                final double c4 = 1.38725;
+                final Dual theta = asin(sin(lat.mult(c2 / RO)).mult(c1));
+
+                return R.mult(theta).mult(c4).plus(dy);
+        }
+
+
+        public static Dual F_wag3(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final Dual A = lat1.div(RO);
+                final Dual B = cos(A.mult(2.0 / 3.0));
+
+                return R.mult(lonr).div(RO).mult(cos(A).div(B)).mult(cos(lat.mult(2.0 / 3.0 / RO))).plus(dx);
+        }
+
+
+        public static Dual G_wag3(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return R.mult(lat).div(RO).plus(dy);
+        }
+
+
+        public static Dual F_wag7(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final double cx = 2.66723;
+                final Dual sin_th = sin(lat.div(RO)).mult(Math.sin(65.0 / RO));
+                final Dual cos_th = sqrt(sin_th.mult(sin_th).rminus(1.0));
+                final Dual cos_al = sqrt(cos_th.mult(cos(lonr.div(3.0 * RO))).plus(1.0).mult(0.5));
+
+                return R.mult(cos_th).div(cos_al).mult(sin(lonr.div(3.0 * RO))).mult(cx).plus(dx);
+        }
+
+
+        public static Dual G_wag7(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+                final double cy = 1.24104;
+                final Dual sin_th = sin(lat.div(RO)).mult(Math.sin(65.0 / RO));
+                final Dual cos_th = sqrt(sin_th.mult(sin_th).rminus(1.0));
+                final Dual cos_al = sqrt(cos_th.mult(cos(lonr.div(3.0 * RO))).plus(1.0).mult(0.5));
+
+                return R.mult(sin_th).div(cos_al).mult(cy).plus(dy);
+        }
+
+
+        public static Dual F_wer(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+
+                if (Math.abs(90 - lat.getValue()) < MAX_ANGULAR_DIFF)
+                        return new Dual(dx);
+
+                final Dual A = lat.rminus(90);
+
+                return R.mult(A).div(RO).mult(sin(lonr.mult(cos(lat.div(RO))).div(A))).plus(dx);
+        }
+
+
+        public static Dual G_wer(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+
+                if (Math.abs(90 - lat.getValue()) < MAX_ANGULAR_DIFF)
+                        return new Dual(dy);
+
+                final Dual A = lat.rminus(90);
+
+                return R.mult(A).div(-RO).mult(cos(lonr.mult(cos(lat.div(RO))).div(A))).plus(dy);
+        }
+
+
+        public static Dual F_wiech(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+
+                return R.mult(sin(lonr.div(RO)).mult(cos(lat.div(RO))).minus(cos(lonr.div(RO)).mult(sin(lat.div(RO)).rminus(1.0)))).plus(dx);
+        }
+
+
+        public static Dual G_wiech(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+
+                return R.neg().mult(cos(lonr.div(RO)).mult(cos(lat.div(RO))).plus(sin(lonr.div(RO)).mult(sin(lat.div(RO)).rminus(1.0)))).plus(dy);
+        }
+
+
+        public static Dual F_wink1(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                final Dual lonr = CartTransformation.redLon0(lon, lon0);
+
+                return R.mult(lonr).mult(cos(lat1.div(RO)).plus(cos(lat.div(RO)))).mult(0.5 / RO).plus(dx);
+        }
+
+
+        public static Dual G_wink1(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                return R.mult(lat).div(RO).plus(dy);
+        }
+
+
+        public static Dual F_wintri(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                //Average of the Aitoff and equidistant cylindrical projections
+                final Dual X1 = F_aitoff(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                final Dual X2 = F_eqc(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+
+                return X1.plus(X2).mult(0.5);
+        }
+
+
+        public static Dual G_wintri(final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c)
+        {
+                //Average of the Aitoff and equidistant cylindrical projections
+                final Dual Y1 = G_aitoff(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                final Dual Y2 = G_eqc(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+
+                return Y1.plus(Y2).mult(0.5);
+        }
+}
@@ -0,0 +1,598 @@
+// Description: Compiled coordinate functions of the projections with fixed parameters
+// Invariants depending only on the projection parameters (cone constants, rho0, trigonometric
+// functions of the standard parallels) are evaluated once, when the kernel is compiled.
+// The same equations as in Projections, singular points are passed to the scalar coordinate
+// functions throwing the exception.
+// Projections without compiled coordinate functions return null (scalar functions are used instead)
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.structures.projection;
+
+import static java.lang.Math.*;
+
+import detectprojv2j.types.ICoordFunctionProj;
+import detectprojv2j.types.ICoordFunctionProjKernel;
+
+import static detectprojv2j.consts.Consts.*;
+
+import detectprojv2j.algorithms.carttransformation.CartTransformation;
+import detectprojv2j.algorithms.newtonraphson.ThetaSolver;
+import detectprojv2j.algorithms.numericinverse.NumericInverse;
+
+
+public class ProjectionsKernel {
+
+        public static ICoordFunctionProjKernel compileXY(final String id, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                //Compile coordinate functions (X, Y) = (F, G)(lat, lon), null if not available
+                return switch (id) {
+                        case "aea" -> XY_aea(R, lat1, lat2, lon0, dx, dy, c);
+                        case "cea" -> XY_cea(R, lat1, lat2, lon0, dx, dy, c);
+                        case "eck4" -> XY_eck4(R, lat1, lat2, lon0, dx, dy, c);
+                        case "eck6" -> XY_eck6(R, lat1, lat2, lon0, dx, dy, c);
+                        case "eqc" -> XY_eqc(R, lat1, lat2, lon0, dx, dy, c);
+                        case "eqdc" -> XY_eqdc(R, lat1, lat2, lon0, dx, dy, c);
+                        case "hataea" -> XY_hataea(R, lat1, lat2, lon0, dx, dy, c);
+                        case "lcc" -> XY_lcc(R, lat1, lat2, lon0, dx, dy, c);
+                        case "leac" -> XY_leac(R, lat1, lat2, lon0, dx, dy, c);
+                        case "merc" -> XY_merc(R, lat1, lat2, lon0, dx, dy, c);
+                        case "mill" -> XY_mill(R, lat1, lat2, lon0, dx, dy, c);
+                        case "moll" -> XY_moll(R, lat1, lat2, lon0, dx, dy, c);
+                        case "nell" -> XY_nell(R, lat1, lat2, lon0, dx, dy, c);
+                        case "putp2" -> XY_putp2(R, lat1, lat2, lon0, dx, dy, c);
+                        case "wag4" -> XY_wag4(R, lat1, lat2, lon0, dx, dy, c);
+                        default -> null;
+                };
+        }
+
+
+        public static ICoordFunctionProjKernel compileLatLon(final String id, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                //Compile inverse coordinate functions (lat, lon) = (F_inv, G_inv)(X, Y), null if not available
+                return switch (id) {
+                        case "cea" -> LatLon_cea(R, lat1, lat2, lon0, dx, dy, c);
+                        case "eqc" -> LatLon_eqc(R, lat1, lat2, lon0, dx, dy, c);
+                        case "merc" -> LatLon_merc(R, lat1, lat2, lon0, dx, dy, c);
+
+                        //Projections without the analytic inverse
+                        case "adamh" -> LatLon_numeric(Projections::F_adamh, Projections::G_adamh, R, lat1, lat2, lon0, dx, dy, c);
+                        case "adams1" -> LatLon_numeric(Projections::F_adams1, Projections::G_adams1, R, lat1, lat2, lon0, dx, dy, c);
+                        case "adams2" -> LatLon_numeric(Projections::F_adams2, Projections::G_adams2, R, lat1, lat2, lon0, dx, dy, c);
+                        case "api" -> LatLon_numeric(Projections::F_api, Projections::G_api, R, lat1, lat2, lon0, dx, dy, c);
+                        case "bacon" -> LatLon_numeric(Projections::F_bacon, Projections::G_bacon, R, lat1, lat2, lon0, dx, dy, c);
+                        case "breus" -> LatLon_numeric(Projections::F_breus, Projections::G_breus, R, lat1, lat2, lon0, dx, dy, c);
+                        case "cwe" -> LatLon_numeric(Projections::F_cwe, Projections::G_cwe, R, lat1, lat2, lon0, dx, dy, c);
+                        case "eisen" -> LatLon_numeric(Projections::F_eisen, Projections::G_eisen, R, lat1, lat2, lon0, dx, dy, c);
+                        case "fourn" -> LatLon_numeric(Projections::F_fourn, Projections::G_fourn, R, lat1, lat2, lon0, dx, dy, c);
+                        case "fourn2" -> LatLon_numeric(Projections::F_fourn2, Projections::G_fourn2, R, lat1, lat2, lon0, dx, dy, c);
+                        case "goode" -> LatLon_numeric(Projections::F_goode, Projections::G_goode, R, lat1, lat2, lon0, dx, dy, c);
+                        case "guyou" -> LatLon_numeric(Projections::F_guyou, Projections::G_guyou, R, lat1, lat2, lon0, dx, dy, c);
+                        case "mbt_s3" -> LatLon_numeric(Projections::F_mbt_s3, Projections::G_mbt_s3, R, lat1, lat2, lon0, dx, dy, c);
+                        case "mbtfps2" -> LatLon_numeric(Projections::F_mbtfps2, Projections::G_mbtfps2, R, lat1, lat2, lon0, dx, dy, c);
+                        case "ortel" -> LatLon_numeric(Projections::F_ortel, Projections::G_ortel, R, lat1, lat2, lon0, dx, dy, c);
+                        case "parab" -> LatLon_numeric(Projections::F_parab, Projections::G_parab, R, lat1, lat2, lon0, dx, dy, c);
+                        case "peiq" -> LatLon_numeric(Projections::F_peiq, Projections::G_peiq, R, lat1, lat2, lon0, dx, dy, c);
+                        case "putp6p" -> LatLon_numeric(Projections::F_putp6p, Projections::G_putp6p, R, lat1, lat2, lon0, dx, dy, c);
+                        case "wag1" -> LatLon_numeric(Projections::F_wag1, Projections::G_wag1, R, lat1, lat2, lon0, dx, dy, c);
+                        case "wiech" -> LatLon_numeric(Projections::F_wiech, Projections::G_wiech, R, lat1, lat2, lon0, dx, dy, c);
+                        default -> null;
+                };
+        }
+
+
+        public static ICoordFunctionProjKernel compile(final ICoordFunctionProj F, final ICoordFunctionProj G, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                //Compiled coordinate functions evaluating the scalar coordinate functions
+                return (u, v, x, y) ->
+                {
+                        x[0] = F.f(u, v, R, lat1, lat2, lon0, dx, dy, c);
+                        y[0] = G.f(u, v, R, lat1, lat2, lon0, dx, dy, c);
+                };
+        }
+
+
+        public static ICoordFunctionProjKernel LatLon_numeric(final ICoordFunctionProj F, final ICoordFunctionProj G, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                //Numeric inverse of the coordinate functions, the lookup grid is built by the first inversion
+                //On input, x and y store the initial solution (the previous neighbouring point)
+                final NumericInverse inverse = new NumericInverse(F, G, R, lat1, lat2, lon0, dx, dy, c);
+
+                return inverse::XYToLatLon;
+        }
+
+
+        public static ICoordFunctionProjKernel XY_aea(final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                final double n = 0.5 * (sin(lat1 / RO) + sin(lat2 / RO));
+                
+                //Singular parameters: use scalar coordinate functions
+                if (abs(n) < MIN_FLOAT)
+                        return null;
+                
+                final double B = cos(lat1 / RO) * cos(lat1 / RO);
+                final double C = B + 2 * n * sin(lat1 / RO);
+                final double E = C - 2 * n * sin(lat1 / RO);
+                
+                //Singular parameters: use scalar coordinate functions
+                if (E < 0)
+                        return null;
+                
+                final double rho0 = R * sqrt(E) / n;
+
+                return (lat, lon, X, Y) ->
+                {
+                        final double lonr = CartTransformation.redLon0(lon, lon0);
+                        final double D = C - 2 * n * sin(lat / RO);
+                        final double rho = R * sqrt(D) / n;
+
+                        X[0] = rho * sin(n * lonr / RO) + dx;
+                        Y[0] = rho0 - rho * cos(n * lonr / RO) + dy;
+
+                        //Throw exception
+                        if (D < 0 || abs(X[0]) > MAX_FLOAT || abs(Y[0]) > MAX_FLOAT)
+                        {
+                                X[0] = Projections.F_aea(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                                Y[0] = Projections.G_aea(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                };
+        }
+
+
+        public static ICoordFunctionProjKernel XY_cea(final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                final double cos_lat1 = cos(lat1 / RO);
+
+                return (lat, lon, X, Y) ->
+                {
+                        final double lonr = CartTransformation.redLon0(lon, lon0);
+
+                        X[0] = R * lonr * cos_lat1 / RO + dx;
+                        Y[0] = R * sin(lat / RO) + dy;
+
+                        //Throw exception
+                        if (abs(X[0]) > MAX_FLOAT || abs(Y[0]) > MAX_FLOAT)
+                        {
+                                X[0] = Projections.F_cea(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                                Y[0] = Projections.G_cea(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                };
+        }
+
+
+        public static ICoordFunctionProjKernel LatLon_cea(final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                //Singular parameters: use scalar coordinate functions
+                if (abs(lat1) > MAX_LAT - MAX_ANGULAR_DIFF)
+                        return null;
+                
+                final double R_cos_lat1 = R * cos(lat1 / RO);
+
+                return (X, Y, lat, lon) ->
+                {
+                        //Inverse equations
+                        final double arg = (Y - dy) / R;
+                        final double lat_p = asin(arg) * RO;
+                        final double lonr = (X - dx) / R_cos_lat1 * RO;
+
+                        //Throw exception
+                        if (abs(X) > MAX_FLOAT || abs(Y) > MAX_FLOAT || abs(arg) > 1.0 || abs(lat_p) > MAX_LAT || abs(lonr) > MAX_LON)
+                        {
+                                lat[0] = Projections.FI_cea(X, Y, R, lat1, lat2, lon0, dx, dy, c);
+                                lon[0] = Projections.GI_cea(X, Y, R, lat1, lat2, lon0, dx, dy, c);
+                                return;
+                        }
+
+                        lat[0] = lat_p;
+                        lon[0] = CartTransformation.redLon0(lonr, -lon0);
+                };
+        }
+
+
+        public static ICoordFunctionProjKernel XY_eqc(final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                final double cos_lat1 = cos(lat1 / RO);
+
+                return (lat, lon, X, Y) ->
+                {
+                        final double lonr = CartTransformation.redLon0(lon, lon0);
+
+                        X[0] = R * lonr * cos_lat1 / RO + dx;
+                        Y[0] = R * lat / RO + dy;
+
+                        //Throw exception
+                        if (abs(X[0]) > MAX_FLOAT || abs(Y[0]) > MAX_FLOAT)
+                        {
+                                X[0] = Projections.F_eqc(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                                Y[0] = Projections.G_eqc(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                };
+        }
+
+
+        public static ICoordFunctionProjKernel LatLon_eqc(final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                //Singular parameters: use scalar coordinate functions
+                if (abs(lat1) > MAX_LAT - MAX_ANGULAR_DIFF)
+                        return null;
+                
+                final double R_cos_lat1 = R * cos(lat1 / RO);
+
+                return (X, Y, lat, lon) ->
+                {
+                        //Inverse equations
+                        final double lat_p = (Y - dy) / R * RO;
+                        final double lonr = (X - dx) / R_cos_lat1 * RO;
+
+                        //Throw exception
+                        if (abs(X) > MAX_FLOAT || abs(Y) > MAX_FLOAT || abs(lat_p) > MAX_LAT || abs(lonr) > MAX_LON)
+                        {
+                                lat[0] = Projections.FI_eqc(X, Y, R, lat1, lat2, lon0, dx, dy, c);
+                                lon[0] = Projections.GI_eqc(X, Y, R, lat1, lat2, lon0, dx, dy, c);
+                                return;
+                        }
+
+                        lat[0] = lat_p;
+                        lon[0] = CartTransformation.redLon0(lonr, -lon0);
+                };
+        }
+
+
+        public static ICoordFunctionProjKernel XY_eqdc(final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                final double A = tan(lat1 / RO);
+                
+                //Singular parameters: use scalar coordinate functions
+                if (abs(A) < MIN_FLOAT)
+                        return null;
+                
+                final double rho0 = R / A;
+                final double n = sin(lat1 / RO);
+
+                return (lat, lon, X, Y) ->
+                {
+                        final double lonr = CartTransformation.redLon0(lon, lon0);
+                        final double rho = rho0 + R * (lat1 - lat) / RO;
+
+                        X[0] = rho * sin(n * lonr / RO) + dx;
+                        Y[0] = rho0 - rho * cos(n * lonr / RO) + dy;
+
+                        //Throw exception
+                        if (abs(X[0]) > MAX_FLOAT || abs(Y[0]) > MAX_FLOAT)
+                        {
+                                X[0] = Projections.F_eqdc(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                                Y[0] = Projections.G_eqdc(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                };
+        }
+
+
+        public static ICoordFunctionProjKernel XY_lcc(final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                final double A = tan(lat1 / RO);
+                
+                //Singular parameters: use scalar coordinate functions
+                if (abs(A) < MIN_FLOAT)
+                        return null;
+                
+                final double n = sin(lat1 / RO);
+                final double rho0 = R / A;
+                final double B = tan((lat1 / 2.0 + 45) / RO);
+
+                return (lat, lon, X, Y) ->
+                {
+                        final double lonr = CartTransformation.redLon0(lon, lon0);
+                        final double C = tan((lat / 2.0 + 45) / RO);
+                        final double D = B / C;
+                        final double rho = rho0 * pow((D), n);
+
+                        X[0] = rho * sin(n * lonr / RO) + dx;
+                        Y[0] = rho0 - rho * cos(n * lonr / RO) + dy;
+
+                        //Throw exception
+                        if (abs(C) > MAX_FLOAT || D < 0 || abs(X[0]) > MAX_FLOAT || abs(Y[0]) > MAX_FLOAT)
+                        {
+                                X[0] = Projections.F_lcc(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                                Y[0] = Projections.G_lcc(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                };
+        }
+
+
+        public static ICoordFunctionProjKernel XY_leac(final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                final double A = tan(lat1 / RO);
+                final double n = sin(lat1 / RO);
+                
+                //Singular parameters: use scalar coordinate functions
+                if (abs(A) < MIN_FLOAT || abs(n) < MIN_FLOAT)
+                        return null;
+                
+                final double rho0 = R / A;
+                final double rho02 = rho0 * rho0;
+                final double B = 2.0 * R * R / n;
+
+                return (lat, lon, X, Y) ->
+                {
+                        final double lonr = CartTransformation.redLon0(lon, lon0);
+                        final double rho = sqrt(rho02 + B * (n - sin(lat / RO)));
+
+                        X[0] = rho * sin(n * lonr / RO) + dx;
+                        Y[0] = rho0 - rho * cos(n * lonr / RO) + dy;
+
+                        //Throw exception
+                        if (abs(X[0]) > MAX_FLOAT || abs(Y[0]) > MAX_FLOAT)
+                        {
+                                X[0] = Projections.F_leac(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                                Y[0] = Projections.G_leac(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                };
+        }
+
+
+        public static ICoordFunctionProjKernel XY_merc(final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                final double cos_lat1 = cos(lat1 / RO);
+
+                return (lat, lon, X, Y) ->
+                {
+                        final double lonr = CartTransformation.redLon0(lon, lon0);
+                        final double A = tan((lat / 2.0 + 45) / RO);
+
+                        X[0] = R * lonr * cos_lat1 / RO + dx;
+                        Y[0] = R * log(A) + dy;
+
+                        //Throw exception
+                        if (abs(lat) == MAX_LAT || A <= 0 || abs(X[0]) > MAX_FLOAT || abs(Y[0]) > MAX_FLOAT)
+                        {
+                                X[0] = Projections.F_merc(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                                Y[0] = Projections.G_merc(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                };
+        }
+
+
+        public static ICoordFunctionProjKernel LatLon_merc(final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                //Singular parameters: use scalar coordinate functions
+                if (abs(lat1) > MAX_LAT - MAX_ANGULAR_DIFF)
+                        return null;
+                
+                final double R_cos_lat1 = R * cos(lat1 / RO);
+
+                return (X, Y, lat, lon) ->
+                {
+                        //Inverse equations
+                        final double lat_p = 90 - 2 * atan(exp( -(Y - dy) / R)) * RO;
+                        final double lonr = (X - dx) / R_cos_lat1 * RO;
+
+                        //Throw exception
+                        if (abs(X) > MAX_FLOAT || abs(Y) > MAX_FLOAT || abs(lat_p) > MAX_LAT || abs(lonr) > MAX_LON)
+                        {
+                                lat[0] = Projections.FI_merc(X, Y, R, lat1, lat2, lon0, dx, dy, c);
+                                lon[0] = Projections.GI_merc(X, Y, R, lat1, lat2, lon0, dx, dy, c);
+                                return;
+                        }
+
+                        lat[0] = lat_p;
+                        lon[0] = CartTransformation.redLon0(lonr, -lon0);
+                };
+        }
+
+
+        public static ICoordFunctionProjKernel XY_mill(final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                final double cos_lat1 = cos(lat1 / RO);
+
+                return (lat, lon, X, Y) ->
+                {
+                        final double lonr = CartTransformation.redLon0(lon, lon0);
+                        final double A = tan((0.4 * lat + 45) / RO);
+
+                        X[0] = R * lonr * cos_lat1 / RO + dx;
+                        Y[0] = R * log(A) / 0.8 + dy;
+
+                        //Throw exception
+                        if (A <= 0 || abs(X[0]) > MAX_FLOAT || abs(Y[0]) > MAX_FLOAT)
+                        {
+                                X[0] = Projections.F_mill(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                                Y[0] = Projections.G_mill(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                };
+        }
+
+
+        public static ICoordFunctionProjKernel XY_eck4(final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                final double c1 = 2.0 / sqrt(PI * (4.0 + PI));
+                final double c2 = 2.0 * sqrt(PI / (4.0 + PI));
+
+                //Warm-started solver of theta, the previous point is the initial solution
+                final ThetaSolver solver = new ThetaSolver(Projections::FTheta_eck4, Projections::FThetaDer_eck4, Projections::FThetaDer2_eck4, MAX_NR_ITERATIONS, MAX_NR_ERROR);
+
+                return (lat, lon, X, Y) ->
+                {
+                        final double lonr = CartTransformation.redLon0(lon, lon0);
+                        final double latr = lat / RO;
+                        final double theta = solver.findRoot(lat, (0.895168 * latr + 0.0218849 * latr * latr * latr + 0.00806809 * latr * latr * latr * latr * latr) * RO);
+
+                        X[0] = c1 * R * lonr / RO * (1.0 + cos(theta / RO)) + dx;
+                        Y[0] = c2 * R * sin(theta / RO) + dy;
+
+                        //Throw exception
+                        if (abs(X[0]) > MAX_FLOAT || abs(Y[0]) > MAX_FLOAT)
+                        {
+                                X[0] = Projections.F_eck4(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                                Y[0] = Projections.G_eck4(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                };
+        }
+
+
+        public static ICoordFunctionProjKernel XY_eck6(final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                //Warm-started solver of theta, the previous point is the initial solution
+                final ThetaSolver solver = new ThetaSolver(Projections::FTheta_eck6, Projections::FThetaDer_eck6, Projections::FThetaDer2_eck6, MAX_NR_ITERATIONS, MAX_NR_ERROR);
+
+                return (lat, lon, X, Y) ->
+                {
+                        final double lonr = CartTransformation.redLon0(lon, lon0);
+                        final double theta = solver.findRoot(lat, lat);
+
+                        X[0] = R * (1 + cos(theta / RO)) * lonr / RO / sqrt(2.0 + PI) + dx;
+                        Y[0] = 2.0 * R * theta / sqrt(2.0 + PI) / RO + dy;
+
+                        //Throw exception
+                        if (abs(X[0]) > MAX_FLOAT || abs(Y[0]) > MAX_FLOAT)
+                        {
+                                X[0] = Projections.F_eck6(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                                Y[0] = Projections.G_eck6(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                };
+        }
+
+
+        public static ICoordFunctionProjKernel XY_hataea(final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                final double c1 = 0.85;
+
+                //Warm-started solver of theta, the previous point is the initial solution
+                final ThetaSolver solver = new ThetaSolver(Projections::FTheta_hataea, Projections::FThetaDer_hataea, Projections::FThetaDer2_hataea, MAX_NR_ITERATIONS, MAX_NR_ERROR);
+
+                return (lat, lon, X, Y) ->
+                {
+                        final double lonr = CartTransformation.redLon0(lon, lon0);
+                        final double theta = solver.findRoot(lat, 0.5 * lat);
+                        final double cy = (lat < 0 ? 1.93052 : 1.56548);
+
+                        X[0] = c1 * R * lonr / RO * cos(theta / RO) + dx;
+                        Y[0] = cy *  R * sin(theta / RO) + dy;
+
+                        //Throw exception
+                        if (abs(X[0]) > MAX_FLOAT || abs(Y[0]) > MAX_FLOAT)
+                        {
+                                X[0] = Projections.F_hataea(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                                Y[0] = Projections.G_hataea(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                };
+        }
+
+
+        public static ICoordFunctionProjKernel XY_moll(final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                final double c1 = 2.0 * sqrt(2.0) / PI;
+                final double c2 = sqrt(2.0);
+
+                //Warm-started solver of theta, the previous point is the initial solution
+                final ThetaSolver solver = new ThetaSolver(Projections::FTheta_moll, Projections::FThetaDer_moll, Projections::FThetaDer2_moll, MAX_NR_ITERATIONS, MAX_NR_ERROR);
+
+                return (lat, lon, X, Y) ->
+                {
+                        final double lonr = CartTransformation.redLon0(lon, lon0);
+                        final double theta = solver.findRoot(lat, lat);
+
+                        X[0] = c1 * R * lonr / RO * cos(theta / RO) + dx;
+                        Y[0] = c2 * R * sin(theta / RO) + dy;
+
+                        //Throw exception
+                        if (abs(X[0]) > MAX_FLOAT || abs(Y[0]) > MAX_FLOAT)
+                        {
+                                X[0] = Projections.F_moll(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                                Y[0] = Projections.G_moll(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                };
+        }
+
+
+        public static ICoordFunctionProjKernel XY_nell(final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                //Warm-started solver of theta, the previous point is the initial solution
+                final ThetaSolver solver = new ThetaSolver(Projections::FTheta_nell, Projections::FThetaDer_nell, Projections::FThetaDer2_nell, MAX_NR_ITERATIONS, MAX_NR_ERROR);
+
+                return (lat, lon, X, Y) ->
+                {
+                        final double lonr = CartTransformation.redLon0(lon, lon0);
+                        final double theta = solver.findRoot(lat, lat);
+
+                        X[0] = R * 0.5 * lonr / RO * (1 + cos(theta / RO)) + dx;
+                        Y[0] = R * theta / RO + dy;
+
+                        //Throw exception
+                        if (abs(X[0]) > MAX_FLOAT || abs(Y[0]) > MAX_FLOAT)
+                        {
+                                X[0] = Projections.F_nell(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                                Y[0] = Projections.G_nell(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                };
+        }
+
+
+        public static ICoordFunctionProjKernel XY_putp2(final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                final double c1 = 1.89490;
+                final double c2 = 1.71848;
+
+                //Warm-started solver of theta, the previous point is the initial solution
+                final ThetaSolver solver = new ThetaSolver(Projections::FTheta_putp2, Projections::FThetaDer_putp2, Projections::FThetaDer2_putp2, MAX_NR_ITERATIONS, MAX_NR_ERROR);
+
+                return (lat, lon, X, Y) ->
+                {
+                        final double lonr = CartTransformation.redLon0(lon, lon0);
+                        final double latr = lat / RO;
+                        final double theta = solver.findRoot(lat, (0.615709 * latr + 0.00909953 * latr * latr * latr + 0.0046292 * latr * latr * latr * latr * latr) * RO);
+
+                        X[0] = c1 * R * lonr / RO * (cos(theta / RO) - 0.5) + dx;
+                        Y[0] = c2 * R * sin(theta / RO) + dy;
+
+                        //Throw exception
+                        if (abs(X[0]) > MAX_FLOAT || abs(Y[0]) > MAX_FLOAT)
+                        {
+                                X[0] = Projections.F_putp2(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                                Y[0] = Projections.G_putp2(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                };
+        }
+
+
+        public static ICoordFunctionProjKernel XY_wag4(final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c)
+        {
+                final double r = sqrt(2.0 * PI * sin(PI / 3.0) / (2.0 * PI / 3.0 + sin(2.0 * PI / 3.0)));
+                final double c1 = 2.0 * r / PI;
+                final double c2 = 2.0 * r / sqrt(3.0);
+
+                //Warm-started solver of theta, the previous point is the initial solution
+                final ThetaSolver solver = new ThetaSolver(Projections::FTheta_wag4, Projections::FThetaDer_wag4, Projections::FThetaDer2_wag4, MAX_NR_ITERATIONS, MAX_NR_ERROR);
+
+                return (lat, lon, X, Y) ->
+                {
+                        final double lonr = CartTransformation.redLon0(lon, lon0);
+                        final double theta = solver.findRoot(lat, 0.5 * lat);
+
+                        X[0] = c1 * R * lonr / RO * cos(theta / RO) + dx;
+                        Y[0] = c2 * R * sin(theta / RO) + dy;
+
+                        //Throw exception
+                        if (abs(X[0]) > MAX_FLOAT || abs(Y[0]) > MAX_FLOAT)
+                        {
+                                X[0] = Projections.F_wag4(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                                Y[0] = Projections.G_wag4(lat, lon, R, lat1, lat2, lon0, dx, dy, c);
+                        }
+                };
+        }
+}
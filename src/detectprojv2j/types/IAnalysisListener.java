@@ -0,0 +1,28 @@
+// Description: Listener of the cartometric analysis, receives result of each projection immediately after its fit
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.types;
+
+//Called from the analyzing thread (possibly from several threads concurrently)
+//res = projection with the determined parameters, map scale, rotation and iterations; cost = value of the objective function
+public interface IAnalysisListener
+{
+        public void onResult(final TResult res, final double cost);
+}
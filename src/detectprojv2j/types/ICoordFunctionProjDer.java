@@ -0,0 +1,29 @@
+// Description: Interface to the partial derivatives of the coordinate function of the projection
+// der = [dF/dlat, dF/dlon, dF/dR, dF/dlat1, dF/dlat2, dF/dc], angular variables in degrees
+// Replacement of the function pointer in C++
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.types;
+
+@FunctionalInterface
+public interface ICoordFunctionProjDer {
+
+        void f( final double lat, final double lon, final double R, final double lat1, final double lat2, final double lon0, final double dx, final double dy, final double c, double [] der);
+}
@@ -0,0 +1,31 @@
+// Description: Interface to the coordinate function of the projection evaluated in dual numbers (value + gradient)
+// Used for the forward-mode automatic differentiation of the Jacobian matrix
+// Replacement of the function pointer in C++
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.types;
+
+import detectprojv2j.structures.dual.Dual;
+
+@FunctionalInterface
+public interface ICoordFunctionProjDual {
+
+        Dual f( final Dual lat, final Dual lon, final Dual R, final Dual lat1, final Dual lat2, final Dual lon0, final double dx, final double dy, final Dual c);
+}
@@ -24,5 +24,6 @@ package detectprojv2j.types;
 import detectprojv2j.structures.matrix.Matrix;
 
 public interface IResiduals {
+        //W = diagonal weight matrix stored as a vector (rows(V), 1)
         void f( Matrix X, Matrix Y, Matrix V, Matrix W);
 }
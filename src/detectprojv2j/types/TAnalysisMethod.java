@@ -30,4 +30,10 @@ public enum TAnalysisMethod
 	NLSM8,					//Non linear least squares method involving map rotation (local optmization), scaled
 	NMM8,					//Simplex method involving map rotation (global optmization)
 	DEM8,   				//Differential evolution involving map rotation (global optmization)
+	LMM7,					//Levenberg-Marquardt method without rotation (local optmization)
+	LMM8,					//Levenberg-Marquardt method involving map rotation (local optmization), scaled
+	CMAESM7,				//CMA-ES without rotation (global optmization)
+	CMAESM8,				//CMA-ES involving map rotation (global optmization)
+	HYBM7,					//Differential evolution + non linear least squares, without rotation (global optmization)
+	HYBM8,					//Differential evolution + non linear least squares, involving map rotation (global optmization)
 }
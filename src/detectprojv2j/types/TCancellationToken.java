@@ -0,0 +1,81 @@
+// Description: Cooperative cancellation token with an optional deadline
+// Checked by the optimizers inside their loops, the best solution found so far is returned
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.types;
+
+
+//Token is cancelled explicitly, after its deadline or if its parent is cancelled
+public class TCancellationToken
+{
+        private final TCancellationToken parent;                                //Parent token (analysis), null = root token
+        private final boolean has_deadline;                                     //Is the deadline set?
+        private final long deadline;                                            //Deadline given by System.nanoTime()
+        private volatile boolean cancelled;                                     //Token has been cancelled explicitly
+
+        public TCancellationToken()
+        {
+                //Without deadline
+                this(null, 0);
+        }
+
+
+        public TCancellationToken(final long time_limit_ms)
+        {
+                //Deadline after time_limit_ms milliseconds (0 = without deadline)
+                this(null, time_limit_ms);
+        }
+
+
+        private TCancellationToken(final TCancellationToken parent_, final long time_limit_ms)
+        {
+                parent = parent_;
+                has_deadline = time_limit_ms > 0;
+                deadline = System.nanoTime() + (has_deadline ? time_limit_ms * 1000000L : 0);
+                cancelled = false;
+        }
+
+
+        public TCancellationToken createChild(final long time_limit_ms)
+        {
+                //Create token cancelled together with this token or after its own deadline (0 = without deadline)
+                return new TCancellationToken(this, time_limit_ms);
+        }
+
+
+        public void cancel()
+        {
+                cancelled = true;
+        }
+
+
+        public boolean isCancelled()
+        {
+                //Cancelled explicitly, deadline expired or parent cancelled
+                return cancelled || (has_deadline && System.nanoTime() - deadline > 0) || (parent != null && parent.isCancelled());
+        }
+
+
+        public static boolean isCancelled(final TCancellationToken token)
+        {
+                //Test optional token, null = never cancelled
+                return token != null && token.isCancelled();
+        }
+}
@@ -0,0 +1,28 @@
+// Description: Interpolation method used for the resampling of the warped raster
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.types;
+
+public enum TInterpolationMethod
+{
+        NearestNeighbour,               //Color of the nearest source pixel
+        Bilinear,                       //Bilinear interpolation from 2 x 2 source pixels
+        Bicubic                         //Bicubic (Catmull-Rom) interpolation from 4 x 4 source pixels
+}
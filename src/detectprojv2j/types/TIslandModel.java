@@ -0,0 +1,67 @@
+// Description: Settings of the island model differential evolution
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.types;
+
+
+//Several independent populations (islands) with different mutation strategies and adaptive controls
+//Elite individuals migrate between islands after each migration interval
+public class TIslandModel
+{
+        public final int n_islands;                                             //Amount of islands (>= 1)
+        public final int migration_interval;                                    //Amount of generations between two migrations
+        public final int n_migrants;                                            //Amount of elite individuals sent by each island
+        public final TMigrationTopology topology;                               //Migration topology
+        public final TMutationStrategy [] strategies;                           //Mutation strategies of the islands, assigned cyclically
+        public final TAdaptiveControl [] controls;                              //Adaptive controls of the islands, assigned cyclically
+
+        public TIslandModel(final int n_islands_, final int migration_interval_, final int n_migrants_, final TMigrationTopology topology_, final TMutationStrategy [] strategies_, final TAdaptiveControl [] controls_)
+        {
+                n_islands = Math.max(n_islands_, 1);
+                migration_interval = Math.max(migration_interval_, 1);
+                n_migrants = Math.max(n_migrants_, 0);
+                topology = topology_;
+                strategies = strategies_.clone();
+                controls = controls_.clone();
+        }
+
+
+        public TIslandModel()
+        {
+                //Default settings: 4 islands, migration of 2 individuals after 10 generations, ring topology
+                this(4, 10, 2, TMigrationTopology.Ring,
+                        new TMutationStrategy [] {TMutationStrategy.DERand1Strategy, TMutationStrategy.DETargetToBest1Strategy, TMutationStrategy.SACPStrategy, TMutationStrategy.DERandBest1Strategy},
+                        new TAdaptiveControl [] {TAdaptiveControl.MFDE, TAdaptiveControl.AdaptiveRandom, TAdaptiveControl.SACP, TAdaptiveControl.SAM});
+        }
+
+
+        public TMutationStrategy getStrategy(final int island)
+        {
+                //Mutation strategy of the island
+                return strategies[island % strategies.length];
+        }
+
+
+        public TAdaptiveControl getControl(final int island)
+        {
+                //Adaptive control of the island
+                return controls[island % controls.length];
+        }
+}
@@ -0,0 +1,49 @@
+// Description: Settings of the successive halving screening of the analyzed projections
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.types;
+
+
+//Successive halving: all projections are fitted with a small iteration budget,
+//only the best fraction is kept for the next round with a larger budget, survivors of the last round get the full budget
+public class TScreening
+{
+        public final int rounds;                                                //Amount of rounds including the final one (>= 2)
+        public final double keep_ratio;                                         //Fraction of projections kept after each round (0, 1)
+        public final int min_keep;                                              //Minimum amount of kept projections (top-N)
+        public final double budget_ratio;                                       //Fraction of the full iteration budget in the first round, multiplied by 1 / keep_ratio in each round
+        public final int n_points;                                              //Amount of control points used in the first round (0 = all points)
+
+        public TScreening(final int rounds_, final double keep_ratio_, final int min_keep_, final double budget_ratio_, final int n_points_)
+        {
+                rounds = Math.max(rounds_, 2);
+                keep_ratio = keep_ratio_;
+                min_keep = Math.max(min_keep_, 1);
+                budget_ratio = budget_ratio_;
+                n_points = n_points_;
+        }
+
+
+        public TScreening()
+        {
+                //Default settings: 3 rounds, keep 1/4 of projections, at least 10 projections, 10 % of iterations and 20 points in the first round
+                this(3, 0.25, 10, 0.1, 20);
+        }
+}
@@ -0,0 +1,69 @@
+// Description: Warm start of the incremental re-analysis from the previous results
+
+// Copyright (c) 2015 - 2017
+// Tomas Bayer
+// Charles University in Prague, Faculty of Science
+// bayertom@natur.cuni.cz
+
+// This library is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this library. If not, see <http://www.gnu.org/licenses/>.
+
+package detectprojv2j.types;
+
+import java.util.Map;
+import java.util.HashMap;
+
+import detectprojv2j.structures.projection.Projection;
+
+
+//Parameters of the projections determined by the previous analysis: initial solution of the next analysis
+//Only n_refit best projections are optimized, the remaining ones are evaluated at the previous parameters (lazy refit)
+public class TWarmStart
+{
+        private final Map <String, double []> parameters;                       //Previous parameters of projections [latp, lonp, lat1, lat2, lon0, c, R], key = projection id
+        private final Map <String, Integer> ranks;                              //Previous rank of projections, key = projection id
+        private final int n_refit;                                              //Amount of the best projections refitted (0 = all projections)
+
+        public TWarmStart(final Map <Double, TResult> results, final int n_refit_)
+        {
+                //Store copies of the parameters: projections may be modified by the next analysis
+                parameters = new HashMap<>();
+                ranks = new HashMap<>();
+                n_refit = n_refit_;
+
+                //Results are sorted according to the residuals
+                int rank = 0;
+                for (final TResult res : results.values())
+                {
+                        final Projection proj = res.proj;
+                        parameters.put(proj.getID(), new double [] {proj.getCartPole().getLat(), proj.getCartPole().getLon(), proj.getLat1(), proj.getLat2(), proj.getLon0(), proj.getC(), proj.getR()});
+                        ranks.put(proj.getID(), rank++);
+                }
+        }
+
+
+        public double [] getParameters(final String id)
+        {
+                //Get previous parameters of the projection, null if not analyzed
+                return parameters.get(id);
+        }
+
+
+        public boolean isRefit(final String id)
+        {
+                //Is the projection optimized or only evaluated at the previous parameters?
+                final Integer rank = ranks.get(id);
+
+                return n_refit <= 0 || rank == null || rank < n_refit;
+        }
+}